@@ -0,0 +1,157 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pandemic.model.BoardZone;
+import pandemic.model.ComponentsFactory;
+import pandemic.model.CubeReserve;
+import pandemic.model.DifficultyLevel;
+import pandemic.model.Disease;
+import pandemic.model.SetupRules;
+import pandemic.model.Variant;
+import pandemic.model.objects.Card;
+import pandemic.model.objects.City;
+import pandemic.model.objects.Cube;
+import pandemic.model.objects.PandemicObject;
+import pandemic.util.GameConfig;
+import pandemic.util.RandomUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The steps of the set up performed by the ComponentsFactory : building the player deck and placing the cubes.
+ *
+ * @author manur
+ * @since v2.9
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ComponentsFactoryBenchmark {
+
+    private static final int NB_OF_INITIAL_INFECTIONS = 9;
+
+    /** Worldwide Panic adds the purple cubes : 120 cubes in the library */
+    @Param({"NONE", "WORLDWIDE_PANIC"})
+    public String variant;
+
+    private GameConfig config;
+    private ComponentsFactory factory;
+
+    private List<Card> playerCards;
+    private List<Card> epidemics;
+    private final List<Card> noEmergencyEvents = Collections.emptyList();
+
+    private List<PandemicObject> cubes;
+    private List<City> infectedCities;
+    private List<List<Disease>> infectionCubes;
+
+    @Setup
+    public void setUp() {
+        config = new GameConfig();
+        config.setDifficultyLevel(DifficultyLevel.LEGENDARY);
+        config.setNbOfRoles(4);
+        if (!"NONE".equals(variant)) {
+            config.getVariants().add(Variant.valueOf(variant));
+        }
+
+        RandomUtil randomizer = new RandomUtil(42L);
+        factory = new ComponentsFactory();
+        factory.setResourceProvider(new StubResourceProvider());
+        factory.setRandomizer(randomizer);
+
+        List<City> cities = factory.createCities();
+        playerCards = factory.createPlayerCards(cities);
+        epidemics = factory.createEpidemicCards(SetupRules.drawEpidemics(config, randomizer));
+
+        cubes = new ArrayList<PandemicObject>(factory.createCubes(config));
+
+        // Nine cities, with the cubes of the initial infections (3 x 3 cubes, 3 x 2 cubes, 3 x 1 cube)
+        infectedCities = new ArrayList<City>();
+        infectionCubes = new ArrayList<List<Disease>>();
+        for (int infection = 0; infection < NB_OF_INITIAL_INFECTIONS; infection++) {
+            City city = cities.get(1 + infection * 5);
+            infectedCities.add(city);
+            infectionCubes.add(SetupRules.initialInfectionCubes(config, city.getColor(), infection));
+        }
+    }
+
+    @Benchmark
+    public List<Card> addCardsEvenly() {
+        return factory.addCardsEvenly(playerCards, epidemics, noEmergencyEvents);
+    }
+
+    @Benchmark
+    public int[] determinePileSizes() {
+        return factory.determinePileSizes(playerCards.size(), epidemics.size());
+    }
+
+    @Benchmark
+    public List<Cube> createCubes() {
+        return factory.createCubes(config);
+    }
+
+    /**
+     * The initial infections, as done by PandemicModel : the reserve is indexed once, then the cubes are taken from it
+     */
+    @Benchmark
+    public CubeReserve moveCubesToCity() {
+        putAllCubesInTheReserve();
+        CubeReserve reserve = new CubeReserve(cubes);
+        for (int infection = 0; infection < NB_OF_INITIAL_INFECTIONS; infection++) {
+            factory.moveCubesToCity(reserve, infectionCubes.get(infection), infectedCities.get(infection));
+        }
+        return reserve;
+    }
+
+    /**
+     * The initial infections through the List-based method, which indexes the whole library at each call
+     */
+    @Benchmark
+    public List<PandemicObject> moveCubesToCityFromTheLibrary() {
+        putAllCubesInTheReserve();
+        for (int infection = 0; infection < NB_OF_INITIAL_INFECTIONS; infection++) {
+            factory.moveCubesToCity(cubes, infectionCubes.get(infection), infectedCities.get(infection));
+        }
+        return cubes;
+    }
+
+    private void putAllCubesInTheReserve() {
+        for (PandemicObject cube : cubes) {
+            cube.setBoardZone(BoardZone.RESERVE);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pandemic.model.DifficultyLevel;
+import pandemic.model.Expansion;
+import pandemic.model.GameEngine;
+import pandemic.simulation.HeadlessSimulation;
+import pandemic.util.GameConfig;
+import pandemic.util.RandomUtil;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The operations on the infection deck, with the discard pile of a late game.
+ *
+ * @author manur
+ * @since v2.9
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DecksBenchmark {
+
+    /** Number of cards in the discard pile when the epidemic occurs */
+    @Param({"10", "25", "40"})
+    public int nbOfDiscardedCards;
+
+    private static final int[] FORECAST_ORDER = {5, 4, 3, 2, 1, 0};
+
+    private GameEngine engine;
+
+    @Setup
+    public void setUp() {
+        GameConfig config = new GameConfig();
+        config.setDifficultyLevel(DifficultyLevel.NORMAL);
+        config.setNbOfRoles(4);
+        config.getRolesExpansions().add(Expansion.CORE);
+
+        engine = new GameEngine(config, HeadlessSimulation.createCatalog(), new RandomUtil(42L));
+        engine.setUp();
+        while (engine.getDiscardPile().size() < nbOfDiscardedCards) {
+            engine.drawInfectionCard();
+        }
+    }
+
+    /**
+     * An epidemic : the discard pile is shuffled back on top of the deck.
+     * The same number of cards is then drawn again, to be back to the same state for the next invocation.
+     */
+    @Benchmark
+    public GameEngine reshuffleInfectionCards() {
+        engine.reshuffleInfectionCards();
+        for (int i = 0; i < nbOfDiscardedCards; i++) {
+            engine.drawInfectionCard();
+        }
+        return engine;
+    }
+
+    /**
+     * The Forecast event
+     */
+    @Benchmark
+    public GameEngine rearrangeInfectionDeck() {
+        engine.rearrangeInfectionDeck(FORECAST_ORDER);
+        return engine;
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pandemic.util.GenericResourceProvider;
+
+import javax.swing.ImageIcon;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The decoding of the images by the GenericResourceProvider, measured apart from the model benchmarks
+ *  which use the StubResourceProvider.
+ *
+ * @author manur
+ * @since v2.9
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class ImageDecodingBenchmark {
+
+    /** A player card, a cube, and the board */
+    @Param({"card1.jpg", "cube_red.jpg", "board2.jpg"})
+    public String imageName;
+
+    private final GenericResourceProvider resourceProvider = new GenericResourceProvider();
+
+    @Benchmark
+    public ImageIcon decode() {
+        GenericResourceProvider.getImageCache().clear();
+        return resourceProvider.getIcon(imageName);
+    }
+
+    @Benchmark
+    public ImageIcon fromCache() {
+        return resourceProvider.getIcon(imageName);
+    }
+}
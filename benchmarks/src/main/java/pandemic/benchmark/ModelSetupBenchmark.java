@@ -0,0 +1,88 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pandemic.model.DifficultyLevel;
+import pandemic.model.Expansion;
+import pandemic.model.PandemicModel;
+import pandemic.model.Variant;
+import pandemic.util.GameConfig;
+import pandemic.util.ResourceProvider;
+
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Set up of a whole game by PandemicModel.initialize(), for each difficulty level and each variant,
+ *  without decoding any image.
+ *
+ * @author manur
+ * @since v2.9
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ModelSetupBenchmark {
+
+    private static final long SEED = 42L;
+
+    @Param({"INTRODUCTORY", "NORMAL", "HEROIC", "LEGENDARY"})
+    public DifficultyLevel difficultyLevel;
+
+    @Param({"NONE", "VIRULENT_STRAIN", "MUTATION", "WORLDWIDE_PANIC", "EMERGENCY_EVENTS", "QUARANTINES"})
+    public String variant;
+
+    private final ResourceProvider resourceProvider = new StubResourceProvider();
+
+    private GameConfig config;
+
+    @Setup
+    public void setUp() {
+        config = new GameConfig();
+        config.setDifficultyLevel(difficultyLevel);
+        config.setNbOfRoles(4);
+        config.setRolesExpansions(EnumSet.allOf(Expansion.class));
+        config.setEventCardsExpansions(EnumSet.allOf(Expansion.class));
+        if (!"NONE".equals(variant)) {
+            config.getVariants().add(Variant.valueOf(variant));
+        }
+        config.setSeed(SEED); // the same game at each invocation
+    }
+
+    @Benchmark
+    public PandemicModel initialize() {
+        PandemicModel model = new PandemicModel(config);
+        model.initialize(resourceProvider);
+        return model;
+    }
+}
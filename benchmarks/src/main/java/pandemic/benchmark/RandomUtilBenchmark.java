@@ -0,0 +1,105 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pandemic.util.JdkRandomSource;
+import pandemic.util.RandomUtil;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shuffles of decks of the sizes met in a game, with the default generator and with java.util.Random.
+ *
+ * @author manur
+ * @since v2.9
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RandomUtilBenchmark {
+
+    private static final long SEED = 42L;
+
+    /** A few piles of the player deck, the infection deck, and the whole player deck with the events */
+    @Param({"10", "48", "59"})
+    public int nbOfCards;
+
+    @Param({"xoshiro", "jdk"})
+    public String generator;
+
+    private RandomUtil randomizer;
+
+    private List<Integer> arrayList;
+    private List<Integer> linkedList;
+    private int[] array;
+
+    @Setup
+    public void setUp() {
+        if ("jdk".equals(generator)) {
+            randomizer = new RandomUtil(new JdkRandomSource(new Random(SEED)), SEED);
+        } else {
+            randomizer = new RandomUtil(SEED);
+        }
+
+        arrayList = new ArrayList<Integer>();
+        linkedList = new LinkedList<Integer>();
+        array = new int[nbOfCards];
+        for (int card = 0; card < nbOfCards; card++) {
+            arrayList.add(card);
+            linkedList.add(card);
+            array[card] = card;
+        }
+    }
+
+    @Benchmark
+    public List<Integer> shuffleArrayList() {
+        randomizer.shuffleInPlace(arrayList);
+        return arrayList;
+    }
+
+    @Benchmark
+    public List<Integer> shuffleLinkedList() {
+        randomizer.shuffleInPlace(linkedList);
+        return linkedList;
+    }
+
+    @Benchmark
+    public int[] shuffleIntArray() {
+        randomizer.shuffleInPlace(array, 0, array.length);
+        return array;
+    }
+}
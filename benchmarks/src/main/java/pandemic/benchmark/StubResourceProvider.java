@@ -0,0 +1,54 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.benchmark;
+
+import pandemic.util.ResourceProvider;
+
+import javax.swing.ImageIcon;
+import java.awt.image.BufferedImage;
+import java.io.InputStream;
+import java.util.ResourceBundle;
+
+/**
+ * ResourceProvider returning the same blank image for every image name and no sound,
+ *  so that the benchmarks of the model don't measure the decoding of the images (see ImageDecodingBenchmark for that).
+ * The bundles are the real ones.
+ *
+ * @author manur
+ * @since v2.9
+ */
+public class StubResourceProvider implements ResourceProvider {
+
+    private static final ImageIcon BLANK_ICON = new ImageIcon(new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB));
+
+    @Override
+    public ImageIcon getIcon(String imageName) {
+        return BLANK_ICON;
+    }
+
+    @Override
+    public InputStream getAudioStream(String fileName) {
+        return null;
+    }
+
+    @Override
+    public ResourceBundle getBundle(String fileName) {
+        return ResourceBundle.getBundle(fileName);
+    }
+}
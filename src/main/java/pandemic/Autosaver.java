@@ -0,0 +1,234 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.swing.Timer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import pandemic.model.PandemicModel;
+import pandemic.model.SavedGameFormat;
+import pandemic.model.objects.Card;
+import pandemic.util.DecksObserver;
+import pandemic.util.GameThread;
+import pandemic.util.RolesObserver;
+
+/**
+ * Saves the current game to a file after each operation on the decks or the roles, and periodically
+ *  (for the components moved on the board).
+ * The game is encoded on the thread of the model, which is cheap (a couple of KB) and gives a consistent snapshot ;
+ *  the file is written on a background thread, to a temporary file that is synced then renamed over
+ *  the autosave file, so that a crash never leaves a half-written autosave.
+ * The snapshots requested while a write is pending are coalesced : only the latest one is written.
+ *
+ * @author manur
+ * @since v2.9
+ */
+public class Autosaver implements DecksObserver, RolesObserver {
+
+    private static final Logger logger = LoggerFactory.getLogger(Autosaver.class);
+
+    public static final int DEFAULT_PERIOD_MS = 30000;
+
+    private final File file;
+    private final ExecutorService writer;
+    private final Timer timer;
+
+    private volatile PandemicModel model;
+    private volatile Executor gameThread = GameThread.CALLING_THREAD; // where the periodic saves are encoded
+
+    private final AtomicReference<ByteBuffer> pendingSnapshot = new AtomicReference<ByteBuffer>();
+    private ByteBuffer lastWrittenSnapshot; // only accessed by the writer thread
+
+    private final AtomicInteger nbOfSnapshots = new AtomicInteger();
+    private final AtomicInteger nbOfWrites = new AtomicInteger();
+
+    /**
+     * @param file The autosave file
+     * @param periodMs The period of the autosave when no operation happens
+     */
+    public Autosaver(File file, int periodMs) {
+        this.file = file;
+        this.writer = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "autosave");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.timer = new Timer(periodMs, new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                gameThread.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        save();
+                    }
+                });
+            }
+        });
+        timer.setRepeats(true);
+    }
+
+    /**
+     * Follow a new game : it is saved right away, and then after each operation.
+     * To be called once the game is set up, before its first operation.
+     */
+    public void startGame(PandemicModel model) {
+        this.model = model;
+        model.registerDecksObserver(this);
+        model.registerRolesObserver(this);
+        save();
+        timer.restart();
+    }
+
+    /**
+     * Take a snapshot of the current game, and have it written in the background.
+     * To be called on the thread of the model.
+     */
+    public void save() {
+        PandemicModel currentModel = model;
+        if (currentModel == null) {
+            return;
+        }
+
+        ByteBuffer snapshot = SavedGameFormat.encode(currentModel);
+        nbOfSnapshots.incrementAndGet();
+
+        // If a snapshot is already waiting, it's replaced and its write task will take this one
+        if (pendingSnapshot.getAndSet(snapshot) == null) {
+            writer.execute(new Runnable() {
+                @Override
+                public void run() {
+                    write(pendingSnapshot.getAndSet(null));
+                }
+            });
+        }
+    }
+
+    private void write(ByteBuffer snapshot) {
+        if (snapshot == null || snapshot.equals(lastWrittenSnapshot)) {
+            return; // nothing changed since the last write
+        }
+        try {
+            SavedGameFormat.writeAtomically(snapshot.duplicate(), file);
+            lastWrittenSnapshot = snapshot;
+            nbOfWrites.incrementAndGet();
+            logger.debug("Game autosaved to {} ({} bytes)", file, snapshot.remaining());
+        } catch (IOException e) {
+            logger.warn("Failed to autosave the game to {}", file, e);
+        }
+    }
+
+    /**
+     * Stop the periodic saves, and wait for the pending write
+     * @return true if the pending write is done
+     */
+    public boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        timer.stop();
+        writer.shutdown();
+        return writer.awaitTermination(timeout, unit);
+    }
+
+    /**
+     * @param gameThread The thread of the model, where the periodic saves are to be encoded
+     */
+    public void setGameThread(Executor gameThread) {
+        this.gameThread = gameThread;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public int getNbOfSnapshots() {
+        return nbOfSnapshots.get();
+    }
+
+    public int getNbOfWrites() {
+        return nbOfWrites.get();
+    }
+
+    /* **** DecksObserver and RolesObserver : save after each operation **** */
+
+    @Override
+    public void playerCardDrawn(Card newCard) {
+        save();
+    }
+
+    @Override
+    public void playerCardReturned(Card card) {
+        save();
+    }
+
+    @Override
+    public void infectionCardDrawn(boolean isDrawnFromTop) {
+        save();
+    }
+
+    @Override
+    public void infectionDeckShuffled() {
+        // The deck is cleared right after : saved then
+    }
+
+    @Override
+    public void infectionDeckCleared() {
+        save();
+    }
+
+    @Override
+    public void infectionDeckCardRemoved() {
+        save();
+    }
+
+    @Override
+    public void infectionDeckRearranged() {
+        save();
+    }
+
+    @Override
+    public void decksRestored() {
+        save();
+    }
+
+    @Override
+    public void roleWillChange(int roleIndex) {
+        // Saved when the change is done
+    }
+
+    @Override
+    public void roleHasChanged(int roleIndex) {
+        save();
+    }
+}
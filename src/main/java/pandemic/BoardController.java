@@ -19,7 +19,9 @@
 package pandemic;
 
 import java.util.List;
+import java.util.concurrent.Executor;
 
+import pandemic.model.objects.PandemicObject;
 import pandemic.model.objects.Role;
 import pandemic.util.ResourceProvider;
 import pandemic.util.sounds.SoundsManager;
@@ -34,6 +36,7 @@ import pandemic.view.ViewFactory;
 public interface BoardController {
 	public void setUpModel();
 	public void setUpView();
+	public void tearDownView();
 	
 	public void drawPlayerCard();
 	public void drawInfectionCard();
@@ -45,7 +48,12 @@ public interface BoardController {
 	public void rearrangeInfectionDeck(List<Integer> newCardOrder);
 	public void showTroubleshooterCards();
 	public void flipNextCard();
+	public void showInfectionRisk();
 	public void changeRole(int roleIndex, Role newRole);
+	public void componentMoved(PandemicObject object, int fromX, int fromY, int toX, int toY);
+	
+	public void undo();
+	public void redo();
 	
 	public void switchMute();
 	public boolean isSoundOn();
@@ -53,4 +61,5 @@ public interface BoardController {
 	public void setViewFactory(ViewFactory viewFactory);
 	public void setResourceProvider(ResourceProvider resourceProvider);
 	public void setSoundsManager(SoundsManager soundsManager);
+	public void setThreads(Executor gameThread, Executor viewThread);
 }
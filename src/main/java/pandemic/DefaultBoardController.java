@@ -19,19 +19,28 @@
 package pandemic;
 
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import pandemic.model.PandemicModel;
+import pandemic.model.objects.PandemicObject;
 import pandemic.model.objects.Role;
+import pandemic.util.GameThread;
+import pandemic.util.ObserverBus;
 import pandemic.util.ResourceProvider;
 import pandemic.util.sounds.SoundsManager;
 import pandemic.view.BoardView;
 import pandemic.view.DiscardPileView;
 import pandemic.view.ForecastView;
+import pandemic.view.InfectionRiskView;
 import pandemic.view.TroubleshooterView;
 import pandemic.view.ViewFactory;
 
 /**
  * Actual controller
+ * The operations change the model on the game thread, one after the other : the pop-ups are shown
+ *  on the thread of the views once the operations asked for before are done, and read the snapshot
+ *  of the decks published by the model.
+ * Both threads are the calling thread until setThreads() is called.
  * 
  * @author manur
  * @since v2.6
@@ -42,9 +51,14 @@ public class DefaultBoardController implements BoardController {
 	private DiscardPileView discardView;
 	private ForecastView swingForecastView;
 	private TroubleshooterView swingTroubleshooterView;
+	private InfectionRiskView infectionRiskView;
+	private volatile int nbOfTearDowns; // the pop-ups asked for before a tear down are not shown
 	
 	private PandemicModel model;
 	
+	private Executor gameThread = GameThread.CALLING_THREAD;
+	private Executor viewThread = GameThread.CALLING_THREAD;
+	
 	private ViewFactory viewFactory;
     private ResourceProvider resourceProvider;
     private SoundsManager soundsManager;
@@ -67,12 +81,35 @@ public class DefaultBoardController implements BoardController {
 	@Override
 	public void setUpView() {
 		view = viewFactory.createBoardView(this, model);
-		model.registerDecksObserver(view);
-		model.registerRolesObserver(view);
+		// The view is notified on the EDT, after the operation
+		model.registerDecksObserver(view, ObserverBus.Delivery.EDT);
+		model.registerRolesObserver(view, ObserverBus.Delivery.EDT);
 		view.createBoard();
 		view.setTopDiscardCard();
 	}
 	
+	@Override
+	public void tearDownView() {
+		// The pop-ups are kept hidden between two uses during the game
+		nbOfTearDowns++;
+		if (discardView != null) {
+			discardView.disposeView();
+			discardView = null;
+		}
+		if (swingForecastView != null) {
+			swingForecastView.disposeView();
+			swingForecastView = null;
+		}
+		if (swingTroubleshooterView != null) {
+			swingTroubleshooterView.disposeView();
+			swingTroubleshooterView = null;
+		}
+		if (infectionRiskView != null) {
+			infectionRiskView.disposeView();
+			infectionRiskView = null;
+		}
+	}
+	
 	// ** Sound management **
 	
     @Override
@@ -89,66 +126,123 @@ public class DefaultBoardController implements BoardController {
 
 	@Override
 	public void drawPlayerCard() {
-		if (model.getNbOfPlayerCards() == 0) {
-			return;
-		}
-		model.drawPlayerCard();
+		gameThread.execute(new Runnable() {
+			@Override
+			public void run() {
+				if (model.getNbOfPlayerCards() == 0) {
+					return;
+				}
+				model.drawPlayerCard();
+			}
+		});
 	}
 
 	@Override
 	public void drawInfectionCard() {
-		model.drawInfectionCard(); // and let the cough sound be heard
+		gameThread.execute(new Runnable() {
+			@Override
+			public void run() {
+				model.drawInfectionCard(); // and let the cough sound be heard
+			}
+		});
 	}
 
 	@Override
 	public void drawBottomInfectionCard() {
-		model.drawBottomInfectionCard();
+		gameThread.execute(new Runnable() {
+			@Override
+			public void run() {
+				model.drawBottomInfectionCard();
+			}
+		});
 	}
 
 	@Override
 	public void reshuffleInfectionCards() {
-		model.reshuffleInfectionCards();
-
+		gameThread.execute(new Runnable() {
+			@Override
+			public void run() {
+				model.reshuffleInfectionCards();
+			}
+		});
 	}
 
 	@Override
 	public void showDiscardPile() {
-		discardView = viewFactory.createDiscardPileView(this, model);
-		discardView.createBoard();
+		showWhenDone(new Runnable() {
+			@Override
+			public void run() {
+				if (discardView == null) {
+					discardView = viewFactory.createDiscardPileView(DefaultBoardController.this, model);
+					discardView.createBoard();
+				}
+				discardView.showView();
+			}
+		});
 	}
 
 	@Override
-	public void removeDiscardedCard(int discardedCardIndex) {
-		if (discardedCardIndex < 0 || discardedCardIndex >= model.getDiscardPile().size()) {
-			return;
-		}
-		
-		boolean removalDone = model.removeDiscardedCard(discardedCardIndex);
-		if (removalDone) {
-			discardView.closeView();
-			discardView = null;
-		}
+	public void removeDiscardedCard(final int discardedCardIndex) {
+		final DiscardPileView shownDiscardView = discardView; // tearDownView() may clear the field meanwhile
+		gameThread.execute(new Runnable() {
+			@Override
+			public void run() {
+				if (discardedCardIndex < 0 || discardedCardIndex >= model.getDiscardPile().size()) {
+					return;
+				}
+				
+				boolean removalDone = model.removeDiscardedCard(discardedCardIndex);
+				if (removalDone && shownDiscardView != null) {
+					viewThread.execute(new Runnable() {
+						@Override
+						public void run() {
+							shownDiscardView.closeView();
+						}
+					});
+				}
+			}
+		});
 	}
 	
 	@Override
 	public void showForecastCards() {
-		swingForecastView = viewFactory.createForecastView(this, model);
-		swingForecastView.createBoard();
+		showWhenDone(new Runnable() {
+			@Override
+			public void run() {
+				if (swingForecastView == null) {
+					swingForecastView = viewFactory.createForecastView(DefaultBoardController.this, model);
+					swingForecastView.createBoard();
+				}
+				swingForecastView.showView();
+			}
+		});
 	}
 	
 	@Override
-	public void rearrangeInfectionDeck(List<Integer> newCardOrder) {
-		model.rearrangeInfectionDeck(newCardOrder);
+	public void rearrangeInfectionDeck(final List<Integer> newCardOrder) {
+		gameThread.execute(new Runnable() {
+			@Override
+			public void run() {
+				model.rearrangeInfectionDeck(newCardOrder);
+			}
+		});
 		swingForecastView.closeView();
-		swingForecastView = null;
 	}
 	
 	@Override
 	public void showTroubleshooterCards() {
 	    soundsManager.infectionDeckRearranged();
 	    
-		swingTroubleshooterView = viewFactory.createTroubleshooterView(this, model);
-		swingTroubleshooterView.createBoard();
+		showWhenDone(new Runnable() {
+			@Override
+			public void run() {
+				if (swingTroubleshooterView == null) {
+					swingTroubleshooterView = viewFactory.createTroubleshooterView(DefaultBoardController.this, model);
+					swingTroubleshooterView.createBoard();
+				}
+				swingTroubleshooterView.showView();
+			}
+		});
 	}
 
 	@Override
@@ -160,8 +254,79 @@ public class DefaultBoardController implements BoardController {
 	}
 
 	@Override
-	public void changeRole(int roleIndex, Role newRole) {
-		model.changeRole(roleIndex, newRole);
+	public void showInfectionRisk() {
+		showWhenDone(new Runnable() {
+			@Override
+			public void run() {
+				if (infectionRiskView == null) {
+					infectionRiskView = viewFactory.createInfectionRiskView(DefaultBoardController.this, model);
+					infectionRiskView.createBoard();
+					model.registerDecksObserver(infectionRiskView, ObserverBus.Delivery.EDT);
+				}
+				infectionRiskView.showView();
+			}
+		});
+	}
+
+	@Override
+	public void changeRole(final int roleIndex, final Role newRole) {
+		gameThread.execute(new Runnable() {
+			@Override
+			public void run() {
+				model.changeRole(roleIndex, newRole);
+			}
+		});
+	}
+
+	@Override
+	public void componentMoved(final PandemicObject object, final int fromX, final int fromY, final int toX, final int toY) {
+		gameThread.execute(new Runnable() {
+			@Override
+			public void run() {
+				model.componentMoved(object, fromX, fromY, toX, toY);
+			}
+		});
+	}
+
+	@Override
+	public void undo() {
+		gameThread.execute(new Runnable() {
+			@Override
+			public void run() {
+				model.undo();
+			}
+		});
+	}
+
+	@Override
+	public void redo() {
+		gameThread.execute(new Runnable() {
+			@Override
+			public void run() {
+				model.redo();
+			}
+		});
+	}
+
+	/**
+	 * Show a pop-up on the thread of the views, once the operations already asked for are done
+	 *  and unless the view of the game is torn down meanwhile
+	 */
+	private void showWhenDone(final Runnable show) {
+		final int tearDownsWhenAsked = nbOfTearDowns;
+		gameThread.execute(new Runnable() {
+			@Override
+			public void run() {
+				viewThread.execute(new Runnable() {
+					@Override
+					public void run() {
+						if (nbOfTearDowns == tearDownsWhenAsked) {
+							show.run();
+						}
+					}
+				});
+			}
+		});
 	}
 
     // ** Accessors **
@@ -180,4 +345,10 @@ public class DefaultBoardController implements BoardController {
         this.viewFactory = viewFactory;        
     }
 
+    @Override
+    public void setThreads(Executor gameThread, Executor viewThread) {
+        this.gameThread = gameThread;
+        this.viewThread = viewThread;
+    }
+
 }
@@ -23,19 +23,28 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import pandemic.configuration.ConfigBuilder;
 import pandemic.dialog.DialogsManager;
+import pandemic.model.GameJournal;
 import pandemic.model.PandemicModel;
+import pandemic.model.SavedGameFormat;
 import pandemic.model.Variant;
+import pandemic.util.AssetsPreloader;
 import pandemic.util.GameConfig;
+import pandemic.util.GameThread;
+import pandemic.util.ObserverBus;
 import pandemic.util.ResourceProvider;
 import pandemic.util.sounds.SoundsManager;
 import pandemic.view.ViewFactory;
@@ -53,7 +62,25 @@ public class GameManager {
 
 	public static final String SAVEFILE_EXTENSION = "sav";
 
+	// Directory of the files written without the user asking for it
+	public static final File APP_DIRECTORY = new File(System.getProperty("user.home"), ".pandemicsolo");
+
+	// The operations of the current game are appended to this file as they are played
+	private static final File JOURNAL_FILE = new File(APP_DIRECTORY, "current.journal");
+
+	// The current game is saved to this file after each operation
+	private static final File AUTOSAVE_FILE = new File(APP_DIRECTORY, "autosave." + SAVEFILE_EXTENSION);
+	private static final long AUTOSAVE_SHUTDOWN_TIMEOUT_MS = 2000;
+
 	private static final Logger logger = LoggerFactory.getLogger(PandemicSolo.class);
+
+	// The views are updated on the EDT
+	private static final Executor EDT = new Executor() {
+		@Override
+		public void execute(Runnable update) {
+			SwingUtilities.invokeLater(update);
+		}
+	};
 	
 	private ConfigBuilder configBuilder;
 	private JFrame mainWindow;
@@ -64,6 +91,12 @@ public class GameManager {
 	private SoundsManager soundsManager;
 	
     private PandemicModel currentModel = null;
+    private BoardController controller = null;
+    private GameJournal attachedJournal = null;
+    private FileOutputStream journalStream = null;
+    private Autosaver autosaver = null;
+    private AssetsPreloader assetsPreloader = null; // until it's done
+    private final GameThread gameThread = new GameThread(); // changes the model of the current game
 		
 	/**
 	 * Launch a new game by querying the user for the configuration 
@@ -103,11 +136,16 @@ public class GameManager {
         mainWindow.setTitle(constructMainTitle(currentModel.getConfig()));
         
         // Set up the controller and its model
-        BoardController controller = new DefaultBoardController(currentModel);
+        if (controller != null) {
+            awaitOperations(); // of the previous game, still writing its journal
+            controller.tearDownView(); // the pop-ups of the previous game
+        }
+        controller = new DefaultBoardController(currentModel);
+        controller.setThreads(gameThread, EDT);
         controller.setViewFactory(viewFactory);
         controller.setSoundsManager(soundsManager);
-        currentModel.registerDecksObserver(soundsManager);
-        currentModel.registerRolesObserver(soundsManager);
+        currentModel.registerDecksObserver(soundsManager, ObserverBus.Delivery.BACKGROUND);
+        currentModel.registerRolesObserver(soundsManager, ObserverBus.Delivery.BACKGROUND);
         controller.setResourceProvider(resourceProvider);
                 
         if (currentModel.getCityList().isEmpty()) {
@@ -115,8 +153,13 @@ public class GameManager {
             controller.setUpModel();
         }
                 
+        startJournal();
+
         // Create the view and place all the components
         controller.setUpView();
+        reportPreloading();
+
+        startAutosave();
         
         mainWindow.pack();
         mainWindow.setSize(MAINWINDOW_WIDTH, MAINWINDOW_HEIGHT + ((PandemicSolo.IS_MACOS) ? 0 : 8));
@@ -124,6 +167,74 @@ public class GameManager {
         logger.debug("----- Game ready to play -----");
 	}
 	
+	/**
+	 * Write the journal of the current game to the journal file, from the set up, and then every new operation.
+	 * The game goes on without its journal file if it can't be written.
+	 */
+	private void startJournal() {
+		closeJournal();
+
+		if (!APP_DIRECTORY.isDirectory() && !APP_DIRECTORY.mkdirs()) {
+			logger.warn("Failed to create the directory {} : the journal of the game won't be written", APP_DIRECTORY);
+			return;
+		}
+
+		try {
+			journalStream = new FileOutputStream(JOURNAL_FILE);
+			attachedJournal = currentModel.getEngine().getJournal();
+			attachedJournal.attach(journalStream.getChannel());
+		} catch (IOException e) {
+			logger.warn("Failed to write the journal file {}", JOURNAL_FILE, e);
+			closeJournal();
+		}
+	}
+
+	/**
+	 * Save the current game in the background after each operation, to the autosave file
+	 */
+	private void startAutosave() {
+		if (!APP_DIRECTORY.isDirectory()) {
+			return; // already reported by startJournal()
+		}
+		if (autosaver == null) {
+			autosaver = new Autosaver(AUTOSAVE_FILE, Autosaver.DEFAULT_PERIOD_MS);
+			autosaver.setGameThread(gameThread);
+		}
+		autosaver.startGame(currentModel);
+	}
+
+	/**
+	 * Tell how far the preloading of the assets went when the board is displayed : the views
+	 *  load themselves the images not preloaded yet
+	 */
+	private void reportPreloading() {
+		if (assetsPreloader == null) {
+			return;
+		}
+		if (assetsPreloader.isReady()) {
+			logger.debug("Board displayed once all the {} assets are preloaded", assetsPreloader.getNbOfAssets());
+			assetsPreloader = null;
+		} else {
+			logger.info("Board displayed while preloading the assets : {} of {} loaded",
+					assetsPreloader.getNbOfLoadedAssets(), assetsPreloader.getNbOfAssets());
+		}
+	}
+
+	private void closeJournal() {
+		if (attachedJournal != null) {
+			attachedJournal.detach();
+			attachedJournal = null;
+		}
+		if (journalStream != null) {
+			try {
+				journalStream.close();
+			} catch (IOException e) {
+				logger.warn("Failed to close the journal file {}", JOURNAL_FILE, e);
+			}
+			journalStream = null;
+		}
+	}
+
 	/**
 	 * Build the String to use as a title to the game window
 	 * @param config Class owning the set up details
@@ -168,25 +279,12 @@ public class GameManager {
 			fileToSave = new File(fileToSave.getAbsolutePath() + "." + SAVEFILE_EXTENSION);
 		}
 		
-		// Open a stream
-		FileOutputStream outputStream = null;
-		try {
-			outputStream = new FileOutputStream(fileToSave);
-		} catch (FileNotFoundException e) {
-		    logger.error("Failed to open output stream to save {}", fileToSave, e);
-		    return;
-		}
-
-		// Serialize and save
+		// Encode, then write to a temporary file renamed to the save file once complete
 		try {
-			ObjectOutputStream objectStream = new ObjectOutputStream(outputStream);
-			
-			objectStream.writeObject(currentModel);
-			objectStream.flush();
-			
-			logger.info("File saved - size: {} Ko", outputStream.getChannel().size()/1000);
-			
-			objectStream.close();
+			ByteBuffer encodedGame = encode(currentModel);
+			int size = encodedGame.remaining();
+			SavedGameFormat.writeAtomically(encodedGame, fileToSave);
+			logger.info("File saved - size: {} bytes", size);
 		} catch (IOException e) {
 			dialogsManager.showAlert("Error. Saving file \"" + fileToSave.getName() + "\" failed.");
 			logger.error("Failed to write save file {}", fileToSave, e);
@@ -194,6 +292,43 @@ public class GameManager {
 		}
 	}
 	
+	/**
+	 * Encode the game on the thread of the model, once the operations already asked for are done
+	 */
+	private ByteBuffer encode(final PandemicModel model) throws IOException {
+		try {
+			return gameThread.submit(new Callable<ByteBuffer>() {
+				@Override
+				public ByteBuffer call() {
+					return SavedGameFormat.encode(model);
+				}
+			}).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while encoding the game");
+		} catch (ExecutionException e) {
+			throw new IOException("Failed to encode the game", e.getCause());
+		}
+	}
+
+	/**
+	 * Wait for the operations already asked for to be done
+	 */
+	private void awaitOperations() {
+		try {
+			gameThread.submit(new Callable<Void>() {
+				@Override
+				public Void call() {
+					return null;
+				}
+			}).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			logger.warn("Failed to wait for the operations of the game", e.getCause());
+		}
+	}
+	
 	public void loadGame() {
 		// If a game is in progress, check for user confirmation
 		if (currentModel != null) {
@@ -214,34 +349,106 @@ public class GameManager {
 			return;
 		}
 		
-		// Open a stream
+		if (readGame(fileToLoad)) {
+			startGame();
+		}
+	}
+
+	/**
+	 * Offer to resume the game autosaved when the application was last closed, or when it crashed.
+	 * To be called at start up, before any game is launched.
+	 * @return true if the autosaved game is resumed
+	 */
+	public boolean resumeAutosavedGame() {
+		if (!AUTOSAVE_FILE.isFile() || !AUTOSAVE_FILE.canRead()) {
+			return false;
+		}
+		if (!dialogsManager.confirm("Resume last game ?", "A game was saved when the application was last closed.\nDo you want to resume it ?")) {
+			return false;
+		}
+		if (!readGame(AUTOSAVE_FILE)) {
+			return false;
+		}
+		startGame();
+		return true;
+	}
+
+	/**
+	 * Read a saved game as the current model, reporting to the user a file that can't be read
+	 * @return true if the game is read
+	 */
+	private boolean readGame(File fileToLoad) {
+		// Open a channel
 		FileInputStream inputStream = null;
 		try {
 			inputStream = new FileInputStream(fileToLoad);
 		} catch (FileNotFoundException e) {
 		    logger.error("Failed to open input stream to read {}", fileToLoad, e);
-            return;
+            return false;
 		}
 		
-		// Unzerialize and load
+		// Decode and load
 		try {
-			ObjectInputStream objectStream = new ObjectInputStream(inputStream);
-			
-			currentModel = (PandemicModel) objectStream.readObject();
-			logger.info("File loaded - size: {} Ko", inputStream.getChannel().size()/1000);
-	        
-			inputStream.close();
+			try {
+				currentModel = SavedGameFormat.read(inputStream.getChannel(), resourceProvider);
+				logger.info("File loaded - size: {} bytes", fileToLoad.length());
+			} finally {
+				inputStream.close();
+			}
 		} catch (IOException e) {
 			dialogsManager.showAlert("File \"" + fileToLoad.getName() + "\" is not an acceptable PandemicSolo savegame file.\n(It may have been saved with an older version of this program.)");
 			logger.error("Failed to read save file {}", fileToLoad, e);
-			return;
-		} catch (ClassNotFoundException e) {
-			dialogsManager.showAlert("File \"" + fileToLoad.getName() + "\" is not an acceptable PandemicSolo savegame file.\n(It may have been saved with an older version of this program.)");
-			logger.error("Failed to read save file {}", fileToLoad, e);
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Let the operations already asked for be done, and flush the autosave of the current game.
+	 * To be called when the application exits : the threads of the game and of the autosave are daemons.
+	 */
+	public void shutdown() {
+		if (controller == null) {
 			return;
 		}
-		
-		startGame();
+		awaitOperations();
+		if (autosaver != null) {
+			try {
+				if (!autosaver.shutdown(AUTOSAVE_SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+					logger.warn("The autosave to {} is not done on exit", AUTOSAVE_FILE);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		closeJournal();
+	}
+
+	/**
+	 * Undo the last operation of the current game
+	 */
+	public void undo() {
+		if (controller != null) {
+			controller.undo();
+		}
+	}
+
+	/**
+	 * Show the odds of the next draws in the current game
+	 */
+	public void showInfectionRisk() {
+		if (controller != null) {
+			controller.showInfectionRisk();
+		}
+	}
+
+	/**
+	 * Redo the last operation undone in the current game
+	 */
+	public void redo() {
+		if (controller != null) {
+			controller.redo();
+		}
 	}
 
 	// ******************************************************
@@ -273,5 +480,9 @@ public class GameManager {
     public void setViewFactory(ViewFactory viewFactory) {
         this.viewFactory = viewFactory;
     }
+
+    public void setAssetsPreloader(AssetsPreloader assetsPreloader) {
+        this.assetsPreloader = assetsPreloader;
+    }
 	
 }
@@ -33,15 +33,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
 
 import pandemic.configuration.ConfigBuilder;
 import pandemic.configuration.ConfigDialogBuilder;
 import pandemic.configuration.DefaultConfigBuilder;
 import pandemic.dialog.ModalDialogsManager;
+import pandemic.model.GameEventLog;
+import pandemic.util.AssetsPreloader;
 import pandemic.util.GenericResourceProvider;
 import pandemic.util.ResourceProvider;
 import pandemic.util.sounds.SoundsManager;
-import pandemic.view.ViewFactory;
 import pandemic.view.menubar.MacOsPandemicMenuBar;
 import pandemic.view.menubar.PandemicMenuBar;
 import pandemic.view.menubar.StandardPandemicMenuBar;
@@ -65,8 +68,9 @@ public class PandemicSolo {
     public static final int MAINWINDOW_HEIGHT = 742;
 
     private static final Logger logger = LoggerFactory.getLogger(PandemicSolo.class);
-    private static final String LOGBACK_FILE_APPENDER = "logFile";
+    private static final String LOGBACK_FILE_APPENDER = "asyncLogFile";
     private static final String LOGBACK_CONSOLE_APPENDER = "systemOut";
+    private static final String LOGBACK_EVENTS_APPENDER = "asyncEventsFile";
 
     private static final String[] disclaimer = {
 		"===============================================================",
@@ -108,7 +112,12 @@ public class PandemicSolo {
 
         // ** Prepare the resource provider
 
-        ResourceProvider resourceProvider = new GenericResourceProvider();
+        GenericResourceProvider genericResourceProvider = new GenericResourceProvider();
+        ResourceProvider resourceProvider = genericResourceProvider;
+
+        // Decode the images and read the sounds in the background while the configuration dialog is shown
+        AssetsPreloader assetsPreloader = new AssetsPreloader(genericResourceProvider);
+        assetsPreloader.start();
 
         // ** Prepare the file chooser dialog
 
@@ -132,6 +141,7 @@ public class PandemicSolo {
 
         // Determine the output of logging messages
         ch.qos.logback.classic.Logger rootLogger = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME);
+        ch.qos.logback.classic.Logger eventsLogger = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(GameEventLog.LOGGER_NAME);
         
         /* Note : I wasn't able to find how to add to the rootLogger an appender defined in the logback.xml configuration file
          *  (rootLogger.getAppender(...) returns null if the appender is not already added to the logger in the config file).
@@ -145,31 +155,41 @@ public class PandemicSolo {
         
         if (logFile || systemOut) {
         	rootLogger.setLevel(Level.DEBUG);
+        	eventsLogger.setLevel(Level.INFO);
         }
         
         // If there's no "--log" command line argument, do not output to file
         if (!logFile) {
-            rootLogger.detachAppender(LOGBACK_FILE_APPENDER);
+            detachAppender(rootLogger, LOGBACK_FILE_APPENDER);
+            detachAppender(eventsLogger, LOGBACK_EVENTS_APPENDER);
         }        
 
         // If there's no "--console" command line argument, do not output to console (System.out)
         if (!systemOut) {
-        	rootLogger.detachAppender(LOGBACK_CONSOLE_APPENDER);
+        	detachAppender(rootLogger, LOGBACK_CONSOLE_APPENDER);
+        	detachAppender(eventsLogger, LOGBACK_CONSOLE_APPENDER);
         }        
 
         // ** Prepare the ViewFactory (Swing for this app)
         
-        ViewFactory viewFactory = new SwingViewFactory(gameContainer);
+        SwingViewFactory viewFactory = new SwingViewFactory(gameContainer);
         viewFactory.setResourceProvider(resourceProvider);
+
+        // A "--paintedboard" command line argument paints the game components on a single canvas
+        viewFactory.setPaintedBoard(argsList.contains("--paintedboard"));
         
         // ** Prepare the GameManager that will be in charge of setting up main operations
 
-        GameManager gameManager = new GameManager();
+        final GameManager gameManager = new GameManager();
         gameManager.setViewFactory(viewFactory);
         gameManager.setConfigBuilder(configBuilder);
         gameManager.setDialogsManager(new ModalDialogsManager(window, resourceProvider, fileChooser));
         gameManager.setMainWindow(window);
-        gameManager.setSoundsManager(new SoundsManager());
+        SoundsManager soundsManager = new SoundsManager();
+        soundsManager.setResourceProvider(resourceProvider);
+        soundsManager.preloadSounds();
+        gameManager.setSoundsManager(soundsManager);
+        gameManager.setAssetsPreloader(assetsPreloader);
         
         // TODO see if one could not pass the ResourceProvider to GameManager and BoardController, 
         //  since it's injected in the ViewFactory that those beans will know
@@ -200,9 +220,19 @@ public class PandemicSolo {
         window.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         window.setVisible(true);
 
+        // Flush the autosave of the current game, whichever way the application exits
+        Runtime.getRuntime().addShutdownHook(new Thread("shutdown") {
+            @Override
+            public void run() {
+                gameManager.shutdown();
+            }
+        });
+
         // ****************************************************************************
 
-        gameManager.launchNewGame();
+        if (!gameManager.resumeAutosavedGame()) {
+            gameManager.launchNewGame();
+        }
     }
 
     /**
@@ -221,5 +251,16 @@ public class PandemicSolo {
             // Do nothing special here
         }
     }
+
+    /**
+     * Detach an appender that is not needed, and stop it : an asynchronous appender has its own thread
+     */
+    private static void detachAppender(ch.qos.logback.classic.Logger logger, String appenderName) {
+        Appender<ILoggingEvent> appender = logger.getAppender(appenderName);
+        if (appender != null) {
+            logger.detachAppender(appender);
+            appender.stop();
+        }
+    }
 	
 }
@@ -23,6 +23,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pandemic.model.objects.*;
 import pandemic.util.GameConfig;
+import pandemic.util.LazyImageIcon;
 import pandemic.util.RandomUtil;
 import pandemic.util.ResourceProvider;
 
@@ -40,10 +41,6 @@ public class ComponentsFactory {
 
     private static final Logger logger = LoggerFactory.getLogger(ComponentsFactory.class);
 
-    // Indexes of the X and Y coordinates in the .properties file
-    private static final int X_INDEX = 0;
-    private static final int Y_INDEX = 1;
-
     // Keys in the resource bundle .properties file
     private static final String KEY_RESERVE_SEPARATION = "reserve.separation";
     private static final String KEY_RESERVE_RESEARCHSTATIONS = "researchStations.reserve";
@@ -70,16 +67,8 @@ public class ComponentsFactory {
     private static final String KEY_PLAYERCARDSBOX = "playerCardsBox.";
     private static final String KEY_PLAYERCARDSBOX_SEPARATION = "playerCardsBox.separation";
 
-    private static final int EPIDEMIC_CARD_ID = 0;
-
     private static final int CUBES_PER_LINE = 12;
 
-    private static final Integer[] EVENTS_FORBIDDEN_IN_SURVIVAL_MODE = {50, 52, 53, 55, 57, 68, 69};
-
-    // Quarantines specific elements
-    private static final Integer ROLE_COLONEL = 131;
-    private static final Integer SPECIALEVENT_LOCAL_INITIATIVE = 71;
-
     private static final String RESOURCEBUNDLE_BASENAME = "componentsCoordinates";
 
     private ResourceProvider resourceProvider;
@@ -97,25 +86,22 @@ public class ComponentsFactory {
      * Utility methods for querying the resourcebundle file   *
      **********************************************************/
 
-    public String getValue(String key, int index) {
-        ResourceBundle bundleFile = resourceProvider.getBundle(RESOURCEBUNDLE_BASENAME);
-
-        // Get the value and cast it to an int
-        if (bundleFile.containsKey(key)) {
-            String[] values = bundleFile.getString(key).split(";");
-            if (index <= values.length) {
-                return values[index].replaceAll("\"", ""); // Get rid of (sometimes necessary) double quotes around the value
-            }
-        }
-        return "";
+    /**
+     * @return The layout of the components, parsed once per bundle
+     */
+    private ComponentsLayout layout() {
+        return ComponentsLayout.of(resourceProvider.getBundle(RESOURCEBUNDLE_BASENAME));
     }
 
-    private int getXCoordinate(String key) {
-        return Integer.parseInt(getValue(key, X_INDEX));
+    public String getValue(String key, int index) {
+        return layout().getValue(key, index);
     }
 
-    private int getYCoordinate(String key) {
-        return Integer.parseInt(getValue(key, Y_INDEX));
+    /**
+     * @return The image of a component, only loaded when it's first displayed
+     */
+    private ImageIcon lazyIcon(String imageName) {
+        return new LazyImageIcon(resourceProvider, imageName);
     }
 
     /**
@@ -126,40 +112,62 @@ public class ComponentsFactory {
      * @return The marker
      */
     private PandemicObject createIconMarker(PandemicObject.Type type, String key, int iconIndex) {
-        ImageIcon image = resourceProvider.getIcon(getValue(key, iconIndex));
-        return new PandemicObject(type, key, image, getXCoordinate(key), getYCoordinate(key), BoardZone.BOARD);
+        ComponentsLayout.Entry marker = layout().get(key);
+        ImageIcon image = lazyIcon(marker.getValue(iconIndex));
+        return new PandemicObject(type, key, image, marker.getX(), marker.getY(), BoardZone.BOARD);
     }
 
     /**********************************************************
      * Factory methods to create the game components          *
      **********************************************************/
 
+    /**
+     * Build the catalog of the non-graphical data needed by the GameEngine
+     * @return The GameCatalog, that can be shared by all games
+     */
+    public GameCatalog createCatalog() {
+        ComponentsLayout layout = layout();
+
+        String[] cityNames = new String[49];
+        Disease[] cityColors = new Disease[49];
+        for (int cityId = 0; cityId < 49; cityId++) {
+            ComponentsLayout.Entry city = layout.get(KEY_CITY + cityId);
+            cityNames[cityId] = city.getValue(2);
+            try {
+                cityColors[cityId] = Disease.valueOf(city.getValue(3));
+            } catch (IllegalArgumentException e) {
+                // Do nothing. The city won't have a color ; it's for the Epidemic card.
+            }
+        }
+
+        int[] cardsPerRole = new int[5];
+        for (int nbOfRoles = 2; nbOfRoles < cardsPerRole.length; nbOfRoles++) {
+            cardsPerRole[nbOfRoles] = Integer.parseInt(layout.getValue(KEY_CARDSPERROLE + nbOfRoles, 0));
+        }
+
+        return new GameCatalog(cityNames, cityColors, cardsPerRole);
+    }
+
     /**
      * Create all useful roles
      *
      * @param config@return The List of all useful roles
      */
     public List<Role> createRoles(GameConfig config) {
-        List<Role> listRole = new ArrayList<Role>();
-
-        List<Integer> availableRoles = new ArrayList<Integer>();
-        for (Expansion expansion : config.getRolesExpansions()) {
-            availableRoles.addAll(expansion.getRoles());
-        }
+        ComponentsLayout layout = layout();
 
-        if (config.getVariants().contains(Variant.QUARANTINES)) {
-            availableRoles.add(ROLE_COLONEL);
-        }
+        List<Role> listRole = new ArrayList<Role>();
 
-        for (Integer roleId : availableRoles) {
-            String roleName = getValue(KEY_ROLE + roleId, 2);
+        for (Integer roleId : SetupRules.availableRoles(config)) {
+            ComponentsLayout.Entry role = layout.get(KEY_ROLE + roleId);
+            String roleName = role.getValue(2);
 
-            int xPos = getXCoordinate(KEY_ROLE + roleId);
-            int yPos = getYCoordinate(KEY_ROLE + roleId);
+            int xPos = role.getX();
+            int yPos = role.getY();
             BoardZone boardZone = BoardZone.RESERVE;
 
             // Prepare the pawn on the board
-            ImageIcon imageIcon = resourceProvider.getIcon(getValue(KEY_ROLE + roleId, 3));
+            ImageIcon imageIcon = lazyIcon(role.getValue(3));
             Role pawn = new Role(roleId, roleName, imageIcon, xPos, yPos, boardZone);
             logger.debug("...created {}", pawn);
 
@@ -173,15 +181,18 @@ public class ComponentsFactory {
      * Return a List of all the cities in the game
      */
     public List<City> createCities() {
+        ComponentsLayout layout = layout();
+
         List<City> cities = new ArrayList<City>();
 
         for (int cityId = 0; cityId < 49; cityId++) {
-            String name = getValue(KEY_CITY + cityId, 2);
-            int x = getXCoordinate(KEY_CITY + cityId);
-            int y = getYCoordinate(KEY_CITY + cityId);
+            ComponentsLayout.Entry entry = layout.get(KEY_CITY + cityId);
+            String name = entry.getValue(2);
+            int x = entry.getX();
+            int y = entry.getY();
             Disease color = null;
             try {
-                color = Disease.valueOf(getValue(KEY_CITY + cityId, 3));
+                color = Disease.valueOf(entry.getValue(3));
             } catch (IllegalArgumentException e) {
                 // Do nothing. The city won't have a color ; it's for the Epidemic card.
             }
@@ -202,19 +213,21 @@ public class ComponentsFactory {
      * @return The deck of player cards
      */
     public List<Card> createPlayerCards(List<City> citiesList) {
+        ComponentsLayout layout = layout();
+
         List<Card> playerCards = new ArrayList<Card>();
 
-        int xPos = getXCoordinate(KEY_CARD_DEFAULTPOSITION);
-        int yPos = getYCoordinate(KEY_CARD_DEFAULTPOSITION);
-        String templateName = getValue(KEY_CARD_DEFAULTPOSITION, 2);
+        int xPos = layout.getX(KEY_CARD_DEFAULTPOSITION);
+        int yPos = layout.getY(KEY_CARD_DEFAULTPOSITION);
+        MessageFormat template = new MessageFormat(layout.getValue(KEY_CARD_DEFAULTPOSITION, 2));
 
         // 48 "regular" City player cards
         for (int cityId = 1; cityId < 49; cityId++) {
-            String imageName = MessageFormat.format(templateName, cityId);
+            String imageName = template.format(new Object[] {cityId});
 
             City city = citiesList.get(cityId);
 
-            ImageIcon imageIcon = resourceProvider.getIcon(imageName);
+            ImageIcon imageIcon = lazyIcon(imageName);
             Card card = new Card(PandemicObject.Type.PLAYER_CITY_CARD, cityId, city.getName(), imageIcon, xPos, yPos, city, BoardZone.RESERVE);
             logger.debug("...created {}", card);
 
@@ -225,42 +238,31 @@ public class ComponentsFactory {
     }
 
     /**
-     * Create the deck of Special Event cards
+     * Create the deck of Special Event cards, drawn randomly
      */
     public List<Card> createSpecialEvents(GameConfig config) {
-        List<Card> specialEventsCards = new ArrayList<Card>();
-
-        int xPos = getXCoordinate(KEY_CARD_DEFAULTPOSITION);
-        int yPos = getYCoordinate(KEY_CARD_DEFAULTPOSITION);
-        String templateName = getValue(KEY_CARD_DEFAULTPOSITION, 2);
-
-        List<Integer> availableEvents = new ArrayList<Integer>();
-
-        for (Expansion expansion : config.getEventCardsExpansions()) {
-            availableEvents.addAll(expansion.getEventCards());
-        }
-
-        if (config.getVariants().contains(Variant.QUARANTINES)) {
-            availableEvents.add(SPECIALEVENT_LOCAL_INITIATIVE);
-        }
-
-        if (config.isSurvivalMode()) {
-            availableEvents.removeAll(Arrays.asList(EVENTS_FORBIDDEN_IN_SURVIVAL_MODE));
-        }
+        return createSpecialEvents(SetupRules.drawSpecialEvents(config, randomizer));
+    }
 
-        randomizer.shuffleInPlace(availableEvents);
+    /**
+     * Create the given Special Event cards
+     * @param eventIds The ids of the Special Event cards
+     */
+    public List<Card> createSpecialEvents(List<Integer> eventIds) {
+        ComponentsLayout layout = layout();
 
-        // never draw more event cards than is available
-        int nbEventCardsToCreate = Math.min(config.isFiveEvents() ? 5 : config.getNbOfRoles() * 2, availableEvents.size());
+        List<Card> specialEventsCards = new ArrayList<Card>();
 
-        for (int i = 0; i < nbEventCardsToCreate; i++) {
-            int eventId = availableEvents.get(i);
+        int xPos = layout.getX(KEY_CARD_DEFAULTPOSITION);
+        int yPos = layout.getY(KEY_CARD_DEFAULTPOSITION);
+        MessageFormat template = new MessageFormat(layout.getValue(KEY_CARD_DEFAULTPOSITION, 2));
 
-            String imageName = MessageFormat.format(templateName, eventId);
+        for (int eventId : eventIds) {
+            String imageName = template.format(new Object[] {eventId});
 
-            String eventName = getValue(KEY_CARD_SPECIALEVENT + eventId, 0);
+            String eventName = layout.getValue(KEY_CARD_SPECIALEVENT + eventId, 0);
 
-            ImageIcon imageIcon = resourceProvider.getIcon(imageName);
+            ImageIcon imageIcon = lazyIcon(imageName);
             Card card = new Card(PandemicObject.Type.SPECIAL_EVENT_CARD, eventId, eventName, imageIcon, xPos, yPos, BoardZone.RESERVE);
             logger.debug("...created {}", card);
 
@@ -279,16 +281,23 @@ public class ComponentsFactory {
      *            The number of roles
      */
     public void distributeStartingCards(List<Card> cardsLibrary, int nbOfRoles) {
-        int nbOfCardsPerRole = Integer.parseInt(getValue(KEY_CARDSPERROLE + nbOfRoles, 0));
-        int ySeparation = getYCoordinate(KEY_PLAYERCARDSBOX_SEPARATION);
+        ComponentsLayout layout = layout();
+
+        int nbOfCardsPerRole = Integer.parseInt(layout.getValue(KEY_CARDSPERROLE + nbOfRoles, 0));
+        int ySeparation = layout.getY(KEY_PLAYERCARDSBOX_SEPARATION);
+
+        ComponentsLayout.Entry[] roleboxes = new ComponentsLayout.Entry[nbOfRoles];
+        for (int roleNumber = 0; roleNumber < nbOfRoles; roleNumber++) {
+            roleboxes[roleNumber] = layout.get(KEY_PLAYERCARDSBOX + (roleNumber + 1));
+        }
 
         for (int roleboxRow = 0; roleboxRow < nbOfCardsPerRole; roleboxRow++) {
             for (int roleNumber = 0; roleNumber < nbOfRoles; roleNumber++) {
                 int cardIndex = roleboxRow * nbOfRoles + roleNumber;
                 Card card = cardsLibrary.get(cardIndex);
 
-                card.setX(getXCoordinate(KEY_PLAYERCARDSBOX + (roleNumber + 1)));
-                card.setY(getYCoordinate(KEY_PLAYERCARDSBOX + (roleNumber + 1)) + roleboxRow * ySeparation);
+                card.setX(roleboxes[roleNumber].getX());
+                card.setY(roleboxes[roleNumber].getY() + roleboxRow * ySeparation);
                 card.setBoardZone(BoardZone.HAND_OR_DISCARD);
 
                 logger.debug("...card {} ({}) distributed to player {} (x={}, y={})",
@@ -307,86 +316,116 @@ public class ComponentsFactory {
     public void addMutationEventsCards(List<Card> pileDeck, List<Card> cardsLibrary) {
         logger.debug("...remaining player cards deck size : {}", pileDeck.size());
 
-        int xPos = getXCoordinate(KEY_CARD_DEFAULTPOSITION);
-        int yPos = getYCoordinate(KEY_CARD_DEFAULTPOSITION);
-        String templateName = getValue(KEY_CARD_DEFAULTPOSITION, 2);
+        List<Card> mutationEventsCards = createMutationEventsCards();
+        SetupRules.insertRandomly(pileDeck, mutationEventsCards, randomizer);
+        cardsLibrary.addAll(mutationEventsCards);
+    }
 
-        for (int cardIndex = 301; cardIndex <= 303; cardIndex++) {
-            String imageName = MessageFormat.format(templateName, cardIndex);
+    /**
+     * Create the three specific Event cards for the Mutation variant.
+     */
+    public List<Card> createMutationEventsCards() {
+        ComponentsLayout layout = layout();
 
-            String eventName = getValue(KEY_CARD_MUTATIONEVENT + cardIndex, 0);
+        List<Card> mutationEventsCards = new ArrayList<Card>();
 
-            ImageIcon imageIcon = resourceProvider.getIcon(imageName);
+        int xPos = layout.getX(KEY_CARD_DEFAULTPOSITION);
+        int yPos = layout.getY(KEY_CARD_DEFAULTPOSITION);
+        MessageFormat template = new MessageFormat(layout.getValue(KEY_CARD_DEFAULTPOSITION, 2));
+
+        for (int cardIndex : SetupRules.mutationEvents()) {
+            String imageName = template.format(new Object[] {cardIndex});
+
+            String eventName = layout.getValue(KEY_CARD_MUTATIONEVENT + cardIndex, 0);
+
+            ImageIcon imageIcon = lazyIcon(imageName);
             Card card = new Card(PandemicObject.Type.MUTATION_EVENT_CARD, cardIndex, eventName, imageIcon, xPos, yPos, BoardZone.RESERVE);
+            logger.debug("...created {}", card);
 
-            // We exclude the top and the bottom of the deck, 
-            //  so the position must be between 1 and pileDeck.size()-2.
-            int placeToInsert = 1 + randomizer.nextInt(pileDeck.size() - 2);
-            pileDeck.add(placeToInsert, card);
-            logger.debug("...mutation event card " + cardIndex + " added at index : " + placeToInsert);
-            cardsLibrary.add(card);
+            mutationEventsCards.add(card);
         }
+
+        return mutationEventsCards;
     }
 
     /**
-     * Create the deck of epidemic cards
+     * Create the deck of epidemic cards, drawn randomly for the Virulent Strain challenge
      */
     public List<Card> createEpidemicCards(GameConfig config) {
-        List<Card> epidemicCards = new ArrayList<Card>();
+        return createEpidemicCards(SetupRules.drawEpidemics(config, randomizer));
+    }
 
-        int xPos = getXCoordinate(KEY_CARD_DEFAULTPOSITION);
-        int yPos = getYCoordinate(KEY_CARD_DEFAULTPOSITION);
-        String templateName = getValue(KEY_CARD_DEFAULTPOSITION, 2);
+    /**
+     * Create the given epidemic cards
+     * @param epidemicIds The ids of the epidemic cards (the classic one or the Virulent Strain ones)
+     */
+    public List<Card> createEpidemicCards(List<Integer> epidemicIds) {
+        ComponentsLayout layout = layout();
 
-        if (config.getVariants().contains(Variant.VIRULENT_STRAIN)) { // Virulent Strain challenge epidemic cards
-            Integer[] cardIds = {201, 202, 203, 204, 205, 206, 207, 208, 209, 210};
-            List<Integer> availableCards = Arrays.asList(cardIds);
-            randomizer.shuffleInPlace(availableCards);
-            for (int cardIndex = 0; cardIndex < config.getNbOfEpidemics(); cardIndex++) {
-                String imageName = MessageFormat.format(templateName, availableCards.get(cardIndex));
+        List<Card> epidemicCards = new ArrayList<Card>();
 
-                String epidemicName = getValue(KEY_CARD_VIRULENTEPIDEMIC + availableCards.get(cardIndex), 0);
+        int xPos = layout.getX(KEY_CARD_DEFAULTPOSITION);
+        int yPos = layout.getY(KEY_CARD_DEFAULTPOSITION);
+        MessageFormat template = new MessageFormat(layout.getValue(KEY_CARD_DEFAULTPOSITION, 2));
 
-                ImageIcon imageIcon = resourceProvider.getIcon(imageName);
-                Card card = new Card(PandemicObject.Type.EPIDEMIC_CARD, availableCards.get(cardIndex), epidemicName, imageIcon, xPos, yPos, BoardZone.RESERVE);
-                logger.debug("...created {}", card);
+        ImageIcon classicImageIcon = null;
 
-                epidemicCards.add(card);
-            }
-        } else { // classic epidemic cards
-            String imageName = MessageFormat.format(templateName, EPIDEMIC_CARD_ID);
-            ImageIcon imageIcon = resourceProvider.getIcon(imageName);
+        for (int epidemicId : epidemicIds) {
+            Card card;
+            if (epidemicId == SetupRules.EPIDEMIC_CARD_ID) { // classic epidemic cards
+                if (classicImageIcon == null) {
+                    classicImageIcon = lazyIcon(template.format(new Object[] {epidemicId}));
+                }
+                card = new Card(PandemicObject.Type.EPIDEMIC_CARD, epidemicId, "Epidemic!", classicImageIcon, xPos, yPos, BoardZone.RESERVE);
+            } else { // Virulent Strain challenge epidemic cards
+                String imageName = template.format(new Object[] {epidemicId});
 
-            for (int cardIndex = 0; cardIndex < config.getNbOfEpidemics(); cardIndex++) {
-                Card card = new Card(PandemicObject.Type.EPIDEMIC_CARD, EPIDEMIC_CARD_ID, "Epidemic!", imageIcon, xPos, yPos, BoardZone.RESERVE);
-                logger.debug("...created {}", card);
+                String epidemicName = layout.getValue(KEY_CARD_VIRULENTEPIDEMIC + epidemicId, 0);
 
-                epidemicCards.add(card);
+                ImageIcon imageIcon = lazyIcon(imageName);
+                card = new Card(PandemicObject.Type.EPIDEMIC_CARD, epidemicId, epidemicName, imageIcon, xPos, yPos, BoardZone.RESERVE);
             }
+            logger.debug("...created {}", card);
+
+            epidemicCards.add(card);
         }
 
         return epidemicCards;
     }
 
+    /**
+     * Create all the Emergency Event cards, shuffled
+     */
     public List<Card> createEmergencyEvents(GameConfig config) {
+        return createEmergencyEvents(SetupRules.drawEmergencyEvents(randomizer));
+    }
+
+    /**
+     * Create the given Emergency Event cards
+     * @param emergencyEventIds The ids of the Emergency Event cards
+     */
+    public List<Card> createEmergencyEvents(List<Integer> emergencyEventIds) {
+        ComponentsLayout layout = layout();
+
         List<Card> emergencyEventCards = new ArrayList<Card>();
 
-        int xPos = getXCoordinate(KEY_CARD_DEFAULTPOSITION);
-        int yPos = getYCoordinate(KEY_CARD_DEFAULTPOSITION);
+        int xPos = layout.getX(KEY_CARD_DEFAULTPOSITION);
+        int yPos = layout.getY(KEY_CARD_DEFAULTPOSITION);
+
+        MessageFormat template = new MessageFormat("emergency{0,number,00}.jpg");
 
-        for (int id = 401; id <= 410; id++) {
-            String imageName = MessageFormat.format("emergency{0,number,00}.jpg", id);
+        for (int id : emergencyEventIds) {
+            String imageName = template.format(new Object[] {id});
 
-            String cardName = getValue(KEY_CARD_EMERGENCYEVENT + id, 0);
+            String cardName = layout.getValue(KEY_CARD_EMERGENCYEVENT + id, 0);
 
-            ImageIcon imageIcon = resourceProvider.getIcon(imageName);
+            ImageIcon imageIcon = lazyIcon(imageName);
             Card card = new Card(PandemicObject.Type.EMERGENCY_EVENT_CARD, id, cardName, imageIcon, xPos, yPos, BoardZone.RESERVE);
             logger.debug("...created {}", card);
 
             emergencyEventCards.add(card);
         }
 
-        randomizer.shuffleInPlace(emergencyEventCards);
         return emergencyEventCards;
     }
 
@@ -398,60 +437,18 @@ public class ComponentsFactory {
      * @param epidemics The List of epidemic cards to add evenly to the deck
      * @param emergencyEventsToAdd The list of emergency event cards to add to the deck (an empty list if Emergency Events is not used)
      * @return the new player deck, with epidemic cards added
+     * @see SetupRules#addCardsEvenly(List, List, List, RandomUtil)
      */
     public List<Card> addCardsEvenly(List<Card> initialDeck, List<Card> epidemics, List<Card> emergencyEventsToAdd) {
-        int nbOfPiles = epidemics.size();
-        logger.debug("...nb of cards in deck : {}", initialDeck.size());
-        logger.debug("...nb of piles / cards to add : {}", nbOfPiles);
-
-        List<Card> finalDeck = new ArrayList<Card>();
-
-        int[] pileSizes = determinePileSizes(initialDeck.size(), epidemics.size());
-
-        int idx = 0; // index of cards in the initial deck
-        int iCurrPile = 0; // number of the current pile
-        for (Integer pileSize : pileSizes) {
-            List<Card> currentPile = new ArrayList<Card>(initialDeck.subList(idx, idx + pileSize));
-
-            currentPile.add(epidemics.get(iCurrPile));
-            if (!emergencyEventsToAdd.isEmpty()) {
-                currentPile.add(emergencyEventsToAdd.get(iCurrPile));
-            }
-            randomizer.shuffleInPlace(currentPile);
-            finalDeck.addAll(currentPile);
-
-            idx += pileSize;
-            iCurrPile++;
-        }
-
-        return finalDeck;
+        return SetupRules.addCardsEvenly(initialDeck, epidemics, emergencyEventsToAdd, randomizer);
     }
 
     /**
      * Prepare an array specifying the number of cards in each pile.
-     * We need to follow precisely the rulebook :
-     * #8. (...) Make the piles as equal in size as is possible.
-     * #9. (...) If the piles aren't exactly the same size, stack them so that the larger piles are above the smaller piles.
-     * Thanks to BGG user B Factor for pointing this out.
-     * @param nbOfCards Size of the deck before introducing the epidemic cards
-     * @param nbOfPiles Number of epidemic cards to introduce, thus number of piles to prepare
-     * @return An array of ints, of size nbOfPiles. Each element is the size of the corresponding pile.
+     * @see SetupRules#determinePileSizes(int, int)
      */
     public int[] determinePileSizes(int nbOfCards, int nbOfPiles) {
-        int[] pileSizes = new int[nbOfPiles];
-
-        int minSize = nbOfCards / nbOfPiles;
-        int remainingCards = nbOfCards - (nbOfPiles * minSize);
-
-        /* Each pile will have at least minSize cards, and the X remaining ones will be put,
-         *  one per pile, on the first X piles.	 */
-        for (int i = 0; i < nbOfPiles; i++) {
-            pileSizes[i] = minSize + ((i < remainingCards) ? 1 : 0);
-        }
-
-        logger.debug("...nb of cards per pile : {}", pileSizes);
-
-        return pileSizes;
+        return SetupRules.determinePileSizes(nbOfCards, nbOfPiles);
     }
 
     /**
@@ -460,17 +457,21 @@ public class ComponentsFactory {
      * @return The list of all cubes set up.
      */
     public List<Cube> createCubes(GameConfig config) {
+        ComponentsLayout layout = layout();
+
         List<Cube> listCubes = new ArrayList<Cube>();
 
+        int xSeparation = layout.getX(KEY_RESERVE_SEPARATION);
+        int ySeparation = layout.getY(KEY_RESERVE_SEPARATION);
+
         for (Disease color : config.getDiseases()) {
-            int xSeparation = getXCoordinate(KEY_RESERVE_SEPARATION);
-            int ySeparation = getYCoordinate(KEY_RESERVE_SEPARATION);
+            ComponentsLayout.Entry reserve = layout.get(KEY_CUBES + color.name());
 
             // Starting pixel references - will not change
-            int xRef = getXCoordinate(KEY_CUBES + color.name());
-            int yRef = getYCoordinate(KEY_CUBES + color.name());
+            int xRef = reserve.getX();
+            int yRef = reserve.getY();
 
-            ImageIcon cubeImage = resourceProvider.getIcon(getValue(KEY_CUBES + color.name(), 2));
+            ImageIcon cubeImage = lazyIcon(reserve.getValue(2));
 
             int nbOfCubes = config.numberOfCubes(color);
             // Calculate the number of full rows
@@ -517,24 +518,18 @@ public class ComponentsFactory {
 	 * @param city The destination city
      */
     public void moveCubesToCity(List<PandemicObject> countersLibrary, List<Disease> cubeColors, City city) {
-        for (int cubeIndex = 0; cubeIndex < cubeColors.size(); cubeIndex++) {
-            // Look for the first cube of the city's color in the reserve
-            Cube cube = null;
-            for (int counterIndex = countersLibrary.size() - 1; counterIndex >= 0; counterIndex--) { // Reverse order to preserve a coherent display
-                PandemicObject counter = countersLibrary.get(counterIndex);
-                if (counter.getType().equals(PandemicObject.Type.CUBE)) {
-                    cube = (Cube) counter;
-                    if (cube.getColor().equals(cubeColors.get(cubeIndex)) && cube.getBoardZone().equals(BoardZone.RESERVE)) {
-                        break;
-                    } else {
-                        cube = null;
-                    }
-                }
-            }
+        moveCubesToCity(new CubeReserve(countersLibrary), cubeColors, city);
+    }
 
-            if (cube == null) {
-                throw new IllegalArgumentException("No cube available in the Reserve for this city's color (" + cubeColors.get(cubeIndex).name() + ")");
-            }
+    /**
+     * Take cubes from the reserve to put on a city on the board
+     * @param reserve The index of the cubes in the reserve
+	 * @param cubeColors The cubes to move, by their color
+	 * @param city The destination city
+     */
+    public void moveCubesToCity(CubeReserve reserve, List<Disease> cubeColors, City city) {
+        for (int cubeIndex = 0; cubeIndex < cubeColors.size(); cubeIndex++) {
+            Cube cube = reserve.take(cubeColors.get(cubeIndex));
 
             // Calculate the new position around the city marker, depending on how many cubes we have to arrange.
             int posX = 0;
@@ -584,7 +579,6 @@ public class ComponentsFactory {
 
             cube.setX(city.getX() + posX);
             cube.setY(city.getY() + posY);
-            cube.setBoardZone(BoardZone.BOARD);
 
             logger.debug("...moving {} cube to x={}, y={}", cube.getColor().name(), cube.getX(), cube.getY());
         }
@@ -596,14 +590,16 @@ public class ComponentsFactory {
      * @return The list of the 6 Research Stations created
      */
     public List<PandemicObject> createResearchStations(City startingCity) {
+        ComponentsLayout layout = layout();
+
         List<PandemicObject> listStations = new ArrayList<PandemicObject>();
 
-        int xPosReserve = getXCoordinate(KEY_RESERVE_RESEARCHSTATIONS);
-        int yPosReserve = getYCoordinate(KEY_RESERVE_RESEARCHSTATIONS);
+        int xPosReserve = layout.getX(KEY_RESERVE_RESEARCHSTATIONS);
+        int yPosReserve = layout.getY(KEY_RESERVE_RESEARCHSTATIONS);
 
-        int xSeparation = getXCoordinate(KEY_RESERVE_SEPARATION);
+        int xSeparation = layout.getX(KEY_RESERVE_SEPARATION);
 
-        ImageIcon imgResearchStation = resourceProvider.getIcon(getValue(KEY_RESERVE_RESEARCHSTATIONS, 2));
+        ImageIcon imgResearchStation = lazyIcon(layout.getValue(KEY_RESERVE_RESEARCHSTATIONS, 2));
 
         // 5 Research Stations in the reserve
         for (int i = 0; i < 5; i++) {
@@ -618,8 +614,8 @@ public class ComponentsFactory {
         }
 
         // 1 starting Research Station in the starting city
-        int xShift = getXCoordinate(KEY_RESEARCHSTATIONS_CITYSHIFT);
-        int yShift = getYCoordinate(KEY_RESEARCHSTATIONS_CITYSHIFT);
+        int xShift = layout.getX(KEY_RESEARCHSTATIONS_CITYSHIFT);
+        int yShift = layout.getY(KEY_RESEARCHSTATIONS_CITYSHIFT);
         PandemicObject researchStation = new PandemicObject(
                 PandemicObject.Type.RESEARCH_STATION,
                 "Research Station",
@@ -641,12 +637,16 @@ public class ComponentsFactory {
      * @param startingCity The city where all the affected roles are starting the game
      */
     public void placeUsedRoles(List<Role> usedRoles, City startingCity) {
+        ComponentsLayout layout = layout();
+
+        ComponentsLayout.Entry firstPawnShift = layout.get(KEY_FIRSTPAWN_CITYSHIFT);
+        ComponentsLayout.Entry nextPawnsShift = layout.get(KEY_NEXTPAWNS_SHIFT);
         int j = 0;
 
         for (Role pawn : usedRoles) {
             // Change coordinates to the starting city (Atlanta)
-            pawn.setX(startingCity.getX() + getXCoordinate(KEY_FIRSTPAWN_CITYSHIFT) + j * getXCoordinate(KEY_NEXTPAWNS_SHIFT));
-            pawn.setY(startingCity.getY() + getYCoordinate(KEY_FIRSTPAWN_CITYSHIFT) + j * getYCoordinate(KEY_NEXTPAWNS_SHIFT));
+            pawn.setX(startingCity.getX() + firstPawnShift.getX() + j * nextPawnsShift.getX());
+            pawn.setY(startingCity.getY() + firstPawnShift.getY() + j * nextPawnsShift.getY());
             pawn.setBoardZone(BoardZone.BOARD);
 
             j++;
@@ -675,13 +675,15 @@ public class ComponentsFactory {
      * @return The List of the eradication markers
      */
     public List<PandemicObject> createEradicationMarkers(Disease[] colors) {
+        ComponentsLayout layout = layout();
+
         List<PandemicObject> listMarkers = new ArrayList<PandemicObject>();
 
-        int xSeparation = getXCoordinate(KEY_ERADICATION_SEPARATION);
+        int xSeparation = layout.getX(KEY_ERADICATION_SEPARATION);
 
-        int xPos = getXCoordinate(KEY_RESERVE_ERADICATION);
-        int yPos = getYCoordinate(KEY_RESERVE_ERADICATION);
-        ImageIcon imgEradication = resourceProvider.getIcon(getValue(KEY_RESERVE_ERADICATION, 2));
+        int xPos = layout.getX(KEY_RESERVE_ERADICATION);
+        int yPos = layout.getY(KEY_RESERVE_ERADICATION);
+        ImageIcon imgEradication = lazyIcon(layout.getValue(KEY_RESERVE_ERADICATION, 2));
 
         for (@SuppressWarnings("unused") Disease color : colors) { // color is not used, but it ensures there's one marker per color
             PandemicObject eradicationMarker = new PandemicObject(PandemicObject.Type.ERADICATION_MARKER, "Eradication marker", imgEradication, xPos, yPos, BoardZone.RESERVE);
@@ -698,15 +700,17 @@ public class ComponentsFactory {
      * @return
      */
     public List<PandemicObject> createQuarantineTokens() {
+        ComponentsLayout layout = layout();
+
         List<PandemicObject> listQuarantineTokens = new ArrayList<PandemicObject>();
 
-        int xSeparation = getXCoordinate(KEY_QUARANTINE_SEPARATION);
-        int ySeparation = getYCoordinate(KEY_QUARANTINE_SEPARATION);
+        int xSeparation = layout.getX(KEY_QUARANTINE_SEPARATION);
+        int ySeparation = layout.getY(KEY_QUARANTINE_SEPARATION);
 
-        int xPos = getXCoordinate(KEY_RESERVE_QUARANTINE);
-        int yPos = getYCoordinate(KEY_RESERVE_QUARANTINE);
-        ImageIcon imgQuarantine1 = resourceProvider.getIcon(getValue(KEY_RESERVE_QUARANTINE, 2).replace("#", "1"));
-        ImageIcon imgQuarantine2 = resourceProvider.getIcon(getValue(KEY_RESERVE_QUARANTINE, 2).replace("#", "2"));
+        int xPos = layout.getX(KEY_RESERVE_QUARANTINE);
+        int yPos = layout.getY(KEY_RESERVE_QUARANTINE);
+        ImageIcon imgQuarantine1 = lazyIcon(layout.getValue(KEY_RESERVE_QUARANTINE, 2).replace('#', '1'));
+        ImageIcon imgQuarantine2 = lazyIcon(layout.getValue(KEY_RESERVE_QUARANTINE, 2).replace('#', '2'));
 
         for (int i = 0; i < 6; i++) {
             PandemicObject quarantine2Token = new PandemicObject(PandemicObject.Type.QUARANTINE_TOKEN, "Quarantine token", imgQuarantine2, xPos+i*xSeparation, yPos, BoardZone.RESERVE);
@@ -0,0 +1,185 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.model;
+
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The content of the componentsCoordinates bundle, parsed once : each value is split on ";",
+ *  stripped of its double quotes, and its two first fields are parsed as the X and Y coordinates.
+ * There's one layout per bundle instance, shared by all the ComponentsFactory using this bundle.
+ * The whole bundle is parsed when the layout is created if its keys can be enumerated ;
+ *  otherwise each key is parsed on its first lookup.
+ *
+ * @author manur
+ * @since v2.9
+ */
+public final class ComponentsLayout {
+
+    private static final Map<ResourceBundle, ComponentsLayout> layouts = new WeakHashMap<ResourceBundle, ComponentsLayout>();
+
+    private static final Entry MISSING_ENTRY = new Entry("");
+
+    private final ResourceBundle bundle; // only kept when the keys have to be parsed lazily
+    private final Map<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+
+    /**
+     * @return The layout of the bundle, parsed on the first call for this bundle
+     */
+    public static synchronized ComponentsLayout of(ResourceBundle bundle) {
+        ComponentsLayout layout = layouts.get(bundle);
+        if (layout == null) {
+            layout = new ComponentsLayout(bundle);
+            layouts.put(bundle, layout);
+        }
+        return layout;
+    }
+
+    private ComponentsLayout(ResourceBundle bundle) {
+        Enumeration<String> keys = bundle.getKeys();
+        if (keys == null) {
+            this.bundle = bundle;
+        } else {
+            this.bundle = null;
+            while (keys.hasMoreElements()) {
+                String key = keys.nextElement();
+                entries.put(key, new Entry(bundle.getString(key)));
+            }
+        }
+    }
+
+    /**
+     * @return The parsed entry of the key ; an entry with a single empty value if the key doesn't exist
+     */
+    public Entry get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            if (bundle != null && bundle.containsKey(key)) {
+                entry = new Entry(bundle.getString(key));
+                entries.put(key, entry);
+            } else {
+                entry = MISSING_ENTRY;
+            }
+        }
+        return entry;
+    }
+
+    public String getValue(String key, int index) {
+        return get(key).getValue(index);
+    }
+
+    public int getX(String key) {
+        return get(key).getX();
+    }
+
+    public int getY(String key) {
+        return get(key).getY();
+    }
+
+    /**
+     * The parsed value of a key : the fields, and the X and Y coordinates when the two first fields are numbers.
+     */
+    public static final class Entry {
+        private final String[] values;
+        private final int x;
+        private final int y;
+        private final boolean hasX;
+        private final boolean hasY;
+
+        Entry(String rawValue) {
+            values = split(rawValue);
+
+            int parsedX = 0;
+            boolean parsedHasX = false;
+            try {
+                parsedX = Integer.parseInt(values[0]);
+                parsedHasX = true;
+            } catch (NumberFormatException e) {
+                // Not a coordinate : the error is thrown if getX() is called
+            }
+            x = parsedX;
+            hasX = parsedHasX;
+
+            int parsedY = 0;
+            boolean parsedHasY = false;
+            if (values.length > 1) {
+                try {
+                    parsedY = Integer.parseInt(values[1]);
+                    parsedHasY = true;
+                } catch (NumberFormatException e) {
+                    // Not a coordinate : the error is thrown if getY() is called
+                }
+            }
+            y = parsedY;
+            hasY = parsedHasY;
+        }
+
+        /**
+         * Split on ";" and get rid of (sometimes necessary) double quotes around the values
+         */
+        private static String[] split(String rawValue) {
+            List<String> fields = new ArrayList<String>();
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < rawValue.length(); i++) {
+                char c = rawValue.charAt(i);
+                if (c == ';') {
+                    fields.add(sb.toString());
+                    sb.setLength(0);
+                } else if (c != '"') {
+                    sb.append(c);
+                }
+            }
+            // like String.split(), drop the trailing empty fields
+            if (sb.length() > 0 || fields.isEmpty()) {
+                fields.add(sb.toString());
+            }
+            while (fields.size() > 1 && fields.get(fields.size() - 1).length() == 0) {
+                fields.remove(fields.size() - 1);
+            }
+            return fields.toArray(new String[fields.size()]);
+        }
+
+        /**
+         * @return The field at the given index, or an empty string if there's no such field
+         */
+        public String getValue(int index) {
+            return index < values.length ? values[index] : "";
+        }
+
+        public int getX() {
+            if (!hasX) {
+                throw new NumberFormatException("For input string: \"" + getValue(0) + "\"");
+            }
+            return x;
+        }
+
+        public int getY() {
+            if (!hasY) {
+                throw new NumberFormatException("For input string: \"" + getValue(1) + "\"");
+            }
+            return y;
+        }
+    }
+}
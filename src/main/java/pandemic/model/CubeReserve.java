@@ -0,0 +1,95 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.model;
+
+import pandemic.model.objects.Cube;
+import pandemic.model.objects.PandemicObject;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Index of the cubes lying in the reserve : one stack per disease, so that a cube is taken from
+ *  or given back to the reserve in constant time.
+ * The cubes are stacked in the order of the counters library, the last one being taken first,
+ *  which preserves a coherent display of the reserve.
+ *
+ * @author manur
+ * @since v2.9
+ */
+public class CubeReserve implements Serializable {
+
+    private static final long serialVersionUID = 29L;
+
+    private final Cube[][] stacks = new Cube[Disease.values().length][];
+    private final int[] sizes = new int[Disease.values().length];
+
+    /**
+     * @param counters The counters library ; only the cubes which are in the reserve are indexed
+     */
+    public CubeReserve(List<? extends PandemicObject> counters) {
+        for (int i = 0; i < stacks.length; i++) {
+            stacks[i] = new Cube[0];
+        }
+        for (PandemicObject counter : counters) {
+            if (counter.getType() == PandemicObject.Type.CUBE && counter.getBoardZone() == BoardZone.RESERVE) {
+                push((Cube) counter);
+            }
+        }
+    }
+
+    /**
+     * Take a cube of the given color from the reserve ; it's now on the board
+     * @throws IllegalArgumentException if there's no cube of this color left in the reserve
+     */
+    public Cube take(Disease color) {
+        int ordinal = color.ordinal();
+        if (sizes[ordinal] == 0) {
+            throw new IllegalArgumentException("No cube available in the Reserve for this city's color (" + color.name() + ")");
+        }
+        Cube cube = stacks[ordinal][--sizes[ordinal]];
+        stacks[ordinal][sizes[ordinal]] = null;
+        cube.setBoardZone(BoardZone.BOARD);
+        return cube;
+    }
+
+    /**
+     * Put a cube back in the reserve
+     */
+    public void giveBack(Cube cube) {
+        cube.setBoardZone(BoardZone.RESERVE);
+        push(cube);
+    }
+
+    private void push(Cube cube) {
+        int ordinal = cube.getColor().ordinal();
+        if (sizes[ordinal] == stacks[ordinal].length) {
+            stacks[ordinal] = Arrays.copyOf(stacks[ordinal], Math.max(8, sizes[ordinal] * 2));
+        }
+        stacks[ordinal][sizes[ordinal]++] = cube;
+    }
+
+    /**
+     * @return The number of cubes of this color left in the reserve
+     */
+    public int getNbOfCubes(Disease color) {
+        return sizes[color.ordinal()];
+    }
+}
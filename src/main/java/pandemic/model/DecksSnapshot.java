@@ -0,0 +1,147 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+import pandemic.model.objects.Role;
+
+/**
+ * Immutable state of the decks and the roles, as left by an operation : what the views display.
+ * The model publishes a new one after each operation ; it can be read from any thread, while the next
+ *  operations change the model, and never shows a deck half-way through an operation.
+ * The decks are the arrays of an EngineState, shared with the previous snapshot when they're unchanged.
+ *
+ * @author manur
+ * @since v2.9
+ */
+public final class DecksSnapshot {
+
+    private final EngineState state;
+    private final List<Role> affectedRoles;
+    private final IntDeckView infectionDeck;
+    private final IntDeckView discardPile;
+
+    DecksSnapshot(EngineState state, List<Role> affectedRoles) {
+        this.state = state;
+        this.affectedRoles = Collections.unmodifiableList(new ArrayList<Role>(affectedRoles));
+        this.infectionDeck = new FrozenDeck(state.infectionDeck);
+        this.discardPile = new FrozenDeck(state.discardPile);
+    }
+
+    EngineState getState() {
+        return state;
+    }
+
+    public int getNbOfPlayerCards() {
+        return state.playerDeck.length;
+    }
+
+    public List<Role> getAffectedRoles() {
+        return affectedRoles;
+    }
+
+    public IntDeckView getInfectionDeck() {
+        return infectionDeck;
+    }
+
+    public IntDeckView getDiscardPile() {
+        return discardPile;
+    }
+
+    /**
+     * A deck that never changes, over an array never modified
+     */
+    private static final class FrozenDeck implements IntDeckView {
+        private final int[] cards;
+        private List<Integer> listView;
+
+        FrozenDeck(int[] cards) {
+            this.cards = cards;
+        }
+
+        @Override
+        public int size() {
+            return cards.length;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return cards.length == 0;
+        }
+
+        @Override
+        public int get(int index) {
+            if (index < 0 || index >= cards.length) {
+                throw new IndexOutOfBoundsException("No card at position " + index + " in a deck of " + cards.length);
+            }
+            return cards[index];
+        }
+
+        @Override
+        public boolean contains(int card) {
+            return indexOf(card) >= 0;
+        }
+
+        @Override
+        public int indexOf(int card) {
+            for (int i = 0; i < cards.length; i++) {
+                if (cards[i] == card) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public int[] toArray() {
+            return cards.clone();
+        }
+
+        @Override
+        public List<Integer> asList() {
+            if (listView == null) {
+                listView = new ListView();
+            }
+            return listView;
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(cards);
+        }
+
+        private class ListView extends AbstractList<Integer> implements RandomAccess {
+            @Override
+            public Integer get(int index) {
+                return FrozenDeck.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return cards.length;
+            }
+        }
+    }
+}
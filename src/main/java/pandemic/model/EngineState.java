@@ -0,0 +1,74 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable snapshot of the part of a GameEngine that the operations change : the roles, the three decks,
+ *  and the state of the random generator.
+ * The arrays are never modified once captured, so a snapshot shares the arrays of the previous one
+ *  when they are unchanged : most operations change a single deck, and a snapshot then costs only
+ *  the copy of that deck (at most 64 ints).
+ *
+ * @author manur
+ * @since v2.9
+ */
+final class EngineState {
+
+    final int[] affectedRoles;
+    final int[] playerDeck;
+    final int[] infectionDeck;
+    final int[] discardPile;
+    final long[] randomState; // null when the generator can't be restored
+
+    private EngineState(int[] affectedRoles, int[] playerDeck, int[] infectionDeck, int[] discardPile, long[] randomState) {
+        this.affectedRoles = affectedRoles;
+        this.playerDeck = playerDeck;
+        this.infectionDeck = infectionDeck;
+        this.discardPile = discardPile;
+        this.randomState = randomState;
+    }
+
+    /**
+     * @param previous The previous snapshot of the same game, whose arrays are reused if they are unchanged ; may be null
+     */
+    static EngineState capture(List<Integer> affectedRoles, List<Integer> playerDeck, IntDeckView infectionDeck,
+            IntDeckView discardPile, long[] randomState, EngineState previous) {
+        return new EngineState(
+                share(toArray(affectedRoles), previous == null ? null : previous.affectedRoles),
+                share(toArray(playerDeck), previous == null ? null : previous.playerDeck),
+                share(infectionDeck.toArray(), previous == null ? null : previous.infectionDeck),
+                share(discardPile.toArray(), previous == null ? null : previous.discardPile),
+                randomState);
+    }
+
+    private static int[] share(int[] current, int[] previous) {
+        return Arrays.equals(current, previous) ? previous : current;
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.model;
+
+import java.io.Serializable;
+
+/**
+ * The immutable, non-graphical data of the game needed by the GameEngine : the name and color of each city,
+ *  and the number of starting cards dealt to each player.
+ * A single catalog can be shared by any number of games.
+ *
+ * @author manur
+ * @since v2.9
+ */
+public final class GameCatalog implements Serializable {
+	private static final long serialVersionUID = 29L;
+
+	private final String[] cityNames;
+	private final Disease[] cityColors;
+	private final int[] cardsPerRole;
+
+	/**
+	 * Constructor
+	 * @param cityNames The city names, indexed by city id (the id 0 is the Epidemic pseudo-city)
+	 * @param cityColors The city colors, indexed by city id (null for the Epidemic pseudo-city)
+	 * @param cardsPerRole The number of starting player cards, indexed by the number of roles
+	 */
+	public GameCatalog(String[] cityNames, Disease[] cityColors, int[] cardsPerRole) {
+		this.cityNames = cityNames.clone();
+		this.cityColors = cityColors.clone();
+		this.cardsPerRole = cardsPerRole.clone();
+	}
+
+	public int getNbOfCities() {
+		return cityNames.length;
+	}
+
+	public String getCityName(int cityId) {
+		return cityNames[cityId];
+	}
+
+	public Disease getCityColor(int cityId) {
+		return cityColors[cityId];
+	}
+
+	public int getCardsPerRole(int nbOfRoles) {
+		return cardsPerRole[nbOfRoles];
+	}
+}
@@ -0,0 +1,521 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>,
+ *             (C) 2010 Andras Damian <http://boardgamegeek.com/user/jancsoo>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.model;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pandemic.util.GameConfig;
+import pandemic.util.RandomSource;
+import pandemic.util.RandomUtil;
+import pandemic.util.XoshiroRandomSource;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static pandemic.model.Variant.*;
+
+/**
+ * The pure-data state of a game and the mechanics of its decks.
+ * Cards, roles and cities are only known by their ids : there's no image, no coordinates and no Swing
+ *  component here, so that a game can be set up and played out without any graphical resource.
+ * The PandemicModel wraps an instance of this class and mirrors its state with the graphical components.
+ *
+ * @author jancsoo
+ * @author manur
+ * @since v2.9
+ */
+public class GameEngine implements Serializable {
+
+	private static final long serialVersionUID = 29L;
+
+	private static final Logger logger = LoggerFactory.getLogger(GameEngine.class);
+
+	private static final int NB_OF_INITIAL_INFECTIONS = 9;
+
+	private final GameConfig config;
+	private final GameCatalog catalog;
+	private final RandomUtil randomizer;
+
+	private final List<Integer> affectedRoles = new ArrayList<Integer>();
+
+	private List<Integer> specialEvents = Collections.emptyList();
+	private List<Integer> epidemics = Collections.emptyList();
+	private List<Integer> mutationEvents = Collections.emptyList();
+	private List<Integer> emergencyEvents = Collections.emptyList();
+
+	private int[][] startingHands; // [role][row]
+	private List<Integer> playerDeck = new ArrayList<Integer>(); // Player cards still in the drawing pile
+	private int[] playerPileSizes = new int[0]; // The piles of the starting player deck, from the top, with their epidemic card
+
+	private static final int INFECTION_DECK_CAPACITY = 64; // 48 cities and the mutation cards
+
+	private final IntDeck infectionDeck = new IntDeck(INFECTION_DECK_CAPACITY); // Infection pile to draw
+	private final IntDeck discardPile = new IntDeck(INFECTION_DECK_CAPACITY); // Infection cards discarded
+
+	private final List<InitialInfection> initialInfections = new ArrayList<InitialInfection>();
+	private final int[] cubesInReserve = new int[Disease.values().length];
+
+	private final GameJournal journal; // The operations applied since the set up
+
+	/**
+	 * Constructor
+	 * @param config The game configuration
+	 * @param catalog The non-graphical data of the cities
+	 * @param randomizer The source of randomness for all shuffles and draws of this game
+	 */
+	public GameEngine(GameConfig config, GameCatalog catalog, RandomUtil randomizer) {
+		this.config = config;
+		this.catalog = catalog;
+		this.randomizer = randomizer;
+		this.journal = new GameJournal(config, randomizer.getSeed());
+	}
+
+	/**
+	 * Set up the decks, roles and initial infections for a new game.
+	 */
+	public void setUp() {
+		/**************************************************************************
+		 *                               Roles                                    *
+		 **************************************************************************/
+
+		List<Integer> availableRoles = SetupRules.availableRoles(config);
+		randomizer.shuffleInPlace(availableRoles);
+		affectedRoles.addAll(availableRoles.subList(0, config.getNbOfRoles()));
+		logger.debug("...chosen Roles : {}", affectedRoles);
+
+		/**************************************************************************
+		 *                           Infection Cards                              *
+		 **************************************************************************/
+
+		for (int q = 1; q < catalog.getNbOfCities(); q++) {
+			infectionDeck.addBottom(q);
+		}
+		infectionDeck.shuffle(randomizer);
+
+		// Mutation expansion
+		// The two mutation cards are put on top of the Infection *discard* pile
+		if (config.getVariants().contains(MUTATION)) {
+			discardPile.addTop(101);
+			discardPile.addTop(100);
+		} else if (config.getVariants().contains(WORLDWIDE_PANIC)) {
+			// Worldwide Panic challenge
+			// Add the two alternative mutation cards on top of the Infection *discard* pile
+			discardPile.addTop(110);
+			discardPile.addTop(111);
+		}
+
+		/**************************************************************************
+		 *                             Player Cards                               *
+		 **************************************************************************/
+
+		// First, let's set up a deck containing only player (city) cards and Special Events
+		List<Integer> cardsLibrary = new ArrayList<Integer>();
+		for (int cityId = 1; cityId < catalog.getNbOfCities(); cityId++) {
+			cardsLibrary.add(cityId);
+		}
+		specialEvents = SetupRules.drawSpecialEvents(config, randomizer);
+		cardsLibrary.addAll(specialEvents);
+
+		// Then shuffle
+		randomizer.shuffleInPlace(cardsLibrary);
+
+		// Distribute : the cards are dealt one by one to each player in turn
+		int nbOfRoles = config.getNbOfRoles();
+		int nbOfCardsPerRole = catalog.getCardsPerRole(nbOfRoles);
+		startingHands = new int[nbOfRoles][nbOfCardsPerRole];
+		for (int row = 0; row < nbOfCardsPerRole; row++) {
+			for (int role = 0; role < nbOfRoles; role++) {
+				startingHands[role][row] = cardsLibrary.get(row * nbOfRoles + role);
+			}
+		}
+
+		// Constitute the deck without the distributed cards
+		playerDeck = new ArrayList<Integer>(cardsLibrary.subList(nbOfRoles * nbOfCardsPerRole, cardsLibrary.size()));
+
+		// Add the Mutation event cards randomly in the deck
+		if (config.getVariants().contains(MUTATION) || config.getVariants().contains(WORLDWIDE_PANIC)) {
+			mutationEvents = SetupRules.mutationEvents();
+			SetupRules.insertRandomly(playerDeck, mutationEvents, randomizer);
+		}
+
+		epidemics = SetupRules.drawEpidemics(config, randomizer);
+
+		if (config.getVariants().contains(EMERGENCY_EVENTS)) {
+			emergencyEvents = SetupRules.drawEmergencyEvents(randomizer);
+		}
+
+		// Add them intelligently to the player deck, splitting it into piles of the same size
+		// and adding one epidemic card at a random place in each pile
+		playerPileSizes = SetupRules.determinePileSizes(playerDeck.size(), epidemics.size());
+		for (int pile = 0; pile < playerPileSizes.length; pile++) {
+			playerPileSizes[pile] += emergencyEvents.isEmpty() ? 1 : 2;
+		}
+		playerDeck = SetupRules.addCardsEvenly(playerDeck, epidemics, emergencyEvents, randomizer);
+		logger.debug("Starting player deck : {}", playerDeck);
+
+		/**************************************************************************
+		 *                          Initial infections                            *
+		 **************************************************************************/
+
+		for (Disease color : config.getDiseases()) {
+			cubesInReserve[color.ordinal()] = config.numberOfCubes(color);
+		}
+
+		// Draw 9 cards from the infection deck and discard them.
+		// The cubes are to be taken from the reserve and placed on the city depicted
+		// on each infection card.
+		for (int infection = 0; infection < NB_OF_INITIAL_INFECTIONS; infection++) {
+			// (not through drawInfectionCard(), as the set up is not part of the journal)
+			int cityId = infectionDeck.drawTop();
+			discardPile.addBottom(cityId);
+			logger.debug("Initial infection: {} - {}", cityId, cardName(cityId));
+
+			List<Disease> cubes = SetupRules.initialInfectionCubes(config, catalog.getCityColor(cityId), infection);
+			for (Disease cube : cubes) {
+				cubesInReserve[cube.ordinal()]--;
+			}
+			initialInfections.add(new InitialInfection(cityId, cubes));
+		}
+	}
+
+	/**********************************************************************/
+
+	/*
+	 * The operations are checked before anything is changed : a wrong one leaves the game as it was,
+	 *  whatever the front-end that asks for it.
+	 */
+
+	/**
+	 * Draw the next player card from the stack.
+	 * @return the drawn card id
+	 * @throws IllegalStateException if the player deck is empty
+	 */
+	public int drawPlayerCard() {
+		if (playerDeck.isEmpty()) {
+			throw new IllegalStateException("No player card left");
+		}
+		int cardId = playerDeck.remove(0);
+		journal.drawPlayerCard();
+		return cardId;
+	}
+
+	/**
+	 * Draw a card from the top of the infection pile and put it on the discard pile.
+	 * @return the drawn card id
+	 * @throws IllegalStateException if the Infection deck is empty
+	 */
+	public int drawInfectionCard() {
+		checkInfectionDeck();
+		int nextCard = infectionDeck.drawTop();
+		discardPile.addBottom(nextCard);
+		journal.drawInfectionCard();
+
+		if (GameEventLog.isEnabled()) {
+			GameEventLog.log(GameEvent.INFECTION_CARD_DRAWN, "card", nextCard, "name", cardName(nextCard));
+		}
+
+		return nextCard;
+	}
+
+	/**
+	 * Draw a card from the BOTTOM of the infection pile and put it on the discard pile.
+	 * @return the drawn card id
+	 * @throws IllegalStateException if the Infection deck is empty
+	 */
+	public int drawBottomInfectionCard() {
+		checkInfectionDeck();
+		int bottomCard = infectionDeck.drawBottom();
+		discardPile.addBottom(bottomCard);
+		journal.drawBottomInfectionCard();
+
+		if (GameEventLog.isEnabled()) {
+			GameEventLog.log(GameEvent.BOTTOM_INFECTION_CARD_DRAWN, "card", bottomCard, "name", cardName(bottomCard));
+		}
+
+		return bottomCard;
+	}
+
+	/**
+	 * Shuffle the cards from the discard pile and put them on top of the Infection Deck
+	 */
+	public void reshuffleInfectionCards() {
+		int[] discardedCards = GameEventLog.isEnabled() ? discardPile.toArray() : null;
+
+		discardPile.shuffle(randomizer);
+
+		// Move the shuffled discard pile to the top of the infection drawing deck, which clears the discard pile
+		infectionDeck.moveAllOnTop(discardPile);
+		journal.reshuffleInfectionCards();
+		if (discardedCards != null) {
+			GameEventLog.log(GameEvent.INFECTION_CARDS_RESHUFFLED,
+					"discardPile", discardedCards, "infectionDeck", infectionDeck.toArray());
+		}
+	}
+
+	/**
+	 * Remove the card from the discarded pile of the Infection deck
+	 * @param discardedCardIndex Index of the card to remove in the discardPile List
+	 * @return true only when a card has been effectively removed
+	 * @throws IllegalArgumentException if there's no card at this index
+	 */
+	public boolean removeDiscardedCard(int discardedCardIndex) {
+		if (discardedCardIndex < 0 || discardedCardIndex >= discardPile.size()) {
+			throw new IllegalArgumentException("No discarded card at index " + discardedCardIndex);
+		}
+		int discardedCard = discardPile.get(discardedCardIndex);
+
+		// MUTATION! cards
+		if (SetupRules.isMutationCard(discardedCard)) {
+			return false;
+		}
+
+		discardPile.removeAt(discardedCardIndex);
+		journal.removeDiscardedCard(discardedCardIndex);
+		if (GameEventLog.isEnabled()) {
+			GameEventLog.log(GameEvent.DISCARDED_CARD_REMOVED,
+					"index", discardedCardIndex, "card", discardedCard, "name", cardName(discardedCard));
+		}
+
+		return true;
+	}
+
+	/**
+	 * Rearrange the first 6 cards at the top of the Infection deck following the given new order
+	 *  (or the N remaining cards if there are less than 6 cards in the deck).
+	 * @param newCardOrder The position indexes of the cards in the current configuration of the Infection deck,
+	 *  					in the order in which the method has to place them now.
+	 */
+	public void rearrangeInfectionDeck(List<Integer> newCardOrder) {
+		int[] newOrder = new int[newCardOrder.size()];
+		for (int i = 0; i < newOrder.length; i++) {
+			newOrder[i] = newCardOrder.get(i);
+		}
+		rearrangeInfectionDeck(newOrder);
+	}
+
+	/**
+	 * Rearrange the top cards of the Infection deck following the given new order, in place.
+	 * @param newCardOrder The position indexes of the cards in the current configuration of the Infection deck,
+	 *  					in the order in which the method has to place them now.
+	 * @throws IllegalArgumentException if it's not an order of the cards seen by a Forecast
+	 */
+	public void rearrangeInfectionDeck(int[] newCardOrder) {
+		int nbOfCards = Math.min(SetupRules.FORECAST_CARDS, infectionDeck.size());
+		if (newCardOrder.length != nbOfCards) {
+			throw new IllegalArgumentException("The order of " + nbOfCards + " cards is expected");
+		}
+		infectionDeck.permuteTop(newCardOrder);
+		journal.rearrangeInfectionDeck(newCardOrder);
+		if (GameEventLog.isEnabled()) {
+			GameEventLog.log(GameEvent.INFECTION_DECK_REARRANGED,
+					"newOrder", newCardOrder.clone(), "infectionDeck", infectionDeck.toArray());
+		}
+	}
+
+	/**
+	 * Change a role
+	 * @param roleIndex The index of the role changing
+	 * @param newRoleId The id of the new role
+	 * @throws IllegalArgumentException if there's no role at this index, or if the new role can't be played
+	 */
+	public void changeRole(int roleIndex, int newRoleId) {
+		if (roleIndex < 0 || roleIndex >= affectedRoles.size()) {
+			throw new IllegalArgumentException("No role at index " + roleIndex);
+		}
+		if (affectedRoles.contains(newRoleId)) {
+			throw new IllegalArgumentException("Role " + newRoleId + " already in use");
+		}
+		if (!SetupRules.availableRoles(config).contains(newRoleId)) {
+			throw new IllegalArgumentException("Role " + newRoleId + " not available in this game");
+		}
+		affectedRoles.set(roleIndex, newRoleId);
+		journal.changeRole(roleIndex, newRoleId);
+		if (GameEventLog.isEnabled()) {
+			GameEventLog.log(GameEvent.ROLE_CHANGED, "roleIndex", roleIndex, "role", newRoleId);
+		}
+	}
+
+	/**
+	 * Put back the decks and roles of a saved game, in place of the ones dealt by setUp().
+	 * @param affectedRoleIds The ids of the roles in play
+	 * @param playerDeckIds The player cards still in the drawing pile, from the top
+	 * @param infectionDeckCards The infection pile, from the top
+	 * @param discardPileCards The discarded infection cards, from the first discarded
+	 * @param journalRecords The operations applied to the saved game since its set up
+	 */
+	void restore(int[] affectedRoleIds, int[] playerDeckIds, int[] infectionDeckCards, int[] discardPileCards,
+			ByteBuffer journalRecords) {
+		setState(affectedRoleIds, playerDeckIds, infectionDeckCards, discardPileCards);
+		journal.readRecords(journalRecords);
+	}
+
+	/**
+	 * @param previous The previous snapshot of this game, with which the unchanged arrays are shared ; may be null
+	 * @return A snapshot of the decks, the roles and the random generator
+	 */
+	EngineState captureState(EngineState previous) {
+		RandomSource source = randomizer.getSource();
+		long[] randomState = (source instanceof XoshiroRandomSource) ? ((XoshiroRandomSource) source).getState() : null;
+		return EngineState.capture(affectedRoles, playerDeck, infectionDeck, discardPile, randomState, previous);
+	}
+
+	/**
+	 * Put the game back in the state of the snapshot, and record it in the journal
+	 * @param state A snapshot captured before the operation to undo
+	 */
+	void undo(EngineState state) {
+		setState(state.affectedRoles, state.playerDeck, state.infectionDeck, state.discardPile);
+		if (state.randomState != null) {
+			((XoshiroRandomSource) randomizer.getSource()).setState(state.randomState);
+		}
+		journal.undo();
+	}
+
+	private void setState(int[] affectedRoleIds, int[] playerDeckIds, int[] infectionDeckCards, int[] discardPileCards) {
+		affectedRoles.clear();
+		for (int roleId : affectedRoleIds) {
+			affectedRoles.add(roleId);
+		}
+
+		playerDeck.clear();
+		for (int cardId : playerDeckIds) {
+			playerDeck.add(cardId);
+		}
+
+		infectionDeck.clear();
+		for (int card : infectionDeckCards) {
+			infectionDeck.addBottom(card);
+		}
+
+		discardPile.clear();
+		for (int card : discardPileCards) {
+			discardPile.addBottom(card);
+		}
+	}
+
+	private void checkInfectionDeck() {
+		if (infectionDeck.isEmpty()) {
+			throw new IllegalStateException("No infection card left");
+		}
+	}
+
+	private String cardName(int infectionCard) {
+		return SetupRules.isMutationCard(infectionCard) ? "MUTATION!" : catalog.getCityName(infectionCard);
+	}
+
+	/**********************************************************************/
+
+	public GameConfig getConfig() {
+		return config;
+	}
+
+	public GameCatalog getCatalog() {
+		return catalog;
+	}
+
+	public RandomUtil getRandomizer() {
+		return randomizer;
+	}
+
+	public List<Integer> getAffectedRoles() {
+		return affectedRoles;
+	}
+
+	/**
+	 * @return The starting player cards of each role, indexed by [role][row]
+	 */
+	public int[][] getStartingHands() {
+		return startingHands;
+	}
+
+	public List<Integer> getSpecialEvents() {
+		return specialEvents;
+	}
+
+	public List<Integer> getEpidemics() {
+		return epidemics;
+	}
+
+	public List<Integer> getMutationEvents() {
+		return mutationEvents;
+	}
+
+	public List<Integer> getEmergencyEvents() {
+		return emergencyEvents;
+	}
+
+	/**
+	 * @return The sizes of the piles stacked to make the starting player deck, from the top, each one with
+	 *  one epidemic card (and one Emergency Event card with this variant)
+	 */
+	public int[] getPlayerPileSizes() {
+		return playerPileSizes.clone();
+	}
+
+	public List<Integer> getPlayerDeck() {
+		return playerDeck;
+	}
+
+	public IntDeckView getInfectionDeck() {
+		return infectionDeck;
+	}
+
+	public GameJournal getJournal() {
+		return journal;
+	}
+
+	public IntDeckView getDiscardPile() {
+		return discardPile;
+	}
+
+	public List<InitialInfection> getInitialInfections() {
+		return initialInfections;
+	}
+
+	public int getCubesInReserve(Disease color) {
+		return cubesInReserve[color.ordinal()];
+	}
+
+	/**
+	 * One of the nine infections of the set up : the infected city and the cubes put on it.
+	 */
+	public static final class InitialInfection implements Serializable {
+		private static final long serialVersionUID = 29L;
+
+		private final int cityId;
+		private final List<Disease> cubes;
+
+		public InitialInfection(int cityId, List<Disease> cubes) {
+			this.cityId = cityId;
+			this.cubes = cubes;
+		}
+
+		public int getCityId() {
+			return cityId;
+		}
+
+		public List<Disease> getCubes() {
+			return cubes;
+		}
+	}
+}
@@ -0,0 +1,37 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.model;
+
+/**
+ * The types of the events of the game log
+ *
+ * @author manur
+ * @since v2.9
+ */
+public enum GameEvent {
+    PLAYER_CARD_DRAWN,
+    INFECTION_CARD_DRAWN,
+    BOTTOM_INFECTION_CARD_DRAWN,
+    INFECTION_CARDS_RESHUFFLED,
+    DISCARDED_CARD_REMOVED,
+    INFECTION_DECK_REARRANGED,
+    ROLE_CHANGED,
+    UNDO,
+    REDO
+}
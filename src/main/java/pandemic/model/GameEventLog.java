@@ -0,0 +1,83 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.model;
+
+import java.util.Arrays;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The log of the game events : one line per operation on the decks or the roles, like
+ *  "INFECTION_CARD_DRAWN card=12 name=Paris", written by the "pandemic.events" logger.
+ * The log is off unless the application is started with "--log" (or "--console"). The callers check isEnabled()
+ *  before gathering the fields of an event, so that a disabled log only costs that check.
+ * When it's enabled, the events are queued to the asynchronous appender of logback.xml : each line is formatted
+ *  on the worker thread of this appender when it's written, and the events it drops are never formatted.
+ *
+ * @author manur
+ * @since v2.9
+ */
+public final class GameEventLog {
+
+    public static final String LOGGER_NAME = "pandemic.events";
+
+    private static final Logger logger = LoggerFactory.getLogger(LOGGER_NAME);
+
+    private GameEventLog() {
+    }
+
+    public static boolean isEnabled() {
+        return logger.isInfoEnabled();
+    }
+
+    /**
+     * @param event The type of the event
+     * @param fields The names and the values of the fields of the event, alternately ; the arrays
+     *  are not copied, so they must not change afterwards
+     */
+    public static void log(GameEvent event, Object... fields) {
+        logger.info("{}", new Line(event, fields));
+    }
+
+    /**
+     * An event, formatted on the worker thread of the asynchronous appender when it's written,
+     *  and never formatted if it's dropped
+     */
+    static final class Line {
+        private final GameEvent event;
+        private final Object[] fields;
+
+        Line(GameEvent event, Object[] fields) {
+            this.event = event;
+            this.fields = fields;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(event.name());
+            for (int i = 0; i + 1 < fields.length; i += 2) {
+                sb.append(' ').append(fields[i]).append('=');
+                Object value = fields[i + 1];
+                sb.append(value instanceof int[] ? Arrays.toString((int[]) value) : String.valueOf(value));
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,333 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.model;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.LinkedList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import pandemic.util.GameConfig;
+import pandemic.util.RandomUtil;
+
+/**
+ * The append-only journal of the operations applied to a GameEngine since its set up.
+ * With the configuration and the seed of the game, it's enough to rebuild the exact same game :
+ *  the set up and every shuffle are replayed from the seed, then the operations in order.
+ * Each operation is encoded as a record of a few bytes : its kind, followed by its arguments.
+ * <p>
+ * The journal can be attached to a file, where each new record is appended as soon as it's recorded.
+ * The file starts with the magic number "PJRN", the version of the format (short), the configuration
+ *  of the game and the seed ; the records follow, up to the end of the file. A record cut short by
+ *  a crash is ignored when the file is read.
+ *
+ * @author manur
+ * @since v2.9
+ */
+public final class GameJournal implements Serializable {
+    private static final long serialVersionUID = 29L;
+
+    private static final Logger logger = LoggerFactory.getLogger(GameJournal.class);
+
+    public static final int MAGIC = 0x504A524E; // "PJRN"
+    public static final short VERSION = 1;
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * The operations recorded, with the size in bytes of their arguments
+     */
+    public enum Operation {
+        DRAW_PLAYER_CARD(0),
+        DRAW_INFECTION_CARD(0),
+        DRAW_BOTTOM_INFECTION_CARD(0),
+        RESHUFFLE_INFECTION_CARDS(0),
+        REMOVE_DISCARDED_CARD(1), // index in the discard pile
+        REARRANGE_INFECTION_DECK(-1), // number of cards, then the new order
+        CHANGE_ROLE(1 + 4), // index of the role, id of the new role
+        UNDO(0); // back to the state before the last operation not undone yet ; a redo is recorded as the operation itself
+
+        private final int argumentsSize;
+
+        private Operation(int argumentsSize) {
+            this.argumentsSize = argumentsSize;
+        }
+    }
+
+    private final GameConfig config;
+    private final long seed;
+
+    private byte[] records = new byte[INITIAL_CAPACITY];
+    private int size;
+    private int nbOfOperations;
+
+    private transient FileChannel channel;
+
+    /**
+     * @param config The configuration of the game
+     * @param seed The seed of the randomizer of the game (not always the one of the config, see HeadlessSimulation)
+     */
+    public GameJournal(GameConfig config, long seed) {
+        this.config = config;
+        this.seed = seed;
+    }
+
+    /* ***** Recording ***** */
+
+    void drawPlayerCard() {
+        record(Operation.DRAW_PLAYER_CARD, null);
+    }
+
+    void drawInfectionCard() {
+        record(Operation.DRAW_INFECTION_CARD, null);
+    }
+
+    void drawBottomInfectionCard() {
+        record(Operation.DRAW_BOTTOM_INFECTION_CARD, null);
+    }
+
+    void reshuffleInfectionCards() {
+        record(Operation.RESHUFFLE_INFECTION_CARDS, null);
+    }
+
+    void removeDiscardedCard(int discardedCardIndex) {
+        record(Operation.REMOVE_DISCARDED_CARD, new byte[] { (byte) discardedCardIndex });
+    }
+
+    void rearrangeInfectionDeck(int[] newCardOrder) {
+        byte[] arguments = new byte[1 + newCardOrder.length];
+        arguments[0] = (byte) newCardOrder.length;
+        for (int i = 0; i < newCardOrder.length; i++) {
+            arguments[i + 1] = (byte) newCardOrder[i];
+        }
+        record(Operation.REARRANGE_INFECTION_DECK, arguments);
+    }
+
+    void changeRole(int roleIndex, int newRoleId) {
+        record(Operation.CHANGE_ROLE, ByteBuffer.allocate(5).put((byte) roleIndex).putInt(newRoleId).array());
+    }
+
+    void undo() {
+        record(Operation.UNDO, null);
+    }
+
+    private void record(Operation operation, byte[] arguments) {
+        int recordSize = 1 + (arguments == null ? 0 : arguments.length);
+        if (size + recordSize > records.length) {
+            records = Arrays.copyOf(records, Math.max(records.length * 2, size + recordSize));
+        }
+        int start = size;
+        records[size++] = (byte) operation.ordinal();
+        if (arguments != null) {
+            System.arraycopy(arguments, 0, records, size, arguments.length);
+            size += arguments.length;
+        }
+        nbOfOperations++;
+
+        if (channel != null) {
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(records, start, recordSize);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                logger.error("Failed to append to the journal file : it's not written anymore", e);
+                channel = null;
+            }
+        }
+    }
+
+    /* ***** Replay ***** */
+
+    /**
+     * Rebuild the game : set up a new engine with the configuration and the seed, and apply all the operations.
+     * The journal of the new engine ends up equal to this one.
+     * @param catalog The non-graphical data of the cities
+     */
+    public GameEngine replay(GameCatalog catalog) {
+        GameEngine engine = new GameEngine(config, catalog, new RandomUtil(seed));
+        engine.setUp();
+        replayOn(engine);
+        return engine;
+    }
+
+    /**
+     * Apply all the operations to an engine that has just been set up with the same configuration and seed
+     */
+    public void replayOn(GameEngine engine) {
+        ByteBuffer buffer = ByteBuffer.wrap(records, 0, size);
+        Operation[] operations = Operation.values();
+        LinkedList<EngineState> undoStates = new LinkedList<EngineState>(); // the state before each operation
+        while (buffer.hasRemaining()) {
+            Operation operation = operations[buffer.get()];
+            if (operation == Operation.UNDO) {
+                engine.undo(undoStates.removeLast());
+                continue;
+            }
+            undoStates.addLast(engine.captureState(undoStates.isEmpty() ? null : undoStates.getLast()));
+            if (undoStates.size() > UndoHistory.MAX_LEVELS) {
+                undoStates.removeFirst();
+            }
+
+            switch (operation) {
+            case DRAW_PLAYER_CARD:
+                engine.drawPlayerCard();
+                break;
+            case DRAW_INFECTION_CARD:
+                engine.drawInfectionCard();
+                break;
+            case DRAW_BOTTOM_INFECTION_CARD:
+                engine.drawBottomInfectionCard();
+                break;
+            case RESHUFFLE_INFECTION_CARDS:
+                engine.reshuffleInfectionCards();
+                break;
+            case REMOVE_DISCARDED_CARD:
+                engine.removeDiscardedCard(buffer.get());
+                break;
+            case REARRANGE_INFECTION_DECK:
+                int[] newCardOrder = new int[buffer.get()];
+                for (int i = 0; i < newCardOrder.length; i++) {
+                    newCardOrder[i] = buffer.get();
+                }
+                engine.rearrangeInfectionDeck(newCardOrder);
+                break;
+            case CHANGE_ROLE:
+                engine.changeRole(buffer.get(), buffer.getInt());
+                break;
+            default:
+                throw new IllegalStateException("Unexpected operation in the journal : " + operation);
+            }
+        }
+    }
+
+    /* ***** File ***** */
+
+    /**
+     * Write the header and the operations already recorded to the channel, then append every new operation to it.
+     * The channel is not closed by the journal.
+     */
+    public void attach(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(1024);
+        header.putInt(MAGIC);
+        header.putShort(VERSION);
+        SavedGameFormat.writeConfig(header, config, seed);
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(records, 0, size);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        this.channel = channel;
+    }
+
+    public void detach() {
+        channel = null;
+    }
+
+    /**
+     * Read a journal file, ignoring an incomplete last record
+     */
+    public static GameJournal read(FileChannel channel) throws IOException {
+        long fileSize = channel.size() - channel.position();
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IOException("Not a PandemicSolo journal file (size: " + fileSize + " bytes)");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) fileSize);
+        while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+            // read up to the end
+        }
+        buffer.flip();
+
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a PandemicSolo journal file");
+            }
+            short version = buffer.getShort();
+            if (version > VERSION) {
+                throw new IOException("Journal file written by a newer version of PandemicSolo (format v" + version + ")");
+            }
+            GameConfig config = SavedGameFormat.readConfig(buffer);
+            GameJournal journal = new GameJournal(config, config.getSeed());
+            journal.readRecords(buffer);
+            return journal;
+        } catch (RuntimeException e) {
+            // BufferUnderflowException in the header, or unknown enum names in the configuration
+            throw new IOException("Invalid journal file", e);
+        }
+    }
+
+    /**
+     * Append the complete records of the buffer, until its end or until the first incomplete or unknown one
+     */
+    void readRecords(ByteBuffer buffer) {
+        Operation[] operations = Operation.values();
+        while (buffer.hasRemaining()) {
+            int kind = buffer.get();
+            if (kind < 0 || kind >= operations.length) {
+                logger.warn("Unknown operation {} in the journal : the rest is ignored", kind);
+                return;
+            }
+            int argumentsSize = operations[kind].argumentsSize;
+            if (argumentsSize < 0) {
+                argumentsSize = buffer.hasRemaining() ? 1 + buffer.get(buffer.position()) : 1;
+            }
+            if (buffer.remaining() < argumentsSize) {
+                logger.warn("Incomplete last operation in the journal : ignored");
+                return;
+            }
+            byte[] arguments = new byte[argumentsSize];
+            buffer.get(arguments);
+            record(operations[kind], arguments);
+        }
+    }
+
+    /**
+     * @return A copy of the records, without the header
+     */
+    byte[] getRecords() {
+        return Arrays.copyOf(records, size);
+    }
+
+    public GameConfig getConfig() {
+        return config;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getNbOfOperations() {
+        return nbOfOperations;
+    }
+
+    /**
+     * @return The size in bytes of the recorded operations
+     */
+    public int getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,207 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.model;
+
+import pandemic.model.objects.PandemicObject;
+import pandemic.util.GameConfig;
+import pandemic.util.RandomUtil;
+
+/**
+ * A game played with its GameEngine only, without any graphical component : the operations of the
+ *  BoardController on the decks and the roles, and their undo.
+ * Its state is the one of the engine (a few hundred ints) and of a short undo history whose snapshots
+ *  share their unchanged arrays : a few KB, while the catalog is shared by all the games.
+ * The operations are checked by the engine before it's changed, so that a wrong one leaves the game as it was.
+ * Not thread-safe : to be played on one thread at a time.
+ *
+ * @author manur
+ * @since v2.9
+ */
+public class HeadlessGame {
+
+    public static final int UNDO_LEVELS = 20;
+
+    private final GameEngine engine;
+    private final UndoHistory history = new UndoHistory(UNDO_LEVELS);
+
+    /**
+     * Set up a new game
+     * @param config The configuration ; its seed is set if it has none
+     * @param catalog The catalog, shared by any number of games
+     */
+    public HeadlessGame(GameConfig config, GameCatalog catalog) {
+        this(config, catalog, config.getSeed() != null ? new RandomUtil(config.getSeed()) : new RandomUtil());
+    }
+
+    /**
+     * Set up a new game drawing from the given random generator
+     * @param config The configuration ; its seed is set to the one of the generator
+     * @param catalog The catalog, shared by any number of games
+     */
+    public HeadlessGame(GameConfig config, GameCatalog catalog, RandomUtil randomizer) {
+        config.setSeed(randomizer.getSeed());
+        engine = new GameEngine(config, catalog, randomizer);
+        engine.setUp();
+    }
+
+    /**
+     * @return The id of the card drawn
+     * @throws IllegalStateException if the player deck is empty
+     */
+    public int drawPlayerCard() {
+        EngineState before = captureState();
+        int card = engine.drawPlayerCard();
+        history.record(UndoHistory.Step.operation(UndoHistory.Action.DRAW_PLAYER_CARD, before));
+        return card;
+    }
+
+    /**
+     * @return The id of the card drawn from the top of the Infection deck
+     * @throws IllegalStateException if the Infection deck is empty
+     */
+    public int drawInfectionCard() {
+        EngineState before = captureState();
+        int card = engine.drawInfectionCard();
+        history.record(UndoHistory.Step.operation(UndoHistory.Action.DRAW_INFECTION_CARD, before));
+        return card;
+    }
+
+    /**
+     * @return The id of the card drawn from the bottom of the Infection deck
+     * @throws IllegalStateException if the Infection deck is empty
+     */
+    public int drawBottomInfectionCard() {
+        EngineState before = captureState();
+        int card = engine.drawBottomInfectionCard();
+        history.record(UndoHistory.Step.operation(UndoHistory.Action.DRAW_BOTTOM_INFECTION_CARD, before));
+        return card;
+    }
+
+    public void reshuffleInfectionCards() {
+        EngineState before = captureState();
+        engine.reshuffleInfectionCards();
+        history.record(UndoHistory.Step.operation(UndoHistory.Action.RESHUFFLE_INFECTION_CARDS, before));
+    }
+
+    /**
+     * @param discardedCardIndex Index of the card to remove in the discard pile
+     * @return true only when a card has been effectively removed (the MUTATION! cards can't be)
+     * @throws IllegalArgumentException if there's no card at this index
+     */
+    public boolean removeDiscardedCard(int discardedCardIndex) {
+        EngineState before = captureState();
+        if (!engine.removeDiscardedCard(discardedCardIndex)) {
+            return false;
+        }
+        history.record(UndoHistory.Step.operation(UndoHistory.Action.REMOVE_DISCARDED_CARD, before, discardedCardIndex));
+        return true;
+    }
+
+    /**
+     * @param newCardOrder The positions of the top cards of the Infection deck, in their new order (see GameEngine)
+     * @throws IllegalArgumentException if it's not an order of the cards seen by a Forecast
+     */
+    public void rearrangeInfectionDeck(int[] newCardOrder) {
+        EngineState before = captureState();
+        engine.rearrangeInfectionDeck(newCardOrder);
+        history.record(UndoHistory.Step.operation(UndoHistory.Action.REARRANGE_INFECTION_DECK, before, newCardOrder.clone()));
+    }
+
+    /**
+     * @throws IllegalArgumentException if there's no role at this index, or if the new role can't be played
+     */
+    public void changeRole(int roleIndex, int newRoleId) {
+        EngineState before = captureState();
+        engine.changeRole(roleIndex, newRoleId);
+        history.record(UndoHistory.Step.operation(UndoHistory.Action.CHANGE_ROLE, before, roleIndex, newRoleId));
+    }
+
+    /**
+     * Undo the last operation : the decks and the random generator are put back as they were
+     *  (a generator whose state can't be put back makes the shuffles final)
+     * @return false if there's nothing to undo
+     */
+    public boolean undo() {
+        if (!history.canUndo()) {
+            return false;
+        }
+        engine.undo(history.undo().before);
+        return true;
+    }
+
+    /**
+     * Do again the last operation undone
+     * @return false if there's nothing to redo
+     */
+    public boolean redo() {
+        if (!history.canRedo()) {
+            return false;
+        }
+        history.redo(new UndoHistory.Redoer() {
+            @Override
+            public void drawPlayerCard() {
+                HeadlessGame.this.drawPlayerCard();
+            }
+
+            @Override
+            public void drawInfectionCard() {
+                HeadlessGame.this.drawInfectionCard();
+            }
+
+            @Override
+            public void drawBottomInfectionCard() {
+                HeadlessGame.this.drawBottomInfectionCard();
+            }
+
+            @Override
+            public void reshuffleInfectionCards() {
+                HeadlessGame.this.reshuffleInfectionCards();
+            }
+
+            @Override
+            public void removeDiscardedCard(int discardedCardIndex) {
+                HeadlessGame.this.removeDiscardedCard(discardedCardIndex);
+            }
+
+            @Override
+            public void rearrangeInfectionDeck(int[] newCardOrder) {
+                HeadlessGame.this.rearrangeInfectionDeck(newCardOrder);
+            }
+
+            @Override
+            public void changeRole(int roleIndex, int newRoleId) {
+                HeadlessGame.this.changeRole(roleIndex, newRoleId);
+            }
+
+            @Override
+            public void moveComponent(PandemicObject component, int fromX, int fromY, int toX, int toY) {
+                throw new IllegalStateException("No component to move in a headless game");
+            }
+        });
+        return true;
+    }
+
+    public GameEngine getEngine() {
+        return engine;
+    }
+
+    private EngineState captureState() {
+        return engine.captureState(history.getLastState());
+    }
+}
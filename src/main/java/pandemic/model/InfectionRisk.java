@@ -0,0 +1,370 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.model;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import pandemic.model.objects.Card;
+import pandemic.model.objects.PandemicObject;
+import pandemic.util.DecksObserver;
+
+/**
+ * The odds of the next draws, from what the players know of the decks : which cities may be infected
+ *  by the next infection cards, and the chance of an epidemic in the next player cards.
+ * <p>
+ * The Infection deck is known as a stack of layers : the cards of each reshuffled discard pile lie
+ *  together on top of the older ones, in an unknown order, and the cards seen and put back in order by
+ *  a Forecast are layers of one card. A city is drawn in the next N cards with the chance that its
+ *  position in its layer is among the first N - (the cards of the layers above).
+ * <br>
+ * The player deck is made of piles with one epidemic card each (see SetupRules.addCardsEvenly()) :
+ *  the epidemic of a pile not found yet is at any of its remaining places.
+ * <p>
+ * The layers are updated on each notification of the model by the cards that moved only, and put back
+ *  by the undo of the operation. The odds are computed from them when asked for, layer by layer.
+ * Registered as a SYNC observer, it follows every operation on the thread of the model ; its methods are
+ *  synchronized, so that the views ask for the odds from the EDT meanwhile.
+ *
+ * @author manur
+ * @since v2.9
+ */
+public class InfectionRisk implements DecksObserver {
+
+    private static final int MAX_CARD_ID = 128; // the cities and the mutation cards
+
+    private final GameEngine engine;
+
+    private final List<Layer> layers = new ArrayList<Layer>(); // from the top of the deck
+    private final Layer[] layerOf = new Layer[MAX_CARD_ID];
+    private final int[] positionInLayer = new int[MAX_CARD_ID];
+    private int nbOfCardsInLayers;
+
+    private final int[] playerPileSizes;
+    private int nbOfEpidemicsLeft;
+    private int nbOfPlayerCardsLeft;
+
+    // The changes of each operation on the decks, to put them back when it's undone
+    private final LinkedList<List<Change>> operations = new LinkedList<List<Change>>();
+
+    InfectionRisk(GameEngine engine) {
+        this.engine = engine;
+        this.playerPileSizes = engine.getPlayerPileSizes();
+        reset();
+    }
+
+    /**
+     * Start over from the current decks : the order of the Infection deck is unknown
+     */
+    synchronized void reset() {
+        for (Layer layer : layers) {
+            for (int i = 0; i < layer.size; i++) {
+                layerOf[layer.cards[i]] = null;
+            }
+        }
+        layers.clear();
+        nbOfCardsInLayers = 0;
+        operations.clear();
+
+        IntDeckView infectionDeck = engine.getInfectionDeck();
+        if (!infectionDeck.isEmpty()) {
+            addLayerOnTop(0, infectionDeck.size(), null);
+        }
+
+        nbOfEpidemicsLeft = 0;
+        nbOfPlayerCardsLeft = engine.getPlayerDeck().size();
+        for (int cardId : engine.getPlayerDeck()) {
+            if (SetupRules.playerCardType(cardId) == PandemicObject.Type.EPIDEMIC_CARD) {
+                nbOfEpidemicsLeft++;
+            }
+        }
+    }
+
+    /* **** The odds **** */
+
+    /**
+     * @return The chance for this infection card to be drawn in the next infection cards
+     */
+    public synchronized double getInfectionProbability(int card, int nbOfDraws) {
+        Layer cardLayer = (card >= 0 && card < MAX_CARD_ID) ? layerOf[card] : null;
+        if (cardLayer == null) {
+            return 0;
+        }
+        int above = 0;
+        for (Layer layer : layers) {
+            if (layer == cardLayer) {
+                break;
+            }
+            above += layer.size;
+        }
+        return cardLayer.probability(nbOfDraws - above);
+    }
+
+    /**
+     * @return The cards that may be drawn in the next infection cards, by layer from the top of the deck,
+     *  all the cards of a group having the same chance to be drawn
+     */
+    public synchronized List<Group> getGroupsAtRisk(int nbOfDraws) {
+        List<Group> groups = new ArrayList<Group>();
+        int above = 0;
+        for (Layer layer : layers) {
+            if (above >= nbOfDraws) {
+                break;
+            }
+            int[] cards = new int[layer.size];
+            System.arraycopy(layer.cards, 0, cards, 0, layer.size);
+            groups.add(new Group(layer.probability(nbOfDraws - above), cards));
+            above += layer.size;
+        }
+        return groups;
+    }
+
+    /**
+     * @return The chance to draw at least one epidemic card in the next player cards
+     */
+    public synchronized double getEpidemicProbability(int nbOfDraws) {
+        int nbOfCards = 0;
+        for (int pileSize : playerPileSizes) {
+            nbOfCards += pileSize;
+        }
+        int position = nbOfCards - nbOfPlayerCardsLeft; // the next card
+        int nbOfEpidemicsDrawn = playerPileSizes.length - nbOfEpidemicsLeft;
+
+        double noEpidemic = 1;
+        int pileStart = 0;
+        for (int pile = 0; pile < playerPileSizes.length && nbOfDraws > 0; pile++) {
+            int pileEnd = pileStart + playerPileSizes[pile];
+            if (pileEnd > position) {
+                int cardsLeft = pileEnd - Math.max(position, pileStart);
+                int draws = Math.min(nbOfDraws, cardsLeft);
+                if (pile >= nbOfEpidemicsDrawn) { // its epidemic is still among the cards left
+                    noEpidemic *= (double) (cardsLeft - draws) / cardsLeft;
+                }
+                nbOfDraws -= draws;
+            }
+            pileStart = pileEnd;
+        }
+        return 1 - noEpidemic;
+    }
+
+    /**
+     * Cards with the same chance to be drawn
+     */
+    public static final class Group {
+        private final double probability;
+        private final int[] cards;
+
+        Group(double probability, int[] cards) {
+            this.probability = probability;
+            this.cards = cards;
+        }
+
+        public double getProbability() {
+            return probability;
+        }
+
+        public int[] getCards() {
+            return cards;
+        }
+    }
+
+    /* **** DecksObserver : follow the operations **** */
+
+    @Override
+    public synchronized void playerCardDrawn(Card newCard) {
+        nbOfPlayerCardsLeft--;
+        if (newCard.getType() == PandemicObject.Type.EPIDEMIC_CARD) {
+            nbOfEpidemicsLeft--;
+        }
+    }
+
+    @Override
+    public synchronized void playerCardReturned(Card card) {
+        nbOfPlayerCardsLeft++;
+        if (card.getType() == PandemicObject.Type.EPIDEMIC_CARD) {
+            nbOfEpidemicsLeft++;
+        }
+    }
+
+    @Override
+    public synchronized void infectionCardDrawn(boolean isDrawnFromTop) {
+        // The drawn card is the last one of the discard pile
+        IntDeckView discardPile = engine.getDiscardPile();
+        List<Change> changes = startOperation();
+        removeFromLayer(discardPile.get(discardPile.size() - 1), changes);
+    }
+
+    @Override
+    public synchronized void infectionDeckShuffled() {
+        // The reshuffled cards are on top of the deck once the discard pile is cleared
+    }
+
+    @Override
+    public synchronized void infectionDeckCleared() {
+        List<Change> changes = startOperation();
+        int nbOfReshuffledCards = engine.getInfectionDeck().size() - nbOfCardsInLayers;
+        if (nbOfReshuffledCards > 0) {
+            addLayerOnTop(0, nbOfReshuffledCards, changes);
+        }
+    }
+
+    @Override
+    public synchronized void infectionDeckCardRemoved() {
+        startOperation(); // nothing changes in the deck, but the operation can be undone
+    }
+
+    @Override
+    public synchronized void infectionDeckRearranged() {
+        // The cards seen and put in order are known one by one
+        List<Change> changes = startOperation();
+        IntDeckView infectionDeck = engine.getInfectionDeck();
+        int nbOfCards = Math.min(SetupRules.FORECAST_CARDS, infectionDeck.size());
+        for (int i = 0; i < nbOfCards; i++) {
+            removeFromLayer(infectionDeck.get(i), changes);
+        }
+        for (int i = nbOfCards - 1; i >= 0; i--) {
+            addLayerOnTop(i, 1, changes);
+        }
+    }
+
+    @Override
+    public synchronized void decksRestored() {
+        if (operations.isEmpty()) {
+            reset(); // beyond the operations followed
+            return;
+        }
+        List<Change> changes = operations.removeLast();
+        for (int i = changes.size() - 1; i >= 0; i--) {
+            changes.get(i).undo();
+        }
+    }
+
+    /* **** The layers **** */
+
+    private List<Change> startOperation() {
+        List<Change> changes = new ArrayList<Change>(2);
+        operations.add(changes);
+        if (operations.size() > UndoHistory.MAX_LEVELS) {
+            operations.removeFirst();
+        }
+        return changes;
+    }
+
+    /**
+     * @param from The position in the Infection deck of the first card of the layer
+     * @param changes Where to record the change, or null
+     */
+    private void addLayerOnTop(int from, int nbOfCards, List<Change> changes) {
+        IntDeckView infectionDeck = engine.getInfectionDeck();
+        Layer layer = new Layer(nbOfCards);
+        for (int i = from; i < from + nbOfCards; i++) {
+            layer.add(infectionDeck.get(i));
+        }
+        layers.add(0, layer);
+        if (changes != null) {
+            changes.add(new Change(layer, -1, 0));
+        }
+    }
+
+    private void removeFromLayer(int card, List<Change> changes) {
+        Layer layer = (card >= 0 && card < MAX_CARD_ID) ? layerOf[card] : null;
+        if (layer == null) {
+            return; // not a card of the deck
+        }
+        layer.remove(card);
+        int layerIndex = -1;
+        if (layer.size == 0) {
+            layerIndex = layers.indexOf(layer);
+            layers.remove(layerIndex);
+        }
+        changes.add(new Change(layer, card, layerIndex));
+    }
+
+    /**
+     * Infection cards in an unknown order
+     */
+    private final class Layer {
+        private int[] cards;
+        private int size;
+
+        Layer(int capacity) {
+            cards = new int[Math.max(capacity, 1)];
+        }
+
+        /**
+         * @param nbOfDraws The number of cards drawn in this layer
+         */
+        double probability(int nbOfDraws) {
+            return (double) Math.max(0, Math.min(nbOfDraws, size)) / size;
+        }
+
+        void add(int card) {
+            if (size == cards.length) {
+                int[] grown = new int[size * 2];
+                System.arraycopy(cards, 0, grown, 0, size);
+                cards = grown;
+            }
+            positionInLayer[card] = size;
+            cards[size++] = card;
+            layerOf[card] = this;
+            nbOfCardsInLayers++;
+        }
+
+        void remove(int card) {
+            // The last card takes its place : the order doesn't matter
+            int position = positionInLayer[card];
+            cards[position] = cards[--size];
+            positionInLayer[cards[position]] = position;
+            layerOf[card] = null;
+            nbOfCardsInLayers--;
+        }
+    }
+
+    /**
+     * A card removed from a layer (and the layer from the deck, if it was the last card),
+     *  or a layer added on top
+     */
+    private final class Change {
+        private final Layer layer;
+        private final int card; // -1 for a layer added
+        private final int layerIndex; // where the layer was, if removed with the card
+
+        Change(Layer layer, int card, int layerIndex) {
+            this.layer = layer;
+            this.card = card;
+            this.layerIndex = layerIndex;
+        }
+
+        void undo() {
+            if (card < 0) {
+                layers.remove(0);
+                for (int i = 0; i < layer.size; i++) {
+                    layerOf[layer.cards[i]] = null;
+                }
+                nbOfCardsInLayers -= layer.size;
+            } else {
+                if (layerIndex >= 0) {
+                    layers.add(layerIndex, layer);
+                }
+                layer.add(card);
+            }
+        }
+    }
+}
@@ -0,0 +1,314 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.model;
+
+import pandemic.util.RandomUtil;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * A deck of card ids stored in a ring buffer of ints : cards are drawn from and added to both the top and the bottom
+ *  in constant time, without boxing nor allocation (the buffer only grows if the deck exceeds its initial capacity).
+ *
+ * @author manur
+ * @since v2.9
+ */
+public final class IntDeck implements IntDeckView, Serializable {
+
+    private static final long serialVersionUID = 29L;
+
+    private int[] cards; // the length is always a power of two
+    private int head; // position in the buffer of the top card
+    private int size;
+
+    private transient int[] scratch;
+    private transient List<Integer> listView;
+
+    /**
+     * @param capacity The number of cards the deck can hold before its buffer has to grow
+     */
+    public IntDeck(int capacity) {
+        int length = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        cards = new int[length];
+    }
+
+    private int position(int index) {
+        return (head + index) & (cards.length - 1);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return cards[position(index)];
+    }
+
+    /**
+     * Remove the card at the top of the deck
+     * @return The card id
+     */
+    public int drawTop() {
+        if (size == 0) {
+            throw new NoSuchElementException("The deck is empty");
+        }
+        int card = cards[head];
+        head = position(1);
+        size--;
+        return card;
+    }
+
+    /**
+     * Remove the card at the bottom of the deck
+     * @return The card id
+     */
+    public int drawBottom() {
+        if (size == 0) {
+            throw new NoSuchElementException("The deck is empty");
+        }
+        size--;
+        return cards[position(size)];
+    }
+
+    public void addTop(int card) {
+        ensureCapacity(size + 1);
+        head = position(cards.length - 1);
+        cards[head] = card;
+        size++;
+    }
+
+    public void addBottom(int card) {
+        ensureCapacity(size + 1);
+        cards[position(size)] = card;
+        size++;
+    }
+
+    /**
+     * Remove the card at the given position, shifting the cards on the shortest side of it
+     * @return The card id
+     */
+    public int removeAt(int index) {
+        int card = get(index);
+        if (index < size / 2) {
+            for (int i = index; i > 0; i--) {
+                cards[position(i)] = cards[position(i - 1)];
+            }
+            head = position(1);
+        } else {
+            for (int i = index; i < size - 1; i++) {
+                cards[position(i)] = cards[position(i + 1)];
+            }
+        }
+        size--;
+        return card;
+    }
+
+    /**
+     * Put all the cards of the other deck on top of this one, keeping their order, and empty the other deck
+     */
+    public void moveAllOnTop(IntDeck other) {
+        ensureCapacity(size + other.size);
+        for (int i = other.size - 1; i >= 0; i--) {
+            head = position(cards.length - 1);
+            cards[head] = other.cards[other.position(i)];
+        }
+        size += other.size;
+        other.clear();
+    }
+
+    /**
+     * Reorder the top cards of the deck
+     * @param newOrder The current positions of the top cards, in the order in which they are to be placed now ;
+     *                 it must be a permutation of 0..newOrder.length-1, else the deck is left unchanged
+     */
+    public void permuteTop(int[] newOrder) {
+        int k = newOrder.length;
+        if (k > size) {
+            throw new IndexOutOfBoundsException("Cannot rearrange " + k + " cards in a deck of " + size);
+        }
+        boolean[] seen = new boolean[k];
+        for (int from : newOrder) {
+            if (from < 0 || from >= k) {
+                throw new IllegalArgumentException("Not a position among the " + k + " top cards : " + from);
+            }
+            if (seen[from]) {
+                throw new IllegalArgumentException("Position " + from + " given twice");
+            }
+            seen[from] = true;
+        }
+
+        if (scratch == null || scratch.length < k) {
+            scratch = new int[Math.max(k, 8)];
+        }
+        for (int i = 0; i < k; i++) {
+            scratch[i] = cards[position(i)];
+        }
+        for (int i = 0; i < k; i++) {
+            cards[position(i)] = scratch[newOrder[i]];
+        }
+    }
+
+    /**
+     * Shuffle the whole deck in a single pass
+     */
+    public void shuffle(RandomUtil randomizer) {
+        normalize();
+        randomizer.shuffleInPlace(cards, 0, size);
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    @Override
+    public boolean contains(int card) {
+        return indexOf(card) >= 0;
+    }
+
+    @Override
+    public int indexOf(int card) {
+        for (int i = 0; i < size; i++) {
+            if (cards[position(i)] == card) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int[] toArray() {
+        int[] array = new int[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = cards[position(i)];
+        }
+        return array;
+    }
+
+    @Override
+    public List<Integer> asList() {
+        if (listView == null) {
+            listView = new ListView();
+        }
+        return listView;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > cards.length) {
+            normalize();
+            cards = Arrays.copyOf(cards, Integer.highestOneBit(capacity - 1) << 1);
+        }
+    }
+
+    /**
+     * Rotate the buffer in place so that the top card is at position 0 and the cards are contiguous
+     */
+    private void normalize() {
+        if (head == 0) {
+            return;
+        }
+        if (head + size <= cards.length) {
+            System.arraycopy(cards, head, cards, 0, size);
+        } else {
+            reverse(0, head);
+            reverse(head, cards.length);
+            reverse(0, cards.length);
+        }
+        head = 0;
+    }
+
+    private void reverse(int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--) {
+            int tmp = cards[i];
+            cards[i] = cards[j];
+            cards[j] = tmp;
+        }
+    }
+
+    /**
+     * Two decks are equal when they hold the same cards in the same order
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IntDeck)) {
+            return false;
+        }
+        IntDeck other = (IntDeck) o;
+        if (size != other.size) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (cards[position(i)] != other.cards[other.position(i)]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < size; i++) {
+            hash = 31 * hash + cards[position(i)];
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(cards[position(i)]);
+        }
+        return sb.append(']').toString();
+    }
+
+    private class ListView extends AbstractList<Integer> implements RandomAccess {
+        @Override
+        public Integer get(int index) {
+            return IntDeck.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.model;
+
+import java.util.List;
+
+/**
+ * Read-only access to a deck of card ids, indexed from the top of the deck (index 0) to its bottom.
+ *
+ * @author manur
+ * @since v2.9
+ */
+public interface IntDeckView {
+
+    int size();
+
+    boolean isEmpty();
+
+    /**
+     * @param index The position of the card, 0 being the top of the deck
+     * @return The id of the card
+     * @throws IndexOutOfBoundsException if there's no card at this position
+     */
+    int get(int index);
+
+    boolean contains(int card);
+
+    /**
+     * @return The position of the card from the top of the deck, or -1 if it's not in the deck
+     */
+    int indexOf(int card);
+
+    /**
+     * @return A copy of the card ids, from the top of the deck to its bottom
+     */
+    int[] toArray();
+
+    /**
+     * @return An unmodifiable List backed by the deck, reflecting its changes
+     */
+    List<Integer> asList();
+}
@@ -28,12 +28,14 @@ import pandemic.model.objects.Role;
 import pandemic.util.*;
 
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
-import static java.util.Collections.unmodifiableList;
-import static pandemic.model.Variant.*;
+import static pandemic.model.Variant.QUARANTINES;
 
 /**
  * The "model" in the MVC pattern.
@@ -49,18 +51,26 @@ import static pandemic.model.Variant.*;
 @SuppressWarnings("DanglingJavadoc")
 public class PandemicModel implements Serializable {
 
-	private static final long serialVersionUID = 28L;
+	private static final long serialVersionUID = 29L;
 	
 	private static final Logger logger = LoggerFactory.getLogger(PandemicModel.class);
 
+	// Where a newly drawn player card is put on the board
+	private static final int DRAWN_PLAYER_CARD_X = 648;
+	private static final int DRAWN_PLAYER_CARD_Y = 418;
+
 	private RandomUtil randomizer;
 
 	private final GameConfig config;
 
-	private transient List<DecksObserver> decksObservers;
-	private transient List<RolesObserver> rolesObservers;
+	private GameEngine engine; // The pure-data state of the game, mirrored by the components below
+
+	private transient ObserverBus observers;
+	private transient InfectionRisk infectionRisk;
+	private transient volatile DecksSnapshot snapshot; // The decks and roles as left by the last operation, for the views
 	
 	private final List<PandemicObject> countersLibrary = new ArrayList<PandemicObject>();
+	private CubeReserve cubeReserve; // Index of the cubes of countersLibrary still in the reserve
 	
 	private final List<Card> cardsLibrary = new ArrayList<Card>(); // All cards
 	private List<Card> playerDeck = new ArrayList<Card>(); // Player cards still in the drawing pile
@@ -70,10 +80,8 @@ public class PandemicModel implements Serializable {
 	
 	private List<Role> allRoles = null;
 	private List<Role> affectedRoles = null;
-	
-	private final List<Integer> infectionDeck = new ArrayList<Integer>(); // Infection pile to draw
 
-	private final List<Integer> discardPile = new ArrayList<Integer>(); // Infection cards discarded
+	private transient UndoHistory history; // The operations of this session that can be undone
 
 	/**
 	 * Constructor
@@ -81,12 +89,13 @@ public class PandemicModel implements Serializable {
 	 */
 	public PandemicModel(GameConfig config) {
 		this.config = config;
-		this.decksObservers = new ArrayList<DecksObserver>();
-		this.rolesObservers = new ArrayList<RolesObserver>();
+		this.observers = new ObserverBus();
 	}
 	
 	/**
 	 * Set up the model objects for a new game.
+	 * The decks, roles and initial infections are decided by the GameEngine ;
+	 *  this method only creates the graphical components matching its state.
 	 */
 	public void initialize(ResourceProvider resourceProvider) {
 	    logger.trace("Initializing model...");
@@ -94,7 +103,14 @@ public class PandemicModel implements Serializable {
 		/**************************************************************************
 		 *                            Randomizer                                  *
 		 **************************************************************************/
-		randomizer = new RandomUtil();
+		// A given seed regenerates the exact same game ; otherwise, record the new one
+		if (config.getSeed() != null) {
+			randomizer = new RandomUtil(config.getSeed());
+		} else {
+			randomizer = new RandomUtil();
+			config.setSeed(randomizer.getSeed());
+		}
+		logger.info("Seed of the game : {}", randomizer.getSeed());
 
 		// Creates the factory for instantiating the components,
 		//  and inject the bundle of the file with the pixel coordinates.
@@ -102,12 +118,19 @@ public class PandemicModel implements Serializable {
 		componentsFactory.setResourceProvider(resourceProvider);
 		componentsFactory.setRandomizer(randomizer);
 
+		/**************************************************************************
+		 *                              Game engine                               *
+		 **************************************************************************/
+
+		engine = new GameEngine(config, componentsFactory.createCatalog(), randomizer);
+		engine.setUp();
+
 		/**************************************************************************
 		 *                               Roles                                    *
 		 **************************************************************************/
 		
 		allRoles = componentsFactory.createRoles(config);
-		affectedRoles = drawRoles(allRoles, config.getNbOfRoles());
+		affectedRoles = placeChosenRoles(allRoles, engine.getAffectedRoles());
 
 		/**************************************************************************
 		 *                               Cities                                   *
@@ -116,88 +139,57 @@ public class PandemicModel implements Serializable {
 		// Load cities
 		cityList.addAll(componentsFactory.createCities());
 		
-		/**************************************************************************
-		 *                           Infection Cards                              *
-		 **************************************************************************/
-		
-		for (int q=1; q<=48; q++) {
-		    infectionDeck.add(q);
-		}
-		randomizer.shuffleInPlace(infectionDeck);
-
-		// Mutation expansion
-		// The two mutation cards are put on top of the Infection *discard* pile
-		if (config.getVariants().contains(MUTATION)) {
-			discardPile.add(0, 100);
-			discardPile.add(1, 101);
-
-			logger.debug("...add mutation to infection discard pile : {}", discardPile.get(0));
-			logger.debug("...add mutation to infection discard pile : {}", discardPile.get(1));
-		} else if (config.getVariants().contains(WORLDWIDE_PANIC)) {
-			// Worldwide Panic challenge
-			// Add the two alternative mutation cards on top of the Infection *discard* pile
-			discardPile.add(0, 110);
-			discardPile.add(0, 111);
-
-			logger.debug("...add worldwide panic mutation to infection discard pile : {}", discardPile.get(0));
-			logger.debug("...add worldwide panic mutation to infection discard pile : {}", discardPile.get(1));
-		}
-
-        if (logger.isDebugEnabled()) {
-            StringBuilder sb = new StringBuilder();
-            for (Integer card : infectionDeck) {
-                sb.append(card);
-                sb.append(" ");
-            }
-            logger.debug("...generate infection deck : {}", sb);
-        }
-		
 		/**************************************************************************
 		 *                             Player Cards                               *
 		 **************************************************************************/
     	 /* They are put far beyond the Frame-limit (3000,3000) 
     	      where they are going to be "imported" from :) */
 
-		// First, let's set up a deck containing only player (city) cards and Special Events		
-		cardsLibrary.addAll(componentsFactory.createPlayerCards(cityList));
-		cardsLibrary.addAll(componentsFactory.createSpecialEvents(config));
-		
-		// Then shuffle
-		randomizer.shuffleInPlace(cardsLibrary);
-
-		// Distribute (and remove the distributed cards from the library)
-		componentsFactory.distributeStartingCards(cardsLibrary, config.getNbOfRoles());
-		
-		// Constitute the deck without the distributed cards
-		for (Card card : cardsLibrary) {
-			if (card.getBoardZone().equals(BoardZone.RESERVE)) {
-				playerDeck.add(card);
+		// Create every card that can be part of this game, and index them by id
+		List<Card> allCards = new ArrayList<Card>();
+		allCards.addAll(componentsFactory.createPlayerCards(cityList));
+		allCards.addAll(componentsFactory.createSpecialEvents(engine.getSpecialEvents()));
+		if (!engine.getMutationEvents().isEmpty()) {
+			allCards.addAll(componentsFactory.createMutationEventsCards());
+		}
+		allCards.addAll(componentsFactory.createEpidemicCards(engine.getEpidemics()));
+		allCards.addAll(componentsFactory.createEmergencyEvents(engine.getEmergencyEvents()));
+
+		// several epidemic cards may share the same id
+		Map<Integer, LinkedList<Card>> cardsById = new HashMap<Integer, LinkedList<Card>>();
+		for (Card card : allCards) {
+			LinkedList<Card> cards = cardsById.get(card.getId());
+			if (cards == null) {
+				cards = new LinkedList<Card>();
+				cardsById.put(card.getId(), cards);
 			}
+			cards.add(card);
 		}
-       currentPlayerCard = 1; // initialization, for debugging purposes
-		
-		// Add the Mutation event cards randomly in the deck
-		if (config.getVariants().contains(MUTATION) || config.getVariants().contains(WORLDWIDE_PANIC)) {
-			componentsFactory.addMutationEventsCards(playerDeck, cardsLibrary);
+
+		// Distribute the starting hands, in the order they have been dealt
+		int[][] startingHands = engine.getStartingHands();
+		List<Card> dealtCards = new ArrayList<Card>();
+		for (int row = 0; row < startingHands[0].length; row++) {
+			for (int[] hand : startingHands) {
+				dealtCards.add(cardsById.get(hand[row]).removeFirst());
+			}
 		}
-		
-		// Get the epidemic cards...
-		List<Card> epidemicCards = componentsFactory.createEpidemicCards(config);
+		componentsFactory.distributeStartingCards(dealtCards, config.getNbOfRoles());
+		cardsLibrary.addAll(dealtCards);
 
-		// Prepare Emergency Events...
-		List<Card> emergencyEvents = Collections.emptyList();
-		if (config.getVariants().contains(EMERGENCY_EVENTS)) {
-			emergencyEvents = componentsFactory.createEmergencyEvents(config);
+		// Constitute the deck in the order decided by the engine
+		for (int cardId : engine.getPlayerDeck()) {
+			playerDeck.add(cardsById.get(cardId).removeFirst());
 		}
+		cardsLibrary.addAll(playerDeck);
+       currentPlayerCard = 1; // initialization, for debugging purposes
 
-		// ...And add them intelligently to the player deck, splitting it into piles of the same size
-		// and adding one epidemic card at a random place in each pile
-		logger.debug("Add Epidemic cards :");
-		playerDeck = componentsFactory.addCardsEvenly(playerDeck, unmodifiableList(epidemicCards), unmodifiableList(emergencyEvents));
-		
-		// Finally, add the epidemic cards in the library to keep a reference on them
-		cardsLibrary.addAll(epidemicCards);
-		cardsLibrary.addAll(emergencyEvents);
+		// Finally, keep a reference on the unused cards (the Emergency Events not added to the deck)
+		for (Card card : allCards) {
+			if (!cardsLibrary.contains(card)) {
+				cardsLibrary.add(card);
+			}
+		}
 
 		if (logger.isDebugEnabled()) {
 		    logger.debug("Starting player deck :");
@@ -213,38 +205,14 @@ public class PandemicModel implements Serializable {
 		
 		// Add cubes in the reserve (including the purple disease when the Mutation variant is activated)
 		countersLibrary.addAll(componentsFactory.createCubes(config));
+		cubeReserve = new CubeReserve(countersLibrary);
 		
 		// ***************** Place the initial infection-cubes on the board ********************************************
 
-		// Draw 9 cards from the infection deck and discard them.
-		// Place 3 cubes for each of the first 3 infections cards, 2 cubes for the next
-		// 3 infection cards, and 1 cube for the last 3 infection cards.
-		// The cubes are to be taken from the reserve and placed on the city depicted
-		// on each infection card.
-		for (int nbOfCubes = 3; nbOfCubes > 0; nbOfCubes--) {
-			logger.debug("...placing {} cube{} in :", nbOfCubes, ((nbOfCubes>1) ? "s" : "") );
-			for (int infectionCard=0; infectionCard < 3; infectionCard++) {
-				int nextInfectionCard = drawInfectionCard(); // no cough sound on set up
-
-				// Prepare the cubes to move to the city (nbOfCubes cubes of the city's color)
-				List<Disease> cubes = new ArrayList<Disease>();
-				for (int i = 0; i < nbOfCubes; i++) {
-					cubes.add(cityList.get(nextInfectionCard).getColor());
-				}
-
-				/* Worldwide Panic :
-				   put 1 purple cube on the 1st city drawn (in addition to 3 cubes of the card’s color);
-				   put 2 purple cubes on the 4th city drawn (in addition to 2 cubes of that card’s color);
-				   and put 3 purple	cubes on the 7th city drawn (in addition to 1 cube of that card’s color). */
-				if (infectionCard==0 && config.getVariants().contains(WORLDWIDE_PANIC)) {
-					for (int i = 0; i < 4-nbOfCubes; i++) {
-						cubes.add(Disease.PURPLE);
-					}
-				}
-
-				// Move the cubes
-				componentsFactory.moveCubesToCity(countersLibrary, cubes, cityList.get(nextInfectionCard));
-			}
+		// The 9 infection cards have been drawn by the engine : move the cubes from the reserve
+		//  to the city depicted on each infection card.
+		for (GameEngine.InitialInfection infection : engine.getInitialInfections()) {
+			componentsFactory.moveCubesToCity(cubeReserve, infection.getCubes(), cityList.get(infection.getCityId()));
 		}
 		
 		// RESEARCH STATIONS ***************************************************************************
@@ -291,28 +259,34 @@ public class PandemicModel implements Serializable {
 
 		countersLibrary.add(componentsFactory.createCurrentPlayerMarker());
 
+		// Follow what the players know of the decks, from the start
+		infectionRisk = new InfectionRisk(engine);
+		registerDecksObserver(infectionRisk);
+
+		publishSnapshot();
+
 		logger.trace("...Model initialization done");
 	}
 
 	/**
-	 * Draw the role of each player, chosen randomly.
-	 * @param allRoles The list of roles from which to choose randomly
-	 * @param nbOfRoles The number of roles to draw
+	 * Find the roles chosen by the engine.
+	 * @param allRoles The list of all roles
+	 * @param chosenRoleIds The ids of the chosen roles, in the order of the players
 	 */
-	private List<Role> drawRoles(List<Role> allRoles, int nbOfRoles) {
+	private List<Role> placeChosenRoles(List<Role> allRoles, List<Integer> chosenRoleIds) {
 		List<Role> chosenRoles = new ArrayList<Role>();
 
-		List<Role> availableRoles = new ArrayList<Role>(allRoles); // make a copy so that allRoles stays in logical order and the Z-order of the icons is correct
-		randomizer.shuffleInPlace(availableRoles);
-
-		// Let's take the first "nbOfRoles" roles
-		for (int roleIndex=0; roleIndex<nbOfRoles; roleIndex++) {
-			final Role chosenRole = availableRoles.get(roleIndex);
-			logger.debug("...chosen Role #{} : id={}", roleIndex, chosenRole.getId());
-			chosenRoles.add(chosenRole);
-			// the chosen roles are put at the top of allRoles for the Z-order of their icon to be correct
-			allRoles.remove(chosenRole);
-			allRoles.add(roleIndex, chosenRole);
+		for (int roleIndex=0; roleIndex<chosenRoleIds.size(); roleIndex++) {
+			for (Role role : allRoles) {
+				if (role.getId() == chosenRoleIds.get(roleIndex)) {
+					logger.debug("...chosen Role #{} : id={}", roleIndex, role.getId());
+					chosenRoles.add(role);
+					// the chosen roles are put at the top of allRoles for the Z-order of their icon to be correct
+					allRoles.remove(role);
+					allRoles.add(roleIndex, role);
+					break;
+				}
+			}
 		}
 		
 		return chosenRoles;
@@ -325,15 +299,21 @@ public class PandemicModel implements Serializable {
 	 *  in the appropriate space. 
 	 */
 	public void drawPlayerCard() {
+		EngineState before = captureState();
+		engine.drawPlayerCard();
 		Card playerCard = playerDeck.remove(0);
+		history().record(UndoHistory.Step.playerCardDrawn(before, playerCard));
 		playerCard.setBoardZone(BoardZone.HAND_OR_DISCARD);
-        logger.debug("Drew player card #{} : {} ({})",
-				currentPlayerCard++, playerCard.getName(), playerCard.getImage().getDescription());
+		place(playerCard, DRAWN_PLAYER_CARD_X, DRAWN_PLAYER_CARD_Y);
+		if (GameEventLog.isEnabled()) {
+			GameEventLog.log(GameEvent.PLAYER_CARD_DRAWN,
+					"number", currentPlayerCard, "card", playerCard.getId(), "name", playerCard.getName());
+		}
+		currentPlayerCard++;
+		publishSnapshot();
 
 		// Notify the observers
-		for (DecksObserver observer : decksObservers) {
-			observer.playerCardDrawn(playerCard);
-		}
+		observers().playerCardDrawn(playerCard);
 	}
 	
 	/**
@@ -341,16 +321,13 @@ public class PandemicModel implements Serializable {
 	 * @return the drawn card id
 	 */
 	public int drawInfectionCard() {
-		int nextCard = infectionDeck.remove(0);
-		discardPile.add(nextCard);
+		EngineState before = captureState();
+		int nextCard = engine.drawInfectionCard();
+		history().record(UndoHistory.Step.operation(UndoHistory.Action.DRAW_INFECTION_CARD, before));
+		publishSnapshot();
 
-        logger.debug("Drew infection card: {} - {} => discarded",
-				nextCard, (nextCard >= 100 && nextCard < 200) ? "MUTATION!" : cityList.get(nextCard).getName());
-        		
 		// Notify the observers (to put the card graphically on top of the pile)
-		for (DecksObserver observer : decksObservers) {
-			observer.infectionCardDrawn(true);
-		}
+		observers().infectionCardDrawn(true);
 
 		return nextCard;
 	}
@@ -359,61 +336,27 @@ public class PandemicModel implements Serializable {
 	 * Draw a card from the BOTTOM of the infection pile and display it on that pile.
 	 */
 	public void drawBottomInfectionCard() {
-		// Draw the bottom card
-		int bottomCard = infectionDeck.remove(infectionDeck.size() - 1);
-		discardPile.add(bottomCard);
-		
-		logger.debug("Drew bottom infection card: {} - {} => discarded", bottomCard,
-				(bottomCard == 100 || bottomCard == 101) ? "MUTATION!" : cityList.get(bottomCard).getName());
+		EngineState before = captureState();
+		engine.drawBottomInfectionCard();
+		history().record(UndoHistory.Step.operation(UndoHistory.Action.DRAW_BOTTOM_INFECTION_CARD, before));
+		publishSnapshot();
 
 		// Notify the observers
-		for (DecksObserver observer : decksObservers) {
-			observer.infectionCardDrawn(false);
-		}
+		observers().infectionCardDrawn(false);
 	}
 
 	/**
 	 * Shuffle the cards from the discard pile and put them on top of the Infection Deck
 	 */
 	public void reshuffleInfectionCards() {
-		// Shuffle discarded pile
-		StringBuilder sb = new StringBuilder("Discard pile BEFORE :");
-		for (Integer card : discardPile) {
-			sb.append(card);
-			sb.append(" ");
-		}
-		logger.debug(sb.toString());
-
-		randomizer.shuffleInPlace(discardPile);
-	      // Notify the observers
-        for (DecksObserver observer : decksObservers) {
-            observer.infectionDeckShuffled();
-        }
-		
-		sb = new StringBuilder("Discard pile AFTER :");
-		for (Integer card : discardPile) {
-			sb.append(card);
-			sb.append(" ");
-		}
-		logger.debug(sb.toString());
-		
-		// Add the shuffled discard pile to the top of the infection drawing deck
-		infectionDeck.addAll(0, discardPile);
-		
-		sb = new StringBuilder("New Infection deck :");
-		for (Integer card : infectionDeck) {
-			sb.append(card);
-			sb.append(" ");
-		}
-		logger.debug(sb.toString());
-		
-		// Clear the discard pile
-		discardPile.clear();
+		EngineState before = captureState();
+		engine.reshuffleInfectionCards();
+		history().record(UndoHistory.Step.operation(UndoHistory.Action.RESHUFFLE_INFECTION_CARDS, before));
+		publishSnapshot();
 
 		// Notify the observers
-		for (DecksObserver observer : decksObservers) {
-			observer.infectionDeckCleared();
-		}
+		observers().infectionDeckShuffled();
+		observers().infectionDeckCleared();
 	}
 
 	/**
@@ -422,20 +365,15 @@ public class PandemicModel implements Serializable {
 	 * @return true only when a card has been effectively removed
 	 */
 	public boolean removeDiscardedCard(int discardedCardIndex) {
-		int discardedCard = discardPile.get(discardedCardIndex);
-		
-		// MUTATION! cards 
-		if (discardedCard == 100 || discardedCard == 101) {
+		EngineState before = captureState();
+		if (!engine.removeDiscardedCard(discardedCardIndex)) {
 			return false;
 		}
-
-		discardPile.remove(discardedCardIndex);
-		logger.debug("Removed infection card: " + discardedCard + " " + cityList.get(discardedCard).getName());
+		history().record(UndoHistory.Step.operation(UndoHistory.Action.REMOVE_DISCARDED_CARD, before, discardedCardIndex));
+		publishSnapshot();
 		
 		// Notify the observers
-		for (DecksObserver observer : decksObservers) {
-			observer.infectionDeckCardRemoved(); // Necessary if the discarded card was the top one
-		}
+		observers().infectionDeckCardRemoved(); // Necessary if the discarded card was the top one
 		
 		return true;
 	}
@@ -447,49 +385,17 @@ public class PandemicModel implements Serializable {
 	 *  					in the order in which the method has to place them now. 
 	 */
 	public void rearrangeInfectionDeck(List<Integer> newCardOrder) {
-		StringBuilder sb = new StringBuilder("New Infection cards order : ");
-		for (Integer cardIndex : newCardOrder) {
-			sb.append(cardIndex);
-			sb.append(" ");
-		}
-		logger.debug(sb.toString());
-		
-		sb = new StringBuilder("Old Infection deck: ");
-		for (Integer infectionCard : infectionDeck) {
-			sb.append(infectionCard);
-			sb.append(" ");
+		EngineState before = captureState();
+		engine.rearrangeInfectionDeck(newCardOrder);
+		int[] newOrder = new int[newCardOrder.size()];
+		for (int i = 0; i < newOrder.length; i++) {
+			newOrder[i] = newCardOrder.get(i);
 		}
-		logger.debug(sb.toString());
-		
-		// 1) Let's each of the moved infection cards and put them in another List BUT in the new order
-		List<Integer> newTopOfDeck = new ArrayList<Integer>();
-		sb = new StringBuilder("New top of deck: ");
-		for (Integer cardIndex : newCardOrder) {
-			newTopOfDeck.add(infectionDeck.get(cardIndex));
-			sb.append(infectionDeck.get(cardIndex));
-			sb.append(" ");
-		}
-		logger.debug(sb.toString());
-		
-		// 2) Let's remove the moved infection cards from the deck
-		for (Integer infectionCard : newTopOfDeck) {
-			infectionDeck.remove(infectionCard);
-		}
-		
-		// 3) Let's put back all infection cards, in the new order, by adding the alternate List on top of the infection deck
-		infectionDeck.addAll(0,	newTopOfDeck);
-		
-		sb = new StringBuilder("New Infection deck: ");
-		for (Integer infectionCard : infectionDeck) {
-			sb.append(infectionCard);
-			sb.append(" ");
-		}
-		logger.debug(sb.toString());
+		history().record(UndoHistory.Step.operation(UndoHistory.Action.REARRANGE_INFECTION_DECK, before, newOrder));
+		publishSnapshot();
 
 	    // Notify the observers
-        for (DecksObserver observer : decksObservers) {
-            observer.infectionDeckRearranged();
-        }
+        observers().infectionDeckRearranged();
 	}
 	
 	/**
@@ -498,48 +404,271 @@ public class PandemicModel implements Serializable {
 	 * @param newRole The new role
 	 */
 	public void changeRole(int roleIndex, Role newRole) {
+		EngineState before = captureState();
+		engine.changeRole(roleIndex, newRole.getId());
+
 		// Notify the observers before the change
-		for (RolesObserver observer : rolesObservers) {
-			observer.roleWillChange(roleIndex);
-		}
-		
+		observers().roleWillChange(roleIndex);
 		affectedRoles.set(roleIndex, newRole);
+		history().record(UndoHistory.Step.operation(UndoHistory.Action.CHANGE_ROLE, before, roleIndex, newRole.getId()));
+		publishSnapshot();
 		
 		// Notify the observers after the change
-		for (RolesObserver observer : rolesObservers) {
-			observer.roleHasChanged(roleIndex);
-		}
+		observers().roleHasChanged(roleIndex);
 	}
 	
+	/**
+	 * Keep the move of a component by the player, so that it can be undone
+	 * @param object The component, already moved
+	 * @param fromX X coordinates before the move
+	 * @param fromY Y coordinates before the move
+	 * @param toX X coordinates after the move
+	 * @param toY Y coordinates after the move
+	 */
+	public void componentMoved(PandemicObject object, int fromX, int fromY, int toX, int toY) {
+		if (toX != fromX || toY != fromY) {
+			history().record(UndoHistory.Step.componentMoved(object, fromX, fromY, toX, toY));
+		}
+	}
+
+	/**********************************************************************/
+
+	/**
+	 * Undo the last operation on the decks or the roles, or the last move of a component.
+	 * The decks and the random generator are put back as they were, so that the redo of a shuffle
+	 *  gives the same order again (a generator whose state can't be put back makes the shuffles final).
+	 */
+	public void undo() {
+		if (!canUndo()) {
+			return;
+		}
+
+		UndoHistory.Step step = history.undo();
+		if (step.action == UndoHistory.Action.MOVE_COMPONENT) {
+			place(step.component, step.fromX, step.fromY);
+			return;
+		}
+
+		engine.undo(step.before);
+		switch (step.action) {
+		case DRAW_PLAYER_CARD:
+			// Put the card back on top of the deck, where it was
+			Card playerCard = (Card) step.component;
+			playerDeck.add(0, playerCard);
+			playerCard.setBoardZone(step.fromZone);
+			place(playerCard, step.fromX, step.fromY);
+			currentPlayerCard--;
+			publishSnapshot();
+
+			observers().playerCardReturned(playerCard);
+			break;
+		case CHANGE_ROLE:
+			for (int roleIndex = 0; roleIndex < affectedRoles.size(); roleIndex++) {
+				Role role = findRole(engine.getAffectedRoles().get(roleIndex));
+				if (role != affectedRoles.get(roleIndex)) {
+					observers().roleWillChange(roleIndex);
+					affectedRoles.set(roleIndex, role);
+					publishSnapshot();
+					observers().roleHasChanged(roleIndex);
+				}
+			}
+			break;
+		default:
+			publishSnapshot();
+			observers().decksRestored();
+		}
+	}
+
+	/**
+	 * Do again the last operation undone
+	 */
+	public void redo() {
+		if (!canRedo()) {
+			return;
+		}
+
+		history.redo(new UndoHistory.Redoer() {
+			@Override
+			public void drawPlayerCard() {
+				PandemicModel.this.drawPlayerCard();
+			}
+
+			@Override
+			public void drawInfectionCard() {
+				PandemicModel.this.drawInfectionCard();
+			}
+
+			@Override
+			public void drawBottomInfectionCard() {
+				PandemicModel.this.drawBottomInfectionCard();
+			}
+
+			@Override
+			public void reshuffleInfectionCards() {
+				PandemicModel.this.reshuffleInfectionCards();
+			}
+
+			@Override
+			public void removeDiscardedCard(int discardedCardIndex) {
+				PandemicModel.this.removeDiscardedCard(discardedCardIndex);
+			}
+
+			@Override
+			public void rearrangeInfectionDeck(int[] newCardOrder) {
+				List<Integer> newOrder = new ArrayList<Integer>();
+				for (int position : newCardOrder) {
+					newOrder.add(position);
+				}
+				PandemicModel.this.rearrangeInfectionDeck(newOrder);
+			}
+
+			@Override
+			public void changeRole(int roleIndex, int newRoleId) {
+				PandemicModel.this.changeRole(roleIndex, findRole(newRoleId));
+			}
+
+			@Override
+			public void moveComponent(PandemicObject component, int fromX, int fromY, int toX, int toY) {
+				place(component, toX, toY);
+				componentMoved(component, fromX, fromY, toX, toY);
+			}
+		});
+	}
+
+	public boolean canUndo() {
+		return history != null && history.canUndo();
+	}
+
+	public boolean canRedo() {
+		return history != null && history.canRedo();
+	}
+
+	private ObserverBus observers() {
+		if (observers == null) {
+			observers = new ObserverBus();
+		}
+		return observers;
+	}
+
+	private UndoHistory history() {
+		if (history == null) {
+			history = new UndoHistory();
+		}
+		return history;
+	}
+
+	private EngineState captureState() {
+		return engine.captureState(history().getLastState());
+	}
+
+	/**
+	 * Publish the state left by an operation, before its observers are notified
+	 */
+	private void publishSnapshot() {
+		DecksSnapshot previous = snapshot;
+		snapshot = new DecksSnapshot(engine.captureState(previous == null ? null : previous.getState()), affectedRoles);
+	}
+
+	/**
+	 * Put a component back at the given coordinates ; its Swing component follows on the EDT when the board is displayed
+	 */
+	private static void place(PandemicObject object, int x, int y) {
+		if (object.getSwingComponent() != null) {
+			object.moveOnEdt(x, y);
+		} else {
+			object.setX(x);
+			object.setY(y);
+		}
+	}
+
+	/**********************************************************************/
+
+	/**
+	 * Put back the state of a saved game over the components of a model freshly initialized
+	 *  with the same configuration and seed : same seed, same components in the same order.
+	 * The positions and zones of the components must have been restored beforehand,
+	 *  so that the cubes still in the reserve can be indexed again.
+	 * @param affectedRoleIds The ids of the roles in play
+	 * @param playerDeckIndexes The player cards still in the drawing pile, as indexes in the cardsLibrary
+	 * @param infectionDeckCards The infection pile, from the top
+	 * @param discardPileCards The discarded infection cards
+	 * @param currentPlayerCard The number of the next player card to draw
+	 * @param journalRecords The operations applied to the saved game since its set up
+	 */
+	void restore(int[] affectedRoleIds, int[] playerDeckIndexes, int[] infectionDeckCards, int[] discardPileCards,
+			int currentPlayerCard, ByteBuffer journalRecords) {
+		affectedRoles = new ArrayList<Role>(affectedRoleIds.length);
+		for (int roleId : affectedRoleIds) {
+			affectedRoles.add(findRole(roleId));
+		}
+
+		playerDeck.clear();
+		int[] playerDeckIds = new int[playerDeckIndexes.length];
+		for (int i = 0; i < playerDeckIndexes.length; i++) {
+			Card card = cardsLibrary.get(playerDeckIndexes[i]);
+			playerDeck.add(card);
+			playerDeckIds[i] = card.getId();
+		}
+
+		engine.restore(affectedRoleIds, playerDeckIds, infectionDeckCards, discardPileCards, journalRecords);
+
+		cubeReserve = new CubeReserve(countersLibrary);
+		this.currentPlayerCard = currentPlayerCard;
+
+		// What was known of the order of the Infection deck before the save is lost
+		infectionRisk.reset();
+		publishSnapshot();
+	}
+
+	int getCurrentPlayerCard() {
+		return currentPlayerCard;
+	}
+
+	private Role findRole(int roleId) {
+		for (Role role : allRoles) {
+			if (role.getId() == roleId) {
+				return role;
+			}
+		}
+		throw new IllegalArgumentException("No role with id " + roleId + " in this game");
+	}
+
 	/**********************************************************************/
 	
 	/**
 	 * Register an observer that wants to be notified everytime a card is drawn 
-	 *  from the Infection Pile or the Player deck
+	 *  from the Infection Pile or the Player deck, right away
 	 * @param observer DecksObserver to notify
 	 */
 	public void registerDecksObserver(DecksObserver observer) {
-		if (decksObservers == null) {
-			decksObservers = new ArrayList<DecksObserver>();
-		}
-				
-		if (!decksObservers.contains(observer)) {
-			decksObservers.add(observer);
-		}
+		registerDecksObserver(observer, ObserverBus.Delivery.SYNC);
 	}
 
 	/**
-	 * Register an observer that wants to be notified everytime a role has changed
+	 * Register an observer that wants to be notified everytime a card is drawn 
+	 *  from the Infection Pile or the Player deck
+	 * @param observer DecksObserver to notify
+	 * @param delivery When and on which thread it's notified
+	 */
+	public void registerDecksObserver(DecksObserver observer, ObserverBus.Delivery delivery) {
+		observers().subscribe(observer, delivery);
+	}
+
+	/**
+	 * Register an observer that wants to be notified everytime a role has changed, right away
 	 * @param observer RolesObserver to notify
 	 */
 	public void registerRolesObserver(RolesObserver observer) {
-		if (rolesObservers == null) {
-			rolesObservers = new ArrayList<RolesObserver>();
-		}
-		
-		if (!rolesObservers.contains(observer)) {
-			rolesObservers.add(observer);
-		}
+		registerRolesObserver(observer, ObserverBus.Delivery.SYNC);
+	}
+
+	/**
+	 * Register an observer that wants to be notified everytime a role has changed
+	 * @param observer RolesObserver to notify
+	 * @param delivery When and on which thread it's notified
+	 */
+	public void registerRolesObserver(RolesObserver observer, ObserverBus.Delivery delivery) {
+		observers().subscribe(observer, delivery);
 	}
 
 	/**********************************************************************/
@@ -560,6 +689,10 @@ public class PandemicModel implements Serializable {
 		return countersLibrary;
 	}
 
+	public CubeReserve getCubeReserve() {
+		return cubeReserve;
+	}
+
 	public List<Card> getCardsLibrary() {
 		return cardsLibrary;
 	}
@@ -576,12 +709,32 @@ public class PandemicModel implements Serializable {
 		return affectedRoles;
 	}
 
-	public List<Integer> getInfectionDeck() {
-		return infectionDeck;
+	public IntDeckView getInfectionDeck() {
+		return engine.getInfectionDeck();
+	}
+
+	public IntDeckView getDiscardPile() {
+		return engine.getDiscardPile();
+	}
+
+	/**
+	 * The accessors above follow the model as it changes, on the thread of the model.
+	 * The views read this snapshot instead, from any thread.
+	 * @return The decks and the roles as left by the last operation, or null before the set up
+	 */
+	public DecksSnapshot getSnapshot() {
+		return snapshot;
+	}
+
+	/**
+	 * @return The odds of the next draws
+	 */
+	public InfectionRisk getInfectionRisk() {
+		return infectionRisk;
 	}
 
-	public List<Integer> getDiscardPile() {
-		return discardPile;
+	public GameEngine getEngine() {
+		return engine;
 	}
 
 	public GameConfig getConfig() {
@@ -0,0 +1,429 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.model;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import pandemic.model.objects.Card;
+import pandemic.model.objects.PandemicObject;
+import pandemic.model.objects.Role;
+import pandemic.util.GameConfig;
+import pandemic.util.RandomSource;
+import pandemic.util.ResourceProvider;
+import pandemic.util.XoshiroRandomSource;
+
+/**
+ * The binary format of the save files.
+ * Only the state that a game can't regenerate is written : the configuration and the seed, the state of
+ *  the random generator, the decks, the roles in play, the position and zone of each component, and the
+ *  journal of the operations since the set up.
+ * A game is loaded by initializing a new model with the same configuration and seed, which recreates
+ *  the same components in the same order, then by putting back the saved state over them.
+ * <p>
+ * Layout (big-endian) : the magic number "PSAV", the version of the format (short), the length of
+ *  the payload (int), the payload, and the CRC32 of the payload (int).
+ * The enums are written by name, so that reordering their constants doesn't break the existing files :
+ *  the zones and types of the components are indexes in a table of the names, written before them.
+ *
+ * @author manur
+ * @since v2.9
+ */
+public final class SavedGameFormat {
+
+    public static final int MAGIC = 0x50534156; // "PSAV"
+    public static final short VERSION = 1;
+
+    private static final int HEADER_SIZE = 4 + 2 + 4;
+    private static final int TRAILER_SIZE = 4;
+    private static final int INITIAL_CAPACITY = 4096;
+
+    private static final byte NO_RANDOM_STATE = 0;
+    private static final byte XOSHIRO_RANDOM_STATE = 1;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private SavedGameFormat() {
+    }
+
+    /**
+     * Write the game to the channel, from its current position
+     * @return The number of bytes written
+     */
+    public static int write(PandemicModel model, FileChannel channel) throws IOException {
+        ByteBuffer buffer = encode(model);
+        int size = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        return size;
+    }
+
+    /**
+     * Replace the file with the encoded game, without ever leaving a half-written file : the game is written
+     *  to a temporary file in the same directory, synced to the disk, then renamed to the file.
+     * @param encodedGame A buffer returned by encode() ; it is consumed
+     */
+    public static void writeAtomically(ByteBuffer encodedGame, File file) throws IOException {
+        File temporaryFile = new File(file.getAbsoluteFile().getParentFile(), file.getName() + ".tmp");
+        FileOutputStream outputStream = new FileOutputStream(temporaryFile);
+        try {
+            FileChannel channel = outputStream.getChannel();
+            while (encodedGame.hasRemaining()) {
+                channel.write(encodedGame);
+            }
+            channel.force(true);
+        } finally {
+            outputStream.close();
+        }
+
+        // The rename replaces the file atomically on POSIX systems ; elsewhere, it fails if the file exists
+        if (!temporaryFile.renameTo(file) && !(file.delete() && temporaryFile.renameTo(file))) {
+            temporaryFile.delete();
+            throw new IOException("Failed to rename " + temporaryFile + " to " + file);
+        }
+    }
+
+    /**
+     * Read a game from the channel, from its current position to its end
+     * @param resourceProvider The provider used to create the components of the loaded game
+     * @throws IOException If the content is not a valid save file, or has been saved by a newer version
+     */
+    public static PandemicModel read(FileChannel channel, ResourceProvider resourceProvider) throws IOException {
+        long size = channel.size() - channel.position();
+        if (size < HEADER_SIZE + TRAILER_SIZE || size > Integer.MAX_VALUE) {
+            throw new IOException("Not a PandemicSolo save file (size: " + size + " bytes)");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Unexpected end of the save file");
+            }
+        }
+        buffer.flip();
+        return decode(buffer, resourceProvider);
+    }
+
+    /* ***** Encoding ***** */
+
+    /**
+     * Encode the game in a heap buffer : a game takes about 2 KB, so it's encoded in memory then written at once.
+     * The buffer is a consistent snapshot of the game, that can be written later from another thread.
+     * @return The buffer, flipped and ready to be written
+     */
+    public static ByteBuffer encode(PandemicModel model) {
+        for (int capacity = INITIAL_CAPACITY; ; capacity *= 2) {
+            try {
+                return encode(model, ByteBuffer.allocate(capacity));
+            } catch (BufferOverflowException e) {
+                // Unusually large game : try again with more room
+            }
+        }
+    }
+
+    private static ByteBuffer encode(PandemicModel model, ByteBuffer buffer) {
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putInt(0); // length of the payload, known at the end
+        int payloadStart = buffer.position();
+
+        writeConfig(buffer, model.getConfig(), model.getConfig().getSeed());
+        writeRandomState(buffer, model.getEngine().getRandomizer().getSource());
+
+        List<Role> affectedRoles = model.getAffectedRoles();
+        putSize(buffer, affectedRoles.size());
+        for (Role role : affectedRoles) {
+            buffer.putInt(role.getId());
+        }
+
+        List<Card> cardsLibrary = model.getCardsLibrary();
+        List<Card> playerDeck = model.getPlayerDeck();
+        putSize(buffer, playerDeck.size());
+        for (Card card : playerDeck) {
+            buffer.putShort((short) cardsLibrary.indexOf(card));
+        }
+        buffer.putInt(model.getCurrentPlayerCard());
+
+        writeDeck(buffer, model.getInfectionDeck());
+        writeDeck(buffer, model.getDiscardPile());
+
+        writeComponents(buffer, cardsLibrary);
+        writeComponents(buffer, model.getCountersLibrary());
+
+        byte[] journalRecords = model.getEngine().getJournal().getRecords();
+        buffer.putInt(journalRecords.length);
+        buffer.put(journalRecords);
+
+        int payloadLength = buffer.position() - payloadStart;
+        buffer.putInt(payloadStart - 4, payloadLength);
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), buffer.arrayOffset() + payloadStart, payloadLength);
+        buffer.putInt((int) crc.getValue());
+
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Write the configuration of a game ; the seed is given apart, as it may be null in the config
+     */
+    static void writeConfig(ByteBuffer buffer, GameConfig config, long seed) {
+        putString(buffer, config.getDifficultyLevel().name());
+        putSize(buffer, config.getNbOfRoles());
+        writeEnums(buffer, config.getRolesExpansions());
+        buffer.put(config.isFiveEvents() ? (byte) 1 : (byte) 0);
+        writeEnums(buffer, config.getEventCardsExpansions());
+        writeEnums(buffer, config.getVariants());
+        buffer.put(config.isSurvivalMode() ? (byte) 1 : (byte) 0);
+        buffer.putLong(seed);
+    }
+
+    private static void writeEnums(ByteBuffer buffer, Set<? extends Enum<?>> values) {
+        putSize(buffer, values.size());
+        for (Enum<?> value : values) {
+            putString(buffer, value.name());
+        }
+    }
+
+    private static void writeRandomState(ByteBuffer buffer, RandomSource source) {
+        if (source instanceof XoshiroRandomSource) {
+            buffer.put(XOSHIRO_RANDOM_STATE);
+            for (long word : ((XoshiroRandomSource) source).getState()) {
+                buffer.putLong(word);
+            }
+        } else {
+            // The state of this generator can't be read : once loaded, the game draws from a generator restarted
+            //  from its seed, so the next shuffles differ from the ones the saved game would have made
+            buffer.put(NO_RANDOM_STATE);
+        }
+    }
+
+    private static void writeDeck(ByteBuffer buffer, IntDeckView deck) {
+        putSize(buffer, deck.size());
+        for (int i = 0; i < deck.size(); i++) {
+            buffer.putShort((short) deck.get(i));
+        }
+    }
+
+    private static void writeComponents(ByteBuffer buffer, List<? extends PandemicObject> components) {
+        writeNames(buffer, BoardZone.values());
+        writeNames(buffer, PandemicObject.Type.values());
+        putSize(buffer, components.size());
+        for (PandemicObject component : components) {
+            buffer.put((byte) component.getBoardZone().ordinal());
+            buffer.put((byte) component.getType().ordinal());
+            buffer.putShort((short) component.getX());
+            buffer.putShort((short) component.getY());
+        }
+    }
+
+    /**
+     * Write the names of all the constants of an enum : its values are then written as indexes in this table
+     */
+    private static void writeNames(ByteBuffer buffer, Enum<?>[] constants) {
+        putSize(buffer, constants.length);
+        for (Enum<?> constant : constants) {
+            putString(buffer, constant.name());
+        }
+    }
+
+    private static void putSize(ByteBuffer buffer, int size) {
+        buffer.putShort((short) size);
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(UTF8);
+        putSize(buffer, bytes.length);
+        buffer.put(bytes);
+    }
+
+    /* ***** Decoding ***** */
+
+    static PandemicModel decode(ByteBuffer buffer, ResourceProvider resourceProvider) throws IOException {
+        try {
+            if (buffer.remaining() < HEADER_SIZE + TRAILER_SIZE || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a PandemicSolo save file");
+            }
+            short version = buffer.getShort();
+            if (version > VERSION) {
+                throw new IOException("Save file written by a newer version of PandemicSolo (format v" + version + ")");
+            }
+            int payloadLength = buffer.getInt();
+            if (payloadLength < 0 || payloadLength != buffer.remaining() - TRAILER_SIZE) {
+                throw new IOException("Truncated save file");
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.array(), buffer.arrayOffset() + buffer.position(), payloadLength);
+            if ((int) crc.getValue() != buffer.getInt(buffer.position() + payloadLength)) {
+                throw new IOException("Corrupted save file (wrong checksum)");
+            }
+
+            PandemicModel model = new PandemicModel(readConfig(buffer));
+            long[] randomState = readRandomState(buffer);
+
+            int[] affectedRoleIds = new int[readSize(buffer)];
+            for (int i = 0; i < affectedRoleIds.length; i++) {
+                affectedRoleIds[i] = buffer.getInt();
+            }
+            int[] playerDeckIndexes = readShorts(buffer);
+            int currentPlayerCard = buffer.getInt();
+            int[] infectionDeck = readShorts(buffer);
+            int[] discardPile = readShorts(buffer);
+
+            model.initialize(resourceProvider);
+
+            if (randomState != null && model.getEngine().getRandomizer().getSource() instanceof XoshiroRandomSource) {
+                ((XoshiroRandomSource) model.getEngine().getRandomizer().getSource()).setState(randomState);
+            }
+            readComponents(buffer, model.getCardsLibrary());
+            readComponents(buffer, model.getCountersLibrary());
+
+            int journalLength = buffer.getInt();
+            if (journalLength < 0 || journalLength > buffer.remaining() - TRAILER_SIZE) {
+                throw new IOException("Invalid save file : journal of " + journalLength + " bytes");
+            }
+            ByteBuffer journalRecords = buffer.slice();
+            journalRecords.limit(journalLength);
+
+            model.restore(affectedRoleIds, playerDeckIndexes, infectionDeck, discardPile, currentPlayerCard, journalRecords);
+
+            return model;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated save file", e);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid save file : " + e.getMessage(), e);
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Invalid save file : " + e.getMessage(), e);
+        }
+    }
+
+    static GameConfig readConfig(ByteBuffer buffer) {
+        GameConfig config = new GameConfig();
+        config.setDifficultyLevel(DifficultyLevel.valueOf(readString(buffer)));
+        config.setNbOfRoles(readSize(buffer));
+        config.setRolesExpansions(readEnums(buffer, Expansion.class));
+        config.setFiveEvents(buffer.get() != 0);
+        config.setEventCardsExpansions(readEnums(buffer, Expansion.class));
+        config.setVariants(readEnums(buffer, Variant.class));
+        config.setSurvivalMode(buffer.get() != 0);
+        config.setSeed(buffer.getLong());
+        return config;
+    }
+
+    private static <E extends Enum<E>> Set<E> readEnums(ByteBuffer buffer, Class<E> enumClass) {
+        int size = readSize(buffer);
+        Set<E> values = new LinkedHashSet<E>();
+        for (int i = 0; i < size; i++) {
+            values.add(Enum.valueOf(enumClass, readString(buffer)));
+        }
+        return values;
+    }
+
+    private static long[] readRandomState(ByteBuffer buffer) throws IOException {
+        byte kind = buffer.get();
+        if (kind == NO_RANDOM_STATE) {
+            return null;
+        }
+        if (kind != XOSHIRO_RANDOM_STATE) {
+            throw new IOException("Unknown random generator in the save file : " + kind);
+        }
+        long[] state = new long[4];
+        for (int i = 0; i < state.length; i++) {
+            state[i] = buffer.getLong();
+        }
+        return state;
+    }
+
+    private static void readComponents(ByteBuffer buffer, List<? extends PandemicObject> components) throws IOException {
+        BoardZone[] zones = readNames(buffer, BoardZone.class);
+        PandemicObject.Type[] types = readNames(buffer, PandemicObject.Type.class);
+        int size = readSize(buffer);
+        if (size != components.size()) {
+            throw new IOException("The save file has " + size + " components where the game has " + components.size());
+        }
+        for (PandemicObject component : components) {
+            BoardZone zone = readIndexed(buffer, zones);
+            if (readIndexed(buffer, types) != component.getType()) {
+                throw new IOException("The components of the save file don't match the game : " + component);
+            }
+            component.setX(buffer.getShort());
+            component.setY(buffer.getShort());
+            if (zone != component.getBoardZone()) {
+                component.setBoardZone(zone);
+            }
+        }
+    }
+
+    /**
+     * Read a table of names written by writeNames()
+     * @return The constants of the enum with these names, at the indexes they had in the save file
+     */
+    @SuppressWarnings("unchecked")
+    private static <E extends Enum<E>> E[] readNames(ByteBuffer buffer, Class<E> enumClass) throws IOException {
+        E[] constants = (E[]) Array.newInstance(enumClass, readSize(buffer));
+        for (int i = 0; i < constants.length; i++) {
+            String name = readString(buffer);
+            try {
+                constants[i] = Enum.valueOf(enumClass, name);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Unknown " + enumClass.getSimpleName() + " in the save file : " + name);
+            }
+        }
+        return constants;
+    }
+
+    private static <E> E readIndexed(ByteBuffer buffer, E[] constants) throws IOException {
+        int index = buffer.get() & 0xFF;
+        if (index >= constants.length) {
+            throw new IOException("Invalid save file : no value " + index + " among the " + constants.length + " "
+                    + constants.getClass().getComponentType().getSimpleName() + " names");
+        }
+        return constants[index];
+    }
+
+    private static int[] readShorts(ByteBuffer buffer) {
+        int[] values = new int[readSize(buffer)];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = buffer.getShort();
+        }
+        return values;
+    }
+
+    private static int readSize(ByteBuffer buffer) {
+        return buffer.getShort() & 0xFFFF;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[readSize(buffer)];
+        buffer.get(bytes);
+        return new String(bytes, UTF8);
+    }
+}
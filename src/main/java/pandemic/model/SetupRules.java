@@ -0,0 +1,285 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.model;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pandemic.model.objects.PandemicObject;
+import pandemic.util.GameConfig;
+import pandemic.util.RandomUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The rules of the set up of a game, working only on the ids of the cards and roles.
+ * They are shared by the ComponentsFactory (which builds the graphical components)
+ *  and by the GameEngine (which doesn't need any).
+ *
+ * @author manur
+ * @since v2.9
+ */
+public final class SetupRules {
+
+    private static final Logger logger = LoggerFactory.getLogger(SetupRules.class);
+
+    public static final int EPIDEMIC_CARD_ID = 0;
+    public static final int FORECAST_CARDS = 6; // the top Infection cards seen and rearranged by a Forecast
+
+    private static final int FIRST_VIRULENT_EPIDEMIC = 201;
+    private static final int LAST_VIRULENT_EPIDEMIC = 210;
+    private static final int FIRST_MUTATION_EVENT = 301;
+    private static final int LAST_MUTATION_EVENT = 303;
+    private static final int FIRST_EMERGENCY_EVENT = 401;
+    private static final int LAST_EMERGENCY_EVENT = 410;
+
+    private static final Integer[] EVENTS_FORBIDDEN_IN_SURVIVAL_MODE = {50, 52, 53, 55, 57, 68, 69};
+
+    // Quarantines specific elements
+    private static final Integer ROLE_COLONEL = 131;
+    private static final Integer SPECIALEVENT_LOCAL_INITIATIVE = 71;
+
+    private SetupRules() {
+    }
+
+    /**
+     * Returns the ids of all the roles that can be drawn with this config
+     */
+    public static List<Integer> availableRoles(GameConfig config) {
+        List<Integer> availableRoles = new ArrayList<Integer>();
+        for (Expansion expansion : config.getRolesExpansions()) {
+            availableRoles.addAll(expansion.getRoles());
+        }
+
+        if (config.getVariants().contains(Variant.QUARANTINES)) {
+            availableRoles.add(ROLE_COLONEL);
+        }
+
+        return availableRoles;
+    }
+
+    /**
+     * Draw the Special Event cards that will be part of the player deck
+     * @return The ids of the drawn Special Event cards
+     */
+    public static List<Integer> drawSpecialEvents(GameConfig config, RandomUtil randomizer) {
+        List<Integer> availableEvents = new ArrayList<Integer>();
+
+        for (Expansion expansion : config.getEventCardsExpansions()) {
+            availableEvents.addAll(expansion.getEventCards());
+        }
+
+        if (config.getVariants().contains(Variant.QUARANTINES)) {
+            availableEvents.add(SPECIALEVENT_LOCAL_INITIATIVE);
+        }
+
+        if (config.isSurvivalMode()) {
+            availableEvents.removeAll(Arrays.asList(EVENTS_FORBIDDEN_IN_SURVIVAL_MODE));
+        }
+
+        randomizer.shuffleInPlace(availableEvents);
+
+        // never draw more event cards than is available
+        int nbEventCardsToDraw = Math.min(config.isFiveEvents() ? 5 : config.getNbOfRoles() * 2, availableEvents.size());
+
+        return new ArrayList<Integer>(availableEvents.subList(0, nbEventCardsToDraw));
+    }
+
+    /**
+     * Draw the epidemic cards : the classic one repeated as many times as the difficulty level requires,
+     *  or as many randomly chosen Virulent Strain epidemics.
+     * @return The ids of the epidemic cards
+     */
+    public static List<Integer> drawEpidemics(GameConfig config, RandomUtil randomizer) {
+        List<Integer> epidemics = new ArrayList<Integer>();
+
+        if (config.getVariants().contains(Variant.VIRULENT_STRAIN)) {
+            List<Integer> availableCards = new ArrayList<Integer>();
+            for (int id = FIRST_VIRULENT_EPIDEMIC; id <= LAST_VIRULENT_EPIDEMIC; id++) {
+                availableCards.add(id);
+            }
+            randomizer.shuffleInPlace(availableCards);
+            epidemics.addAll(availableCards.subList(0, config.getNbOfEpidemics()));
+        } else {
+            for (int i = 0; i < config.getNbOfEpidemics(); i++) {
+                epidemics.add(EPIDEMIC_CARD_ID);
+            }
+        }
+
+        return epidemics;
+    }
+
+    /**
+     * @return The ids of the three Mutation event cards
+     */
+    public static List<Integer> mutationEvents() {
+        List<Integer> events = new ArrayList<Integer>();
+        for (int id = FIRST_MUTATION_EVENT; id <= LAST_MUTATION_EVENT; id++) {
+            events.add(id);
+        }
+        return events;
+    }
+
+    /**
+     * @return The ids of all the Emergency Event cards, shuffled
+     */
+    public static List<Integer> drawEmergencyEvents(RandomUtil randomizer) {
+        List<Integer> events = new ArrayList<Integer>();
+        for (int id = FIRST_EMERGENCY_EVENT; id <= LAST_EMERGENCY_EVENT; id++) {
+            events.add(id);
+        }
+        randomizer.shuffleInPlace(events);
+        return events;
+    }
+
+    /**
+     * Insert each of the events randomly in the deck, except at the top and bottom.
+     * @param pileDeck The deck of cards where to insert the events
+     * @param events The cards to insert
+     */
+    public static <T> void insertRandomly(List<T> pileDeck, List<T> events, RandomUtil randomizer) {
+        for (T event : events) {
+            // We exclude the top and the bottom of the deck,
+            //  so the position must be between 1 and pileDeck.size()-2.
+            int placeToInsert = 1 + randomizer.nextInt(pileDeck.size() - 2);
+            pileDeck.add(placeToInsert, event);
+            logger.debug("...event card {} added at index : {}", event, placeToInsert);
+        }
+    }
+
+    /**
+     * Split the player deck in as many piles as there are epidemic cards to add.
+     * Add one epidemic card in each pile (plus one Emergency Event card if this variant is used), shuffle the piles,
+     * and finally stack these piles to create the final player deck
+     * @param initialDeck The deck of player cards to which the epidemic cards will be added
+     * @param epidemics The List of epidemic cards to add evenly to the deck
+     * @param emergencyEventsToAdd The list of emergency event cards to add to the deck (an empty list if Emergency Events is not used)
+     * @return the new player deck, with epidemic cards added
+     */
+    public static <T> List<T> addCardsEvenly(List<T> initialDeck, List<T> epidemics, List<T> emergencyEventsToAdd,
+                                             RandomUtil randomizer) {
+        int nbOfPiles = epidemics.size();
+        logger.debug("...nb of cards in deck : {}", initialDeck.size());
+        logger.debug("...nb of piles / cards to add : {}", nbOfPiles);
+
+        List<T> finalDeck = new ArrayList<T>();
+
+        int[] pileSizes = determinePileSizes(initialDeck.size(), nbOfPiles);
+
+        int idx = 0; // index of cards in the initial deck
+        int iCurrPile = 0; // number of the current pile
+        for (int pileSize : pileSizes) {
+            List<T> currentPile = new ArrayList<T>(initialDeck.subList(idx, idx + pileSize));
+
+            currentPile.add(epidemics.get(iCurrPile));
+            if (!emergencyEventsToAdd.isEmpty()) {
+                currentPile.add(emergencyEventsToAdd.get(iCurrPile));
+            }
+            randomizer.shuffleInPlace(currentPile);
+            finalDeck.addAll(currentPile);
+
+            idx += pileSize;
+            iCurrPile++;
+        }
+
+        return finalDeck;
+    }
+
+    /**
+     * Prepare an array specifying the number of cards in each pile.
+     * We need to follow precisely the rulebook :
+     * #8. (...) Make the piles as equal in size as is possible.
+     * #9. (...) If the piles aren't exactly the same size, stack them so that the larger piles are above the smaller piles.
+     * Thanks to BGG user B Factor for pointing this out.
+     * @param nbOfCards Size of the deck before introducing the epidemic cards
+     * @param nbOfPiles Number of epidemic cards to introduce, thus number of piles to prepare
+     * @return An array of ints, of size nbOfPiles. Each element is the size of the corresponding pile.
+     */
+    public static int[] determinePileSizes(int nbOfCards, int nbOfPiles) {
+        int[] pileSizes = new int[nbOfPiles];
+
+        int minSize = nbOfCards / nbOfPiles;
+        int remainingCards = nbOfCards - (nbOfPiles * minSize);
+
+        /* Each pile will have at least minSize cards, and the X remaining ones will be put,
+         *  one per pile, on the first X piles.	 */
+        for (int i = 0; i < nbOfPiles; i++) {
+            pileSizes[i] = minSize + ((i < remainingCards) ? 1 : 0);
+        }
+
+        logger.debug("...nb of cards per pile : {}", pileSizes);
+
+        return pileSizes;
+    }
+
+    /**
+     * The cubes to put on a city during the initial infections.
+     * Place 3 cubes for each of the first 3 infections cards, 2 cubes for the next
+     * 3 infection cards, and 1 cube for the last 3 infection cards.
+     * @param config The game configuration
+     * @param cityColor The color of the infected city
+     * @param infectionIndex The rank of the infection card drawn during the set up (from 0 to 8)
+     * @return The colors of the cubes to put on the city
+     */
+    public static List<Disease> initialInfectionCubes(GameConfig config, Disease cityColor, int infectionIndex) {
+        int nbOfCubes = 3 - infectionIndex / 3;
+
+        List<Disease> cubes = new ArrayList<Disease>();
+        for (int i = 0; i < nbOfCubes; i++) {
+            cubes.add(cityColor);
+        }
+
+        /* Worldwide Panic :
+           put 1 purple cube on the 1st city drawn (in addition to 3 cubes of the card’s color);
+           put 2 purple cubes on the 4th city drawn (in addition to 2 cubes of that card’s color);
+           and put 3 purple	cubes on the 7th city drawn (in addition to 1 cube of that card’s color). */
+        if (infectionIndex % 3 == 0 && config.getVariants().contains(Variant.WORLDWIDE_PANIC)) {
+            for (int i = 0; i < 4 - nbOfCubes; i++) {
+                cubes.add(Disease.PURPLE);
+            }
+        }
+
+        return cubes;
+    }
+
+    /**
+     * @return true if the infection card is one of the MUTATION! cards (which are not cities)
+     */
+    public static boolean isMutationCard(int infectionCard) {
+        return infectionCard >= 100 && infectionCard < 200;
+    }
+
+    /**
+     * Determine the type of a player card from its id
+     */
+    public static PandemicObject.Type playerCardType(int cardId) {
+        if (cardId == EPIDEMIC_CARD_ID || (cardId >= FIRST_VIRULENT_EPIDEMIC && cardId <= LAST_VIRULENT_EPIDEMIC)) {
+            return PandemicObject.Type.EPIDEMIC_CARD;
+        } else if (cardId >= FIRST_MUTATION_EVENT && cardId <= LAST_MUTATION_EVENT) {
+            return PandemicObject.Type.MUTATION_EVENT_CARD;
+        } else if (cardId >= FIRST_EMERGENCY_EVENT && cardId <= LAST_EMERGENCY_EVENT) {
+            return PandemicObject.Type.EMERGENCY_EVENT_CARD;
+        } else if (cardId < 49) {
+            return PandemicObject.Type.PLAYER_CITY_CARD;
+        } else {
+            return PandemicObject.Type.SPECIAL_EVENT_CARD;
+        }
+    }
+}
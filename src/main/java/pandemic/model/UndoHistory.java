@@ -0,0 +1,225 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.model;
+
+import java.util.LinkedList;
+
+import pandemic.model.objects.PandemicObject;
+
+/**
+ * The operations of a game that can be undone, and the ones undone that can be redone.
+ * Each operation on the decks or the roles keeps the state of the GameEngine before it ; as the
+ *  consecutive EngineStates share their unchanged arrays, a level of undo costs little more than the
+ *  copy of the deck that changed.
+ * Recording a new operation forgets the operations undone, unless it's the redo of one of them.
+ *
+ * @author manur
+ * @since v2.9
+ */
+final class UndoHistory {
+
+    static final int MAX_LEVELS = 500;
+
+    enum Action {
+        DRAW_PLAYER_CARD(false),
+        DRAW_INFECTION_CARD(false),
+        DRAW_BOTTOM_INFECTION_CARD(false),
+        RESHUFFLE_INFECTION_CARDS(true),
+        REMOVE_DISCARDED_CARD(false),
+        REARRANGE_INFECTION_DECK(false),
+        CHANGE_ROLE(false),
+        MOVE_COMPONENT(false);
+
+        final boolean random; // draws from the random generator
+
+        Action(boolean random) {
+            this.random = random;
+        }
+    }
+
+    /**
+     * An operation done on the game
+     */
+    static final class Step {
+        final Action action;
+        final int[] arguments; // as given to the operation, to redo it
+        final EngineState before; // null for the moves, which don't change the engine
+
+        // The component moved by the operation, where it was before and where it was put
+        final PandemicObject component;
+        final int fromX;
+        final int fromY;
+        final BoardZone fromZone;
+        final int toX;
+        final int toY;
+
+        private Step(Action action, int[] arguments, EngineState before, PandemicObject component,
+                int fromX, int fromY, int toX, int toY) {
+            this.action = action;
+            this.arguments = arguments;
+            this.before = before;
+            this.component = component;
+            this.fromX = fromX;
+            this.fromY = fromY;
+            this.fromZone = component == null ? null : component.getBoardZone();
+            this.toX = toX;
+            this.toY = toY;
+        }
+
+        static Step operation(Action action, EngineState before, int... arguments) {
+            return new Step(action, arguments, before, null, 0, 0, 0, 0);
+        }
+
+        /**
+         * @param card The card about to be drawn, still in the deck
+         */
+        static Step playerCardDrawn(EngineState before, PandemicObject card) {
+            return new Step(Action.DRAW_PLAYER_CARD, new int[0], before, card, card.getX(), card.getY(), 0, 0);
+        }
+
+        /**
+         * @param component The component, already moved
+         */
+        static Step componentMoved(PandemicObject component, int fromX, int fromY, int toX, int toY) {
+            return new Step(Action.MOVE_COMPONENT, new int[0], null, component, fromX, fromY, toX, toY);
+        }
+    }
+
+    /**
+     * A game on which the operations undone are done again
+     */
+    interface Redoer {
+        void drawPlayerCard();
+        void drawInfectionCard();
+        void drawBottomInfectionCard();
+        void reshuffleInfectionCards();
+        void removeDiscardedCard(int discardedCardIndex);
+        void rearrangeInfectionDeck(int[] newCardOrder);
+        void changeRole(int roleIndex, int newRoleId);
+        void moveComponent(PandemicObject component, int fromX, int fromY, int toX, int toY);
+    }
+
+    private final LinkedList<Step> undoSteps = new LinkedList<Step>();
+    private final LinkedList<Step> redoSteps = new LinkedList<Step>();
+
+    private final int maxLevels;
+    private EngineState lastState; // the most recent state kept, to share its arrays with the next one
+    private boolean redoing;
+
+    UndoHistory() {
+        this(MAX_LEVELS);
+    }
+
+    /**
+     * @param maxLevels The number of operations that can be undone, the oldest being forgotten
+     */
+    UndoHistory(int maxLevels) {
+        this.maxLevels = maxLevels;
+    }
+
+    /**
+     * Keep an operation done, so that it can be undone.
+     * A random operation can only be undone if the state of the random generator was captured before it :
+     *  otherwise (see JdkRandomSource), the history is forgotten, as neither this operation nor the ones
+     *  before it could be undone then redone with the same draws.
+     */
+    void record(Step step) {
+        if (step.action.random && step.before.randomState == null) {
+            undoSteps.clear();
+            redoSteps.clear();
+            return;
+        }
+        undoSteps.addLast(step);
+        if (undoSteps.size() > maxLevels) {
+            undoSteps.removeFirst();
+        }
+        if (step.before != null) {
+            lastState = step.before;
+        }
+        if (!redoing) {
+            redoSteps.clear();
+        }
+    }
+
+    /**
+     * @return The last operation, which is now to undo
+     */
+    Step undo() {
+        Step step = undoSteps.removeLast();
+        if (GameEventLog.isEnabled()) {
+            GameEventLog.log(GameEvent.UNDO, "action", step.action);
+        }
+        redoSteps.addLast(step);
+        return step;
+    }
+
+    /**
+     * Do again the last operation undone : it's recorded again when it's done.
+     * @param game The game that recorded the operation
+     */
+    void redo(Redoer game) {
+        Step step = redoSteps.removeLast();
+        if (GameEventLog.isEnabled()) {
+            GameEventLog.log(GameEvent.REDO, "action", step.action);
+        }
+        redoing = true;
+        try {
+            switch (step.action) {
+            case DRAW_PLAYER_CARD:
+                game.drawPlayerCard();
+                break;
+            case DRAW_INFECTION_CARD:
+                game.drawInfectionCard();
+                break;
+            case DRAW_BOTTOM_INFECTION_CARD:
+                game.drawBottomInfectionCard();
+                break;
+            case RESHUFFLE_INFECTION_CARDS:
+                game.reshuffleInfectionCards();
+                break;
+            case REMOVE_DISCARDED_CARD:
+                game.removeDiscardedCard(step.arguments[0]);
+                break;
+            case REARRANGE_INFECTION_DECK:
+                game.rearrangeInfectionDeck(step.arguments.clone());
+                break;
+            case CHANGE_ROLE:
+                game.changeRole(step.arguments[0], step.arguments[1]);
+                break;
+            case MOVE_COMPONENT:
+                game.moveComponent(step.component, step.fromX, step.fromY, step.toX, step.toY);
+                break;
+            }
+        } finally {
+            redoing = false;
+        }
+    }
+
+    boolean canUndo() {
+        return !undoSteps.isEmpty();
+    }
+
+    boolean canRedo() {
+        return !redoSteps.isEmpty();
+    }
+
+    EngineState getLastState() {
+        return lastState;
+    }
+}
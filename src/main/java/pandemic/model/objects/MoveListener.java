@@ -0,0 +1,35 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.model.objects;
+
+/**
+ * Follows the moves of PandemicObjects on the board, by the program or by a drag
+ *
+ * @author manur
+ * @since v2.9
+ */
+public interface MoveListener {
+
+    /**
+     * @param object The object, at its new coordinates
+     * @param oldX X coordinates before the move
+     * @param oldY Y coordinates before the move
+     */
+    void objectMoved(PandemicObject object, int oldX, int oldY);
+}
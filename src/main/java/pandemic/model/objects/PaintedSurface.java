@@ -0,0 +1,30 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.model.objects;
+
+/**
+ * A single Swing component on which many PandemicObjects are painted, instead of a component per object.
+ * Such a component is shared as the swing component of all the objects it paints ; when one of them is moved,
+ *  it repaints the area left and the area covered now.
+ *
+ * @author manur
+ * @since v2.9
+ */
+public interface PaintedSurface extends MoveListener {
+}
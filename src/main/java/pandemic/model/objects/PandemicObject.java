@@ -27,8 +27,10 @@ import java.io.Serializable;
 
 import javax.swing.ImageIcon;
 import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
 
 import pandemic.model.BoardZone;
+import pandemic.util.FrameThrottle;
 
 /**
  * Base class of the component hierarchy.
@@ -58,13 +60,7 @@ import pandemic.model.BoardZone;
  * @author manur
  */
 public class PandemicObject implements MouseListener, MouseMotionListener, Serializable {
-	/*
-	 * WARNING - Using this randomly generated UID was a bad idea.
-	 * During the next change to this class, please modify the value to
-	 * the new version number ; example :
-	 *  private static final long serialVersionUID = 28L; // last major change : v2.8
-	 */
-	private static final long serialVersionUID = 2366879559150311995L;
+	private static final long serialVersionUID = 29L; // last major change : v2.9
 
 	// Ids are not bound to be unique. For example, all cubes from the same color will have the same id.
 	private int id;
@@ -75,7 +71,10 @@ public class PandemicObject implements MouseListener, MouseMotionListener, Seria
 	private GraphicalProperties graphicalProperties;
 	
 	private BoardZone boardZone;
-	protected boolean draggable;	
+	protected boolean draggable;
+
+	private transient FrameThrottle dragThrottle; // when set, the component follows the drag once per frame
+	private transient MoveListener moveListener; // when set, notified of each move and drag	
 	
 	public enum Type {
 		CITY,
@@ -188,6 +187,21 @@ public class PandemicObject implements MouseListener, MouseMotionListener, Seria
 		this.boardZone = boardZone;
 	}
 
+	/**
+	 * @param moveListener The listener to notify of each move of this object, like the index of the board ; may be null
+	 */
+	public void setMoveListener(MoveListener moveListener) {
+		this.moveListener = moveListener;
+	}
+
+	/**
+	 * @param dragThrottle The throttle shared by the components of the board, so that a drag repaints the board
+	 *  at most once per frame ; null to move the component on each mouse event
+	 */
+	public void setDragThrottle(FrameThrottle dragThrottle) {
+		this.dragThrottle = dragThrottle;
+	}
+
 	/* ******* SWING ******* */
 	
 	/**
@@ -196,10 +210,49 @@ public class PandemicObject implements MouseListener, MouseMotionListener, Seria
 	 * @param newY Y coordinates
 	 */
 	public void move(int newX, int newY) {
+		int oldX = getX();
+		int oldY = getY();
+		setX(newX);
+		setY(newY);
+		followMove(oldX, oldY, newX, newY);
+	}
+	
+	/**
+	 * Pass new coordinates right away, and move the actual swing component on the EDT :
+	 *  for the moves done by the model on its own thread (like an undo)
+	 * @param newX X coordinates
+	 * @param newY Y coordinates
+	 */
+	public void moveOnEdt(final int newX, final int newY) {
+		if (SwingUtilities.isEventDispatchThread()) {
+			move(newX, newY);
+			return;
+		}
+		final int oldX = getX();
+		final int oldY = getY();
 		setX(newX);
 		setY(newY);
+		SwingUtilities.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				followMove(oldX, oldY, newX, newY);
+			}
+		});
+	}
+	
+	private void followMove(int oldX, int oldY, int newX, int newY) {
+		JComponent swingComponent = getSwingComponent();
+		if (swingComponent instanceof PaintedSurface) {
+			// The object is only painted on a component shared with the others
+			((PaintedSurface) swingComponent).objectMoved(this, oldX, oldY);
+		} else {
+			// The component may have been kept empty while it was out of sight : size it to its image now
+			swingComponent.setBounds(newX, newY, getImage().getIconWidth(), getImage().getIconHeight());
+		}
 		
-		getSwingComponent().setLocation(newX, newY);
+		if (moveListener != null) {
+			moveListener.objectMoved(this, oldX, oldY);
+		}
 	}
 	
 	/*  MouseListener  */
@@ -223,7 +276,11 @@ public class PandemicObject implements MouseListener, MouseMotionListener, Seria
 	public void mouseEntered(MouseEvent e) {}
 
 	@Override
-	public void mouseReleased(MouseEvent e) {}
+	public void mouseReleased(MouseEvent e) {
+		if (dragThrottle != null) {
+			dragThrottle.flush(this);
+		}
+	}
 
 	/*  MouseMotionListener  */
 	
@@ -253,11 +310,28 @@ public class PandemicObject implements MouseListener, MouseMotionListener, Seria
 				translateY = parentHeight - this.getImage().getIconHeight() - objectLocation.y;
 			}
 			
-			// Move the graphical component by the corrected distance
+			// Move the graphical component by the corrected distance.
+			// Swing only repaints the bounds it leaves and the bounds it takes.
+			int oldX = getX();
+			int oldY = getY();
 			objectLocation.translate(translateX, translateY);
-			swingComponent.setLocation(objectLocation);
-			setX(swingComponent.getX());
-			setY(swingComponent.getY());
+			setX(objectLocation.x);
+			setY(objectLocation.y);
+			if (moveListener != null) {
+				moveListener.objectMoved(this, oldX, oldY);
+			}
+			if (dragThrottle == null) {
+				swingComponent.setLocation(objectLocation);
+			} else {
+				final JComponent component = swingComponent;
+				final Point location = objectLocation;
+				dragThrottle.submit(new Runnable() {
+					@Override
+					public void run() {
+						component.setLocation(location);
+					}
+				});
+			}
 		}
 	}
 
@@ -0,0 +1,416 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.server;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import pandemic.model.DifficultyLevel;
+import pandemic.model.GameCatalog;
+import pandemic.simulation.HeadlessSimulation;
+import pandemic.util.GameConfig;
+
+/**
+ * Headless server : hosts any number of games in one JVM, without any window, image or sound,
+ *  played through a line protocol on the standard input and output, or on a local socket.
+ * All the games share the catalog, and a few worker threads : each game is a GameSession, whose commands
+ *  are run in order as tasks of the workers, so thousands of games cost a few KB each rather than a thread.
+ * <p>
+ * Each line is a command, named after the operation of the BoardController, followed by the id of the game :
+ * <pre>
+ * new SESSION [ROLES [SEED [DIFFICULTY]]]    end SESSION    state SESSION    quit
+ * drawPlayerCard SESSION                     drawInfectionCard SESSION        drawBottomInfectionCard SESSION
+ * reshuffleInfectionCards SESSION            showDiscardPile SESSION          removeDiscardedCard SESSION INDEX
+ * showForecastCards SESSION                  rearrangeInfectionDeck SESSION POSITION...
+ * showTroubleshooterCards SESSION            changeRole SESSION ROLE_INDEX ROLE_ID
+ * undo SESSION                               redo SESSION
+ * </pre>
+ * Each command is answered by a line "OK SESSION key=value..." or "ERR SESSION message". The commands of
+ *  a game are answered in order ; the commands of different games run in parallel, and may be answered
+ *  in any order.
+ * The games started by a connection are ended when it's closed.
+ * <p>
+ * Usage : <code>java pandemic.server.GameServer [--port N] [--workers N] [--connections N]</code>
+ * Without a port, the commands are read from the standard input (the logs must then not go to the console).
+ * On a port, each connection holds a thread while it's open : the connections beyond the maximum are refused.
+ *
+ * @author manur
+ * @since v2.9
+ */
+public class GameServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameServer.class);
+
+    public static final int DEFAULT_MAX_CONNECTIONS = 32;
+
+    private final GameCatalog catalog;
+    private final ExecutorService workers;
+    private final ExecutorService connections;
+    private final ConcurrentMap<String, GameSession> sessions = new ConcurrentHashMap<String, GameSession>();
+
+    private volatile ServerSocket serverSocket; // while listening
+
+    /**
+     * Constructor
+     * @param catalog The catalog shared by all games
+     * @param nbOfWorkers The number of threads playing the commands of the games
+     */
+    public GameServer(GameCatalog catalog, int nbOfWorkers) {
+        this(catalog, nbOfWorkers, DEFAULT_MAX_CONNECTIONS);
+    }
+
+    /**
+     * Constructor
+     * @param catalog The catalog shared by all games
+     * @param nbOfWorkers The number of threads playing the commands of the games
+     * @param maxConnections The number of connections served at the same time on a port
+     */
+    public GameServer(GameCatalog catalog, int nbOfWorkers, int maxConnections) {
+        this.catalog = catalog;
+        this.workers = Executors.newFixedThreadPool(nbOfWorkers, daemonThreads("worker-"));
+        // No queue : a connection is served right away, or refused
+        this.connections = new ThreadPoolExecutor(0, maxConnections, 60L, TimeUnit.SECONDS,
+                new SynchronousQueue<Runnable>(), daemonThreads("connection-"));
+    }
+
+    private static ThreadFactory daemonThreads(final String namePrefix) {
+        return new ThreadFactory() {
+            private final AtomicInteger nbOfThreads = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, namePrefix + nbOfThreads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = -1;
+        int nbOfWorkers = Runtime.getRuntime().availableProcessors();
+        int maxConnections = DEFAULT_MAX_CONNECTIONS;
+
+        for (int i = 0; i < args.length - 1; i++) {
+            if ("--port".equals(args[i])) {
+                port = Integer.parseInt(args[++i]);
+            } else if ("--workers".equals(args[i])) {
+                nbOfWorkers = Integer.parseInt(args[++i]);
+            } else if ("--connections".equals(args[i])) {
+                maxConnections = Integer.parseInt(args[++i]);
+            }
+        }
+
+        GameServer server = new GameServer(HeadlessSimulation.createCatalog(), nbOfWorkers, maxConnections);
+        if (port < 0) {
+            server.serve(System.in, System.out);
+        } else {
+            server.listen(port);
+        }
+        server.shutdown(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Accept the connections on the local host, each one served by a thread of its own while it's open,
+     *  until the server is shut down
+     * @param port The port, or 0 for any free one (see getLocalPort())
+     */
+    public void listen(int port) throws IOException {
+        ServerSocket listening = new ServerSocket(port, 50, InetAddress.getByName(null));
+        serverSocket = listening;
+        logger.info("Listening on {}", listening.getLocalSocketAddress());
+        try {
+            // shutdown() stops the workers before it closes the socket : one of both is seen here
+            while (!workers.isShutdown()) {
+                final Socket socket;
+                try {
+                    socket = listening.accept();
+                } catch (SocketException e) {
+                    if (listening.isClosed()) {
+                        return; // by shutdown()
+                    }
+                    throw e;
+                }
+                try {
+                    connections.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            serve(socket);
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    logger.warn("Too many connections : {} refused", socket.getRemoteSocketAddress());
+                    refuse(socket);
+                }
+            }
+        } finally {
+            serverSocket = null;
+            listening.close();
+        }
+    }
+
+    private void serve(Socket socket) {
+        try {
+            serve(socket.getInputStream(), socket.getOutputStream());
+        } catch (IOException e) {
+            logger.warn("Connection to {} lost", socket.getRemoteSocketAddress(), e);
+        } finally {
+            close(socket);
+        }
+    }
+
+    private static void refuse(Socket socket) {
+        try {
+            PrintWriter writer = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), "UTF-8"));
+            writer.println("ERR - Too many connections");
+            writer.flush();
+        } catch (IOException e) {
+            logger.debug("Failed to tell {} it's refused", socket.getRemoteSocketAddress(), e);
+        } finally {
+            close(socket);
+        }
+    }
+
+    private static void close(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close the connection to {}", socket.getRemoteSocketAddress(), e);
+        }
+    }
+
+    /**
+     * Play the commands read from a connection, until its end or a "quit" command,
+     *  wait for all of them to be answered, then end the games started by the connection
+     */
+    public void serve(InputStream input, OutputStream output) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, "UTF-8"));
+        Connection connection = new Connection(new PrintWriter(new OutputStreamWriter(output, "UTF-8")));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!handle(line.trim(), connection)) {
+                    break;
+                }
+            }
+        } finally {
+            connection.awaitReplies();
+            for (GameSession session : connection.startedSessions) {
+                sessions.remove(session.getId(), session);
+            }
+        }
+    }
+
+    /**
+     * @return false if the connection is to be closed
+     */
+    private boolean handle(String line, final Connection connection) {
+        if (line.isEmpty() || line.startsWith("#")) {
+            return true;
+        }
+        String[] words = line.split("\\s+");
+        final String command = words[0];
+        if ("quit".equals(command)) {
+            return false;
+        }
+        if (words.length < 2) {
+            connection.reply("ERR - Missing the session of " + command);
+            return true;
+        }
+        final String sessionId = words[1];
+        final String[] arguments = new String[words.length - 2];
+        System.arraycopy(words, 2, arguments, 0, arguments.length);
+
+        if ("new".equals(command)) {
+            newSession(sessionId, arguments, connection);
+            return true;
+        }
+
+        final GameSession session = sessions.get(sessionId);
+        if (session == null) {
+            connection.reply("ERR " + sessionId + " No such session");
+            return true;
+        }
+        connection.expectReply();
+        if ("end".equals(command)) {
+            // Ended after the commands already submitted, and before the ones that follow
+            session.submit(new Runnable() {
+                @Override
+                public void run() {
+                    if (session.isEnded()) {
+                        connection.answer("ERR " + sessionId + " No such session");
+                        return;
+                    }
+                    session.end();
+                    connection.answer("OK " + sessionId);
+                    sessions.remove(sessionId, session);
+                }
+            });
+            return true;
+        }
+        session.submit(new Runnable() {
+            @Override
+            public void run() {
+                connection.answer(session.isEnded() ? "ERR " + sessionId + " No such session" : play(session, command, arguments));
+            }
+        });
+        return true;
+    }
+
+    private void newSession(String sessionId, String[] arguments, Connection connection) {
+        GameConfig config = GameConfig.defaultConfigFactory();
+        try {
+            if (arguments.length > 0) {
+                int nbOfRoles = Integer.parseInt(arguments[0]);
+                if (nbOfRoles < 2 || nbOfRoles > 4) {
+                    throw new IllegalArgumentException("From 2 to 4 roles");
+                }
+                config.setNbOfRoles(nbOfRoles);
+            }
+            if (arguments.length > 1) {
+                config.setSeed(Long.parseLong(arguments[1]));
+            }
+            if (arguments.length > 2) {
+                config.setDifficultyLevel(DifficultyLevel.valueOf(arguments[2].toUpperCase()));
+            }
+        } catch (IllegalArgumentException e) { // including NumberFormatException
+            connection.reply("ERR " + sessionId + " " + e.getMessage());
+            return;
+        }
+
+        GameSession session = new GameSession(sessionId, config, catalog, workers);
+        if (sessions.putIfAbsent(sessionId, session) != null) {
+            connection.reply("ERR " + sessionId + " Session already started");
+            return;
+        }
+        connection.startedSessions.add(session);
+        connection.reply(play(session, "state", new String[0]));
+    }
+
+    private static String play(GameSession session, String command, String[] arguments) {
+        try {
+            return "OK " + session.getId() + " " + session.play(command, arguments);
+        } catch (IllegalArgumentException e) {
+            return "ERR " + session.getId() + " " + e.getMessage();
+        } catch (IllegalStateException e) {
+            return "ERR " + session.getId() + " " + e.getMessage();
+        } catch (RuntimeException e) {
+            logger.error("Command {} failed on session {}", command, session.getId(), e);
+            return "ERR " + session.getId() + " Internal error";
+        }
+    }
+
+    public int getNbOfSessions() {
+        return sessions.size();
+    }
+
+    /**
+     * @return The port listened to, or -1 if the server isn't listening
+     */
+    public int getLocalPort() {
+        ServerSocket listening = serverSocket;
+        return listening == null ? -1 : listening.getLocalPort();
+    }
+
+    /**
+     * Stop listening, and stop the workers once the commands already submitted are played
+     * @return true if they are played
+     */
+    public boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        workers.shutdown();
+        connections.shutdown();
+        ServerSocket listening = serverSocket;
+        if (listening != null) {
+            try {
+                listening.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close {}", listening.getLocalSocketAddress(), e);
+            }
+        }
+        return workers.awaitTermination(timeout, unit);
+    }
+
+    /**
+     * The replies to a connection, written by the workers as the commands are played
+     */
+    private static final class Connection {
+        private final PrintWriter writer;
+        private int nbOfPendingReplies;
+
+        // Only used by the thread reading the connection
+        private final List<GameSession> startedSessions = new ArrayList<GameSession>();
+
+        Connection(PrintWriter writer) {
+            this.writer = writer;
+        }
+
+        synchronized void expectReply() {
+            nbOfPendingReplies++;
+        }
+
+        synchronized void reply(String line) {
+            writer.println(line);
+            writer.flush();
+        }
+
+        /**
+         * Write the reply expected to a command submitted to a session
+         */
+        synchronized void answer(String line) {
+            reply(line);
+            nbOfPendingReplies--;
+            notifyAll();
+        }
+
+        synchronized void awaitReplies() {
+            while (nbOfPendingReplies > 0) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.server;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.concurrent.Executor;
+
+import pandemic.model.GameCatalog;
+import pandemic.model.GameEngine;
+import pandemic.model.HeadlessGame;
+import pandemic.model.SetupRules;
+import pandemic.util.GameConfig;
+
+/**
+ * A game hosted by the GameServer, and the commands waiting to be played on it.
+ * The commands of a session are run one after the other, each one as a task of the workers shared by all
+ *  the sessions : a session only holds a thread while one of its commands runs, and the sessions waiting
+ *  for their next command cost nothing but their game.
+ *
+ * @author manur
+ * @since v2.9
+ */
+class GameSession {
+
+    private static final int TROUBLESHOOTER_CARDS = 4; // as many as in the pop-up of the Troubleshooter
+
+    private final String id;
+    private final HeadlessGame game;
+    private final Executor workers;
+
+    private final LinkedList<Runnable> pendingCommands = new LinkedList<Runnable>();
+    private boolean running; // a task of the workers runs the pending commands
+    private volatile boolean ended; // the commands still pending are refused
+
+    private final Runnable nextCommand = new Runnable() {
+        @Override
+        public void run() {
+            runNextCommand();
+        }
+    };
+
+    GameSession(String id, GameConfig config, GameCatalog catalog, Executor workers) {
+        this.id = id;
+        this.game = new HeadlessGame(config, catalog);
+        this.workers = workers;
+    }
+
+    /**
+     * Run a command after the ones already submitted to this session
+     */
+    void submit(Runnable command) {
+        synchronized (pendingCommands) {
+            pendingCommands.add(command);
+            if (running) {
+                return;
+            }
+            running = true;
+        }
+        workers.execute(nextCommand);
+    }
+
+    /**
+     * Run one command, and give the workers back to the other sessions before the next one
+     */
+    private void runNextCommand() {
+        Runnable command;
+        synchronized (pendingCommands) {
+            command = pendingCommands.poll();
+        }
+        try {
+            command.run();
+        } finally {
+            synchronized (pendingCommands) {
+                if (pendingCommands.isEmpty()) {
+                    running = false;
+                    return;
+                }
+            }
+            workers.execute(nextCommand);
+        }
+    }
+
+    /**
+     * Play a command on the game, named after the operation of the BoardController
+     * @return The reply, as "key=value" fields
+     * @throws IllegalArgumentException for an unknown command or wrong arguments
+     * @throws IllegalStateException for an operation that can't be played now
+     */
+    String play(String command, String[] arguments) {
+        GameEngine engine = game.getEngine();
+
+        if ("drawPlayerCard".equals(command)) {
+            int card = game.drawPlayerCard();
+            return "card=" + card + " type=" + SetupRules.playerCardType(card) + " playerCards=" + engine.getPlayerDeck().size();
+        } else if ("drawInfectionCard".equals(command)) {
+            return describeInfectionCard(game.drawInfectionCard());
+        } else if ("drawBottomInfectionCard".equals(command)) {
+            return describeInfectionCard(game.drawBottomInfectionCard());
+        } else if ("reshuffleInfectionCards".equals(command)) {
+            game.reshuffleInfectionCards();
+            return "infectionDeck=" + engine.getInfectionDeck().size();
+        } else if ("showDiscardPile".equals(command)) {
+            return "discardPile=" + Arrays.toString(engine.getDiscardPile().toArray()).replace(" ", "");
+        } else if ("removeDiscardedCard".equals(command)) {
+            return "removed=" + game.removeDiscardedCard(intArgument(arguments, 0));
+        } else if ("showForecastCards".equals(command)) {
+            return "cards=" + topInfectionCards(SetupRules.FORECAST_CARDS);
+        } else if ("rearrangeInfectionDeck".equals(command)) {
+            int[] newCardOrder = new int[arguments.length];
+            for (int i = 0; i < newCardOrder.length; i++) {
+                newCardOrder[i] = intArgument(arguments, i);
+            }
+            game.rearrangeInfectionDeck(newCardOrder);
+            return "cards=" + topInfectionCards(newCardOrder.length);
+        } else if ("showTroubleshooterCards".equals(command)) {
+            return "cards=" + topInfectionCards(TROUBLESHOOTER_CARDS);
+        } else if ("changeRole".equals(command)) {
+            game.changeRole(intArgument(arguments, 0), intArgument(arguments, 1));
+            return "roles=" + engine.getAffectedRoles().toString().replace(" ", "");
+        } else if ("undo".equals(command)) {
+            return "undone=" + game.undo();
+        } else if ("redo".equals(command)) {
+            return "redone=" + game.redo();
+        } else if ("state".equals(command)) {
+            return describe();
+        }
+        throw new IllegalArgumentException("Unknown command " + command);
+    }
+
+    /**
+     * @return The seed, the roles and the decks of the game
+     */
+    String describe() {
+        GameEngine engine = game.getEngine();
+        return "seed=" + engine.getRandomizer().getSeed()
+                + " roles=" + engine.getAffectedRoles().toString().replace(" ", "")
+                + " playerCards=" + engine.getPlayerDeck().size()
+                + " infectionDeck=" + engine.getInfectionDeck().size()
+                + " discardPile=" + Arrays.toString(engine.getDiscardPile().toArray()).replace(" ", "");
+    }
+
+    /**
+     * End the game : to be called by one of its commands, so that the ones before it are played
+     */
+    void end() {
+        ended = true;
+    }
+
+    boolean isEnded() {
+        return ended;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    private String describeInfectionCard(int card) {
+        String name = SetupRules.isMutationCard(card) ? "MUTATION!" : game.getEngine().getCatalog().getCityName(card);
+        return "card=" + card + " name=\"" + name + "\"";
+    }
+
+    private String topInfectionCards(int nbOfCards) {
+        int[] infectionDeck = game.getEngine().getInfectionDeck().toArray();
+        return Arrays.toString(Arrays.copyOf(infectionDeck, Math.min(nbOfCards, infectionDeck.length))).replace(" ", "");
+    }
+
+    private static int intArgument(String[] arguments, int index) {
+        if (index >= arguments.length) {
+            throw new IllegalArgumentException("Missing argument #" + (index + 1));
+        }
+        try {
+            return Integer.parseInt(arguments[index]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a number : " + arguments[index]);
+        }
+    }
+}
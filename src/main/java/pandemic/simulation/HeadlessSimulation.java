@@ -0,0 +1,151 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.simulation;
+
+import pandemic.model.ComponentsFactory;
+import pandemic.model.DifficultyLevel;
+import pandemic.model.GameCatalog;
+import pandemic.model.GameEngine;
+import pandemic.model.SetupRules;
+import pandemic.model.objects.PandemicObject;
+import pandemic.util.GameConfig;
+import pandemic.util.GenericResourceProvider;
+import pandemic.util.RandomUtil;
+
+/**
+ * Headless entry point : sets up and plays out games with the GameEngine only,
+ *  without any window, image or sound.
+ * Each game is played out mechanically : two player cards are drawn per turn, every epidemic
+ *  is resolved (bottom infection card, reshuffle, infection rate increase), then as many infection
+ *  cards as the infection rate are drawn, until the player deck is exhausted.
+ * <p>
+ * Usage : <code>java pandemic.simulation.HeadlessSimulation [--games N] [--roles N] [--difficulty LEVEL] [--seed S]</code>
+ * The game number i is set up with the seed S + i.
+ *
+ * @author manur
+ * @since v2.9
+ */
+public class HeadlessSimulation {
+
+    private static final int[] INFECTION_RATES = {2, 2, 2, 3, 3, 4, 4};
+
+    private static final int PLAYER_CARDS_PER_TURN = 2;
+
+    public static void main(String[] args) {
+        int nbOfGames = 1000;
+        GameConfig config = GameConfig.defaultConfigFactory();
+
+        for (int i = 0; i < args.length - 1; i++) {
+            if ("--games".equals(args[i])) {
+                nbOfGames = Integer.parseInt(args[++i]);
+            } else if ("--roles".equals(args[i])) {
+                config.setNbOfRoles(Integer.parseInt(args[++i]));
+            } else if ("--difficulty".equals(args[i])) {
+                config.setDifficultyLevel(DifficultyLevel.valueOf(args[++i].toUpperCase()));
+            } else if ("--seed".equals(args[i])) {
+                config.setSeed(Long.parseLong(args[++i]));
+            }
+        }
+
+        GameCatalog catalog = createCatalog();
+
+        long totalTurns = 0;
+        long start = System.nanoTime();
+        if (config.getSeed() == null) {
+            config.setSeed(new RandomUtil().getSeed());
+        }
+        for (int game = 0; game < nbOfGames; game++) {
+            GameEngine engine = new GameEngine(config, catalog, new RandomUtil(config.getSeed() + game));
+            engine.setUp();
+            totalTurns += playOut(engine);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        for (String line : config.giveDetails()) {
+            System.out.println(line);
+        }
+        System.out.println("Games played : " + nbOfGames);
+        System.out.println("Average number of turns : " + ((double) totalTurns / nbOfGames));
+        System.out.println("Elapsed time (ms) : " + (elapsed / 1000000));
+        System.out.println("Games per second : " + (nbOfGames * 1e9 / elapsed));
+    }
+
+    /**
+     * Build the catalog from the bundle of the components ; no image is loaded.
+     */
+    public static GameCatalog createCatalog() {
+        ComponentsFactory componentsFactory = new ComponentsFactory();
+        componentsFactory.setResourceProvider(new GenericResourceProvider());
+        return componentsFactory.createCatalog();
+    }
+
+    /**
+     * Play out a game that has been set up, until the player deck is exhausted.
+     * @param engine The engine of the game, already set up
+     * @return The number of complete turns played
+     */
+    public static int playOut(GameEngine engine) {
+        return playOut(engine, null);
+    }
+
+    /**
+     * Play out a game that has been set up, until the player deck is exhausted.
+     * @param engine The engine of the game, already set up
+     * @param statistics The statistics to fill with the game, or null
+     * @return The number of complete turns played
+     */
+    public static int playOut(GameEngine engine, SimulationStatistics statistics) {
+        if (statistics != null) {
+            statistics.gameSetUp(engine);
+        }
+
+        int nbOfTurns = 0;
+        int nbOfEpidemics = 0;
+
+        while (engine.getPlayerDeck().size() >= PLAYER_CARDS_PER_TURN) {
+            for (int i = 0; i < PLAYER_CARDS_PER_TURN; i++) {
+                int cardId = engine.drawPlayerCard();
+                if (SetupRules.playerCardType(cardId) == PandemicObject.Type.EPIDEMIC_CARD) {
+                    nbOfEpidemics++;
+                    int bottomCard = engine.drawBottomInfectionCard();
+                    if (statistics != null) {
+                        statistics.infectionCardDrawn(bottomCard);
+                    }
+                    engine.reshuffleInfectionCards();
+                }
+            }
+
+            int infectionRate = INFECTION_RATES[Math.min(nbOfEpidemics, INFECTION_RATES.length - 1)];
+            for (int i = 0; i < infectionRate && !engine.getInfectionDeck().isEmpty(); i++) {
+                int cardId = engine.drawInfectionCard();
+                if (statistics != null) {
+                    statistics.infectionCardDrawn(cardId);
+                }
+            }
+
+            nbOfTurns++;
+        }
+
+        if (statistics != null) {
+            statistics.gameOver(nbOfTurns);
+        }
+
+        return nbOfTurns;
+    }
+}
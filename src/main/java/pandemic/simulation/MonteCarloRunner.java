@@ -0,0 +1,201 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.simulation;
+
+import pandemic.model.DifficultyLevel;
+import pandemic.model.Expansion;
+import pandemic.model.GameCatalog;
+import pandemic.model.GameEngine;
+import pandemic.model.Variant;
+import pandemic.util.GameConfig;
+import pandemic.util.RandomUtil;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Batch runner playing out seeded games with the GameEngine on all the cores, for every
+ *  combination of difficulty level, number of roles, number of event cards, survival mode and variant.
+ * Each thread plays its share of the games with its own randomizers and its own SimulationStatistics,
+ *  merged without lock into the SimulationResult of the config when the thread is done.
+ * <p>
+ * Usage : <code>java pandemic.simulation.MonteCarloRunner [--games N] [--threads N] [--seed S]</code>
+ *
+ * @author manur
+ * @since v2.9
+ */
+public class MonteCarloRunner {
+
+    private final GameCatalog catalog;
+    private final int nbOfThreads;
+    private final long seed;
+
+    /**
+     * Constructor
+     * @param catalog The catalog shared by all games
+     * @param nbOfThreads The number of threads playing the games in parallel
+     * @param seed The seed from which the seed of each game is derived
+     */
+    public MonteCarloRunner(GameCatalog catalog, int nbOfThreads, long seed) {
+        this.catalog = catalog;
+        this.nbOfThreads = nbOfThreads;
+        this.seed = seed;
+    }
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        int nbOfGames = 10000;
+        int nbOfThreads = Runtime.getRuntime().availableProcessors();
+        long seed = System.currentTimeMillis();
+
+        for (int i = 0; i < args.length - 1; i++) {
+            if ("--games".equals(args[i])) {
+                nbOfGames = Integer.parseInt(args[++i]);
+            } else if ("--threads".equals(args[i])) {
+                nbOfThreads = Integer.parseInt(args[++i]);
+            } else if ("--seed".equals(args[i])) {
+                seed = Long.parseLong(args[++i]);
+            }
+        }
+
+        System.out.println("Seed : " + seed + ", " + nbOfGames + " games per config on " + nbOfThreads + " threads");
+
+        MonteCarloRunner runner = new MonteCarloRunner(HeadlessSimulation.createCatalog(), nbOfThreads, seed);
+
+        long start = System.nanoTime();
+        List<SimulationResult> results = runner.run(allConfigs(), nbOfGames);
+        long elapsed = System.nanoTime() - start;
+
+        long totalGames = 0;
+        for (SimulationResult result : results) {
+            for (String line : result.describe()) {
+                System.out.println(line);
+            }
+            totalGames += result.getNbOfGames();
+        }
+        System.out.println("Games played : " + totalGames + " in " + (elapsed / 1000000) + " ms ("
+                + (long) (totalGames * 1e9 / elapsed) + " games per second)");
+    }
+
+    /**
+     * Every combination of the settings that change the player and infection decks,
+     *  with all the expansions for the roles and the event cards.
+     */
+    public static List<GameConfig> allConfigs() {
+        List<GameConfig> configs = new ArrayList<GameConfig>();
+
+        List<Variant> variants = new ArrayList<Variant>();
+        variants.add(null); // no variant
+        variants.add(Variant.VIRULENT_STRAIN);
+        variants.add(Variant.MUTATION);
+        variants.add(Variant.WORLDWIDE_PANIC);
+        variants.add(Variant.EMERGENCY_EVENTS);
+
+        for (DifficultyLevel difficultyLevel : DifficultyLevel.values()) {
+            for (int nbOfRoles = 2; nbOfRoles <= 4; nbOfRoles++) {
+                for (boolean fiveEvents : new boolean[] {false, true}) {
+                    for (boolean survivalMode : new boolean[] {false, true}) {
+                        for (Variant variant : variants) {
+                            GameConfig config = new GameConfig();
+                            config.setDifficultyLevel(difficultyLevel);
+                            config.setNbOfRoles(nbOfRoles);
+                            config.setRolesExpansions(EnumSet.allOf(Expansion.class));
+                            config.setFiveEvents(fiveEvents);
+                            config.setEventCardsExpansions(EnumSet.allOf(Expansion.class));
+                            config.setSurvivalMode(survivalMode);
+                            if (variant != null) {
+                                config.getVariants().add(variant);
+                            }
+                            configs.add(config);
+                        }
+                    }
+                }
+            }
+        }
+
+        return configs;
+    }
+
+    /**
+     * Play out the given number of games for each config.
+     * @return The results, in the order of the configs
+     */
+    public List<SimulationResult> run(List<GameConfig> configs, int nbOfGames) throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(nbOfThreads);
+        try {
+            List<SimulationResult> results = new ArrayList<SimulationResult>();
+            List<Future<?>> futures = new ArrayList<Future<?>>();
+
+            for (int configIndex = 0; configIndex < configs.size(); configIndex++) {
+                SimulationResult result = new SimulationResult(configs.get(configIndex));
+                results.add(result);
+
+                long firstGameSeed = seed + (long) configIndex * nbOfGames;
+                for (int thread = 0; thread < nbOfThreads; thread++) {
+                    int fromGame = (int) ((long) nbOfGames * thread / nbOfThreads);
+                    int toGame = (int) ((long) nbOfGames * (thread + 1) / nbOfThreads);
+                    if (toGame > fromGame) {
+                        futures.add(executor.submit(new GamesBatch(result, firstGameSeed, fromGame, toGame)));
+                    }
+                }
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * A share of the games of a config, played by one thread.
+     */
+    private class GamesBatch implements Runnable {
+        private final SimulationResult result;
+        private final long firstGameSeed;
+        private final int fromGame;
+        private final int toGame;
+
+        GamesBatch(SimulationResult result, long firstGameSeed, int fromGame, int toGame) {
+            this.result = result;
+            this.firstGameSeed = firstGameSeed;
+            this.fromGame = fromGame;
+            this.toGame = toGame;
+        }
+
+        @Override
+        public void run() {
+            SimulationStatistics statistics = new SimulationStatistics();
+            for (int game = fromGame; game < toGame; game++) {
+                // one randomizer per game, so that each game can be replayed from its own seed
+                GameEngine engine = new GameEngine(result.getConfig(), catalog, new RandomUtil(firstGameSeed + game));
+                engine.setUp();
+                HeadlessSimulation.playOut(engine, statistics);
+            }
+            result.merge(statistics);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.simulation;
+
+import pandemic.model.Variant;
+import pandemic.util.GameConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static pandemic.simulation.SimulationStatistics.MAX_DECK_POSITION;
+import static pandemic.simulation.SimulationStatistics.MAX_EPIDEMICS;
+import static pandemic.simulation.SimulationStatistics.MAX_RECURRENCE;
+
+/**
+ * The statistics of all the games played with one GameConfig, merged from the SimulationStatistics
+ *  of each thread. The merge only uses atomic additions, so threads never wait for each other.
+ *
+ * @author manur
+ * @since v2.9
+ */
+public class SimulationResult {
+
+    private final GameConfig config;
+
+    private final AtomicLongArray epidemicPositions = new AtomicLongArray(MAX_EPIDEMICS * MAX_DECK_POSITION);
+    private final AtomicLongArray recurrences = new AtomicLongArray(MAX_RECURRENCE);
+    private final AtomicLong nbOfGames = new AtomicLong();
+    private final AtomicLong nbOfTurns = new AtomicLong();
+
+    public SimulationResult(GameConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Add the statistics gathered by one thread.
+     */
+    public void merge(SimulationStatistics statistics) {
+        long[] positions = statistics.getEpidemicPositions();
+        for (int i = 0; i < positions.length; i++) {
+            if (positions[i] != 0) {
+                epidemicPositions.addAndGet(i, positions[i]);
+            }
+        }
+        long[] gaps = statistics.getRecurrences();
+        for (int i = 0; i < gaps.length; i++) {
+            if (gaps[i] != 0) {
+                recurrences.addAndGet(i, gaps[i]);
+            }
+        }
+        nbOfGames.addAndGet(statistics.getNbOfGames());
+        nbOfTurns.addAndGet(statistics.getNbOfTurns());
+    }
+
+    public GameConfig getConfig() {
+        return config;
+    }
+
+    public long getNbOfGames() {
+        return nbOfGames.get();
+    }
+
+    /**
+     * @return The number of games where the epidemic card of the given rank was at the given position in the player deck
+     */
+    public long getEpidemicPositionCount(int rank, int position) {
+        return epidemicPositions.get(rank * MAX_DECK_POSITION + position);
+    }
+
+    /**
+     * @return The number of times an infection card has been drawn again after exactly the given number of draws
+     */
+    public long getRecurrenceCount(int draws) {
+        return recurrences.get(draws);
+    }
+
+    /**
+     * Describe the results in a few lines : the mean position and range of each epidemic card,
+     *  and the quartiles of the infection cards recurrence.
+     */
+    public List<String> describe() {
+        List<String> lines = new ArrayList<String>();
+
+        lines.add(describeConfig() + " - " + nbOfGames.get() + " games, "
+                + String.format("%.2f", (double) nbOfTurns.get() / Math.max(1, nbOfGames.get())) + " turns per game");
+
+        for (int rank = 0; rank < config.getNbOfEpidemics(); rank++) {
+            long count = 0;
+            long sum = 0;
+            int min = -1;
+            int max = -1;
+            for (int position = 0; position < MAX_DECK_POSITION; position++) {
+                long n = getEpidemicPositionCount(rank, position);
+                if (n > 0) {
+                    if (min < 0) {
+                        min = position;
+                    }
+                    max = position;
+                    count += n;
+                    sum += n * position;
+                }
+            }
+            lines.add(String.format("  epidemic #%d : mean position %.2f [%d-%d]",
+                    rank + 1, (double) sum / Math.max(1, count), min, max));
+        }
+
+        long total = 0;
+        for (int draws = 0; draws < MAX_RECURRENCE; draws++) {
+            total += getRecurrenceCount(draws);
+        }
+        lines.add(String.format("  infection card recurrence (draws) : q1 %d, median %d, q3 %d, over %d samples",
+                recurrencePercentile(total, 0.25), recurrencePercentile(total, 0.5), recurrencePercentile(total, 0.75), total));
+
+        return lines;
+    }
+
+    private int recurrencePercentile(long total, double percentile) {
+        long cumulated = 0;
+        for (int draws = 0; draws < MAX_RECURRENCE; draws++) {
+            cumulated += getRecurrenceCount(draws);
+            if (cumulated > 0 && cumulated >= total * percentile) {
+                return draws;
+            }
+        }
+        return MAX_RECURRENCE - 1;
+    }
+
+    private String describeConfig() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(config.getDifficultyLevel().getDescription());
+        sb.append(", ").append(config.getNbOfRoles()).append(" roles");
+        sb.append(config.isFiveEvents() ? ", 5 events" : ", 2 events per player");
+        if (config.isSurvivalMode()) {
+            sb.append(", survival");
+        }
+        for (Variant variant : config.getVariants()) {
+            sb.append(", ").append(variant.getLabel());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.simulation;
+
+import pandemic.model.GameEngine;
+import pandemic.model.SetupRules;
+import pandemic.model.objects.PandemicObject;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Statistics gathered while playing out games with the GameEngine :
+ * <ul>
+ * <li>the position of each epidemic card in the player deck, as produced by the set up ;</li>
+ * <li>the number of infection draws between two draws of the same infection card,
+ *  ie how fast a card comes back once it has been reshuffled on top of the deck.</li>
+ * </ul>
+ * An instance is NOT thread-safe : each thread fills its own, and merges it once done
+ *  into the shared SimulationResult.
+ *
+ * @author manur
+ * @since v2.9
+ */
+public class SimulationStatistics {
+
+    public static final int MAX_EPIDEMICS = 7;
+    public static final int MAX_DECK_POSITION = 128;
+    public static final int MAX_RECURRENCE = 128;
+
+    private static final int MAX_INFECTION_CARD_ID = 128;
+
+    private final long[] epidemicPositions = new long[MAX_EPIDEMICS * MAX_DECK_POSITION]; // [rank][position]
+    private final long[] recurrences = new long[MAX_RECURRENCE];
+    private long nbOfGames;
+    private long nbOfTurns;
+
+    // State of the game being played
+    private final int[] lastDrawnAt = new int[MAX_INFECTION_CARD_ID];
+    private int nbOfInfectionDraws;
+
+    /**
+     * Record the player deck and the initial infections of a game that has just been set up.
+     */
+    public void gameSetUp(GameEngine engine) {
+        List<Integer> playerDeck = engine.getPlayerDeck();
+        int rank = 0;
+        for (int position = 0; position < playerDeck.size(); position++) {
+            if (SetupRules.playerCardType(playerDeck.get(position)) == PandemicObject.Type.EPIDEMIC_CARD) {
+                epidemicPositions[rank * MAX_DECK_POSITION + Math.min(position, MAX_DECK_POSITION - 1)]++;
+                rank++;
+            }
+        }
+
+        Arrays.fill(lastDrawnAt, -1);
+        nbOfInfectionDraws = 0;
+        for (GameEngine.InitialInfection infection : engine.getInitialInfections()) {
+            infectionCardDrawn(infection.getCityId());
+        }
+    }
+
+    /**
+     * Record an infection card drawn, from the top or the bottom of the deck.
+     */
+    public void infectionCardDrawn(int cardId) {
+        int previousDraw = lastDrawnAt[cardId];
+        if (previousDraw >= 0) {
+            recurrences[Math.min(nbOfInfectionDraws - previousDraw, MAX_RECURRENCE - 1)]++;
+        }
+        lastDrawnAt[cardId] = nbOfInfectionDraws++;
+    }
+
+    public void gameOver(int turns) {
+        nbOfGames++;
+        nbOfTurns += turns;
+    }
+
+    /**********************************************************************/
+
+    long[] getEpidemicPositions() {
+        return epidemicPositions;
+    }
+
+    long[] getRecurrences() {
+        return recurrences;
+    }
+
+    long getNbOfGames() {
+        return nbOfGames;
+    }
+
+    long getNbOfTurns() {
+        return nbOfTurns;
+    }
+}
@@ -0,0 +1,166 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Warm up the caches of the GenericResourceProvider at startup, while the player is busy with the
+ *  configuration dialog : all the images are decoded and all the sounds are read on a pool of background threads.
+ * The images of the starting screen and of the board are loaded first, then the others from the smallest to the largest.
+ * The preloaded images only take the room left in the image cache : the largest ones may be decoded again when they're displayed.
+ * A view asking for an image which is being preloaded waits for this load to complete, then caches the image
+ *  as if it had decoded it itself.
+ *
+ * @author manur
+ * @since v2.9
+ */
+public class AssetsPreloader {
+
+    private static final Logger logger = LoggerFactory.getLogger(AssetsPreloader.class);
+
+    static final String[] FIRST_IMAGES = {"startingboard.jpg", "board2.jpg"};
+
+    private final GenericResourceProvider resourceProvider;
+    private final int nbOfThreads;
+
+    private final AtomicInteger nbOfLoadedAssets = new AtomicInteger();
+    private volatile int nbOfAssets = -1;
+    private final CountDownLatch ready = new CountDownLatch(1);
+
+    public AssetsPreloader(GenericResourceProvider resourceProvider) {
+        this(resourceProvider, Runtime.getRuntime().availableProcessors());
+    }
+
+    public AssetsPreloader(GenericResourceProvider resourceProvider, int nbOfThreads) {
+        this.resourceProvider = resourceProvider;
+        this.nbOfThreads = Math.max(1, nbOfThreads);
+    }
+
+    /**
+     * Start preloading in the background ; returns immediately
+     */
+    public void start() {
+        final long start = System.currentTimeMillis();
+
+        final List<String> images = orderImages(resourceProvider.listImages());
+        final List<String> sounds = resourceProvider.listSounds();
+        nbOfAssets = images.size() + sounds.size();
+        if (nbOfAssets == 0) {
+            ready.countDown();
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(nbOfThreads, new PreloaderThreadFactory());
+        for (final String image : images) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        resourceProvider.preloadIcon(image);
+                    } catch (RuntimeException e) {
+                        logger.warn("Unable to preload image " + image, e);
+                    }
+                    loaded(start, images.size(), sounds.size());
+                }
+            });
+        }
+        for (final String sound : sounds) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    resourceProvider.getAudioStream(sound);
+                    loaded(start, images.size(), sounds.size());
+                }
+            });
+        }
+        executor.shutdown();
+    }
+
+    private void loaded(long start, int nbOfImages, int nbOfSounds) {
+        if (nbOfLoadedAssets.incrementAndGet() == nbOfAssets) {
+            logger.info("Preloaded {} images and {} sounds in {} ms",
+                    new Object[] {nbOfImages, nbOfSounds, System.currentTimeMillis() - start});
+            ready.countDown();
+        }
+    }
+
+    /**
+     * The images needed first go at the head of the queue
+     */
+    static List<String> orderImages(List<String> images) {
+        List<String> ordered = new ArrayList<String>(images.size());
+        for (String first : FIRST_IMAGES) {
+            if (images.contains(first)) {
+                ordered.add(first);
+            }
+        }
+        for (String image : images) {
+            if (!ordered.contains(image)) {
+                ordered.add(image);
+            }
+        }
+        return ordered;
+    }
+
+    public boolean isReady() {
+        return ready.getCount() == 0;
+    }
+
+    /**
+     * Wait until all the assets are loaded, or the timeout expires
+     * @return true if all the assets are loaded
+     */
+    public boolean awaitReady(long timeout, TimeUnit unit) throws InterruptedException {
+        return ready.await(timeout, unit);
+    }
+
+    public int getNbOfLoadedAssets() {
+        return nbOfLoadedAssets.get();
+    }
+
+    /**
+     * @return The number of assets to load, or -1 if the preloading hasn't started
+     */
+    public int getNbOfAssets() {
+        return nbOfAssets;
+    }
+
+    private static class PreloaderThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "assets-preloader-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }
+    }
+}
@@ -31,6 +31,11 @@ public interface DecksObserver {
     // ** Player cards deck **
     
     void playerCardDrawn(Card newCard);
+
+    /**
+     * A drawn player card was put back on top of the deck, by an undo
+     */
+    void playerCardReturned(Card card);
     
     // ** Infection cards deck **
     
@@ -49,4 +54,9 @@ public interface DecksObserver {
     void infectionDeckCardRemoved();
 
     void infectionDeckRearranged();
+
+    /**
+     * The infection deck and its discard pile were put back in a previous state, by an undo
+     */
+    void decksRestored();
 }
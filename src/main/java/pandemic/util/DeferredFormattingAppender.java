@@ -0,0 +1,39 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.util;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * Asynchronous appender that leaves the formatting of the messages to its worker thread : the logging thread only
+ *  queues the event, and the events dropped when the queue is full are never formatted.
+ * The arguments of the messages must then not change once logged, and the thread name and the MDC of the events
+ *  are the ones of the worker : the layout must not use them.
+ *
+ * @author manur
+ * @since v2.9
+ */
+public class DeferredFormattingAppender extends AsyncAppender {
+
+    @Override
+    protected void preprocess(ILoggingEvent eventObject) {
+        // The AsyncAppender formats the message and captures the context of the logging thread here
+    }
+}
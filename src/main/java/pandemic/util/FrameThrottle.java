@@ -0,0 +1,158 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.util;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.Timer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the updates of a continuous gesture (like a drag) at most once per frame of the display.
+ * Only the latest update submitted during a frame is run, at the start of the next frame ;
+ *  an update submitted when the last frame is over is run right away.
+ * It also measures the frames and the time spent painting them, logged at the end of each gesture.
+ * To be used on the EDT only.
+ *
+ * @author manur
+ * @since v2.9
+ */
+public class FrameThrottle {
+
+    private static final Logger logger = LoggerFactory.getLogger(FrameThrottle.class);
+
+    public static final int DEFAULT_FRAME_MS = 16; // 60 Hz
+
+    private final long frameNanos;
+    private final Timer timer;
+
+    private Runnable pendingUpdate;
+    private long lastFrame; // System.nanoTime() of the last update run
+
+    // Metrics of the current gesture
+    private int nbOfUpdates;
+    private int nbOfFrames;
+    private int nbOfPaints;
+    private long paintNanos;
+    private long maxPaintNanos;
+
+    public FrameThrottle() {
+        this(DEFAULT_FRAME_MS);
+    }
+
+    public FrameThrottle(int frameMs) {
+        this.frameNanos = TimeUnit.MILLISECONDS.toNanos(frameMs);
+        this.timer = new Timer(frameMs, new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                runPendingUpdate();
+            }
+        });
+        timer.setRepeats(false);
+        this.lastFrame = System.nanoTime() - frameNanos;
+    }
+
+    /**
+     * @param update The update to run, replacing the one still waiting for the next frame if any
+     */
+    public void submit(Runnable update) {
+        nbOfUpdates++;
+        pendingUpdate = update;
+        if (timer.isRunning()) {
+            return; // the update will be run with the next frame
+        }
+
+        long wait = lastFrame + frameNanos - System.nanoTime();
+        if (wait <= 0) {
+            runPendingUpdate();
+        } else {
+            timer.setInitialDelay((int) Math.max(1, TimeUnit.NANOSECONDS.toMillis(wait)));
+            timer.restart();
+        }
+    }
+
+    /**
+     * Run the update waiting for the next frame now, if any, and log the metrics of the gesture
+     * @param gesture What is ending, for the log
+     */
+    public void flush(Object gesture) {
+        timer.stop();
+        runPendingUpdate();
+
+        if (nbOfFrames > 0) {
+            logger.debug("{} : {} updates in {} frames, painting {} times in {} ms on average (max {} ms)",
+                    gesture, nbOfUpdates, nbOfFrames, nbOfPaints,
+                    new Average(paintNanos, nbOfPaints), new Average(maxPaintNanos, 1));
+        }
+        nbOfUpdates = 0;
+        nbOfFrames = 0;
+        nbOfPaints = 0;
+        paintNanos = 0;
+        maxPaintNanos = 0;
+    }
+
+    /**
+     * Measure a paint of the area updated, while a gesture is in progress
+     * @param nanos The time spent painting
+     */
+    public void painted(long nanos) {
+        if (nbOfFrames == 0) {
+            return; // not caused by a gesture
+        }
+        nbOfPaints++;
+        paintNanos += nanos;
+        maxPaintNanos = Math.max(maxPaintNanos, nanos);
+    }
+
+    public boolean isPending() {
+        return pendingUpdate != null;
+    }
+
+    private void runPendingUpdate() {
+        Runnable update = pendingUpdate;
+        if (update != null) {
+            pendingUpdate = null;
+            lastFrame = System.nanoTime();
+            nbOfFrames++;
+            update.run();
+        }
+    }
+
+    /**
+     * Milliseconds with 2 decimals, only formatted if the metrics are logged
+     */
+    private static final class Average {
+        private final long nanos;
+        private final int count;
+
+        Average(long nanos, int count) {
+            this.nanos = nanos;
+            this.count = count;
+        }
+
+        @Override
+        public String toString() {
+            return count == 0 ? "-" : String.format("%.2f", nanos / 1e6 / count);
+        }
+    }
+}
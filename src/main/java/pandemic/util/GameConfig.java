@@ -44,7 +44,7 @@ import static pandemic.model.Variant.WORLDWIDE_PANIC;
  * @since v2.6
  */
 public class GameConfig implements Serializable {
-	private static final long serialVersionUID = 28L;
+	private static final long serialVersionUID = 29L;
 	
 	private static final Logger logger = LoggerFactory.getLogger(GameConfig.class);
 	
@@ -58,6 +58,7 @@ public class GameConfig implements Serializable {
 	private Set<Expansion> eventCardsExpansions = new LinkedHashSet<Expansion>();
 	private Set<Variant> variants = new LinkedHashSet<Variant>();
 	private boolean survivalMode;
+	private Long seed; // null until the game is set up, unless a given game has to be regenerated
 	
 	/**
 	 * Log the details of this game configuration through the Logger
@@ -69,7 +70,7 @@ public class GameConfig implements Serializable {
 	}
 	
 	public String[] giveDetails() {
-		String[] details = new String[7];
+		String[] details = new String[8];
 		
 		StringBuilder sb = new StringBuilder("Number of roles : ");
 		sb.append(nbOfRoles);
@@ -137,6 +138,10 @@ public class GameConfig implements Serializable {
 			}
 		}
 		details[6] = sb.toString();
+
+		sb = new StringBuilder("Seed : ");
+		sb.append(seed == null ? "None" : seed.toString());
+		details[7] = sb.toString();
 		
 		return details;
 	}
@@ -256,4 +261,18 @@ public class GameConfig implements Serializable {
 	public void setSurvivalMode(boolean survivalMode) {
 		this.survivalMode = survivalMode;
 	}
+
+	/**
+	 * @return The seed of the randomizer of the game, or null if it has not been set up yet
+	 */
+	public Long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Set the seed of the randomizer : a game set up with the same config and seed is exactly the same
+	 */
+	public void setSeed(Long seed) {
+		this.seed = seed;
+	}
 }
@@ -0,0 +1,107 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The single thread changing the model : the operations of the players are run on it one after the other,
+ *  in the order they were asked for, so that the EDT never waits for them.
+ * The views don't read the model while it changes : they read the DecksSnapshot it publishes after each
+ *  operation, and they are notified on the EDT (see ObserverBus).
+ * A failing operation is logged, and doesn't stop the following ones.
+ *
+ * @author manur
+ * @since v2.9
+ */
+public class GameThread implements Executor {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameThread.class);
+
+    /**
+     * Runs the operations right away on the calling thread : for the tests, and the games without a window
+     */
+    public static final Executor CALLING_THREAD = new Executor() {
+        @Override
+        public void execute(Runnable operation) {
+            operation.run();
+        }
+    };
+
+    private final ExecutorService executor;
+    private volatile Thread thread;
+
+    public GameThread() {
+        this.executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread newThread = new Thread(runnable, "game");
+                newThread.setDaemon(true);
+                thread = newThread;
+                return newThread;
+            }
+        });
+    }
+
+    /**
+     * Run an operation after the ones already asked for
+     */
+    @Override
+    public void execute(final Runnable operation) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    operation.run();
+                } catch (RuntimeException e) {
+                    logger.error("Operation {} failed", operation, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Compute something from the model after the operations already asked for, like the encoding of a save
+     */
+    public <T> Future<T> submit(Callable<T> task) {
+        return executor.submit(task);
+    }
+
+    public boolean isCurrentThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * Stop the thread once the operations already asked for are done
+     * @return true if they are done
+     */
+    public boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        executor.shutdown();
+        return executor.awaitTermination(timeout, unit);
+    }
+}
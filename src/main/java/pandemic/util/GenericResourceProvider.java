@@ -18,12 +18,37 @@
  */
 package pandemic.util;
 
+import java.awt.Component;
+import java.awt.Image;
+import java.awt.MediaTracker;
+import java.awt.Toolkit;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.MissingResourceException;
 import java.util.ResourceBundle;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
 
 import javax.swing.ImageIcon;
 
@@ -45,6 +70,21 @@ public class GenericResourceProvider implements ResourceProvider {
 	
 	public static final String IMAGE_PREFIX = "images";
 	public static final String SOUND_PREFIX = "wavs";
+
+	/** System property giving the memory budget of the image cache, in megabytes (64 by default) */
+	public static final String IMAGE_CACHE_BUDGET_PROPERTY = "pandemic.imageCacheMB";
+	private static final long DEFAULT_IMAGE_CACHE_BUDGET_MB = 64;
+
+	// Shared by all the providers, so that an image is decoded only once whichever view displays it
+	private static final ImageCache imageCache =
+			new ImageCache(Long.getLong(IMAGE_CACHE_BUDGET_PROPERTY, DEFAULT_IMAGE_CACHE_BUDGET_MB) * 1024 * 1024);
+	private static final ConcurrentMap<String, IconLoading> iconsLoading = new ConcurrentHashMap<String, IconLoading>();
+	private static final Component TRACKER_COMPONENT = new Component() {
+		private static final long serialVersionUID = 29L;
+	};
+
+	// The content of the sound files, read only once
+	private static final ConcurrentMap<String, byte[]> sounds = new ConcurrentHashMap<String, byte[]>();
 	
 	/**
 	 * Utility method to create an ImageIcon from its file name.
@@ -57,6 +97,8 @@ public class GenericResourceProvider implements ResourceProvider {
 	 * If it doesn't get the resource, then we're not running from a JAR, 
 	 * and we step back to fetching the resource from the filesystem, with
 	 * new ImageIcon(String) and a relative path (no beginning "/").
+	 * The decoded images are kept in a cache, so the same ImageIcon is returned
+	 * to all callers as long as it's not evicted.
 	 * 
 	 * @param imageName Simple file name of the resource to be made to an icon (eg: "icon.jpg")
 	 * @return The prepared ImageIcon with the image file loaded
@@ -67,30 +109,123 @@ public class GenericResourceProvider implements ResourceProvider {
 			logger.trace("getIcon(null) : return new ImageIcon()");
 			return new ImageIcon();
 		}
-		
-		String imagePath = null;
-		
-		// Look for the resource if we're in a JAR ("absolute" path)
-		if (!imageName.startsWith("/" + IMAGE_PREFIX)) {
-			imagePath = "/" + IMAGE_PREFIX + "/" + imageName;
+		return getIcon(imageName, false);
+	}
+
+	/**
+	 * Decode an image ahead of its use and keep it in the cache, but only if it fits in the
+	 * remaining budget : preloading never evicts the images already cached.
+	 */
+	public void preloadIcon(String imageName) {
+		getIcon(imageName, true);
+	}
+
+	private ImageIcon getIcon(String imageName, boolean preloading) {
+		ImageIcon icon = imageCache.get(imageName);
+		if (icon != null) {
+			return icon;
 		}
-		URL resourceURL = this.getClass().getResource(imagePath);
-		
-		if (resourceURL != null) {
-			logger.trace("getIcon(" + imageName + ") : resource found in the classpath (JAR)");
-			return new ImageIcon(resourceURL);
+
+		// If another thread (eg the AssetsPreloader) is already decoding this image, wait for it
+		//  instead of decoding it twice
+		IconLoading loading = new IconLoading(imageName, preloading);
+		IconLoading alreadyLoading = iconsLoading.putIfAbsent(imageName, loading);
+		if (alreadyLoading == null) {
+			try {
+				loading.run();
+			} finally {
+				iconsLoading.remove(imageName);
+			}
+			alreadyLoading = loading;
+		}
+
+		try {
+			icon = alreadyLoading.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return new ImageIcon();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Unable to load image " + imageName, e.getCause());
+		}
+
+		// A preload only caches the image if there's room left : now that it's displayed, it's cached like any other
+		if (alreadyLoading.preloading && !preloading && icon.getImageLoadStatus() == MediaTracker.COMPLETE) {
+			imageCache.put(imageName, icon);
+		}
+		return icon;
+	}
+
+	/**
+	 * The decoding of an image, that the other threads asking for the same image wait for
+	 */
+	private class IconLoading extends FutureTask<ImageIcon> {
+		private final boolean preloading;
+
+		private IconLoading(String imageName, boolean preloading) {
+			super(new IconLoader(imageName, preloading));
+			this.preloading = preloading;
+		}
+	}
+
+	/**
+	 * Decode an image and put it in the cache.
+	 * Each load waits for its image with its own MediaTracker, instead of the one shared by all the
+	 * ImageIcons, so that several images can be decoded in parallel.
+	 */
+	private class IconLoader implements Callable<ImageIcon> {
+		private final String imageName;
+		private final boolean preloading;
+
+		private IconLoader(String imageName, boolean preloading) {
+			this.imageName = imageName;
+			this.preloading = preloading;
+		}
+
+		@Override
+		public ImageIcon call() throws InterruptedException {
+			String imagePath = null;
+
+			// Look for the resource if we're in a JAR ("absolute" path)
+			if (!imageName.startsWith("/" + IMAGE_PREFIX)) {
+				imagePath = "/" + IMAGE_PREFIX + "/" + imageName;
+			}
+			URL resourceURL = GenericResourceProvider.this.getClass().getResource(imagePath);
+
+			Image image;
+			String description;
+			if (resourceURL != null) {
+				logger.trace("getIcon({}) : resource found in the classpath (JAR)", imageName);
+				image = Toolkit.getDefaultToolkit().createImage(resourceURL);
+				description = resourceURL.toExternalForm();
+			} else {
+				// If no URL was found, we're not JAR-Packaged, so we look
+				//  for the resource in the filesystem
+				logger.trace("getIcon({}) : resource found on the filesystem", imageName);
+				imagePath = IMAGE_PREFIX + "/" + imageName;
+				image = Toolkit.getDefaultToolkit().createImage(imagePath);
+				description = imagePath;
+			}
+
+			MediaTracker tracker = new MediaTracker(TRACKER_COMPONENT);
+			tracker.addImage(image, 0);
+			tracker.waitForID(0);
+
+			ImageIcon icon = new ImageIcon(image, description);
+			if (tracker.isErrorID(0)) {
+				logger.warn("Unable to decode image {}", imageName);
+			} else if (preloading) {
+				imageCache.putIfRoom(imageName, icon);
+			} else {
+				imageCache.put(imageName, icon);
+			}
+			return icon;
 		}
-		
-		// If no URL was found, we're not JAR-Packaged, so we look 
-		//  for the resource in the filesystem
-		logger.trace("getIcon(" + imageName + ") : resource found on the filesystem");
-		imagePath = IMAGE_PREFIX + "/" + imageName;
-		return new ImageIcon(imagePath);
 	}
 	
 	/**
 	 * Utility method to open an InputStream on a file with
-	 * a given name.
+	 * a given name. The content of the file is kept in memory,
+	 * and each call returns a new stream on it.
 	 * We manage two types of resource access : if the 
 	 * application is running from a JAR, we need to use 
 	 * Class.getResourceAsStream() and to look for the resource
@@ -108,7 +243,25 @@ public class GenericResourceProvider implements ResourceProvider {
 		if (fileName == null) {
 			return null;
 		}
-		
+
+		byte[] sound = sounds.get(fileName);
+		if (sound == null) {
+			InputStream stream = openAudioStream(fileName);
+			if (stream == null) {
+				return null;
+			}
+			try {
+				sound = readFully(stream);
+			} catch (IOException e) {
+				logger.error("Unable to read the sound " + fileName, e);
+				return null;
+			}
+			sounds.put(fileName, sound);
+		}
+		return new ByteArrayInputStream(sound);
+	}
+
+	private InputStream openAudioStream(String fileName) {
 		String filePath = null;
 		
 		// Look for the resource if we're in a JAR ("absolute" path)
@@ -146,4 +299,93 @@ public class GenericResourceProvider implements ResourceProvider {
 		return ResourceBundle.getBundle(fileName);
 	}
 
+	public static ImageCache getImageCache() {
+		return imageCache;
+	}
+
+	/**
+	 * List the names of all the images available, the smallest files first
+	 *  (only the JPEG and PNG files : the sources of the images, like the GIMP .xcf files, are left aside)
+	 */
+	public List<String> listImages() {
+		return listResources(IMAGE_PREFIX, ".jpg", ".png");
+	}
+
+	/**
+	 * List the names of all the sound files available
+	 */
+	public List<String> listSounds() {
+		return listResources(SOUND_PREFIX, ".wav");
+	}
+
+	/**
+	 * List the files in a resource directory, either in the JAR or in the filesystem, sorted by increasing size
+	 * @param extensions The extensions of the files to list, in lower case
+	 */
+	private List<String> listResources(String directory, String... extensions) {
+		final Map<String, Long> sizes = new HashMap<String, Long>();
+
+		URL directoryURL = this.getClass().getResource("/" + directory);
+		try {
+			if (directoryURL != null && "jar".equals(directoryURL.getProtocol())) {
+				JarFile jarFile = ((JarURLConnection) directoryURL.openConnection()).getJarFile();
+				Enumeration<JarEntry> entries = jarFile.entries();
+				while (entries.hasMoreElements()) {
+					JarEntry entry = entries.nextElement();
+					String entryName = entry.getName();
+					if (entryName.startsWith(directory + "/") && hasExtension(entryName, extensions)) {
+						sizes.put(entryName.substring(directory.length() + 1), entry.getSize());
+					}
+				}
+			} else {
+				File directoryFile = (directoryURL != null) ? new File(directoryURL.toURI()) : new File(directory);
+				File[] files = directoryFile.listFiles();
+				if (files != null) {
+					for (File file : files) {
+						if (file.isFile() && hasExtension(file.getName(), extensions)) {
+							sizes.put(file.getName(), file.length());
+						}
+					}
+				}
+			}
+		} catch (IOException e) {
+			logger.error("Unable to list the resources in " + directory, e);
+		} catch (URISyntaxException e) {
+			logger.error("Unable to list the resources in " + directory, e);
+		}
+
+		List<String> names = new ArrayList<String>(sizes.keySet());
+		Collections.sort(names, new Comparator<String>() {
+			@Override
+			public int compare(String name1, String name2) {
+				return sizes.get(name1).compareTo(sizes.get(name2));
+			}
+		});
+		return names;
+	}
+
+	private static boolean hasExtension(String fileName, String[] extensions) {
+		String lowerCaseName = fileName.toLowerCase(Locale.ENGLISH);
+		for (String extension : extensions) {
+			if (lowerCaseName.endsWith(extension)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static byte[] readFully(InputStream stream) throws IOException {
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = stream.read(buffer)) != -1) {
+				out.write(buffer, 0, read);
+			}
+			return out.toByteArray();
+		} finally {
+			stream.close();
+		}
+	}
+
 }
@@ -0,0 +1,152 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.swing.ImageIcon;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of the decoded images, shared by all the views using the same ResourceProvider.
+ * Its size is bounded by a memory budget, estimated as 4 bytes per pixel of each image ;
+ *  when the budget is exceeded, the least recently used images are evicted.
+ * Thread-safe.
+ *
+ * @author manur
+ * @since v2.9
+ */
+public class ImageCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageCache.class);
+
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private final long budget;
+
+    private final LinkedHashMap<String, ImageIcon> icons = new LinkedHashMap<String, ImageIcon>(64, 0.75f, true); // access order
+    private long size;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param budget The maximum estimated size in bytes of the images kept in the cache
+     */
+    public ImageCache(long budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * @return The cached image, or null if it's not in the cache
+     */
+    public synchronized ImageIcon get(String imageName) {
+        ImageIcon icon = icons.get(imageName);
+        if (icon != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return icon;
+    }
+
+    /**
+     * Add a decoded image to the cache, and evict the least recently used ones if the budget is exceeded.
+     * An image larger than the whole budget is not cached.
+     */
+    public synchronized void put(String imageName, ImageIcon icon) {
+        long weight = weigh(icon);
+        if (weight > budget) {
+            return;
+        }
+
+        ImageIcon previous = icons.put(imageName, icon);
+        if (previous != null) {
+            size -= weigh(previous);
+        }
+        size += weight;
+
+        Iterator<Map.Entry<String, ImageIcon>> eldest = icons.entrySet().iterator();
+        while (size > budget && eldest.hasNext()) {
+            Map.Entry<String, ImageIcon> entry = eldest.next();
+            size -= weigh(entry.getValue());
+            eldest.remove();
+            evictions++;
+            logger.trace("Evicted image {}", entry.getKey());
+        }
+    }
+
+    /**
+     * Add a decoded image to the cache only if it fits in the remaining budget, without evicting anything.
+     * Used when warming up the cache, so that preloading doesn't push out the images already displayed.
+     * @return true if the image was added
+     */
+    public synchronized boolean putIfRoom(String imageName, ImageIcon icon) {
+        long weight = weigh(icon);
+        if (icons.containsKey(imageName) || size + weight > budget) {
+            return false;
+        }
+        icons.put(imageName, icon);
+        size += weight;
+        return true;
+    }
+
+    private static long weigh(ImageIcon icon) {
+        return Math.max(1L, (long) icon.getIconWidth() * icon.getIconHeight() * BYTES_PER_PIXEL);
+    }
+
+    public synchronized void clear() {
+        icons.clear();
+        size = 0;
+    }
+
+    public long getBudget() {
+        return budget;
+    }
+
+    public synchronized long getSize() {
+        return size;
+    }
+
+    public synchronized int getNbOfImages() {
+        return icons.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ImageCache[" + icons.size() + " images, " + (size / 1024) + "/" + (budget / 1024) + " KB, "
+                + hits + " hits, " + misses + " misses, " + evictions + " evictions]";
+    }
+}
@@ -0,0 +1,44 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.util;
+
+import java.util.Random;
+
+/**
+ * RandomSource backed by a java.util.Random (or any subclass of it, like SecureRandom).
+ * The state of a Random can't be captured nor put back : with this source, the shuffles of a game can't be undone,
+ *  and the operations done before a shuffle can't be undone any more once it's done.
+ *
+ * @author manur
+ * @since v2.9
+ */
+public class JdkRandomSource implements RandomSource {
+    private static final long serialVersionUID = 29L;
+
+    private final Random random;
+
+    public JdkRandomSource(Random random) {
+        this.random = random;
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.util;
+
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Image;
+import java.awt.image.ImageObserver;
+import java.io.Serializable;
+
+import javax.swing.ImageIcon;
+
+/**
+ * An image known only by its name until it's really needed : the actual icon is fetched from the
+ *  ResourceProvider (and so from its cache) the first time it is painted or measured.
+ * The components of the model hold such icons, so that a game can be set up or loaded without decoding
+ *  the images of the components that are not displayed yet (cards in the deck, unused roles...).
+ * The description is the image name, and is available without loading the image.
+ *
+ * @author manur
+ * @since v2.9
+ */
+public class LazyImageIcon extends ImageIcon {
+    private static final long serialVersionUID = 29L;
+
+    private final String imageName;
+    private transient ResourceProvider resourceProvider;
+    private transient ImageIcon icon;
+
+    public LazyImageIcon(ResourceProvider resourceProvider, String imageName) {
+        this.resourceProvider = resourceProvider;
+        this.imageName = imageName;
+    }
+
+    /**
+     * @return The actual icon, fetched on the first call
+     */
+    public synchronized ImageIcon resolve() {
+        if (icon == null) {
+            if (resourceProvider == null) {
+                resourceProvider = new GenericResourceProvider();
+            }
+            ImageIcon fetched = resourceProvider.getIcon(imageName);
+            icon = (fetched != null) ? fetched : new ImageIcon();
+        }
+        return icon;
+    }
+
+    public synchronized boolean isLoaded() {
+        return icon != null;
+    }
+
+    public String getImageName() {
+        return imageName;
+    }
+
+    @Override
+    public String getDescription() {
+        return imageName;
+    }
+
+    @Override
+    public Image getImage() {
+        return resolve().getImage();
+    }
+
+    @Override
+    public int getImageLoadStatus() {
+        return resolve().getImageLoadStatus();
+    }
+
+    @Override
+    public ImageObserver getImageObserver() {
+        return resolve().getImageObserver();
+    }
+
+    @Override
+    public int getIconWidth() {
+        return resolve().getIconWidth();
+    }
+
+    @Override
+    public int getIconHeight() {
+        return resolve().getIconHeight();
+    }
+
+    @Override
+    public void paintIcon(Component c, Graphics g, int x, int y) {
+        resolve().paintIcon(c, g, x, y);
+    }
+
+    @Override
+    public String toString() {
+        return imageName;
+    }
+
+    /**
+     * Only the name is serialized, never the pixels ; the deserialized icon uses the default ResourceProvider.
+     */
+    private Object writeReplace() {
+        return new SerializedForm(imageName);
+    }
+
+    private static final class SerializedForm implements Serializable {
+        private static final long serialVersionUID = 29L;
+
+        private final String imageName;
+
+        private SerializedForm(String imageName) {
+            this.imageName = imageName;
+        }
+
+        private Object readResolve() {
+            return new LazyImageIcon(null, imageName);
+        }
+    }
+}
@@ -0,0 +1,347 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import pandemic.model.objects.Card;
+
+/**
+ * Dispatches the notifications of the model to the DecksObservers and the RolesObservers, each one according
+ *  to the delivery chosen when it subscribed :
+ * <ul>
+ * <li>SYNC : right away, on the thread of the model, in the order of the subscriptions.</li>
+ * <li>EDT : later on the EDT, the notifications of the same operation (or of the same frame) together.
+ *  A notification that only tells that the decks changed (like infectionDeckCardRemoved()) is dropped
+ *  when the same one is still waiting : these subscribers are the views, which display the current state
+ *  of the model when they're notified.</li>
+ * <li>BACKGROUND : on a thread shared by these subscribers (like the sounds), one notification after
+ *  the other, none dropped. The thread stops when it's idle.</li>
+ * </ul>
+ * Each subscriber gets the notifications in the order of the operations. The model only waits for the
+ *  SYNC subscribers ; a failing EDT or BACKGROUND subscriber is logged, and doesn't stop the others.
+ *
+ * @author manur
+ * @since v2.9
+ */
+public class ObserverBus implements DecksObserver, RolesObserver {
+
+    private static final Logger logger = LoggerFactory.getLogger(ObserverBus.class);
+
+    public enum Delivery {
+        SYNC, EDT, BACKGROUND
+    }
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<Subscriber>();
+    private ExecutorService background = null;
+
+    /**
+     * @param observer To notify of the operations on the decks ; a second subscription is ignored
+     */
+    public synchronized void subscribe(DecksObserver observer, Delivery delivery) {
+        subscriber(observer, delivery).decks = observer;
+    }
+
+    /**
+     * @param observer To notify of the changes of roles ; a second subscription is ignored
+     */
+    public synchronized void subscribe(RolesObserver observer, Delivery delivery) {
+        subscriber(observer, delivery).roles = observer;
+    }
+
+    /**
+     * An observer subscribed both as a DecksObserver and a RolesObserver gets all its notifications
+     *  in the same queue, with the delivery of its first subscription
+     */
+    private Subscriber subscriber(Object observer, Delivery delivery) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.observer == observer) {
+                return subscriber;
+            }
+        }
+
+        Subscriber subscriber;
+        switch (delivery) {
+        case EDT:
+            subscriber = new EdtSubscriber(observer);
+            break;
+        case BACKGROUND:
+            subscriber = new BackgroundSubscriber(observer, background());
+            break;
+        default:
+            subscriber = new Subscriber(observer);
+        }
+        subscribers.add(subscriber);
+        return subscriber;
+    }
+
+    private ExecutorService background() {
+        if (background == null) {
+            // A single thread keeps the notifications in order ; it's created again when needed
+            background = new ThreadPoolExecutor(0, 1, 5, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                    new ThreadFactory() {
+                        @Override
+                        public Thread newThread(Runnable runnable) {
+                            Thread thread = new Thread(runnable, "observers");
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+        }
+        return background;
+    }
+
+    private void publish(Notification notification) {
+        for (Subscriber subscriber : subscribers) {
+            if (notification.kind.isRoles() ? subscriber.roles != null : subscriber.decks != null) {
+                subscriber.post(notification);
+            }
+        }
+    }
+
+    /* **** DecksObserver and RolesObserver : from the model **** */
+
+    @Override
+    public void playerCardDrawn(Card newCard) {
+        publish(new Notification(Kind.PLAYER_CARD_DRAWN, newCard, 0));
+    }
+
+    @Override
+    public void playerCardReturned(Card card) {
+        publish(new Notification(Kind.PLAYER_CARD_RETURNED, card, 0));
+    }
+
+    @Override
+    public void infectionCardDrawn(boolean isDrawnFromTop) {
+        publish(isDrawnFromTop ? Notification.DRAWN_FROM_TOP : Notification.DRAWN_FROM_BOTTOM);
+    }
+
+    @Override
+    public void infectionDeckShuffled() {
+        publish(Notification.SHUFFLED);
+    }
+
+    @Override
+    public void infectionDeckCleared() {
+        publish(Notification.CLEARED);
+    }
+
+    @Override
+    public void infectionDeckCardRemoved() {
+        publish(Notification.CARD_REMOVED);
+    }
+
+    @Override
+    public void infectionDeckRearranged() {
+        publish(Notification.REARRANGED);
+    }
+
+    @Override
+    public void decksRestored() {
+        publish(Notification.RESTORED);
+    }
+
+    @Override
+    public void roleWillChange(int roleIndex) {
+        publish(new Notification(Kind.ROLE_WILL_CHANGE, null, roleIndex));
+    }
+
+    @Override
+    public void roleHasChanged(int roleIndex) {
+        publish(new Notification(Kind.ROLE_HAS_CHANGED, null, roleIndex));
+    }
+
+    /* **** The notifications **** */
+
+    private enum Kind {
+        PLAYER_CARD_DRAWN(false),
+        PLAYER_CARD_RETURNED(false),
+        INFECTION_CARD_DRAWN(true),
+        INFECTION_DECK_SHUFFLED(true),
+        INFECTION_DECK_CLEARED(true),
+        INFECTION_DECK_CARD_REMOVED(true),
+        INFECTION_DECK_REARRANGED(true),
+        DECKS_RESTORED(true),
+        ROLE_WILL_CHANGE(false),
+        ROLE_HAS_CHANGED(false);
+
+        private final boolean coalescing; // only tells that the decks changed
+
+        private Kind(boolean coalescing) {
+            this.coalescing = coalescing;
+        }
+
+        boolean isRoles() {
+            return this == ROLE_WILL_CHANGE || this == ROLE_HAS_CHANGED;
+        }
+    }
+
+    /**
+     * A notification, the same for all the subscribers.
+     * The ones without arguments are constants, so that the same one waiting is found by identity.
+     */
+    private static final class Notification {
+        static final Notification DRAWN_FROM_TOP = new Notification(Kind.INFECTION_CARD_DRAWN, null, 1);
+        static final Notification DRAWN_FROM_BOTTOM = new Notification(Kind.INFECTION_CARD_DRAWN, null, 0);
+        static final Notification SHUFFLED = new Notification(Kind.INFECTION_DECK_SHUFFLED, null, 0);
+        static final Notification CLEARED = new Notification(Kind.INFECTION_DECK_CLEARED, null, 0);
+        static final Notification CARD_REMOVED = new Notification(Kind.INFECTION_DECK_CARD_REMOVED, null, 0);
+        static final Notification REARRANGED = new Notification(Kind.INFECTION_DECK_REARRANGED, null, 0);
+        static final Notification RESTORED = new Notification(Kind.DECKS_RESTORED, null, 0);
+
+        final Kind kind;
+        final Card card;
+        final int value; // the index of the role, or 1 for an infection card drawn from the top
+
+        Notification(Kind kind, Card card, int value) {
+            this.kind = kind;
+            this.card = card;
+            this.value = value;
+        }
+
+        void deliverTo(Subscriber subscriber) {
+            switch (kind) {
+            case PLAYER_CARD_DRAWN:
+                subscriber.decks.playerCardDrawn(card);
+                break;
+            case PLAYER_CARD_RETURNED:
+                subscriber.decks.playerCardReturned(card);
+                break;
+            case INFECTION_CARD_DRAWN:
+                subscriber.decks.infectionCardDrawn(value == 1);
+                break;
+            case INFECTION_DECK_SHUFFLED:
+                subscriber.decks.infectionDeckShuffled();
+                break;
+            case INFECTION_DECK_CLEARED:
+                subscriber.decks.infectionDeckCleared();
+                break;
+            case INFECTION_DECK_CARD_REMOVED:
+                subscriber.decks.infectionDeckCardRemoved();
+                break;
+            case INFECTION_DECK_REARRANGED:
+                subscriber.decks.infectionDeckRearranged();
+                break;
+            case DECKS_RESTORED:
+                subscriber.decks.decksRestored();
+                break;
+            case ROLE_WILL_CHANGE:
+                subscriber.roles.roleWillChange(value);
+                break;
+            case ROLE_HAS_CHANGED:
+                subscriber.roles.roleHasChanged(value);
+                break;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return kind + (kind.isRoles() ? "(" + value + ")" : "");
+        }
+    }
+
+    /* **** The subscribers **** */
+
+    /**
+     * A SYNC subscriber
+     */
+    private static class Subscriber {
+        final Object observer;
+        volatile DecksObserver decks;
+        volatile RolesObserver roles;
+
+        Subscriber(Object observer) {
+            this.observer = observer;
+        }
+
+        void post(Notification notification) {
+            notification.deliverTo(this);
+        }
+
+        final void deliver(Notification notification) {
+            try {
+                notification.deliverTo(this);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to notify {} of {}", observer, notification, e);
+            }
+        }
+    }
+
+    private static final class EdtSubscriber extends Subscriber implements Runnable {
+        private List<Notification> pending = new ArrayList<Notification>();
+
+        EdtSubscriber(Object observer) {
+            super(observer);
+        }
+
+        @Override
+        synchronized void post(Notification notification) {
+            if (notification.kind.coalescing && pending.contains(notification)) {
+                return; // the same refresh is already on its way
+            }
+            pending.add(notification);
+            if (pending.size() == 1) {
+                SwingUtilities.invokeLater(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            List<Notification> notifications;
+            synchronized (this) {
+                notifications = pending;
+                pending = new ArrayList<Notification>();
+            }
+            for (Notification notification : notifications) {
+                deliver(notification);
+            }
+        }
+    }
+
+    private static final class BackgroundSubscriber extends Subscriber {
+        private final ExecutorService executor;
+
+        BackgroundSubscriber(Object observer, ExecutorService executor) {
+            super(observer);
+            this.executor = executor;
+        }
+
+        @Override
+        void post(final Notification notification) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    deliver(notification);
+                }
+            });
+        }
+    }
+}
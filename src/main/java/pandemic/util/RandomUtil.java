@@ -1,28 +1,100 @@
 package pandemic.util;
 
 import java.io.Serializable;
-import java.util.Collections;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Random;
+import java.util.RandomAccess;
 
+/**
+ * All the random operations of a game (shuffles and draws), backed by a pluggable RandomSource.
+ * The seed is kept so that a game can be regenerated exactly.
+ */
 public class RandomUtil implements Serializable {
-    private static final long serialVersionUID = -2711763798006275010L;
+    private static final long serialVersionUID = 29L;
 
-    private static final int TIMES_RESHUFFLE = 20;
-
-    private final Random random;
+    private final RandomSource source;
+    private final long seed;
 
+    /**
+     * Randomizer with a new random seed
+     */
     public RandomUtil() {
-        random = new Random();
+        this(new Random().nextLong());
+    }
+
+    /**
+     * Randomizer replaying the sequence of the given seed
+     */
+    public RandomUtil(long seed) {
+        this(new XoshiroRandomSource(seed), seed);
+    }
+
+    /**
+     * Randomizer using the given generator
+     * @param source The generator
+     * @param seed The seed with which the generator was initialized, for information
+     */
+    public RandomUtil(RandomSource source, long seed) {
+        this.source = source;
+        this.seed = seed;
     }
 
+    /**
+     * Shuffle the list in a single pass (Fisher-Yates)
+     */
     public void shuffleInPlace(List<?> list) {
-        for (int i = 0; i < TIMES_RESHUFFLE; i++) {
-            Collections.shuffle(list, random);
+        int size = list.size();
+        if (list instanceof RandomAccess) {
+            for (int i = size - 1; i > 0; i--) {
+                swap(list, i, source.nextInt(i + 1));
+            }
+        } else {
+            Object[] array = list.toArray();
+            for (int i = size - 1; i > 0; i--) {
+                int j = source.nextInt(i + 1);
+                Object tmp = array[i];
+                array[i] = array[j];
+                array[j] = tmp;
+            }
+            setAll(list, array);
+        }
+    }
+
+    /**
+     * Shuffle the elements of the array from index "from" (inclusive) to index "to" (exclusive), in a single pass (Fisher-Yates)
+     */
+    public void shuffleInPlace(int[] array, int from, int to) {
+        for (int i = to - 1; i > from; i--) {
+            int j = from + source.nextInt(i - from + 1);
+            int tmp = array[i];
+            array[i] = array[j];
+            array[j] = tmp;
         }
     }
 
     public int nextInt(int bound) {
-        return random.nextInt(bound);
+        return source.nextInt(bound);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public RandomSource getSource() {
+        return source;
+    }
+
+    private static <T> void swap(List<T> list, int i, int j) {
+        list.set(i, list.set(j, list.get(i)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void setAll(List<T> list, Object[] array) {
+        ListIterator<T> it = list.listIterator();
+        for (Object element : array) {
+            it.next();
+            it.set((T) element);
+        }
     }
 }
@@ -0,0 +1,151 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.util;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of rectangular items over a fixed area, for "what is at this point / in this area" queries.
+ * The area is split into square cells, each one knowing the items overlapping it : a query only looks at
+ *  the items of the cells it covers, which are a handful on the board, instead of all of them.
+ * The parts of the items outside the area are not indexed.
+ *
+ * @author manur
+ * @since v2.9
+ */
+public class SpatialGrid<T> {
+
+    public static final int DEFAULT_CELL_SIZE = 64;
+
+    private final Rectangle area;
+    private final int cellSize;
+    private final int nbOfColumns;
+    private final int nbOfRows;
+
+    private final List<List<T>> cells;
+    private final Map<T, Rectangle> bounds = new IdentityHashMap<T, Rectangle>();
+
+    public SpatialGrid(int width, int height) {
+        this(width, height, DEFAULT_CELL_SIZE);
+    }
+
+    public SpatialGrid(int width, int height, int cellSize) {
+        this.area = new Rectangle(0, 0, width, height);
+        this.cellSize = cellSize;
+        this.nbOfColumns = (width + cellSize - 1) / cellSize;
+        this.nbOfRows = (height + cellSize - 1) / cellSize;
+
+        this.cells = new ArrayList<List<T>>(nbOfColumns * nbOfRows);
+        for (int i = 0; i < nbOfColumns * nbOfRows; i++) {
+            cells.add(new ArrayList<T>(4));
+        }
+    }
+
+    /**
+     * Index an item, or move it if it's already indexed
+     * @param item The item
+     * @param itemBounds Its bounds ; the rectangle is copied
+     */
+    public void put(T item, Rectangle itemBounds) {
+        remove(item);
+
+        Rectangle indexed = itemBounds.intersection(area);
+        if (indexed.isEmpty()) {
+            return;
+        }
+        bounds.put(item, new Rectangle(itemBounds));
+        for (List<T> cell : cellsOf(indexed)) {
+            cell.add(item);
+        }
+    }
+
+    public void remove(T item) {
+        Rectangle itemBounds = bounds.remove(item);
+        if (itemBounds != null) {
+            for (List<T> cell : cellsOf(itemBounds.intersection(area))) {
+                cell.remove(item);
+            }
+        }
+    }
+
+    /**
+     * @return The items whose bounds contain the point, in no particular order
+     */
+    public List<T> itemsAt(int x, int y) {
+        List<T> items = new ArrayList<T>();
+        if (!area.contains(x, y)) {
+            return items;
+        }
+        for (T item : cells.get((y / cellSize) * nbOfColumns + x / cellSize)) {
+            if (bounds.get(item).contains(x, y)) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    /**
+     * @return The items whose bounds intersect the given area, in no particular order
+     */
+    public Set<T> itemsIn(Rectangle zone) {
+        Set<T> items = new LinkedHashSet<T>();
+        Rectangle indexed = zone.intersection(area);
+        if (indexed.isEmpty()) {
+            return items;
+        }
+        for (List<T> cell : cellsOf(indexed)) {
+            for (T item : cell) {
+                if (bounds.get(item).intersects(zone)) {
+                    items.add(item);
+                }
+            }
+        }
+        return items;
+    }
+
+    /**
+     * @return The bounds with which the item is indexed, or null if it's not
+     */
+    public Rectangle getBounds(T item) {
+        Rectangle itemBounds = bounds.get(item);
+        return itemBounds == null ? null : new Rectangle(itemBounds);
+    }
+
+    public int size() {
+        return bounds.size();
+    }
+
+    private List<List<T>> cellsOf(Rectangle zone) {
+        List<List<T>> zoneCells = new ArrayList<List<T>>();
+        int lastColumn = (zone.x + zone.width - 1) / cellSize;
+        int lastRow = (zone.y + zone.height - 1) / cellSize;
+        for (int row = zone.y / cellSize; row <= lastRow; row++) {
+            for (int column = zone.x / cellSize; column <= lastColumn; column++) {
+                zoneCells.add(cells.get(row * nbOfColumns + column));
+            }
+        }
+        return zoneCells;
+    }
+}
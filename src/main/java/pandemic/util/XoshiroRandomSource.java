@@ -0,0 +1,105 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.util;
+
+/**
+ * The xoshiro256** generator (Blackman and Vigna), with its state initialized from the seed by SplitMix64.
+ * It is fast, has no lock, and its state is only four longs : one instance per game is cheap.
+ * Not thread-safe.
+ *
+ * @author manur
+ * @since v2.9
+ */
+public class XoshiroRandomSource implements RandomSource {
+    private static final long serialVersionUID = 29L;
+
+    private long s0;
+    private long s1;
+    private long s2;
+    private long s3;
+
+    public XoshiroRandomSource(long seed) {
+        long x = seed;
+        s0 = splitMix64(x += 0x9E3779B97F4A7C15L);
+        s1 = splitMix64(x += 0x9E3779B97F4A7C15L);
+        s2 = splitMix64(x += 0x9E3779B97F4A7C15L);
+        s3 = splitMix64(x + 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * @return A copy of the four longs of the state, to be saved with the game
+     */
+    public long[] getState() {
+        return new long[] { s0, s1, s2, s3 };
+    }
+
+    /**
+     * Restore a state returned by getState() : the next draws are the ones that would have followed it.
+     */
+    public void setState(long[] state) {
+        if (state.length != 4) {
+            throw new IllegalArgumentException("The state of xoshiro256** is 4 longs, not " + state.length);
+        }
+        s0 = state[0];
+        s1 = state[1];
+        s2 = state[2];
+        s3 = state[3];
+    }
+
+    private static long splitMix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public long nextLong() {
+        long result = Long.rotateLeft(s1 * 5, 7) * 9;
+        long t = s1 << 17;
+
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        s3 = Long.rotateLeft(s3, 45);
+
+        return result;
+    }
+
+    /**
+     * Same algorithm as java.util.Random.nextInt(int) : no bias, thanks to the rejection of
+     *  the values in the incomplete last interval.
+     */
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+
+        int r = (int) (nextLong() >>> 33); // 31 random bits
+        int m = bound - 1;
+        if ((bound & m) == 0) { // power of 2
+            return (int) ((bound * (long) r) >> 31);
+        }
+        for (int u = r; u - (r = u % bound) + m < 0; u = (int) (nextLong() >>> 33)) {
+            // reject and draw again
+        }
+        return r;
+    }
+}
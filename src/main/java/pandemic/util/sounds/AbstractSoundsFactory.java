@@ -9,10 +9,10 @@ package pandemic.util.sounds;
 public abstract class AbstractSoundsFactory implements SoundsFactory {
 
     /** Should we emit sounds ? */
-    private boolean soundOn = true;
+    private volatile boolean soundOn = true; // read by the thread notifying the observers
 
     /** Dont emit sounds while setting up */
-    private boolean settingUp = false;
+    private volatile boolean settingUp = false;
 
     @Override
     public void setSettingUp(boolean isSettingUp) {
@@ -0,0 +1,306 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.util.sounds;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pandemic.util.ResourceProvider;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.Clip;
+import javax.sound.sampled.DataLine;
+import javax.sound.sampled.LineEvent;
+import javax.sound.sampled.LineListener;
+import javax.sound.sampled.LineUnavailableException;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plays the sounds on a single dedicated thread.
+ * Each sound is decoded once into a PCM buffer, and played through a small pool of Clips opened on this buffer
+ *  and reused from one play to the next.
+ * The requests wait in a bounded queue :
+ * - a request for a sound which is already waiting in the queue is coalesced with it (eg during a burst of infection draws) ;
+ * - a request arriving when the queue is full is dropped, as is a request for a sound whose Clips are all playing.
+ *
+ * @author manur
+ * @since v2.9
+ */
+public class SoundsEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(SoundsEngine.class);
+
+    public static final int QUEUE_CAPACITY = 8;
+    public static final int CLIPS_PER_SOUND = 2;
+
+    private final ResourceProvider resourceProvider;
+
+    private final ThreadPoolExecutor executor;
+    private final Set<Sounds> pending = Collections.synchronizedSet(EnumSet.noneOf(Sounds.class));
+
+    // Only accessed from the sounds thread
+    private final Map<Sounds, DecodedSound> decodedSounds = new EnumMap<Sounds, DecodedSound>(Sounds.class);
+    private final Map<Sounds, List<PooledClip>> clips = new EnumMap<Sounds, List<PooledClip>>(Sounds.class);
+
+    private final AtomicLong nbOfCoalesced = new AtomicLong();
+    private final AtomicLong nbOfDropped = new AtomicLong();
+
+    public SoundsEngine(ResourceProvider resourceProvider) {
+        this.resourceProvider = resourceProvider;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(QUEUE_CAPACITY), new SoundsThreadFactory());
+    }
+
+    /**
+     * Decode all the sounds in the background, so that the first play of each one doesn't wait for it
+     */
+    public void preload() {
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    for (Sounds sound : Sounds.values()) {
+                        decode(sound);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.debug("Sounds preloading rejected, they will be decoded on their first play");
+        }
+    }
+
+    /**
+     * Ask for a sound to be played ; returns immediately
+     * @return true if the sound was queued, false if it was coalesced with a sound already waiting or dropped
+     */
+    public boolean play(final Sounds sound) {
+        if (!pending.add(sound)) {
+            nbOfCoalesced.incrementAndGet();
+            return false;
+        }
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    pending.remove(sound);
+                    output(sound);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            pending.remove(sound);
+            nbOfDropped.incrementAndGet();
+            logger.trace("Sound {} dropped", sound);
+            return false;
+        }
+    }
+
+    /**
+     * Play the sound on an available Clip of its pool. Called on the sounds thread.
+     */
+    protected void output(Sounds sound) {
+        DecodedSound decodedSound = decode(sound);
+        if (decodedSound == null) {
+            return;
+        }
+
+        PooledClip pooledClip = availableClip(sound, decodedSound);
+        if (pooledClip == null) {
+            nbOfDropped.incrementAndGet();
+            logger.trace("Sound {} dropped : all its clips are playing", sound);
+            return;
+        }
+        pooledClip.start();
+    }
+
+    private DecodedSound decode(Sounds sound) {
+        DecodedSound decodedSound = decodedSounds.get(sound);
+        if (decodedSound != null || decodedSounds.containsKey(sound)) {
+            return decodedSound;
+        }
+
+        try {
+            InputStream stream = resourceProvider.getAudioStream(sound.getWavFile());
+            if (stream == null) {
+                logger.error("Sound file {} not found", sound.getWavFile());
+            } else {
+                AudioInputStream audioInputStream = AudioSystem.getAudioInputStream(new BufferedInputStream(stream));
+                AudioFormat.Encoding encoding = audioInputStream.getFormat().getEncoding();
+                if (!AudioFormat.Encoding.PCM_SIGNED.equals(encoding) && !AudioFormat.Encoding.PCM_UNSIGNED.equals(encoding)) {
+                    audioInputStream = AudioSystem.getAudioInputStream(AudioFormat.Encoding.PCM_SIGNED, audioInputStream);
+                }
+                decodedSound = new DecodedSound(audioInputStream.getFormat(), readFully(audioInputStream));
+            }
+        } catch (Exception e) {
+            logger.error("Unable to decode the sound " + sound.getWavFile(), e);
+        }
+
+        // A sound which can't be decoded is not tried again
+        decodedSounds.put(sound, decodedSound);
+        return decodedSound;
+    }
+
+    private PooledClip availableClip(Sounds sound, DecodedSound decodedSound) {
+        List<PooledClip> pool = clips.get(sound);
+        if (pool == null) {
+            pool = new ArrayList<PooledClip>(CLIPS_PER_SOUND);
+            clips.put(sound, pool);
+        }
+
+        for (PooledClip pooledClip : pool) {
+            if (!pooledClip.isPlaying()) {
+                return pooledClip;
+            }
+        }
+
+        if (pool.size() < CLIPS_PER_SOUND) {
+            try {
+                Clip clip = (Clip) AudioSystem.getLine(new DataLine.Info(Clip.class, decodedSound.format));
+                clip.open(decodedSound.format, decodedSound.data, 0, decodedSound.data.length);
+                PooledClip pooledClip = new PooledClip(clip);
+                pool.add(pooledClip);
+                return pooledClip;
+            } catch (LineUnavailableException e) {
+                logger.warn("No audio line available for " + sound.getWavFile(), e);
+            } catch (IllegalArgumentException e) {
+                logger.warn("No audio line supporting " + decodedSound.format, e);
+            }
+        }
+        return null;
+    }
+
+    private static byte[] readFully(InputStream stream) throws IOException {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } finally {
+            stream.close();
+        }
+    }
+
+    /**
+     * Forget the sounds waiting to be played, close all the Clips and stop the sounds thread
+     */
+    public void shutdown() {
+        executor.getQueue().clear();
+        pending.clear();
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    for (List<PooledClip> pool : clips.values()) {
+                        for (PooledClip pooledClip : pool) {
+                            pooledClip.clip.close();
+                        }
+                    }
+                    clips.clear();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // already shut down
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * @return The number of requests merged with an identical sound already waiting to be played
+     */
+    public long getNbOfCoalesced() {
+        return nbOfCoalesced.get();
+    }
+
+    /**
+     * @return The number of requests dropped because the queue was full or all the clips of the sound were playing
+     */
+    public long getNbOfDropped() {
+        return nbOfDropped.get();
+    }
+
+    private static class DecodedSound {
+        private final AudioFormat format;
+        private final byte[] data;
+
+        private DecodedSound(AudioFormat format, byte[] data) {
+            this.format = format;
+            this.data = data;
+        }
+    }
+
+    /**
+     * A Clip of the pool, known to be playing from its start() until the line notifies its STOP
+     */
+    private static class PooledClip implements LineListener {
+        private final Clip clip;
+        private volatile boolean playing;
+
+        private PooledClip(Clip clip) {
+            this.clip = clip;
+            clip.addLineListener(this);
+        }
+
+        private boolean isPlaying() {
+            return playing;
+        }
+
+        private void start() {
+            playing = true;
+            clip.stop();
+            clip.setFramePosition(0);
+            clip.start();
+        }
+
+        @Override
+        public void update(LineEvent event) {
+            if (LineEvent.Type.STOP.equals(event.getType())) {
+                playing = false;
+            }
+        }
+    }
+
+    private static class SoundsThreadFactory implements ThreadFactory {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "sounds");
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
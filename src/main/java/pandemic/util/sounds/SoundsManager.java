@@ -26,15 +26,11 @@ import pandemic.util.GenericResourceProvider;
 import pandemic.util.ResourceProvider;
 import pandemic.util.RolesObserver;
 
-import javax.sound.sampled.*;
-import java.io.BufferedInputStream;
-
 /**
  * This class has a triple purpose : 
- * - It contains a top-level (static) private class SoundThread implementing the Runnable interface, 
- * so that the instances of SoundThread are the threads which effectively play the sounds.
+ * - It owns the SoundsEngine, which decodes the sounds once and effectively plays them on its own thread.
  * - By extending AbstractSoundFactory and supplying a protected doPlaySound() method that is the only one 
- * allowed to created instances of SoundThread, it is the only place from which one can trigger sounds.
+ * handing sounds to the SoundsEngine, it is the only place from which one can trigger sounds.
  * - By implementing DecksObserver and RolesObserver, it can be registered to the model to receive
  * fired game event and react by triggering the appropriate sounds.
  * 
@@ -45,6 +41,9 @@ import java.io.BufferedInputStream;
  */
 public class SoundsManager extends AbstractSoundsFactory implements DecksObserver, RolesObserver {
 
+    private ResourceProvider resourceProvider;
+    private SoundsEngine soundsEngine;
+
     /**********************
      *   DecksObserver    *
      **********************/
@@ -73,6 +72,11 @@ public class SoundsManager extends AbstractSoundsFactory implements DecksObserve
         }
     }
 
+    @Override
+    public void playerCardReturned(Card card) {
+        playSound(Sounds.FLIP);
+    }
+
     @Override
     public void infectionDeckShuffled() {
         playSound(Sounds.SHUFFLE);
@@ -93,6 +97,11 @@ public class SoundsManager extends AbstractSoundsFactory implements DecksObserve
         playSound(Sounds.RADAR);
     }
 
+    @Override
+    public void decksRestored() {
+        // No sound when an operation is undone
+    }
+
     /**********************
      *   RolesObserver    *
      **********************/
@@ -112,53 +121,31 @@ public class SoundsManager extends AbstractSoundsFactory implements DecksObserve
 	 **********************************************/
 
     /**
-     * Plays the sound asked for, creating a thread. 
+     * Plays the sound asked for, through the SoundsEngine.
      * 
      * @param sound
      *            The sound, from the available choices in the Sounds enum above.
      */
     @Override
     protected void doPlaySound(Sounds sound) {
-        Thread soundThread = new Thread(new SoundThread(sound.getWavFile()));
-        soundThread.start();
+        getSoundsEngine().play(sound);
+    }
+
+    /**
+     * Decode all the sounds in the background, ahead of their first play
+     */
+    public void preloadSounds() {
+        getSoundsEngine().preload();
+    }
+
+    private synchronized SoundsEngine getSoundsEngine() {
+        if (soundsEngine == null) {
+            soundsEngine = new SoundsEngine(resourceProvider != null ? resourceProvider : new GenericResourceProvider());
+        }
+        return soundsEngine;
+    }
+
+    public void setResourceProvider(ResourceProvider resourceProvider) {
+        this.resourceProvider = resourceProvider;
     }
-	
-	/************************************************
-	 * Runnable, instantiable inner top-level class *
-	 ************************************************/
-	private static class SoundThread implements Runnable{
-		private String fileName;
-
-		/**
-		 * Do not instantiate this class directly. One must use the static
-		 * method playSound() to create the thread using an instance of this
-		 */
-		private SoundThread(String fileName) {
-			this.fileName = fileName;
-		}
-
-		/**
-		 * The operational thread method, playing the sound effect
-		 */
-		@Override
-		public void run() {
-			try {
-				ResourceProvider resourceProvider = new GenericResourceProvider();
-				
-				AudioInputStream audioInputStream = 
-					AudioSystem.getAudioInputStream(
-                            new BufferedInputStream(resourceProvider.getAudioStream(this.fileName)));
-				
-				AudioFormat audioFormat = audioInputStream.getFormat();
-				DataLine.Info dataLineInfo = 
-						new DataLine.Info(Clip.class, audioFormat);
-				Clip clip = (Clip) AudioSystem.getLine(dataLineInfo);
-				clip.open(audioInputStream);
-				clip.start();
-			} catch (Exception e) {
-				e.printStackTrace();
-			}
-		}
-
-	}
 }
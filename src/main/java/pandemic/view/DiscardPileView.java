@@ -29,13 +29,23 @@ package pandemic.view;
 public interface DiscardPileView {
     /**
      * Create the Discarded Infection Pile view, and allows the user remove one
-     * of them.
+     * of them. The view is created hidden, once per game.
      */
     public void createBoard();
 
     /**
-     * Close the view
+     * Show the view, with the current content of the Discarded Infection Pile.
+     */
+    public void showView();
+
+    /**
+     * Close the view, which can be shown again
      */
     public void closeView();
 
+    /**
+     * Release the view, at the end of the game
+     */
+    public void disposeView();
+
 }
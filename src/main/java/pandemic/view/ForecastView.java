@@ -30,12 +30,23 @@ public interface ForecastView {
 
     /**
      * Create the view displaying the first 6 cards of the Infection deck (or
-     * all cards of the deck if there are less than 6).
+     * all cards of the deck if there are less than 6). The view is created
+     * hidden, once per game.
      */
     public void createBoard();
 
     /**
-     * Close the view.
+     * Show the view, with the current first cards of the Infection deck.
+     */
+    public void showView();
+
+    /**
+     * Close the view, which can be shown again.
      */
     public void closeView();
+
+    /**
+     * Release the view, at the end of the game.
+     */
+    public void disposeView();
 }
\ No newline at end of file
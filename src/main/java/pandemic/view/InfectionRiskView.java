@@ -0,0 +1,46 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.view;
+
+import pandemic.util.DecksObserver;
+
+/**
+ * View of the odds of the next draws : the cities that may be infected, and
+ * the chance of an epidemic. It's refreshed after each operation on the decks.
+ *
+ * @author manur
+ * @since v2.9
+ */
+public interface InfectionRiskView extends DecksObserver {
+
+    /**
+     * Create the view, hidden, once per game.
+     */
+    public void createBoard();
+
+    /**
+     * Show the view, with the current odds.
+     */
+    public void showView();
+
+    /**
+     * Release the view, at the end of the game.
+     */
+    public void disposeView();
+}
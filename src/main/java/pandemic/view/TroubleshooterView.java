@@ -31,10 +31,21 @@ public interface TroubleshooterView {
 
     /**
      * Create the view displaying the first 4 cards of the Infection deck, face
-     * down.
+     * down. The view is created hidden, once per game.
      */
     public void createBoard();
 
+    /**
+     * Show the view, with the current first cards of the Infection deck, all
+     * face down.
+     */
+    public void showView();
+
+    /**
+     * Release the view, at the end of the game.
+     */
+    public void disposeView();
+
     /**
      * Turn the next unflipped card.
      */
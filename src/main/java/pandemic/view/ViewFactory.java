@@ -76,6 +76,17 @@ public interface ViewFactory {
      */
     public TroubleshooterView createTroubleshooterView(BoardController controller, PandemicModel model);
 
+    /**
+     * Create the infection risk view.
+     *
+     * @param controller
+     *            the controller of the game
+     * @param model
+     *            the model for the view.
+     * @return the view
+     */
+    public InfectionRiskView createInfectionRiskView(BoardController controller, PandemicModel model);
+
     /**
      * Create the new assignment view.
      *
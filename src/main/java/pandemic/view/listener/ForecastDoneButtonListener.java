@@ -52,6 +52,13 @@ public class ForecastDoneButtonListener implements ActionListener {
 		this.dialogsManager = dialogsManager;
 	}
 	
+	/**
+	 * @param nbOfCards The number of cards to reorder, when the view is shown again
+	 */
+	public void setNbOfCards(int nbOfCards) {
+		this.nbOfCards = nbOfCards;
+	}
+	
 	@Override
 	public void actionPerformed(ActionEvent e) {
 		String newOrder = inputField.getText();
@@ -22,10 +22,12 @@ import java.awt.Frame;
 import java.awt.Toolkit;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.KeyEvent;
 
 import javax.swing.JMenu;
 import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
+import javax.swing.KeyStroke;
 
 import pandemic.GameManager;
 import pandemic.util.ResourceProvider;
@@ -60,6 +62,9 @@ public abstract class PandemicMenuBar {
 		constructQuitItem(menuFile);
 		menuBar.add(menuFile);
 		
+		menuBar.add(createEditMenu(gameManager));
+		menuBar.add(createViewMenu(gameManager));
+		
 		createWhatMenu(menuBar, gameManager, resourceProvider);
 		
 		return menuBar;
@@ -106,6 +111,58 @@ public abstract class PandemicMenuBar {
 		return menuFile;
 	}
 	
+	/**
+	 * Creates the Edit menu, to undo and redo the operations of the game
+	 * @param gameManager The GameManager object that will take care of the operations launched by the menu
+	 * @return The completed JMenu
+	 */
+	protected JMenu createEditMenu(final GameManager gameManager) {
+		JMenu menuEdit = new JMenu("Edit");
+		
+		JMenuItem mntmUndo = new JMenuItem("Undo");
+		mntmUndo.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Z, systemKeyMask));
+		mntmUndo.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				gameManager.undo();
+			}
+		});
+		menuEdit.add(mntmUndo);
+		
+		JMenuItem mntmRedo = new JMenuItem("Redo");
+		mntmRedo.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Y, systemKeyMask));
+		mntmRedo.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				gameManager.redo();
+			}
+		});
+		menuEdit.add(mntmRedo);
+		
+		return menuEdit;
+	}
+	
+	/**
+	 * Creates the View menu, to show the odds of the next draws
+	 * @param gameManager The GameManager object that will take care of the operations launched by the menu
+	 * @return The completed JMenu
+	 */
+	protected JMenu createViewMenu(final GameManager gameManager) {
+		JMenu menuView = new JMenu("View");
+		
+		JMenuItem mntmInfectionRisk = new JMenuItem("Infection risk...");
+		mntmInfectionRisk.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_I, systemKeyMask));
+		mntmInfectionRisk.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				gameManager.showInfectionRisk();
+			}
+		});
+		menuView.add(mntmInfectionRisk);
+		
+		return menuView;
+	}
+	
 	abstract void constructQuitItem(JMenu menuFile);
 	
 	abstract void createWhatMenu(JMenuBar menuBar, GameManager gameManager, ResourceProvider resourceProvider);
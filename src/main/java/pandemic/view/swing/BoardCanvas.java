@@ -0,0 +1,192 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.view.swing;
+
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import javax.swing.JComponent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import pandemic.BoardController;
+import pandemic.model.objects.PaintedSurface;
+import pandemic.model.objects.PandemicObject;
+
+/**
+ * A single transparent component painting all the game components (counters and cards) of the board,
+ *  in place of a JLabel for each of them.
+ * The components are painted in their z-order ; a move only repaints the area left and the area covered,
+ *  and only the components intersecting the area repainted are painted again. The components to paint
+ *  and the component under the mouse are found with a BoardIndex.
+ *
+ * @author manur
+ * @since v2.9
+ */
+public class BoardCanvas extends JComponent implements PaintedSurface {
+
+    private static final long serialVersionUID = 29L;
+
+    private static final Logger logger = LoggerFactory.getLogger(BoardCanvas.class);
+
+    private final BoardController controller;
+
+    private final BoardIndex index;
+    private final Map<PandemicObject, Integer> depths = new IdentityHashMap<PandemicObject, Integer>(); // the higher, the closer to the top
+    private int topDepth = 0;
+    private int bottomDepth = 0;
+
+    private final Comparator<PandemicObject> byDepth = new Comparator<PandemicObject>() {
+        @Override
+        public int compare(PandemicObject o1, PandemicObject o2) {
+            return depths.get(o1).compareTo(depths.get(o2));
+        }
+    };
+
+    // The drag in progress
+    private PandemicObject dragged;
+    private int pressedX;
+    private int pressedY;
+    private int offsetX;
+    private int offsetY;
+
+    public BoardCanvas(int width, int height, BoardController controller) {
+        this.controller = controller;
+        this.index = new BoardIndex(width, height, byDepth);
+
+        setBounds(0, 0, width, height);
+        setOpaque(false); // the board and the role boxes are seen through
+
+        MouseAdapter mouseHandler = new MouseHandler();
+        addMouseListener(mouseHandler);
+        addMouseMotionListener(mouseHandler);
+    }
+
+    /**
+     * Paint a component on this canvas, below the ones already added
+     * (like the JLabels added to a container with a null layout)
+     */
+    public void addObject(PandemicObject object) {
+        depths.put(object, --bottomDepth);
+        object.setSwingComponent(this);
+        index.add(object);
+    }
+
+    /**
+     * Put a component on top of all the others
+     */
+    public void bringToFront(PandemicObject object) {
+        depths.put(object, ++topDepth);
+        repaint(boundsOf(object));
+    }
+
+    /**
+     * @return The component seen at this point, or null if there's none
+     */
+    public PandemicObject objectAt(int x, int y) {
+        return index.objectAt(x, y);
+    }
+
+    public BoardIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Only the painted components belong to the canvas : elsewhere, the mouse and the lookups
+     *  go through to the components below it
+     */
+    @Override
+    public boolean contains(int x, int y) {
+        return objectAt(x, y) != null;
+    }
+
+    @Override
+    public void objectMoved(PandemicObject object, int oldX, int oldY) {
+        Rectangle dirty = boundsOf(object);
+        if (oldX < getWidth() && oldY < getHeight()) {
+            dirty = dirty.union(new Rectangle(oldX, oldY, dirty.width, dirty.height));
+        }
+        repaint(dirty); // the index follows the move by itself
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+
+        for (PandemicObject object : index.objectsIn(clip)) {
+            object.getImage().paintIcon(this, g, object.getX(), object.getY());
+        }
+    }
+
+    private static Rectangle boundsOf(PandemicObject object) {
+        return new Rectangle(object.getX(), object.getY(), object.getImage().getIconWidth(), object.getImage().getIconHeight());
+    }
+
+    /**
+     * Drag & drop of the components, kept inside the canvas
+     */
+    private class MouseHandler extends MouseAdapter {
+
+        @Override
+        public void mousePressed(MouseEvent e) {
+            PandemicObject object = objectAt(e.getX(), e.getY());
+            if (object == null || !object.isDraggable()) {
+                return;
+            }
+            dragged = object;
+            pressedX = object.getX();
+            pressedY = object.getY();
+            offsetX = e.getX() - pressedX;
+            offsetY = e.getY() - pressedY;
+        }
+
+        @Override
+        public void mouseDragged(MouseEvent e) {
+            if (dragged == null) {
+                return;
+            }
+            int maxX = getWidth() - dragged.getImage().getIconWidth();
+            int maxY = getHeight() - dragged.getImage().getIconHeight();
+            int newX = Math.max(0, Math.min(e.getX() - offsetX, maxX));
+            int newY = Math.max(0, Math.min(e.getY() - offsetY, maxY));
+            if (newX != dragged.getX() || newY != dragged.getY()) {
+                dragged.move(newX, newY);
+            }
+        }
+
+        @Override
+        public void mouseReleased(MouseEvent e) {
+            if (dragged == null) {
+                return;
+            }
+            logger.trace("Dropped {} at ({}, {})", dragged.getName(), dragged.getX(), dragged.getY());
+            controller.componentMoved(dragged, pressedX, pressedY, dragged.getX(), dragged.getY());
+            dragged = null;
+        }
+    }
+}
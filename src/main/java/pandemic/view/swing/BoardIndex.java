@@ -0,0 +1,111 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.view.swing;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import pandemic.model.objects.MoveListener;
+import pandemic.model.objects.PandemicObject;
+import pandemic.util.SpatialGrid;
+
+/**
+ * Index of the game components on the board, by position : which components are under a point, or in an area,
+ *  and which one is seen on top. It follows the components as they are moved or dragged.
+ * The components placed beyond the board (like the cards still in the deck) are not indexed, so their images
+ *  are not loaded for it.
+ *
+ * @author manur
+ * @since v2.9
+ */
+public class BoardIndex implements MoveListener {
+
+    private final int width;
+    private final int height;
+    private final SpatialGrid<PandemicObject> grid;
+    private final Comparator<PandemicObject> depthOrder;
+
+    /**
+     * @param depthOrder Orders the components from the bottom to the top of the board
+     */
+    public BoardIndex(int width, int height, Comparator<PandemicObject> depthOrder) {
+        this.width = width;
+        this.height = height;
+        this.grid = new SpatialGrid<PandemicObject>(width, height);
+        this.depthOrder = depthOrder;
+    }
+
+    /**
+     * Index a component, and follow its moves
+     */
+    public void add(PandemicObject object) {
+        object.setMoveListener(this);
+        index(object);
+    }
+
+    @Override
+    public void objectMoved(PandemicObject object, int oldX, int oldY) {
+        index(object);
+    }
+
+    /**
+     * @return The component seen at this point, or null if there's none
+     */
+    public PandemicObject objectAt(int x, int y) {
+        List<PandemicObject> objects = grid.itemsAt(x, y);
+        return objects.isEmpty() ? null : Collections.max(objects, depthOrder);
+    }
+
+    /**
+     * @return The components under this point, from the bottom to the top
+     */
+    public List<PandemicObject> objectsAt(int x, int y) {
+        List<PandemicObject> objects = grid.itemsAt(x, y);
+        Collections.sort(objects, depthOrder);
+        return objects;
+    }
+
+    /**
+     * @return The components intersecting the area, from the bottom to the top
+     */
+    public List<PandemicObject> objectsIn(Rectangle area) {
+        List<PandemicObject> objects = new ArrayList<PandemicObject>(grid.itemsIn(area));
+        Collections.sort(objects, depthOrder);
+        return objects;
+    }
+
+    /**
+     * @return The bounds of a component, or null if it's not on the board
+     */
+    public Rectangle getBounds(PandemicObject object) {
+        return grid.getBounds(object);
+    }
+
+    private void index(PandemicObject object) {
+        if (object.getX() < width && object.getY() < height) {
+            grid.put(object, new Rectangle(object.getX(), object.getY(),
+                    object.getImage().getIconWidth(), object.getImage().getIconHeight()));
+        } else {
+            grid.remove(object); // don't load the image of a component out of sight
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.view.swing;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+
+import javax.swing.JPanel;
+
+import pandemic.model.IntDeckView;
+import pandemic.util.ResourceProvider;
+
+/**
+ * The strip of the discarded Infection cards, numbered from 1, in a horizontally scrolling pane.
+ * The cards are painted rather than each one put in a JLabel : only the cards in the area to repaint
+ *  (the visible part of the strip, or the part uncovered by a scroll) are painted, and their images
+ *  only fetched then, from the cache of the ResourceProvider.
+ * The strip shows the pile it's given, which doesn't change while it's painted (a snapshot of the model).
+ *
+ * @author manur
+ * @since v2.9
+ */
+public class DiscardStrip extends JPanel {
+
+    private static final long serialVersionUID = 29L;
+
+    static final int MARGIN = 10;
+    static final int CARD_STEP = 102; // 100 pixels per card + 2 pixels between the cards
+    static final int CARD_WIDTH = 100;
+    static final int CARD_HEIGHT = 70;
+    private static final int NUMBER_WIDTH = 25;
+    private static final int NUMBER_HEIGHT = 25;
+    private static final int HEIGHT = 250;
+
+    private static final Color NUMBER_COLOR = new Color(166, 140, 74);
+    private static final Font NUMBER_FONT = new Font("Sanserif", Font.BOLD, 15);
+
+    private IntDeckView discardedCards;
+    private final ResourceProvider resourceProvider;
+
+    public DiscardStrip(IntDeckView discardedCards, ResourceProvider resourceProvider) {
+        super(null);
+        this.discardedCards = discardedCards;
+        this.resourceProvider = resourceProvider;
+        setBackground(new Color(215, 201, 166));
+    }
+
+    /**
+     * Show another content of the pile, to be revalidated then repainted
+     */
+    public void setDiscardedCards(IntDeckView discardedCards) {
+        this.discardedCards = discardedCards;
+    }
+
+    /**
+     * Calculated width : 102 pixels per card + 50 pixels of margins
+     */
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(discardedCards.size() * CARD_STEP + 50, HEIGHT);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g); // the background
+
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+
+        int first = Math.max(0, (clip.x - MARGIN) / CARD_STEP);
+        int last = Math.min(discardedCards.size() - 1, (clip.x + clip.width - MARGIN) / CARD_STEP);
+
+        g.setFont(NUMBER_FONT);
+        g.setColor(NUMBER_COLOR);
+        FontMetrics metrics = g.getFontMetrics();
+        for (int cardIndex = first; cardIndex <= last; cardIndex++) {
+            int x = MARGIN + CARD_STEP * cardIndex;
+            resourceProvider.getIcon("cardinf" + discardedCards.get(cardIndex) + ".jpg").paintIcon(this, g, x, MARGIN);
+
+            // The number, centered under the card
+            String number = Integer.toString(cardIndex + 1);
+            int numberX = x + (CARD_WIDTH - metrics.stringWidth(number)) / 2;
+            int numberY = MARGIN + CARD_HEIGHT + (NUMBER_HEIGHT - metrics.getHeight()) / 2 + metrics.getAscent();
+            g.drawString(number, numberX, numberY);
+        }
+    }
+
+    /**
+     * @return The index in the pile of the card painted at this point, or -1 if there's none
+     */
+    public int cardIndexAt(int x, int y) {
+        int cardIndex = (x - MARGIN) / CARD_STEP;
+        if (x < MARGIN || cardIndex >= discardedCards.size() || x - MARGIN - cardIndex * CARD_STEP >= CARD_WIDTH
+                || y < MARGIN || y >= MARGIN + CARD_HEIGHT + NUMBER_HEIGHT) {
+            return -1;
+        }
+        return cardIndex;
+    }
+}
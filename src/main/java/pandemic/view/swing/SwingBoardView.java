@@ -22,8 +22,16 @@ package pandemic.view.swing;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.swing.ImageIcon;
@@ -35,10 +43,12 @@ import javax.swing.JScrollPane;
 import pandemic.BoardController;
 import pandemic.dialog.ModalDialogsManager;
 import pandemic.model.Expansion;
+import pandemic.model.IntDeckView;
 import pandemic.model.PandemicModel;
 import pandemic.model.objects.Card;
 import pandemic.model.objects.PandemicObject;
 import pandemic.model.objects.Role;
+import pandemic.util.FrameThrottle;
 import pandemic.view.BoardView;
 import pandemic.view.listener.NewAssignmentListener;
 import pandemic.view.listener.OverframeButtonListener;
@@ -62,6 +72,13 @@ public class SwingBoardView extends SwingView implements BoardView {
     private JScrollPane container;
     private JPanel board = null;
 
+    private boolean paintedBoard = false;
+    private BoardCanvas canvas = null; // paints the game components, when the board is painted
+
+    private final List<JLabel> roleLabels = new ArrayList<JLabel>();
+
+    private final FrameThrottle dragThrottle = new FrameThrottle(); // the drags of the JLabels, once per frame
+
     private JButton muteButton = null;
     private ImageIcon soundOnIcon;
     private ImageIcon soundOffIcon;
@@ -72,6 +89,7 @@ public class SwingBoardView extends SwingView implements BoardView {
     private JButton reshuffleButton = null;
     private JButton discardButton = null;
     private JButton troubleshooterButton = null;
+    private int troubleshooterRoleIndex = -1;
 
     /**
      * Constructor We follow the MVC paradigm, and thus the view gets access to
@@ -89,7 +107,16 @@ public class SwingBoardView extends SwingView implements BoardView {
      */
     @Override
     public void createBoard() {
-        board = new JPanel();
+        board = new JPanel() {
+            private static final long serialVersionUID = 29L;
+
+            @Override
+            public void paint(Graphics g) {
+                long start = System.nanoTime();
+                super.paint(g);
+                dragThrottle.painted(System.nanoTime() - start);
+            }
+        };
         board.setPreferredSize(new Dimension(1000, 920));
 
         board.setLayout(null);
@@ -126,7 +153,7 @@ public class SwingBoardView extends SwingView implements BoardView {
      */
     @Override
     public void setTopDiscardCard() {
-        List<Integer> discardDeck = getModel().getDiscardPile();
+        IntDeckView discardDeck = getModel().getSnapshot().getDiscardPile();
 
         int newCard;
         if (discardDeck.isEmpty()) {
@@ -156,12 +183,21 @@ public class SwingBoardView extends SwingView implements BoardView {
 
     @Override
     public void playerCardDrawn(Card newCard) {
-        // bring the newly drawn card to the player card zone
-        newCard.move(648, 418);
+        // The model has already brought the newly drawn card to the player card zone :
         // put each newly drawn card on TOP of former cards
-        board.setComponentZOrder(newCard.getSwingComponent(), 0);
+        if (canvas != null) {
+            canvas.bringToFront(newCard);
+        } else {
+            board.setComponentZOrder(newCard.getSwingComponent(), 0);
+        }
         // update the display of the number of remaining player cards
-        remainingCards.setText(Integer.toString(getModel().getNbOfPlayerCards()));
+        remainingCards.setText(Integer.toString(getModel().getSnapshot().getNbOfPlayerCards()));
+    }
+
+    @Override
+    public void playerCardReturned(Card card) {
+        // the card has been put back on the deck by the model
+        remainingCards.setText(Integer.toString(getModel().getSnapshot().getNbOfPlayerCards()));
     }
 
     @Override
@@ -188,14 +224,19 @@ public class SwingBoardView extends SwingView implements BoardView {
     public void infectionDeckRearranged() {
         setTopDiscardCard();        
     }
+
+    @Override
+    public void decksRestored() {
+        setTopDiscardCard();
+    }
     
     /* **** from interface RolesObserver **** */
 
     @Override
     public void roleWillChange(int roleIndex) {
-        // The role will change right after this method.
+        // The role is changing (the view is notified later, so the model may already hold the new role).
         // If the old role was the Troubleshooter, remove its special button.
-        if (getModel().getAffectedRoles().get(roleIndex).isTroubleshooter()) {
+        if (roleIndex == troubleshooterRoleIndex) {
             removeTroubleshooterButton();
         }
     }
@@ -203,11 +244,11 @@ public class SwingBoardView extends SwingView implements BoardView {
     @Override
     public void roleHasChanged(int roleIndex) {
         // A role has changed. We must replace its rolebox.
-        JLabel roleLabel = (JLabel) board.getComponentAt(10 + 157 * roleIndex, 408);
-        roleLabel.setIcon(getResourceProvider().getIcon(buildRoleFilename(getModel().getAffectedRoles().get(roleIndex))));
+        JLabel roleLabel = roleLabels.get(roleIndex);
+        roleLabel.setIcon(getResourceProvider().getIcon(buildRoleFilename(getModel().getSnapshot().getAffectedRoles().get(roleIndex))));
 
         // If the new role is the Troubleshooter, place the corresponding button on its rolebox
-        if (getModel().getAffectedRoles().get(roleIndex).isTroubleshooter()) {
+        if (getModel().getSnapshot().getAffectedRoles().get(roleIndex).isTroubleshooter()) {
             addTroubleshooterButton(roleIndex);
         }
     }
@@ -345,7 +386,7 @@ public class SwingBoardView extends SwingView implements BoardView {
         board.add(forecastButton);
 
         // Troubleshooter button (if there's a troubleshooter drawn)
-        List<Role> roleList = getModel().getAffectedRoles();
+        List<Role> roleList = getModel().getSnapshot().getAffectedRoles();
         for (int roleIndex = 0; roleIndex < roleList.size(); roleIndex++) {
             if (roleList.get(roleIndex).getId() == TROUBLESHOOTER_ROLE_ID) {
                 addTroubleshooterButton(roleIndex);
@@ -354,7 +395,7 @@ public class SwingBoardView extends SwingView implements BoardView {
         }
 
         // ** displaying remaining playingcards.. ***********************
-        remainingCards = new JLabel(Integer.toString(getModel().getNbOfPlayerCards()));
+        remainingCards = new JLabel(Integer.toString(getModel().getSnapshot().getNbOfPlayerCards()));
         remainingCards.setForeground(new Color(16, 70, 80));
         remainingCards.setFont(new Font("Sanserif", Font.BOLD, 17));
         remainingCards.setBounds(622, 410, 25, 15);
@@ -373,6 +414,7 @@ public class SwingBoardView extends SwingView implements BoardView {
         ImageIcon troubleshooterImage = getResourceProvider().getIcon("troubleshooter_button.jpg");
         troubleshooterButton.setIcon(troubleshooterImage);
 
+        troubleshooterRoleIndex = roleIndex;
         troubleshooterButton.setBounds(8 + roleIndex * 158, 424, 15, 20);
         troubleshooterButton.setEnabled(true);
         troubleshooterButton.addActionListener(new ActionListener() {
@@ -392,6 +434,7 @@ public class SwingBoardView extends SwingView implements BoardView {
         board.remove(troubleshooterButton);
         board.repaint();
         troubleshooterButton = null;
+        troubleshooterRoleIndex = -1;
     }
 
     /**
@@ -399,24 +442,71 @@ public class SwingBoardView extends SwingView implements BoardView {
      * corresponding PandemicObjects as their listeners for mouse drag & drop
      */
     private void createGameComponents() {
+        Dimension boardSize = board.getPreferredSize();
+        if (paintedBoard) {
+            canvas = new BoardCanvas(boardSize.width, boardSize.height, getController());
+            board.add(canvas);
+        }
+
         // Place counters
         for (PandemicObject counter : getModel().getCountersLibrary()) {
-            JLabel component = new JLabel(counter.getImage());
-            component.setBounds(counter.getX(), counter.getY(), counter.getImage().getIconWidth(), counter.getImage().getIconHeight());
-            component.addMouseListener(counter);
-            component.addMouseMotionListener(counter);
-            counter.setSwingComponent(component);
-            board.add(component);
+            createGameComponent(counter);
         }
 
         // Place cards
         for (Card card : getModel().getCardsLibrary()) {
-            JLabel component = new JLabel(card.getImage());
-            component.setBounds(card.getX(), card.getY(), card.getImage().getIconWidth(), card.getImage().getIconHeight());
-            component.addMouseListener(card);
-            component.addMouseMotionListener(card);
-            card.setSwingComponent(component);
-            board.add(component);
+            createGameComponent(card);
+        }
+    }
+
+    /**
+     * The image of a component placed beyond the board (like the cards still in the deck) is not loaded :
+     *  its label is left empty until the component is moved onto the board.
+     */
+    private void createGameComponent(PandemicObject object) {
+        if (canvas != null) {
+            canvas.addObject(object);
+            return;
+        }
+
+        JLabel component = new JLabel(object.getImage());
+        Dimension boardSize = board.getPreferredSize();
+        if (object.getX() < boardSize.width && object.getY() < boardSize.height) {
+            component.setBounds(object.getX(), object.getY(), object.getImage().getIconWidth(), object.getImage().getIconHeight());
+        } else {
+            component.setBounds(object.getX(), object.getY(), 0, 0);
+        }
+        component.addMouseListener(object);
+        component.addMouseMotionListener(object);
+        object.setDragThrottle(dragThrottle);
+        if (object.isDraggable()) {
+            component.addMouseListener(new MoveRecorder(object));
+        }
+        object.setSwingComponent(component);
+        board.add(component);
+    }
+
+    /**
+     * Tell the controller where a component was dragged from, once it's dropped, so that the move can be undone
+     */
+    private class MoveRecorder extends MouseAdapter {
+        private final PandemicObject object;
+        private int pressedX;
+        private int pressedY;
+
+        MoveRecorder(PandemicObject object) {
+            this.object = object;
+        }
+
+        @Override
+        public void mousePressed(MouseEvent e) {
+            pressedX = object.getX();
+            pressedY = object.getY();
+        }
+
+        @Override
+        public void mouseReleased(MouseEvent e) {
+            getController().componentMoved(object, pressedX, pressedY, object.getX(), object.getY());
         }
     }
 
@@ -424,7 +514,7 @@ public class SwingBoardView extends SwingView implements BoardView {
      * The role boxes to put on the board
      */
     private void createRoles() {
-        List<Role> roleList = getModel().getAffectedRoles();
+        List<Role> roleList = getModel().getSnapshot().getAffectedRoles();
 
         int i = 0;
         for (Role pawn : roleList) {
@@ -432,10 +522,50 @@ public class SwingBoardView extends SwingView implements BoardView {
             JLabel roleLabel = new JLabel(img_role);
             roleLabel.setBounds(10 + 157 * i, 408, ROLEBOX_WIDTH, ROLEBOX_HEIGHT);
             board.add(roleLabel);
+            roleLabels.add(roleLabel);
             i++;
         }
     }
 
+    /**
+     * @return The index of the game components by position on the board, once it's created ;
+     *  null when each component is a JLabel, as Swing finds the component under the mouse itself
+     */
+    public BoardIndex getBoardIndex() {
+        return canvas == null ? null : canvas.getIndex();
+    }
+
+    /**
+     * @param paintedBoard true to paint all the game components on a single BoardCanvas,
+     *  false (the default) for a JLabel per component
+     */
+    public void setPaintedBoard(boolean paintedBoard) {
+        this.paintedBoard = paintedBoard;
+    }
+
+    /**
+     * Copy an image, at the given size, into a buffer in the format of the screen : the parts of the board
+     *  uncovered by a drag are then repainted by a plain copy, without conversion nor scaling.
+     */
+    private static BufferedImage toScreenImage(ImageIcon icon, int width, int height) {
+        GraphicsEnvironment environment = GraphicsEnvironment.getLocalGraphicsEnvironment();
+        BufferedImage buffer;
+        if (environment.isHeadlessInstance()) {
+            buffer = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        } else {
+            buffer = environment.getDefaultScreenDevice().getDefaultConfiguration().createCompatibleImage(width, height);
+        }
+
+        Graphics2D g = buffer.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(icon.getImage(), 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return buffer;
+    }
+
     private String buildRoleFilename(Role pawn) {
         return "rolebox" + pawn.getId() + ".jpg";
     }
@@ -445,7 +575,7 @@ public class SwingBoardView extends SwingView implements BoardView {
      */
     private void createBackgroundBoard() {
         ImageIcon backgroundBoardImage = getResourceProvider().getIcon("board2.jpg");
-        JLabel backgroundBoardLabel = new JLabel(backgroundBoardImage);
+        JLabel backgroundBoardLabel = new JLabel(new ImageIcon(toScreenImage(backgroundBoardImage, 1025, 920)));
 
         backgroundBoardLabel.setBounds(0, 0, 1025, 920);
 
@@ -24,7 +24,8 @@ import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.List;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 
 import javax.swing.ImageIcon;
 import javax.swing.JButton;
@@ -36,6 +37,7 @@ import javax.swing.JTextField;
 import javax.swing.ScrollPaneConstants;
 
 import pandemic.BoardController;
+import pandemic.model.IntDeckView;
 import pandemic.model.PandemicModel;
 import pandemic.util.ResourceProvider;
 import pandemic.view.DiscardPileView;
@@ -50,6 +52,7 @@ import pandemic.view.DiscardPileView;
 public class SwingDiscardPileView extends SwingView implements DiscardPileView {
 
 	private JFrame discardFrame = null;
+	private DiscardStrip discardedCardsPanel = null;
 	private JTextField resilientPopulationTextField = new JTextField(2);
 		
 	/**
@@ -64,11 +67,13 @@ public class SwingDiscardPileView extends SwingView implements DiscardPileView {
 
 	/**
 	 * Create the graphical window displaying the content of the discarded Infection cards,
-	 *  and letting the user remove one of them. 
+	 *  and letting the user remove one of them.
+	 * The window is created hidden, and kept between two uses : the panel of the cards is given
+	 *  the current content of the pile each time it's displayed.
 	 */
 	@Override
 	public void createBoard() {
-		List<Integer> discardedCards = getModel().getDiscardPile();
+		IntDeckView discardedCards = getModel().getSnapshot().getDiscardPile();
 		
 		discardFrame = new JFrame("Discarded Infection Cards");
 		
@@ -115,7 +120,7 @@ public class SwingDiscardPileView extends SwingView implements DiscardPileView {
 		mutationCardsWarning.setBounds(24, 160, 400, 25);
 
 		// Set up the panel to display the cards
-		JPanel discardedCardsPanel = createDiscardPanel(discardedCards, getResourceProvider());
+		discardedCardsPanel = createDiscardPanel(discardedCards, getResourceProvider());
 
 		// Set up the elements on the panel
 		discardedCardsPanel.add(resilientPopulationLabel);
@@ -133,52 +138,62 @@ public class SwingDiscardPileView extends SwingView implements DiscardPileView {
 		scrollPane.setBounds(2, 2, 100, 260);
 		discardFrame.add(scrollPane);
 
-		// Size and display the frame
+		// Size the frame, to be displayed by showView()
 		discardFrame.setSize(new Dimension(550, 250));
 		discardFrame.setLocation(334, 460);
+		discardFrame.setDefaultCloseOperation(JFrame.HIDE_ON_CLOSE);
+	}
+	
+	/**
+	 * Display the window, with the current content of the pile
+	 */
+	@Override
+	public void showView() {
+		resilientPopulationTextField.setText("");
+		discardedCardsPanel.setDiscardedCards(getModel().getSnapshot().getDiscardPile());
+		discardedCardsPanel.revalidate(); // the width of the panel follows the size of the pile
+		discardedCardsPanel.repaint();
 		discardFrame.setVisible(true);
-		discardFrame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);		
+		discardFrame.toFront();
 	}
 	
 	/**
-	 * Prepare the panel displaying the discarded cards
-	 * @param discardedCards The List of the discarded cards
+	 * Prepare the panel displaying the discarded cards.
+	 * The cards are painted by the panel itself, only when they are scrolled into view ;
+	 *  a click on a card selects its number for the removal.
+	 * @param discardedCards The discarded cards
 	 * @param resourceProvider ResourceProvider to get the image files as resources 
-	 * @return The prepared JPanel
+	 * @return The prepared panel
 	 */
-	public JPanel createDiscardPanel(List<Integer> discardedCards, ResourceProvider resourceProvider) {
-		JPanel discardedCardsPanel = new JPanel();
-
-		discardedCardsPanel.setLayout(null);
-		discardedCardsPanel.setBackground(new Color(215, 201, 166));
+	public DiscardStrip createDiscardPanel(IntDeckView discardedCards, ResourceProvider resourceProvider) {
+		final DiscardStrip discardedCardsPanel = new DiscardStrip(discardedCards, resourceProvider);
 
-		// Calculated width : 102 pixels per card + 50 pixels of margins
-		int discardedCardsPanelWidth = (discardedCards.size() * 102) + 50; 
-		discardedCardsPanel.setPreferredSize(new Dimension(discardedCardsPanelWidth, 250));
-		
-		// Create the images and their label
-		for (int cardIndex = 0; cardIndex < discardedCards.size(); cardIndex++) {
-			ImageIcon cardImage = resourceProvider.getIcon("cardinf" + discardedCards.get(cardIndex) + ".jpg");
-			JLabel cardLabel = new JLabel(cardImage);
-			cardLabel.setBounds(10 + 102*cardIndex, 10, 100, 70);
-			discardedCardsPanel.add(cardLabel);
-			
-			JLabel cardNumber = new JLabel(Integer.toString(cardIndex + 1));
-			cardNumber.setForeground(new Color(166, 140, 74));
-			cardNumber.setFont(new Font("Sanserif", Font.BOLD, 15));
-			cardNumber.setBounds(57 + 102*cardIndex, 80, 25, 25); // 47 pixels of shift to center the number
-			discardedCardsPanel.add(cardNumber);
-
-		}
+		discardedCardsPanel.addMouseListener(new MouseAdapter() {
+			@Override
+			public void mouseClicked(MouseEvent e) {
+				int cardIndex = discardedCardsPanel.cardIndexAt(e.getX(), e.getY());
+				if (cardIndex >= 0) {
+					resilientPopulationTextField.setText(Integer.toString(cardIndex + 1));
+				}
+			}
+		});
 		
 		return discardedCardsPanel;
 	}
 	
 	/**
-	 * Close the window
+	 * Close the window, ready to be displayed again
 	 */
 	@Override
 	public void closeView() {
+		discardFrame.setVisible(false);
+	}
+	
+	/**
+	 * Release the window
+	 */
+	@Override
+	public void disposeView() {
 		discardFrame.dispose();
 		discardFrame = null;
 	}
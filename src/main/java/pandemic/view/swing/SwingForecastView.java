@@ -23,7 +23,6 @@ import java.awt.Color;
 import java.awt.Container;
 import java.awt.Dimension;
 import java.awt.Font;
-import java.util.List;
 
 import javax.swing.ImageIcon;
 import javax.swing.JButton;
@@ -35,7 +34,9 @@ import javax.swing.JTextField;
 
 import pandemic.BoardController;
 import pandemic.dialog.ModalDialogsManager;
+import pandemic.model.IntDeckView;
 import pandemic.model.PandemicModel;
+import pandemic.model.SetupRules;
 import pandemic.view.ForecastView;
 import pandemic.view.listener.ForecastDoneButtonListener;
 
@@ -50,8 +51,15 @@ public class SwingForecastView extends SwingView implements ForecastView {
 
 	Container container;
 	
+	private static final int MAX_NB_OF_CARDS = SetupRules.FORECAST_CARDS;
+	
 	JFrame forecastFrame = null;
 	JTextField inputForecast = new JTextField(5);
+	
+	// The slots of the cards, filled each time the window is displayed
+	private JLabel[] cardLabels = new JLabel[MAX_NB_OF_CARDS];
+	private JLabel[] cardLetters = new JLabel[MAX_NB_OF_CARDS];
+	private ForecastDoneButtonListener doneListener;
 		
 	/**
 	 * Constructor
@@ -68,33 +76,29 @@ public class SwingForecastView extends SwingView implements ForecastView {
 	/**
 	 * Create the graphical window displaying the first 6 cards of the Infection deck
 	 *  (or all cards of the deck if there are less than 6).
+	 * The window is created hidden with empty slots for the cards, and kept between two uses.
 	 */
 	@Override
 	public void createBoard() {
 		forecastFrame = new JFrame("Forecast...");
 		
-		List<Integer> infectionDeck = getModel().getInfectionDeck();
-
-		final int nbOfCards = Math.min(infectionDeck.size(), 6); // final is necessary to use the variable inside the doneButton listener
-
 		// Mail panel
 		JPanel mainPanel = new JPanel();
 		mainPanel.setBackground(new Color(208, 185, 141));
 		mainPanel.setLayout(null);
 
-		// Display cards
-		for (int cardIndex=0; cardIndex < nbOfCards; cardIndex++) {
-			ImageIcon cardImage = getResourceProvider().getIcon("cardinf" + infectionDeck.get(cardIndex) + ".jpg");
-			JLabel cardLabel = new JLabel(cardImage);
-			cardLabel.setBounds(10 + 102*cardIndex, 10, 100, 70);
+		// Slots of the cards
+		for (int cardIndex=0; cardIndex < MAX_NB_OF_CARDS; cardIndex++) {
+			cardLabels[cardIndex] = new JLabel();
+			cardLabels[cardIndex].setBounds(10 + 102*cardIndex, 10, 100, 70);
 			
-			JLabel cardLetter = new JLabel(Character.toString((char)('A' + cardIndex)));
-			cardLetter.setForeground(new Color(166, 140, 74));;
-			cardLetter.setFont(new Font("Sanserif", Font.BOLD, 15));
-			cardLetter.setBounds(57 + 102*cardIndex, 80, 25, 25); // Shift of 47 pixels to center the letter under the card
+			cardLetters[cardIndex] = new JLabel(Character.toString((char)('A' + cardIndex)));
+			cardLetters[cardIndex].setForeground(new Color(166, 140, 74));;
+			cardLetters[cardIndex].setFont(new Font("Sanserif", Font.BOLD, 15));
+			cardLetters[cardIndex].setBounds(57 + 102*cardIndex, 80, 25, 25); // Shift of 47 pixels to center the letter under the card
 			
-			mainPanel.add(cardLabel);
-			mainPanel.add(cardLetter);
+			mainPanel.add(cardLabels[cardIndex]);
+			mainPanel.add(cardLetters[cardIndex]);
 		}
 		
 		// Display the special event card and the instructions
@@ -130,10 +134,10 @@ public class SwingForecastView extends SwingView implements ForecastView {
 
 		// Button to validate
 		JButton doneButton = new JButton("Done");
-		doneButton.addActionListener(
-				new ForecastDoneButtonListener(
-						inputForecast, nbOfCards, getController(), 
-						new ModalDialogsManager(container, getResourceProvider(), null)));
+		doneListener = new ForecastDoneButtonListener(
+				inputForecast, MAX_NB_OF_CARDS, getController(), 
+				new ModalDialogsManager(container, getResourceProvider(), null));
+		doneButton.addActionListener(doneListener);
 		doneButton.setBounds(339, 112, 75, 30);
 		
 		// Add components on the panel
@@ -152,15 +156,43 @@ public class SwingForecastView extends SwingView implements ForecastView {
 		
 		forecastFrame.setSize(new Dimension(640, 240));
 		forecastFrame.setLocation(244, 290);
+		forecastFrame.setDefaultCloseOperation(JFrame.HIDE_ON_CLOSE);
+	}
+	
+	/**
+	 * Display the window, with the current first cards of the Infection deck in the slots
+	 */
+	@Override
+	public void showView() {
+		IntDeckView infectionDeck = getModel().getSnapshot().getInfectionDeck();
+		int nbOfCards = Math.min(infectionDeck.size(), MAX_NB_OF_CARDS);
+		
+		for (int cardIndex=0; cardIndex < MAX_NB_OF_CARDS; cardIndex++) {
+			boolean filled = (cardIndex < nbOfCards);
+			cardLabels[cardIndex].setIcon(filled ? getResourceProvider().getIcon("cardinf" + infectionDeck.get(cardIndex) + ".jpg") : null);
+			cardLabels[cardIndex].setVisible(filled);
+			cardLetters[cardIndex].setVisible(filled);
+		}
+		doneListener.setNbOfCards(nbOfCards);
+		inputForecast.setText("");
+		
 		forecastFrame.setVisible(true);
-		forecastFrame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+		forecastFrame.toFront();
 	}
 	
 	/**
-	 * Close the window
+	 * Close the window, ready to be displayed again
 	 */
 	@Override
 	public void closeView() {
+		forecastFrame.setVisible(false);
+	}
+	
+	/**
+	 * Release the window
+	 */
+	@Override
+	public void disposeView() {
 		forecastFrame.dispose();
 		forecastFrame = null;
 	}
@@ -0,0 +1,260 @@
+/**
+ *   Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ *
+ *   This file is part of PandemicSolo.
+ *
+ *   PandemicSolo is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   PandemicSolo is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic.view.swing;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.JComponent;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JSpinner;
+import javax.swing.SpinnerNumberModel;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+
+import pandemic.BoardController;
+import pandemic.model.InfectionRisk;
+import pandemic.model.PandemicModel;
+import pandemic.model.SetupRules;
+import pandemic.model.objects.Card;
+import pandemic.view.InfectionRiskView;
+
+/**
+ * Window showing the odds of the next draws : the chance of each city to be infected by the next infection
+ *  cards, and the chance of an epidemic in the next player cards.
+ * The odds are computed by the InfectionRisk of the model ; they're refreshed after the operations on the decks
+ *  (at most once per frame) while the window is displayed, and only the rows in sight are painted.
+ *
+ * @author manur
+ * @since v2.9
+ */
+public class SwingInfectionRiskView extends SwingView implements InfectionRiskView {
+
+    private static final Color BACKGROUND = new Color(208, 185, 141);
+    private static final Color TEXT_COLOR = new Color(255, 255, 206);
+    private static final Font TEXT_FONT = new Font("Sanserif", Font.BOLD, 12);
+
+    private JFrame riskFrame = null;
+    private final JSpinner infectionDraws = new JSpinner(new SpinnerNumberModel(2, 1, 9, 1));
+    private final JSpinner playerDraws = new JSpinner(new SpinnerNumberModel(2, 1, 10, 1));
+    private final JLabel epidemicLabel = new JLabel();
+    private final RiskRows riskRows = new RiskRows();
+
+    public SwingInfectionRiskView(BoardController controller, PandemicModel model) {
+        super(controller, model);
+    }
+
+    /**
+     * Create the window, hidden
+     */
+    @Override
+    public void createBoard() {
+        riskFrame = new JFrame("Infection risk");
+
+        JPanel settingsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        settingsPanel.setBackground(BACKGROUND);
+        settingsPanel.add(label("Infection cards :"));
+        settingsPanel.add(infectionDraws);
+        settingsPanel.add(label("Player cards :"));
+        settingsPanel.add(playerDraws);
+
+        ChangeListener refresher = new ChangeListener() {
+            @Override
+            public void stateChanged(ChangeEvent e) {
+                refresh();
+            }
+        };
+        infectionDraws.addChangeListener(refresher);
+        playerDraws.addChangeListener(refresher);
+
+        epidemicLabel.setForeground(TEXT_COLOR);
+        epidemicLabel.setFont(TEXT_FONT);
+        JPanel epidemicPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        epidemicPanel.setBackground(BACKGROUND);
+        epidemicPanel.add(epidemicLabel);
+
+        JPanel topPanel = new JPanel(new BorderLayout());
+        topPanel.add(settingsPanel, BorderLayout.NORTH);
+        topPanel.add(epidemicPanel, BorderLayout.SOUTH);
+
+        JScrollPane scrollPane = new JScrollPane(riskRows);
+        scrollPane.getVerticalScrollBar().setUnitIncrement(RiskRows.ROW_HEIGHT);
+
+        riskFrame.add(topPanel, BorderLayout.NORTH);
+        riskFrame.add(scrollPane, BorderLayout.CENTER);
+
+        riskFrame.setSize(new Dimension(360, 420));
+        riskFrame.setLocation(600, 120);
+        riskFrame.setDefaultCloseOperation(JFrame.HIDE_ON_CLOSE);
+    }
+
+    /**
+     * Display the window, with the current odds
+     */
+    @Override
+    public void showView() {
+        riskFrame.setVisible(true);
+        refresh();
+        riskFrame.toFront();
+    }
+
+    /**
+     * Release the window
+     */
+    @Override
+    public void disposeView() {
+        riskFrame.dispose();
+        riskFrame = null;
+    }
+
+    private void refresh() {
+        if (riskFrame == null || !riskFrame.isVisible()) {
+            return; // done when displayed again
+        }
+        InfectionRisk risk = getModel().getInfectionRisk();
+
+        int nbOfPlayerDraws = (Integer) playerDraws.getValue();
+        epidemicLabel.setText(String.format("Epidemic in the next %d player cards : %.1f %%",
+                nbOfPlayerDraws, 100 * risk.getEpidemicProbability(nbOfPlayerDraws)));
+
+        List<String> names = new ArrayList<String>();
+        List<String> percents = new ArrayList<String>();
+        for (InfectionRisk.Group group : risk.getGroupsAtRisk((Integer) infectionDraws.getValue())) {
+            String percent = String.format("%.1f %%", 100 * group.getProbability());
+            for (int card : group.getCards()) {
+                names.add(SetupRules.isMutationCard(card) ? "MUTATION!" : getModel().getCityList().get(card).getName());
+                percents.add(percent);
+            }
+        }
+        riskRows.setRows(names, percents);
+    }
+
+    private static JLabel label(String text) {
+        JLabel label = new JLabel(text);
+        label.setForeground(TEXT_COLOR);
+        label.setFont(TEXT_FONT);
+        return label;
+    }
+
+    /**
+     * The cities at risk, from the top of the Infection deck, one per row : only the rows in the area
+     *  to repaint are painted
+     */
+    private static final class RiskRows extends JComponent {
+
+        private static final long serialVersionUID = 29L;
+
+        static final int ROW_HEIGHT = 18;
+        private static final int MARGIN = 10;
+        private static final int PERCENT_X = 220;
+
+        private List<String> names = new ArrayList<String>();
+        private List<String> percents = new ArrayList<String>();
+
+        RiskRows() {
+            setOpaque(true);
+            setBackground(BACKGROUND);
+            setFont(TEXT_FONT);
+        }
+
+        void setRows(List<String> names, List<String> percents) {
+            this.names = names;
+            this.percents = percents;
+            revalidate(); // the height follows the number of rows
+            repaint();
+        }
+
+        @Override
+        public Dimension getPreferredSize() {
+            return new Dimension(PERCENT_X + 80, names.size() * ROW_HEIGHT + 2 * MARGIN);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            Rectangle clip = g.getClipBounds();
+            if (clip == null) {
+                clip = new Rectangle(0, 0, getWidth(), getHeight());
+            }
+            g.setColor(getBackground());
+            g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+            int first = Math.max(0, (clip.y - MARGIN) / ROW_HEIGHT);
+            int last = Math.min(names.size() - 1, (clip.y + clip.height - MARGIN) / ROW_HEIGHT);
+            g.setColor(TEXT_COLOR);
+            int ascent = g.getFontMetrics().getAscent();
+            for (int row = first; row <= last; row++) {
+                int y = MARGIN + row * ROW_HEIGHT + ascent;
+                g.drawString(names.get(row), MARGIN, y);
+                g.drawString(percents.get(row), PERCENT_X, y);
+            }
+        }
+    }
+
+    /* **** DecksObserver : refresh after each operation on the decks **** */
+
+    @Override
+    public void playerCardDrawn(Card newCard) {
+        refresh();
+    }
+
+    @Override
+    public void playerCardReturned(Card card) {
+        refresh();
+    }
+
+    @Override
+    public void infectionCardDrawn(boolean isDrawnFromTop) {
+        refresh();
+    }
+
+    @Override
+    public void infectionDeckShuffled() {
+        // The deck is cleared right after : refreshed then
+    }
+
+    @Override
+    public void infectionDeckCleared() {
+        refresh();
+    }
+
+    @Override
+    public void infectionDeckCardRemoved() {
+        refresh();
+    }
+
+    @Override
+    public void infectionDeckRearranged() {
+        refresh();
+    }
+
+    @Override
+    public void decksRestored() {
+        refresh();
+    }
+}
@@ -24,7 +24,6 @@ import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.List;
 
 import javax.swing.ImageIcon;
 import javax.swing.JButton;
@@ -33,6 +32,7 @@ import javax.swing.JLabel;
 import javax.swing.JPanel;
 
 import pandemic.BoardController;
+import pandemic.model.IntDeckView;
 import pandemic.model.PandemicModel;
 import pandemic.view.TroubleshooterView;
 
@@ -45,9 +45,12 @@ import pandemic.view.TroubleshooterView;
  */
 public class SwingTroubleshooterView extends SwingView implements TroubleshooterView {
 	
+	private static final int MAX_NB_OF_CARDS = 4;
+	
 	JFrame troubleshooterFrame = null;
 	
-	private FlippableCard[] infectionCards;
+	private FlippableCard[] infectionCards = new FlippableCard[MAX_NB_OF_CARDS];
+	private int nbOfCards;
 	private int flipCount;
 	
 	/**
@@ -61,47 +64,27 @@ public class SwingTroubleshooterView extends SwingView implements Troubleshooter
 	}
 	
 	/**
-	 * Create the graphical window displaying the first 4 cards of the Infection deck, face down
+	 * Create the graphical window displaying the first 4 cards of the Infection deck, face down.
+	 * The window is created hidden with empty slots for the cards, and kept between two uses.
 	 */
 	@Override
 	public void createBoard() {
 		troubleshooterFrame = new JFrame("Troubleshooter...");
 		
-		List<Integer> infectionDeck = getModel().getInfectionDeck();
-
-		final int nbOfCards = Math.min(infectionDeck.size(), 4); // final is necessary to use the variable inside the doneButton listener
-
 		// Panel to hold the components
 		JPanel cardsPanel = new JPanel();
 		cardsPanel.setBackground(new Color(208, 185, 141));
 		cardsPanel.setLayout(null);
 		
-		StringBuilder sb = new StringBuilder("Troubleshooter capability used. Next " + nbOfCards + " cards displayed: ");
-		
-		// Display the cards, face down, and add them to the panel
-		infectionCards = new FlippableCard[nbOfCards];
+		// Slots of the cards, added to the panel
 		ImageIcon cardBackImage = getResourceProvider().getIcon("cardinf300.jpg");
-		for (int cardIndex=0; cardIndex < nbOfCards; cardIndex++) {
-			
-			sb.append(infectionDeck.get(cardIndex));
-			if (infectionDeck.get(cardIndex) == 100 || infectionDeck.get(cardIndex) == 101) {
-				sb.append(" MUTATION! ");
-			} else {
-				sb.append(" ");
-				sb.append(getModel().getCityList().get(infectionDeck.get(cardIndex)).getName());
-				sb.append(" ");
-			}
-			
-			ImageIcon cardFrontImage = getResourceProvider().getIcon("cardinf" + infectionDeck.get(cardIndex) + ".jpg");
-			infectionCards[cardIndex] = new FlippableCard(cardBackImage, cardFrontImage);
-			infectionCards[cardIndex].placeFaceDown(10 + cardIndex*102, 10, 100, 70);
+		for (int cardIndex=0; cardIndex < MAX_NB_OF_CARDS; cardIndex++) {
+			infectionCards[cardIndex] = new FlippableCard(cardBackImage);
+			infectionCards[cardIndex].place(10 + cardIndex*102, 10, 100, 70);
 			cardsPanel.add(infectionCards[cardIndex].getSwingComponent());
 		}
-		logger.info(sb.toString());
-		
-		// Set the count of cards flipped to zero
-		flipCount = 0;
 		
+
 		// Instructions
 		JLabel troubleshooterInstruction1 = new JLabel("Flip the number of cards equal to the");
 		troubleshooterInstruction1.setForeground(new Color(255, 255, 206));
@@ -133,8 +116,52 @@ public class SwingTroubleshooterView extends SwingView implements Troubleshooter
 		
 		troubleshooterFrame.setSize(new Dimension(435, 165));
 		troubleshooterFrame.setLocation(167, 290);
+		troubleshooterFrame.setDefaultCloseOperation(JFrame.HIDE_ON_CLOSE);
+	}
+	
+	/**
+	 * Display the window, with the current first cards of the Infection deck in the slots, face down
+	 */
+	@Override
+	public void showView() {
+		IntDeckView infectionDeck = getModel().getSnapshot().getInfectionDeck();
+		nbOfCards = Math.min(infectionDeck.size(), MAX_NB_OF_CARDS);
+		
+		StringBuilder sb = new StringBuilder("Troubleshooter capability used. Next " + nbOfCards + " cards displayed: ");
+		
+		for (int cardIndex=0; cardIndex < MAX_NB_OF_CARDS; cardIndex++) {
+			if (cardIndex >= nbOfCards) {
+				infectionCards[cardIndex].clear();
+				continue;
+			}
+			
+			sb.append(infectionDeck.get(cardIndex));
+			if (infectionDeck.get(cardIndex) == 100 || infectionDeck.get(cardIndex) == 101) {
+				sb.append(" MUTATION! ");
+			} else {
+				sb.append(" ");
+				sb.append(getModel().getCityList().get(infectionDeck.get(cardIndex)).getName());
+				sb.append(" ");
+			}
+			
+			infectionCards[cardIndex].dealFaceDown(getResourceProvider().getIcon("cardinf" + infectionDeck.get(cardIndex) + ".jpg"));
+		}
+		logger.info(sb.toString());
+		
+		// Set the count of cards flipped to zero
+		flipCount = 0;
+		
 		troubleshooterFrame.setVisible(true);
-		troubleshooterFrame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);		
+		troubleshooterFrame.toFront();
+	}
+	
+	/**
+	 * Release the window
+	 */
+	@Override
+	public void disposeView() {
+		troubleshooterFrame.dispose();
+		troubleshooterFrame = null;
 	}
 	
 	/**
@@ -142,7 +169,7 @@ public class SwingTroubleshooterView extends SwingView implements Troubleshooter
 	 */
 	public void flipNextCard() {
 		// If all available cards have already been flipped, do nothing
-		if (flipCount >= infectionCards.length) {
+		if (flipCount >= nbOfCards) {
 			return;
 		}
 		infectionCards[flipCount++].flip();
@@ -150,6 +177,7 @@ public class SwingTroubleshooterView extends SwingView implements Troubleshooter
 	
 	/**
 	 * Private class to hold both sides of an infection card, and to provide a "flip" functionality.
+	 * A slot of the window : a new card is dealt in it each time the window is displayed.
 	 * This class should probably be part of the model, though.
 	 *  
 	 * @author manur
@@ -159,14 +187,26 @@ public class SwingTroubleshooterView extends SwingView implements Troubleshooter
 		private ImageIcon faceDown;
 		private ImageIcon faceUp;
 		
-		public FlippableCard(ImageIcon faceDown, ImageIcon faceUp) {
+		public FlippableCard(ImageIcon faceDown) {
 			this.faceDown = faceDown;
-			this.faceUp = faceUp;
 		}
 		
-		public void placeFaceDown(int x, int y, int width, int height) {
-			swingComponent = new JLabel(faceDown);
+		public void place(int x, int y, int width, int height) {
+			swingComponent = new JLabel();
 			swingComponent.setBounds(x, y, width, height);
+			swingComponent.setVisible(false);
+		}
+		
+		public void dealFaceDown(ImageIcon faceUp) {
+			this.faceUp = faceUp;
+			swingComponent.setIcon(faceDown);
+			swingComponent.setVisible(true);
+		}
+		
+		public void clear() {
+			faceUp = null;
+			swingComponent.setIcon(null);
+			swingComponent.setVisible(false);
 		}
 		
 		public void flip() {
@@ -8,6 +8,7 @@ import pandemic.util.ResourceProvider;
 import pandemic.view.BoardView;
 import pandemic.view.DiscardPileView;
 import pandemic.view.ForecastView;
+import pandemic.view.InfectionRiskView;
 import pandemic.view.TroubleshooterView;
 import pandemic.view.ViewFactory;
 
@@ -17,6 +18,8 @@ public class SwingViewFactory implements ViewFactory {
     
     private ResourceProvider resourceProvider;
 
+    private boolean paintedBoard = false;
+
     public SwingViewFactory(JScrollPane container) {
         this.container = container;
     }
@@ -25,6 +28,7 @@ public class SwingViewFactory implements ViewFactory {
     public BoardView createBoardView(BoardController controller, PandemicModel model) {
         SwingBoardView boardView = new SwingBoardView(container, controller, model);
         boardView.setResourceProvider(resourceProvider);
+        boardView.setPaintedBoard(paintedBoard);
         return boardView;
     }
 
@@ -49,12 +53,26 @@ public class SwingViewFactory implements ViewFactory {
         return troubleshooterView;
     }
 
+    @Override
+    public InfectionRiskView createInfectionRiskView(BoardController controller, PandemicModel model) {
+        SwingInfectionRiskView infectionRiskView = new SwingInfectionRiskView(controller, model);
+        infectionRiskView.setResourceProvider(resourceProvider);
+        return infectionRiskView;
+    }
+
     /*@Override
     public NewAssignmentView createNewAssignmentView(BoardController listener, PandemicModel model) {
         SwingNewAssignmentView newAssignmentView = new SwingNewAssignmentView(listener, model);
         return newAssignmentView;
     }*/
 
+    /**
+     * @param paintedBoard true for the board to paint the game components itself, instead of a JLabel each
+     */
+    public void setPaintedBoard(boolean paintedBoard) {
+        this.paintedBoard = paintedBoard;
+    }
+
     @Override
     public void setResourceProvider(ResourceProvider resourceProvider) {
         this.resourceProvider = resourceProvider;
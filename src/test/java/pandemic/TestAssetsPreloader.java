@@ -0,0 +1,48 @@
+/**
+ * Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ * <p>
+ * This file is part of PandemicSolo.
+ * <p>
+ * PandemicSolo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * PandemicSolo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic;
+
+import org.junit.Test;
+import pandemic.util.AssetsPreloader;
+import pandemic.util.GenericResourceProvider;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author manur
+ * @since v2.9
+ */
+public class TestAssetsPreloader {
+
+    @Test
+    public void testPreloadAllAssets() throws InterruptedException {
+        GenericResourceProvider provider = new GenericResourceProvider();
+        AssetsPreloader preloader = new AssetsPreloader(provider, 4);
+
+        preloader.start();
+
+        assertTrue(preloader.awaitReady(60, TimeUnit.SECONDS));
+        assertTrue(preloader.isReady());
+        assertEquals(provider.listImages().size() + provider.listSounds().size(), preloader.getNbOfAssets());
+        assertEquals(preloader.getNbOfAssets(), preloader.getNbOfLoadedAssets());
+        assertNotNull(GenericResourceProvider.getImageCache().get("startingboard.jpg"));
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ * <p>
+ * This file is part of PandemicSolo.
+ * <p>
+ * PandemicSolo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * PandemicSolo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import pandemic.model.DifficultyLevel;
+import pandemic.model.Expansion;
+import pandemic.model.PandemicModel;
+import pandemic.model.SavedGameFormat;
+import pandemic.util.GameConfig;
+import pandemic.util.GenericResourceProvider;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author manur
+ * @since v2.9
+ */
+public class TestAutosaver {
+
+    private final GenericResourceProvider resourceProvider = new GenericResourceProvider();
+
+    private File file;
+    private PandemicModel model;
+    private Autosaver autosaver;
+
+    @Before
+    public void setUp() throws IOException {
+        GameConfig config = new GameConfig();
+        config.setDifficultyLevel(DifficultyLevel.NORMAL);
+        config.setNbOfRoles(4);
+        config.getRolesExpansions().add(Expansion.CORE);
+
+        model = new PandemicModel(config);
+        model.initialize(resourceProvider);
+
+        file = File.createTempFile("autosave", "." + GameManager.SAVEFILE_EXTENSION);
+        file.delete();
+        autosaver = new Autosaver(file, Autosaver.DEFAULT_PERIOD_MS);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        autosaver.shutdown(1, TimeUnit.SECONDS);
+        file.delete();
+    }
+
+    @Test
+    public void testSavedAfterEachOperation() throws Exception {
+        autosaver.startGame(model);
+        for (int i = 0; i < 20; i++) {
+            model.drawInfectionCard();
+        }
+        model.reshuffleInfectionCards();
+        model.drawPlayerCard();
+        assertTrue(autosaver.shutdown(5, TimeUnit.SECONDS));
+
+        assertEquals(23, autosaver.getNbOfSnapshots()); // the start, 20 draws, the reshuffle, the player card
+        assertTrue(autosaver.getNbOfWrites() >= 1);
+        assertTrue(autosaver.getNbOfWrites() <= autosaver.getNbOfSnapshots());
+
+        // The last snapshot is always written
+        PandemicModel saved = load();
+        assertEquals(model.getInfectionDeck(), saved.getInfectionDeck());
+        assertEquals(model.getNbOfPlayerCards(), saved.getNbOfPlayerCards());
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+    }
+
+    @Test
+    public void testUnchangedGameIsNotWrittenAgain() throws Exception {
+        autosaver.startGame(model);
+        autosaver.save();
+        autosaver.save();
+        assertTrue(autosaver.shutdown(5, TimeUnit.SECONDS));
+
+        assertEquals(3, autosaver.getNbOfSnapshots());
+        assertEquals(1, autosaver.getNbOfWrites());
+    }
+
+    @Test
+    public void testNoGameNoSave() throws Exception {
+        autosaver.save();
+        assertTrue(autosaver.shutdown(5, TimeUnit.SECONDS));
+
+        assertEquals(0, autosaver.getNbOfSnapshots());
+        assertFalse(file.exists());
+    }
+
+    private PandemicModel load() throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            return SavedGameFormat.read(raf.getChannel(), resourceProvider);
+        } finally {
+            raf.close();
+        }
+    }
+}
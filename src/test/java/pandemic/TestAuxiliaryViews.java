@@ -0,0 +1,125 @@
+/**
+ * Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ * <p>
+ * This file is part of PandemicSolo.
+ * <p>
+ * PandemicSolo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * PandemicSolo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import pandemic.model.IntDeckView;
+import pandemic.model.PandemicModel;
+import pandemic.util.sounds.SoundsManager;
+import pandemic.view.DiscardPileView;
+import pandemic.view.ForecastView;
+import pandemic.view.TroubleshooterView;
+import pandemic.view.ViewFactory;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * @author manur
+ * @since v2.9
+ */
+public class TestAuxiliaryViews {
+
+    private PandemicModel model;
+    private ViewFactory viewFactory;
+    private DefaultBoardController controller;
+
+    private DiscardPileView discardView;
+    private ForecastView forecastView;
+    private TroubleshooterView troubleshooterView;
+
+    @Before
+    public void setUp() {
+        model = mock(PandemicModel.class);
+        discardView = mock(DiscardPileView.class);
+        forecastView = mock(ForecastView.class);
+        troubleshooterView = mock(TroubleshooterView.class);
+
+        viewFactory = mock(ViewFactory.class);
+        controller = new DefaultBoardController(model);
+        when(viewFactory.createDiscardPileView(controller, model)).thenReturn(discardView);
+        when(viewFactory.createForecastView(controller, model)).thenReturn(forecastView);
+        when(viewFactory.createTroubleshooterView(controller, model)).thenReturn(troubleshooterView);
+
+        controller.setViewFactory(viewFactory);
+        controller.setSoundsManager(mock(SoundsManager.class));
+    }
+
+    @Test
+    public void testDiscardPileCreatedOnceAndShownEachTime() {
+        IntDeckView discardPile = mock(IntDeckView.class);
+        when(discardPile.size()).thenReturn(5);
+        when(model.getDiscardPile()).thenReturn(discardPile);
+        when(model.removeDiscardedCard(2)).thenReturn(true);
+
+        controller.showDiscardPile();
+        controller.removeDiscardedCard(2);
+        controller.showDiscardPile();
+
+        verify(viewFactory, times(1)).createDiscardPileView(controller, model);
+        verify(discardView, times(1)).createBoard();
+        verify(discardView, times(2)).showView();
+        verify(discardView).closeView();
+        verify(discardView, never()).disposeView();
+    }
+
+    @Test
+    public void testForecastCreatedOnceAndShownEachTime() {
+        controller.showForecastCards();
+        controller.rearrangeInfectionDeck(Arrays.asList(1, 0));
+        controller.showForecastCards();
+
+        verify(viewFactory, times(1)).createForecastView(controller, model);
+        verify(forecastView, times(1)).createBoard();
+        verify(forecastView, times(2)).showView();
+        verify(forecastView).closeView();
+    }
+
+    @Test
+    public void testTroubleshooterCreatedOnceAndShownEachTime() {
+        controller.showTroubleshooterCards();
+        controller.flipNextCard();
+        controller.showTroubleshooterCards();
+
+        verify(viewFactory, times(1)).createTroubleshooterView(controller, model);
+        verify(troubleshooterView, times(1)).createBoard();
+        verify(troubleshooterView, times(2)).showView();
+        verify(troubleshooterView).flipNextCard();
+    }
+
+    @Test
+    public void testViewsDisposedAtTearDown() {
+        controller.showDiscardPile();
+        controller.showForecastCards();
+
+        controller.tearDownView();
+        controller.tearDownView();
+
+        verify(discardView, times(1)).disposeView();
+        verify(forecastView, times(1)).disposeView();
+        verify(troubleshooterView, never()).disposeView();
+
+        // A new game would get new views
+        controller.showDiscardPile();
+        verify(viewFactory, times(2)).createDiscardPileView(controller, model);
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ * <p>
+ * This file is part of PandemicSolo.
+ * <p>
+ * PandemicSolo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * PandemicSolo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic;
+
+import java.awt.image.BufferedImage;
+
+import javax.swing.ImageIcon;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import pandemic.model.BoardZone;
+import pandemic.model.objects.PandemicObject;
+import pandemic.view.swing.BoardCanvas;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author manur
+ * @since v2.9
+ */
+public class TestBoardCanvas {
+
+    private BoardController controller;
+    private BoardCanvas canvas;
+
+    private PandemicObject cube;
+    private PandemicObject card;
+
+    @Before
+    public void setUp() {
+        controller = mock(BoardController.class);
+        canvas = new BoardCanvas(1000, 920, controller);
+
+        cube = createObject(PandemicObject.Type.CUBE, 100, 100, 13, 13);
+        card = createObject(PandemicObject.Type.PLAYER_CITY_CARD, 90, 90, 100, 71);
+        canvas.addObject(cube); // the first added is on top
+        canvas.addObject(card);
+    }
+
+    private static PandemicObject createObject(PandemicObject.Type type, int x, int y, int width, int height) {
+        ImageIcon icon = new ImageIcon(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB));
+        return new PandemicObject(type, type.name(), icon, x, y, BoardZone.BOARD);
+    }
+
+    @Test
+    public void testObjectAt() {
+        assertSame(cube, canvas.objectAt(105, 105));
+        assertSame(card, canvas.objectAt(150, 150));
+        assertNull(canvas.objectAt(500, 500));
+        assertFalse(canvas.contains(500, 500)); // the clicks go through to the board
+    }
+
+    @Test
+    public void testBringToFront() {
+        canvas.bringToFront(card);
+        assertSame(card, canvas.objectAt(105, 105));
+    }
+
+    @Test
+    public void testMove() {
+        cube.move(400, 300);
+
+        assertSame(canvas, cube.getSwingComponent());
+        assertSame(card, canvas.objectAt(105, 105));
+        assertSame(cube, canvas.objectAt(405, 305));
+    }
+
+    @Test
+    public void testObjectOutOfTheCanvas() {
+        PandemicObject deckCard = createObject(PandemicObject.Type.PLAYER_CITY_CARD, 3000, 3000, 100, 71);
+        canvas.addObject(deckCard);
+        assertNull(canvas.objectAt(3010, 3010));
+
+        deckCard.move(648, 418);
+        assertSame(deckCard, canvas.objectAt(650, 420));
+    }
+}
@@ -20,10 +20,9 @@ package pandemic;
 
 import org.junit.Before;
 import org.junit.Test;
+import pandemic.model.IntDeck;
 import pandemic.model.PandemicModel;
 
-import java.util.Arrays;
-
 import static org.mockito.Mockito.*;
 
 
@@ -67,7 +66,10 @@ public class TestBoardController {
 	@Test
 	public void testRemoveDiscardedCardWrongIndex()
 	{
-		when(mockModel.getDiscardPile()).thenReturn(Arrays.asList(1, 2));
+		IntDeck discardPile = new IntDeck(2);
+		discardPile.addBottom(1);
+		discardPile.addBottom(2);
+		when(mockModel.getDiscardPile()).thenReturn(discardPile);
 		
 		controller.removeDiscardedCard(5);
 		
@@ -0,0 +1,120 @@
+/**
+ * Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ * <p>
+ * This file is part of PandemicSolo.
+ * <p>
+ * PandemicSolo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * PandemicSolo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic;
+
+import java.awt.Rectangle;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.swing.ImageIcon;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import pandemic.model.BoardZone;
+import pandemic.model.objects.PandemicObject;
+import pandemic.view.swing.BoardIndex;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author manur
+ * @since v2.9
+ */
+public class TestBoardIndex {
+
+    private final Map<PandemicObject, Integer> depths = new HashMap<PandemicObject, Integer>();
+    private JPanel board; // the parent within which the components are dragged
+    private BoardIndex index;
+
+    private PandemicObject station; // overlapped by the pawn
+    private PandemicObject pawn;
+    private PandemicObject marker; // apart
+
+    @Before
+    public void setUp() {
+        board = new JPanel(null);
+        board.setSize(1000, 920);
+        index = new BoardIndex(1000, 920, new Comparator<PandemicObject>() {
+            @Override
+            public int compare(PandemicObject o1, PandemicObject o2) {
+                return depths.get(o1) - depths.get(o2);
+            }
+        });
+
+        station = createObject(PandemicObject.Type.RESEARCH_STATION, 0, 0, 50, 50, 1);
+        pawn = createObject(PandemicObject.Type.PAWN, 40, 40, 50, 50, 2);
+        marker = createObject(PandemicObject.Type.OUTBREAKS_MARKER, 200, 200, 20, 20, 0);
+    }
+
+    private PandemicObject createObject(PandemicObject.Type type, int x, int y, int width, int height, int depth) {
+        ImageIcon icon = new ImageIcon(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB));
+        PandemicObject object = new PandemicObject(type, type.name(), icon, x, y, BoardZone.BOARD);
+        JLabel component = new JLabel(icon);
+        component.setBounds(x, y, width, height);
+        object.setSwingComponent(component);
+        board.add(component);
+        depths.put(object, depth);
+        index.add(object);
+        return object;
+    }
+
+    @Test
+    public void testObjectsInArea() {
+        assertEquals(Arrays.asList(station, pawn), index.objectsIn(new Rectangle(30, 30, 20, 20)));
+        assertEquals(Arrays.asList(marker, station, pawn), index.objectsIn(new Rectangle(0, 0, 1000, 920)));
+        assertEquals(Arrays.asList(marker), index.objectsIn(new Rectangle(215, 215, 50, 50)));
+        assertEquals(Collections.<PandemicObject>emptyList(), index.objectsIn(new Rectangle(100, 0, 90, 190)));
+    }
+
+    @Test
+    public void testBottomToTop() {
+        assertEquals(Arrays.asList(station, pawn), index.objectsAt(45, 45));
+        assertSame(pawn, index.objectAt(45, 45));
+
+        // The order is the one of the depths when queried
+        depths.put(station, 3);
+        assertEquals(Arrays.asList(pawn, station), index.objectsAt(45, 45));
+        assertSame(station, index.objectAt(45, 45));
+    }
+
+    @Test
+    public void testFollowsDrags() {
+        JLabel component = (JLabel) marker.getSwingComponent();
+        marker.mousePressed(new MouseEvent(component, MouseEvent.MOUSE_PRESSED, 0, 0, 5, 5, 1, false));
+        marker.mouseDragged(new MouseEvent(component, MouseEvent.MOUSE_DRAGGED, 0, 0, 105, 5, 0, false));
+        marker.mouseDragged(new MouseEvent(component, MouseEvent.MOUSE_DRAGGED, 0, 0, 5, 105, 0, false));
+
+        assertEquals(new Rectangle(300, 300, 20, 20), index.getBounds(marker));
+        assertEquals(Collections.<PandemicObject>emptyList(), index.objectsIn(new Rectangle(200, 200, 20, 20)));
+        assertEquals(Arrays.asList(marker), index.objectsIn(new Rectangle(290, 290, 20, 20)));
+
+        // Dragged under the pawn
+        marker.mouseDragged(new MouseEvent(component, MouseEvent.MOUSE_DRAGGED, 0, 0, -245, -245, 0, false));
+        assertEquals(new Rectangle(50, 50, 20, 20), index.getBounds(marker));
+        assertEquals(Arrays.asList(marker, pawn), index.objectsAt(60, 60));
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ * <p>
+ * This file is part of PandemicSolo.
+ * <p>
+ * PandemicSolo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * PandemicSolo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic;
+
+import org.junit.Test;
+import pandemic.model.ComponentsLayout;
+import pandemic.util.GenericResourceProvider;
+
+import java.util.ResourceBundle;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author manur
+ * @since v2.9
+ */
+public class TestComponentsLayout {
+
+    @Test
+    public void testEntry() {
+        MockBundle mb = new MockBundle("city.35", "362;97;\"Paris\";BLUE");
+        mb.addKV("specialEvent.50", "Forecast");
+
+        ComponentsLayout layout = ComponentsLayout.of(mb);
+
+        ComponentsLayout.Entry paris = layout.get("city.35");
+        assertEquals(362, paris.getX());
+        assertEquals(97, paris.getY());
+        assertEquals("Paris", paris.getValue(2));
+        assertEquals("BLUE", paris.getValue(3));
+        assertEquals("", paris.getValue(4));
+
+        assertEquals("Forecast", layout.getValue("specialEvent.50", 0));
+        try {
+            layout.getX("specialEvent.50");
+            fail();
+        } catch (NumberFormatException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testParsedOncePerBundle() {
+        ResourceBundle bundle = new GenericResourceProvider().getBundle("componentsCoordinates");
+
+        ComponentsLayout layout = ComponentsLayout.of(bundle);
+
+        assertSame(layout, ComponentsLayout.of(bundle));
+        assertSame(layout.get("city.2"), layout.get("city.2"));
+        assertEquals("Atlanta", layout.getValue("city.2", 2));
+        assertEquals("", layout.getValue("no.such.key", 0));
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ * <p>
+ * This file is part of PandemicSolo.
+ * <p>
+ * PandemicSolo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * PandemicSolo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic;
+
+import org.junit.Test;
+import pandemic.model.BoardZone;
+import pandemic.model.CubeReserve;
+import pandemic.model.Disease;
+import pandemic.model.objects.Cube;
+import pandemic.model.objects.PandemicObject;
+
+import javax.swing.ImageIcon;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+import static pandemic.model.Disease.*;
+
+/**
+ * @author manur
+ * @since v2.9
+ */
+public class TestCubeReserve {
+
+    private static Cube cube(Disease color, BoardZone zone) {
+        return new Cube(color.ordinal(), new ImageIcon(), 0, 0, color, zone);
+    }
+
+    @Test
+    public void testTakeTheLastCubeOfTheColor() {
+        Cube blue1 = cube(BLUE, BoardZone.RESERVE);
+        Cube red = cube(RED, BoardZone.RESERVE);
+        Cube blue2 = cube(BLUE, BoardZone.RESERVE);
+        Cube blueOnBoard = cube(BLUE, BoardZone.BOARD);
+        CubeReserve reserve = new CubeReserve(Arrays.<PandemicObject>asList(blue1, red, blue2, blueOnBoard));
+
+        assertEquals(2, reserve.getNbOfCubes(BLUE));
+        assertSame(blue2, reserve.take(BLUE));
+        assertEquals(BoardZone.BOARD, blue2.getBoardZone());
+        assertSame(blue1, reserve.take(BLUE));
+        assertEquals(0, reserve.getNbOfCubes(BLUE));
+        assertEquals(1, reserve.getNbOfCubes(RED));
+    }
+
+    @Test
+    public void testGiveBack() {
+        Cube yellow = cube(YELLOW, BoardZone.BOARD);
+        CubeReserve reserve = new CubeReserve(Arrays.<PandemicObject>asList(yellow));
+        assertEquals(0, reserve.getNbOfCubes(YELLOW));
+
+        reserve.giveBack(yellow);
+
+        assertEquals(BoardZone.RESERVE, yellow.getBoardZone());
+        assertSame(yellow, reserve.take(YELLOW));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTakeFromAnEmptyReserve() {
+        new CubeReserve(Arrays.<PandemicObject>asList()).take(BLACK);
+    }
+}
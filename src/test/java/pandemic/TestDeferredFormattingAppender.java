@@ -0,0 +1,83 @@
+/**
+ * Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ * <p>
+ * This file is part of PandemicSolo.
+ * <p>
+ * PandemicSolo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * PandemicSolo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import pandemic.util.DeferredFormattingAppender;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author manur
+ * @since v2.9
+ */
+public class TestDeferredFormattingAppender {
+
+    @Test
+    public void testFormattedByTheWorker() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        // Formats the events it writes, like the file appender
+        final List<String> written = new ArrayList<String>();
+        AppenderBase<ILoggingEvent> writer = new AppenderBase<ILoggingEvent>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                written.add(event.getFormattedMessage());
+            }
+        };
+        writer.setContext(context);
+        writer.start();
+        DeferredFormattingAppender appender = new DeferredFormattingAppender();
+        appender.setContext(context);
+        appender.addAppender(writer);
+        appender.start();
+
+        Logger logger = context.getLogger("pandemic.test.deferred");
+        logger.setAdditive(false);
+        logger.setLevel(Level.INFO);
+        logger.addAppender(appender);
+        final Thread[] formattingThread = new Thread[1];
+        try {
+            logger.info("{}", new Object() {
+                @Override
+                public String toString() {
+                    formattingThread[0] = Thread.currentThread();
+                    return "formatted";
+                }
+            });
+        } finally {
+            logger.detachAppender(appender);
+            appender.stop(); // writes the events still queued
+        }
+
+        assertEquals(Arrays.asList("formatted"), written);
+        assertNotNull(formattingThread[0]);
+        assertNotSame(Thread.currentThread(), formattingThread[0]);
+    }
+}
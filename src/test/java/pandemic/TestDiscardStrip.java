@@ -0,0 +1,89 @@
+/**
+ * Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ * <p>
+ * This file is part of PandemicSolo.
+ * <p>
+ * PandemicSolo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * PandemicSolo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import javax.swing.ImageIcon;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import pandemic.model.IntDeck;
+import pandemic.util.ResourceProvider;
+import pandemic.view.swing.DiscardStrip;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author manur
+ * @since v2.9
+ */
+public class TestDiscardStrip {
+
+    private ResourceProvider resourceProvider;
+    private IntDeck discardPile;
+    private DiscardStrip strip;
+
+    @Before
+    public void setUp() {
+        resourceProvider = mock(ResourceProvider.class);
+        when(resourceProvider.getIcon(anyString())).thenReturn(new ImageIcon(new BufferedImage(100, 70, BufferedImage.TYPE_INT_RGB)));
+
+        discardPile = new IntDeck(64);
+        for (int card = 1; card <= 40; card++) {
+            discardPile.addBottom(card);
+        }
+        strip = new DiscardStrip(discardPile, resourceProvider);
+        strip.setSize(strip.getPreferredSize());
+    }
+
+    @Test
+    public void testSize() {
+        assertEquals(40 * 102 + 50, strip.getPreferredSize().width);
+
+        discardPile.removeAt(0);
+        assertEquals(39 * 102 + 50, strip.getPreferredSize().width);
+    }
+
+    @Test
+    public void testOnlyVisibleCardsArePainted() {
+        BufferedImage image = new BufferedImage(strip.getWidth(), strip.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setClip(10 + 102 * 3, 0, 300, 250); // from the 4th card to the 6th one
+        strip.paint(g);
+        g.dispose();
+
+        verify(resourceProvider).getIcon("cardinf4.jpg");
+        verify(resourceProvider).getIcon("cardinf5.jpg");
+        verify(resourceProvider).getIcon("cardinf6.jpg");
+        verifyNoMoreInteractions(resourceProvider);
+    }
+
+    @Test
+    public void testCardIndexAt() {
+        assertEquals(0, strip.cardIndexAt(15, 20));
+        assertEquals(2, strip.cardIndexAt(10 + 102 * 2 + 50, 90)); // on its number
+        assertEquals(-1, strip.cardIndexAt(10 + 101, 20)); // between two cards
+        assertEquals(-1, strip.cardIndexAt(15, 200));
+        assertEquals(-1, strip.cardIndexAt(10 + 102 * 40 + 5, 20));
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ * <p>
+ * This file is part of PandemicSolo.
+ * <p>
+ * PandemicSolo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * PandemicSolo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic;
+
+import java.awt.Dimension;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.ImageIcon;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import pandemic.model.BoardZone;
+import pandemic.model.objects.PandemicObject;
+import pandemic.util.FrameThrottle;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author manur
+ * @since v2.9
+ */
+public class TestFrameThrottle {
+
+    private FrameThrottle throttle;
+    private final List<Integer> runs = new ArrayList<Integer>();
+
+    @Before
+    public void setUp() {
+        throttle = new FrameThrottle(10000); // no frame ends during the test
+    }
+
+    private Runnable update(final int value) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                runs.add(value);
+            }
+        };
+    }
+
+    @Test
+    public void testLatestUpdatePerFrame() {
+        throttle.submit(update(1)); // first frame : right away
+        throttle.submit(update(2));
+        throttle.submit(update(3));
+
+        assertEquals(1, runs.size());
+        assertTrue(throttle.isPending());
+
+        throttle.flush("test");
+        assertEquals(2, runs.size());
+        assertEquals(Integer.valueOf(3), runs.get(1)); // 2 was replaced by 3
+        assertFalse(throttle.isPending());
+    }
+
+    @Test
+    public void testThrottledDrag() {
+        PandemicObject object = new PandemicObject(PandemicObject.Type.CUBE, "cube", new ImageIcon(), 100, 100, BoardZone.BOARD);
+        JLabel component = new JLabel("Test");
+        component.setLocation(100, 100);
+        object.setSwingComponent(component);
+        object.setDragThrottle(throttle);
+        JPanel board = new JPanel();
+        board.setSize(new Dimension(1000, 920));
+        board.add(component);
+
+        object.mousePressed(new MouseEvent(component, MouseEvent.MOUSE_PRESSED, 0, 0, 10, 10, 1, false));
+        object.mouseDragged(new MouseEvent(component, MouseEvent.MOUSE_DRAGGED, 0, 0, 20, 10, 0, false));
+        object.mouseDragged(new MouseEvent(component, MouseEvent.MOUSE_DRAGGED, 0, 0, 30, 15, 0, false)); // relative to (110, 100)
+
+        // The object is where the mouse is, its component follows at the next frame
+        assertEquals(130, object.getX());
+        assertEquals(105, object.getY());
+        assertEquals(110, component.getX());
+
+        object.mouseReleased(new MouseEvent(component, MouseEvent.MOUSE_RELEASED, 0, 0, 30, 15, 1, false));
+        assertEquals(130, component.getX());
+        assertEquals(105, component.getY());
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ * <p>
+ * This file is part of PandemicSolo.
+ * <p>
+ * PandemicSolo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * PandemicSolo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic;
+
+import org.junit.Before;
+import org.junit.Test;
+import pandemic.model.DifficultyLevel;
+import pandemic.model.Disease;
+import pandemic.model.Expansion;
+import pandemic.model.GameCatalog;
+import pandemic.model.GameEngine;
+import pandemic.model.Variant;
+import pandemic.simulation.HeadlessSimulation;
+import pandemic.util.GameConfig;
+import pandemic.util.RandomUtil;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author manur
+ * @since v2.9
+ */
+public class TestGameEngine {
+
+    private static GameCatalog catalog = HeadlessSimulation.createCatalog();
+
+    private GameConfig config;
+
+    @Before
+    public void setUp() {
+        config = new GameConfig();
+        config.setDifficultyLevel(DifficultyLevel.NORMAL);
+        config.setNbOfRoles(4);
+        config.getRolesExpansions().add(Expansion.CORE);
+    }
+
+    @Test
+    public void testSetUp() {
+        GameEngine engine = new GameEngine(config, catalog, new RandomUtil());
+        engine.setUp();
+
+        assertEquals(4, engine.getAffectedRoles().size());
+        assertEquals(4, engine.getStartingHands().length);
+        assertEquals(2, engine.getStartingHands()[0].length);
+        // 48 cities - 8 dealt cards + 5 epidemics (no event cards expansion)
+        assertEquals(45, engine.getPlayerDeck().size());
+        assertEquals(48 - 9, engine.getInfectionDeck().size());
+        assertEquals(9, engine.getDiscardPile().size());
+        assertEquals(9, engine.getInitialInfections().size());
+
+        int cubesOnBoard = 0;
+        for (Disease disease : config.getDiseases()) {
+            cubesOnBoard += 24 - engine.getCubesInReserve(disease);
+        }
+        assertEquals(18, cubesOnBoard);
+    }
+
+    @Test
+    public void testWorldwidePanicMutationCardsCannotBeRemoved() {
+        config.getVariants().add(Variant.WORLDWIDE_PANIC);
+        GameEngine engine = new GameEngine(config, catalog, new RandomUtil());
+        engine.setUp();
+
+        assertEquals(111, engine.getDiscardPile().get(0));
+        assertFalse(engine.removeDiscardedCard(0));
+        assertTrue(engine.removeDiscardedCard(2));
+        assertEquals(10, engine.getDiscardPile().size());
+    }
+
+    @Test
+    public void testPlayOut() {
+        GameEngine engine = new GameEngine(config, catalog, new RandomUtil());
+        engine.setUp();
+
+        int nbOfTurns = HeadlessSimulation.playOut(engine);
+
+        assertEquals(45 / 2, nbOfTurns);
+        assertTrue(engine.getPlayerDeck().size() < 2);
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ * <p>
+ * This file is part of PandemicSolo.
+ * <p>
+ * PandemicSolo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * PandemicSolo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic;
+
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import pandemic.model.DifficultyLevel;
+import pandemic.model.Expansion;
+import pandemic.model.GameEventLog;
+import pandemic.model.PandemicModel;
+import pandemic.util.GameConfig;
+import pandemic.util.GenericResourceProvider;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author manur
+ * @since v2.9
+ */
+public class TestGameEventLog {
+
+    private PandemicModel model;
+    private Logger eventsLogger;
+    private Level previousLevel;
+    private ListAppender<ILoggingEvent> appender;
+
+    @Before
+    public void setUp() {
+        GameConfig config = new GameConfig();
+        config.setDifficultyLevel(DifficultyLevel.NORMAL);
+        config.setNbOfRoles(3);
+        config.getRolesExpansions().add(Expansion.CORE);
+
+        eventsLogger = (Logger) LoggerFactory.getLogger(GameEventLog.LOGGER_NAME);
+        previousLevel = eventsLogger.getLevel();
+        eventsLogger.setLevel(Level.OFF);
+
+        model = new PandemicModel(config);
+        model.initialize(new GenericResourceProvider());
+
+        appender = new ListAppender<ILoggingEvent>();
+        appender.start();
+        eventsLogger.addAppender(appender);
+    }
+
+    @After
+    public void tearDown() {
+        eventsLogger.detachAppender(appender);
+        eventsLogger.setLevel(previousLevel);
+    }
+
+    @Test
+    public void testNothingLoggedWhenOff() {
+        model.drawInfectionCard();
+        model.reshuffleInfectionCards();
+
+        assertFalse(GameEventLog.isEnabled());
+        assertTrue(appender.list.isEmpty());
+    }
+
+    @Test
+    public void testInfectionCardDrawn() {
+        eventsLogger.setLevel(Level.INFO);
+        int card = model.getInfectionDeck().get(0);
+
+        model.drawInfectionCard();
+
+        assertEquals(1, appender.list.size());
+        String line = appender.list.get(0).getFormattedMessage();
+        assertTrue(line, line.startsWith("INFECTION_CARD_DRAWN card=" + card + " name="));
+    }
+
+    @Test
+    public void testDecksLoggedAsTheyWere() {
+        eventsLogger.setLevel(Level.INFO);
+        model.drawInfectionCard();
+        String discarded = Arrays.toString(model.getDiscardPile().asList().toArray());
+
+        model.reshuffleInfectionCards();
+        String reshuffled = Arrays.toString(model.getInfectionDeck().asList().toArray());
+        model.drawInfectionCard();
+
+        assertEquals(3, appender.list.size());
+        assertEquals("INFECTION_CARDS_RESHUFFLED discardPile=" + discarded + " infectionDeck=" + reshuffled,
+                appender.list.get(1).getFormattedMessage());
+    }
+
+    @Test
+    public void testUndo() {
+        model.drawInfectionCard();
+        eventsLogger.setLevel(Level.INFO);
+
+        model.undo();
+
+        assertEquals("UNDO action=DRAW_INFECTION_CARD", appender.list.get(0).getFormattedMessage());
+    }
+}
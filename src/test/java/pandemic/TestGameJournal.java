@@ -0,0 +1,188 @@
+/**
+ * Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ * <p>
+ * This file is part of PandemicSolo.
+ * <p>
+ * PandemicSolo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * PandemicSolo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import pandemic.model.DifficultyLevel;
+import pandemic.model.Expansion;
+import pandemic.model.GameCatalog;
+import pandemic.model.GameEngine;
+import pandemic.model.GameJournal;
+import pandemic.model.SetupRules;
+import pandemic.model.Variant;
+import pandemic.simulation.HeadlessSimulation;
+import pandemic.util.GameConfig;
+import pandemic.util.RandomUtil;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author manur
+ * @since v2.9
+ */
+public class TestGameJournal {
+
+    private static GameCatalog catalog = HeadlessSimulation.createCatalog();
+
+    private GameEngine engine;
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        GameConfig config = new GameConfig();
+        config.setDifficultyLevel(DifficultyLevel.NORMAL);
+        config.setNbOfRoles(2);
+        config.getRolesExpansions().add(Expansion.CORE);
+        config.getVariants().add(Variant.MUTATION);
+
+        engine = new GameEngine(config, catalog, new RandomUtil(1234L));
+        engine.setUp();
+
+        file = File.createTempFile("pandemic", ".journal");
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    private void play(GameEngine engine) {
+        for (int i = 0; i < 6; i++) {
+            engine.drawPlayerCard();
+            engine.drawInfectionCard();
+        }
+        engine.drawBottomInfectionCard();
+        engine.removeDiscardedCard(3);
+        engine.reshuffleInfectionCards();
+        engine.rearrangeInfectionDeck(new int[] {5, 4, 3, 2, 1, 0});
+        engine.drawInfectionCard();
+
+        for (int roleId : SetupRules.availableRoles(engine.getConfig())) {
+            if (!engine.getAffectedRoles().contains(roleId)) {
+                engine.changeRole(1, roleId);
+                break;
+            }
+        }
+    }
+
+    private static void assertSameGame(GameEngine expected, GameEngine actual) {
+        assertEquals(expected.getAffectedRoles(), actual.getAffectedRoles());
+        assertEquals(expected.getPlayerDeck(), actual.getPlayerDeck());
+        assertEquals(expected.getInfectionDeck(), actual.getInfectionDeck());
+        assertEquals(expected.getDiscardPile(), actual.getDiscardPile());
+        assertEquals(expected.getJournal().getNbOfOperations(), actual.getJournal().getNbOfOperations());
+        assertEquals(expected.getJournal().getSize(), actual.getJournal().getSize());
+    }
+
+    @Test
+    public void testReplay() {
+        play(engine);
+
+        assertEquals(18, engine.getJournal().getNbOfOperations());
+        assertSameGame(engine, engine.getJournal().replay(catalog));
+    }
+
+    @Test
+    public void testFailedRemovalIsNotRecorded() {
+        engine.drawInfectionCard(); // the two MUTATION! cards are at the start of the discard pile
+
+        assertFalse(engine.removeDiscardedCard(0));
+        assertEquals(1, engine.getJournal().getNbOfOperations());
+    }
+
+    @Test
+    public void testDrawFromEmptyDeckIsNotRecorded() {
+        int nbOfPlayerCards = engine.getPlayerDeck().size();
+        for (int i = 0; i < nbOfPlayerCards; i++) {
+            engine.drawPlayerCard();
+        }
+
+        try {
+            engine.drawPlayerCard();
+            fail("The player deck is empty");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertEquals(nbOfPlayerCards, engine.getJournal().getNbOfOperations());
+    }
+
+    @Test
+    public void testAttachedFile() throws IOException {
+        engine.drawPlayerCard(); // recorded before the journal is attached
+
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            engine.getJournal().attach(raf.getChannel());
+            play(engine);
+        } finally {
+            raf.close();
+        }
+
+        GameJournal journal = read();
+        assertEquals(engine.getJournal().getSeed(), journal.getSeed());
+        assertEquals(engine.getConfig().getVariants(), journal.getConfig().getVariants());
+        assertSameGame(engine, journal.replay(catalog));
+    }
+
+    @Test
+    public void testIncompleteLastRecordIsIgnored() throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            engine.getJournal().attach(raf.getChannel());
+            engine.drawInfectionCard();
+            engine.drawInfectionCard();
+            List<Integer> newRoles = SetupRules.availableRoles(engine.getConfig());
+            newRoles.removeAll(engine.getAffectedRoles());
+            engine.changeRole(0, newRoles.get(0));
+            raf.setLength(raf.length() - 2); // crash in the middle of the last record
+        } finally {
+            raf.close();
+        }
+
+        GameJournal journal = read();
+        assertEquals(2, journal.getNbOfOperations());
+        assertEquals(engine.getInfectionDeck(), journal.replay(catalog).getInfectionDeck());
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotAJournalFile() throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        raf.write("Not a journal".getBytes("UTF-8"));
+        raf.close();
+
+        read();
+    }
+
+    private GameJournal read() throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            return GameJournal.read(raf.getChannel());
+        } finally {
+            raf.close();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/**
+ * Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ * <p>
+ * This file is part of PandemicSolo.
+ * <p>
+ * PandemicSolo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * PandemicSolo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import pandemic.server.GameServer;
+import pandemic.simulation.HeadlessSimulation;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author manur
+ * @since v2.9
+ */
+public class TestGameServer {
+
+    private GameServer server;
+
+    @Before
+    public void setUp() {
+        server = new GameServer(HeadlessSimulation.createCatalog(), 4);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        server.shutdown(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testCommandsOfASessionAnsweredInOrder() throws Exception {
+        List<String> replies = serve(
+                "new a 2 42",
+                "drawInfectionCard a",
+                "undo a",
+                "drawInfectionCard a",
+                "showDiscardPile a");
+
+        assertEquals(5, replies.size());
+        assertTrue(replies.get(0).startsWith("OK a seed=42 roles="));
+        assertTrue(replies.get(1).startsWith("OK a card="));
+        assertEquals("OK a undone=true", replies.get(2));
+        assertEquals(replies.get(1), replies.get(3)); // the random generator is put back too
+        String card = replies.get(1).split("[ =]")[3];
+        assertTrue(replies.get(4).endsWith("," + card + "]"));
+    }
+
+    @Test
+    public void testSessionsAreIndependent() throws Exception {
+        List<String> commands = new ArrayList<String>();
+        for (int session = 0; session < 50; session++) {
+            commands.add("new s" + session + " 3 7");
+        }
+        for (int session = 0; session < 50; session++) {
+            commands.add("drawPlayerCard s" + session);
+        }
+        List<String> replies = serve(commands.toArray(new String[0]));
+
+        assertEquals(100, replies.size());
+        assertEquals(0, server.getNbOfSessions()); // ended with the connection that started them
+        String firstDraw = null;
+        for (String reply : replies.subList(50, 100)) {
+            String draw = reply.substring(reply.indexOf(" card="));
+            if (firstDraw == null) {
+                firstDraw = draw;
+            }
+            assertEquals(firstDraw, draw); // same seed, same game
+        }
+    }
+
+    @Test
+    public void testErrors() throws Exception {
+        List<String> replies = serve(
+                "new a",
+                "new a",
+                "drawPlayerCard b",
+                "removeDiscardedCard a x",
+                "dance a",
+                "end a",
+                "state a",
+                "quit",
+                "state a");
+
+        // The commands checked right away may be answered before the ones played on the session
+        List<String> expected = new ArrayList<String>(Arrays.asList(
+                "ERR a Session already started",
+                "ERR b No such session",
+                "ERR a Not a number : x",
+                "ERR a Unknown command dance",
+                "OK a",
+                "ERR a No such session"));
+        List<String> errors = new ArrayList<String>(replies.subList(1, replies.size()));
+        Collections.sort(expected);
+        Collections.sort(errors);
+        assertEquals(expected, errors);
+    }
+
+    @Test
+    public void testEndAnsweredInOrder() throws Exception {
+        List<String> replies = serve(
+                "new a 2 42",
+                "drawInfectionCard a",
+                "end a",
+                "state a",
+                "end a");
+
+        assertEquals(5, replies.size());
+        assertTrue(replies.get(1).startsWith("OK a card="));
+        assertEquals(Arrays.asList("OK a", "ERR a No such session", "ERR a No such session"), replies.subList(2, 5));
+    }
+
+    @Test
+    public void testListenUntilShutdown() throws Exception {
+        Thread listening = startListening();
+
+        Socket socket = new Socket(InetAddress.getByName(null), server.getLocalPort());
+        PrintWriter writer = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), "UTF-8"), true);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), "UTF-8"));
+        writer.println("new a 2 42");
+        assertTrue(reader.readLine().startsWith("OK a seed=42"));
+        assertEquals(1, server.getNbOfSessions());
+
+        // The session ends with its connection
+        socket.close();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (server.getNbOfSessions() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, server.getNbOfSessions());
+
+        server.shutdown(5, TimeUnit.SECONDS);
+        listening.join(5000);
+        assertFalse(listening.isAlive());
+        assertEquals(-1, server.getLocalPort());
+    }
+
+    @Test
+    public void testConnectionsBeyondTheMaximumAreRefused() throws Exception {
+        server.shutdown(5, TimeUnit.SECONDS);
+        server = new GameServer(HeadlessSimulation.createCatalog(), 1, 1);
+        Thread listening = startListening();
+
+        Socket first = new Socket(InetAddress.getByName(null), server.getLocalPort());
+        PrintWriter writer = new PrintWriter(new OutputStreamWriter(first.getOutputStream(), "UTF-8"), true);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(first.getInputStream(), "UTF-8"));
+        writer.println("new a");
+        assertTrue(reader.readLine().startsWith("OK a"));
+
+        Socket second = new Socket(InetAddress.getByName(null), server.getLocalPort());
+        reader = new BufferedReader(new InputStreamReader(second.getInputStream(), "UTF-8"));
+        assertEquals("ERR - Too many connections", reader.readLine());
+        assertNull(reader.readLine());
+
+        second.close();
+        first.close();
+        server.shutdown(5, TimeUnit.SECONDS);
+        listening.join(5000);
+        assertFalse(listening.isAlive());
+    }
+
+    /**
+     * @return The thread listening on a free port, once the server listens
+     */
+    private Thread startListening() throws InterruptedException {
+        Thread listening = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    server.listen(0);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+        listening.start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (server.getLocalPort() < 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        return listening;
+    }
+
+    private List<String> serve(String... commands) throws Exception {
+        StringBuilder input = new StringBuilder();
+        for (String command : commands) {
+            input.append(command).append('\n');
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        server.serve(new ByteArrayInputStream(input.toString().getBytes("UTF-8")), output);
+        return Arrays.asList(output.toString("UTF-8").split("\\r?\\n"));
+    }
+}
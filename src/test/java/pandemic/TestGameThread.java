@@ -0,0 +1,133 @@
+/**
+ * Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ * <p>
+ * This file is part of PandemicSolo.
+ * <p>
+ * PandemicSolo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * PandemicSolo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import pandemic.model.DecksSnapshot;
+import pandemic.model.DifficultyLevel;
+import pandemic.model.Expansion;
+import pandemic.model.PandemicModel;
+import pandemic.util.GameConfig;
+import pandemic.util.GameThread;
+import pandemic.util.GenericResourceProvider;
+import pandemic.util.sounds.SoundsManager;
+import pandemic.view.DiscardPileView;
+import pandemic.view.ViewFactory;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author manur
+ * @since v2.9
+ */
+public class TestGameThread {
+
+    private PandemicModel model;
+    private GameThread gameThread;
+
+    @Before
+    public void setUp() {
+        GameConfig config = new GameConfig();
+        config.setDifficultyLevel(DifficultyLevel.NORMAL);
+        config.setNbOfRoles(3);
+        config.getRolesExpansions().add(Expansion.CORE);
+
+        model = new PandemicModel(config);
+        model.initialize(new GenericResourceProvider());
+        gameThread = new GameThread();
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        gameThread.shutdown(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testSnapshotUnchangedByTheNextOperations() {
+        DecksSnapshot before = model.getSnapshot();
+        int[] infectionDeck = model.getInfectionDeck().toArray();
+        int[] discardPile = model.getDiscardPile().toArray();
+        int nbOfPlayerCards = model.getNbOfPlayerCards();
+
+        model.drawInfectionCard();
+        model.drawPlayerCard();
+        model.reshuffleInfectionCards();
+
+        assertArrayEquals(infectionDeck, before.getInfectionDeck().toArray());
+        assertArrayEquals(discardPile, before.getDiscardPile().toArray());
+        assertEquals(nbOfPlayerCards, before.getNbOfPlayerCards());
+
+        DecksSnapshot after = model.getSnapshot();
+        assertArrayEquals(model.getInfectionDeck().toArray(), after.getInfectionDeck().toArray());
+        assertTrue(after.getDiscardPile().isEmpty());
+        assertEquals(nbOfPlayerCards - 1, after.getNbOfPlayerCards());
+    }
+
+    @Test
+    public void testSnapshotFollowsTheUndo() {
+        int[] discardPile = model.getDiscardPile().toArray();
+
+        model.drawInfectionCard();
+        model.undo();
+
+        assertArrayEquals(discardPile, model.getSnapshot().getDiscardPile().toArray());
+        assertEquals(model.getAffectedRoles(), model.getSnapshot().getAffectedRoles());
+    }
+
+    @Test
+    public void testOperationsRunInOrderOnTheGameThread() throws InterruptedException {
+        final PandemicModel mockModel = mock(PandemicModel.class);
+        final boolean[] onGameThread = new boolean[1];
+        final CountDownLatch shown = new CountDownLatch(1);
+
+        DiscardPileView discardView = mock(DiscardPileView.class);
+        ViewFactory viewFactory = mock(ViewFactory.class);
+        DefaultBoardController controller = new DefaultBoardController(mockModel);
+        when(viewFactory.createDiscardPileView(controller, mockModel)).thenReturn(discardView);
+        controller.setViewFactory(viewFactory);
+        controller.setSoundsManager(mock(SoundsManager.class));
+        controller.setThreads(gameThread, new Executor() {
+            @Override
+            public void execute(Runnable update) {
+                onGameThread[0] = gameThread.isCurrentThread();
+                update.run();
+                shown.countDown();
+            }
+        });
+
+        controller.drawInfectionCard();
+        controller.reshuffleInfectionCards();
+        controller.showDiscardPile();
+
+        assertTrue(shown.await(5, TimeUnit.SECONDS));
+        assertTrue(onGameThread[0]);
+        assertFalse(gameThread.isCurrentThread());
+        verify(mockModel).drawInfectionCard();
+        verify(mockModel).reshuffleInfectionCards();
+        verify(discardView).showView();
+    }
+}
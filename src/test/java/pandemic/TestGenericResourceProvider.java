@@ -28,6 +28,14 @@ public class TestGenericResourceProvider {
 		Assert.assertNotNull(icon);
 		Assert.assertTrue(icon.getDescription().endsWith("images/card0.jpg"));
 	}
+
+	@Test
+	public void testGetIconIsDecodedOnce() {
+		ImageIcon icon = provider.getIcon("card35.jpg");
+
+		Assert.assertSame(icon, provider.getIcon("card35.jpg"));
+		Assert.assertSame(icon, new GenericResourceProvider().getIcon("card35.jpg"));
+	}
 	
 	@Test
 	public void testGetAudioStream() {
@@ -36,6 +44,26 @@ public class TestGenericResourceProvider {
 		Assert.assertNotNull(stream);
 	}	
 	
+	@Test
+	public void testGetAudioStreamReturnsANewStreamEachTime() throws Exception {
+		InputStream first = provider.getAudioStream("effect1.wav");
+		first.read(new byte[16]);
+		InputStream second = provider.getAudioStream("effect1.wav");
+
+		Assert.assertEquals(first.available() + 16, second.available());
+	}
+
+	@Test
+	public void testListResources() {
+		GenericResourceProvider genericProvider = new GenericResourceProvider();
+
+		Assert.assertTrue(genericProvider.listImages().contains("card0.jpg"));
+		Assert.assertTrue(genericProvider.listSounds().contains("effect1.wav"));
+		for (String image : genericProvider.listImages()) {
+			Assert.assertTrue(image, image.endsWith(".jpg") || image.endsWith(".png"));
+		}
+	}
+	
 	@Test
 	public void testGetBundle() {
 		ResourceBundle bundle = provider.getBundle("componentsCoordinates");
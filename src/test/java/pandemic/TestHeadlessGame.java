@@ -0,0 +1,116 @@
+/**
+ * Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ * <p>
+ * This file is part of PandemicSolo.
+ * <p>
+ * PandemicSolo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * PandemicSolo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import pandemic.model.HeadlessGame;
+import pandemic.simulation.HeadlessSimulation;
+import pandemic.util.GameConfig;
+import pandemic.util.JdkRandomSource;
+import pandemic.util.RandomUtil;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author manur
+ * @since v2.9
+ */
+public class TestHeadlessGame {
+
+    private HeadlessGame game;
+
+    @Before
+    public void setUp() {
+        GameConfig config = GameConfig.defaultConfigFactory();
+        config.setSeed(1234L);
+        game = new HeadlessGame(config, HeadlessSimulation.createCatalog());
+    }
+
+    @Test
+    public void testUndoThenRedoGivesTheSameCards() {
+        int[] discardPile = game.getEngine().getDiscardPile().toArray();
+
+        game.drawInfectionCard();
+        game.reshuffleInfectionCards();
+        int[] reshuffled = game.getEngine().getInfectionDeck().toArray();
+
+        assertTrue(game.undo());
+        assertTrue(game.undo());
+        assertArrayEquals(discardPile, game.getEngine().getDiscardPile().toArray());
+
+        assertTrue(game.redo());
+        assertTrue(game.redo());
+        assertArrayEquals(reshuffled, game.getEngine().getInfectionDeck().toArray());
+        assertFalse(game.redo());
+    }
+
+    @Test
+    public void testWrongOperationLeavesTheGameUnchanged() {
+        int[] infectionDeck = game.getEngine().getInfectionDeck().toArray();
+
+        try {
+            game.rearrangeInfectionDeck(new int[] {1, 1, 2, 3, 4, 5});
+            fail("Not an order");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            game.removeDiscardedCard(game.getEngine().getDiscardPile().size());
+            fail("No such card");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        assertArrayEquals(infectionDeck, game.getEngine().getInfectionDeck().toArray());
+        assertFalse(game.undo());
+    }
+
+    @Test
+    public void testShuffleWithJdkRandomIsFinal() {
+        GameConfig config = GameConfig.defaultConfigFactory();
+        game = new HeadlessGame(config, HeadlessSimulation.createCatalog(),
+                new RandomUtil(new JdkRandomSource(new Random(1234L)), 1234L));
+
+        game.drawInfectionCard();
+        game.reshuffleInfectionCards();
+
+        // The generator can't be put back : neither the shuffle nor the draw before it can be undone
+        assertFalse(game.undo());
+
+        game.drawInfectionCard();
+        assertTrue(game.undo());
+        assertFalse(game.undo());
+    }
+
+    @Test
+    public void testUndoHistoryIsShort() {
+        for (int i = 0; i < HeadlessGame.UNDO_LEVELS + 5; i++) {
+            game.drawPlayerCard();
+        }
+        int undone = 0;
+        while (game.undo()) {
+            undone++;
+        }
+        assertEquals(HeadlessGame.UNDO_LEVELS, undone);
+    }
+}
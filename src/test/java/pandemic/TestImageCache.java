@@ -0,0 +1,93 @@
+/**
+ * Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ * <p>
+ * This file is part of PandemicSolo.
+ * <p>
+ * PandemicSolo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * PandemicSolo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic;
+
+import org.junit.Test;
+import pandemic.util.ImageCache;
+
+import javax.swing.ImageIcon;
+import java.awt.image.BufferedImage;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author manur
+ * @since v2.9
+ */
+public class TestImageCache {
+
+    // 10x10 pixels, ie 400 bytes
+    private static ImageIcon smallIcon() {
+        return new ImageIcon(new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB));
+    }
+
+    @Test
+    public void testHitsAndMisses() {
+        ImageCache cache = new ImageCache(10000);
+        ImageIcon icon = smallIcon();
+
+        assertNull(cache.get("a.jpg"));
+        cache.put("a.jpg", icon);
+        assertSame(icon, cache.get("a.jpg"));
+
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(400, cache.getSize());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        ImageCache cache = new ImageCache(1000); // room for 2 icons
+
+        cache.put("a.jpg", smallIcon());
+        cache.put("b.jpg", smallIcon());
+        cache.get("a.jpg"); // b.jpg is now the least recently used
+        cache.put("c.jpg", smallIcon());
+
+        assertNotNull(cache.get("a.jpg"));
+        assertNull(cache.get("b.jpg"));
+        assertNotNull(cache.get("c.jpg"));
+        assertEquals(1, cache.getEvictions());
+        assertEquals(800, cache.getSize());
+    }
+
+    @Test
+    public void testImageLargerThanBudgetIsNotCached() {
+        ImageCache cache = new ImageCache(100);
+
+        cache.put("a.jpg", smallIcon());
+
+        assertNull(cache.get("a.jpg"));
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void testPutIfRoomDoesNotEvict() {
+        ImageCache cache = new ImageCache(1000); // room for 2 icons
+
+        assertTrue(cache.putIfRoom("a.jpg", smallIcon()));
+        assertTrue(cache.putIfRoom("b.jpg", smallIcon()));
+        assertFalse(cache.putIfRoom("c.jpg", smallIcon()));
+
+        assertNotNull(cache.get("a.jpg"));
+        assertNotNull(cache.get("b.jpg"));
+        assertNull(cache.get("c.jpg"));
+        assertEquals(0, cache.getEvictions());
+    }
+}
@@ -0,0 +1,186 @@
+/**
+ * Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ * <p>
+ * This file is part of PandemicSolo.
+ * <p>
+ * PandemicSolo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * PandemicSolo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import pandemic.model.DifficultyLevel;
+import pandemic.model.Expansion;
+import pandemic.model.InfectionRisk;
+import pandemic.model.IntDeckView;
+import pandemic.model.PandemicModel;
+import pandemic.model.objects.PandemicObject;
+import pandemic.util.GameConfig;
+import pandemic.util.GenericResourceProvider;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author manur
+ * @since v2.9
+ */
+public class TestInfectionRisk {
+
+    private static final double DELTA = 1e-9;
+
+    private PandemicModel model;
+    private InfectionRisk risk;
+
+    @Before
+    public void setUp() {
+        GameConfig config = new GameConfig();
+        config.setDifficultyLevel(DifficultyLevel.NORMAL);
+        config.setNbOfRoles(3);
+        config.getRolesExpansions().add(Expansion.CORE);
+
+        model = new PandemicModel(config);
+        model.initialize(new GenericResourceProvider());
+        risk = model.getInfectionRisk();
+    }
+
+    @Test
+    public void testUnknownOrderAtStart() {
+        IntDeckView deck = model.getInfectionDeck();
+        double sum = 0;
+        for (int i = 0; i < deck.size(); i++) {
+            assertEquals(3.0 / deck.size(), risk.getInfectionProbability(deck.get(i), 3), DELTA);
+            sum += risk.getInfectionProbability(deck.get(i), 3);
+        }
+        assertEquals(3, sum, DELTA);
+        assertEquals(0, risk.getInfectionProbability(model.getDiscardPile().get(0), 3), DELTA);
+    }
+
+    @Test
+    public void testDrawnCardsLeaveTheDeck() {
+        int top = model.getInfectionDeck().get(0);
+        int bottom = model.getInfectionDeck().get(model.getInfectionDeck().size() - 1);
+        model.drawInfectionCard();
+        model.drawBottomInfectionCard();
+
+        int size = model.getInfectionDeck().size();
+        assertEquals(0, risk.getInfectionProbability(top, 2), DELTA);
+        assertEquals(0, risk.getInfectionProbability(bottom, 2), DELTA);
+        assertEquals(2.0 / size, risk.getInfectionProbability(model.getInfectionDeck().get(5), 2), DELTA);
+    }
+
+    @Test
+    public void testReshuffledCardsOnTop() {
+        model.drawInfectionCard();
+        model.drawInfectionCard();
+        int nbOfReshuffled = model.getDiscardPile().size();
+        int[] reshuffled = new int[nbOfReshuffled];
+        for (int i = 0; i < nbOfReshuffled; i++) {
+            reshuffled[i] = model.getDiscardPile().get(i);
+        }
+        int below = model.getInfectionDeck().get(0);
+
+        model.reshuffleInfectionCards();
+
+        for (int card : reshuffled) {
+            assertEquals(3.0 / nbOfReshuffled, risk.getInfectionProbability(card, 3), DELTA);
+        }
+        assertEquals(0, risk.getInfectionProbability(below, 3), DELTA);
+
+        List<InfectionRisk.Group> groups = risk.getGroupsAtRisk(nbOfReshuffled + 2);
+        assertEquals(2, groups.size());
+        assertEquals(1, groups.get(0).getProbability(), DELTA);
+        assertEquals(nbOfReshuffled, groups.get(0).getCards().length);
+        assertEquals(2.0 / (model.getInfectionDeck().size() - nbOfReshuffled), groups.get(1).getProbability(), DELTA);
+
+        // Drawn from the reshuffled cards
+        model.drawInfectionCard();
+        for (int card : reshuffled) {
+            if (card != model.getDiscardPile().get(0)) {
+                assertEquals(3.0 / (nbOfReshuffled - 1), risk.getInfectionProbability(card, 3), DELTA);
+            }
+        }
+    }
+
+    @Test
+    public void testForecastCardsKnown() {
+        IntDeckView deck = model.getInfectionDeck();
+        model.rearrangeInfectionDeck(Arrays.asList(5, 4, 3, 2, 1, 0));
+
+        assertEquals(1, risk.getInfectionProbability(deck.get(0), 2), DELTA);
+        assertEquals(1, risk.getInfectionProbability(deck.get(1), 2), DELTA);
+        assertEquals(0, risk.getInfectionProbability(deck.get(2), 2), DELTA);
+        assertEquals(0, risk.getInfectionProbability(deck.get(6), 2), DELTA);
+        assertEquals(1.0 / (deck.size() - 6), risk.getInfectionProbability(deck.get(6), 7), DELTA);
+        assertEquals(7, risk.getGroupsAtRisk(7).size());
+    }
+
+    @Test
+    public void testUndoPutsTheOddsBack() {
+        model.drawInfectionCard();
+        int card = model.getInfectionDeck().get(3);
+        double before = risk.getInfectionProbability(card, 2);
+        int discarded = model.getDiscardPile().get(0);
+
+        model.reshuffleInfectionCards();
+        model.rearrangeInfectionDeck(Arrays.asList(1, 0, 2, 3, 4, 5));
+        model.drawInfectionCard();
+        model.undo();
+        model.undo();
+        model.undo();
+
+        assertEquals(before, risk.getInfectionProbability(card, 2), DELTA);
+        assertEquals(0, risk.getInfectionProbability(discarded, 2), DELTA);
+
+        model.redo();
+        assertTrue(risk.getInfectionProbability(discarded, 2) > 0);
+    }
+
+    @Test
+    public void testEpidemicInThePiles() {
+        int[] piles = model.getEngine().getPlayerPileSizes();
+        assertEquals(model.getNbOfPlayerCards(), sum(piles));
+        assertEquals(2.0 / piles[0], risk.getEpidemicProbability(2), DELTA);
+        assertEquals(1, risk.getEpidemicProbability(piles[0]), DELTA);
+
+        // Until the epidemic of the first pile
+        int drawn = 0;
+        while (model.getPlayerDeck().get(0).getType() != PandemicObject.Type.EPIDEMIC_CARD) {
+            model.drawPlayerCard();
+            drawn++;
+            assertEquals(1.0 / (piles[0] - drawn), risk.getEpidemicProbability(1), DELTA);
+        }
+        model.drawPlayerCard();
+        drawn++;
+
+        // No other epidemic in the first pile, then the second one
+        int left = piles[0] - drawn;
+        assertEquals(0, risk.getEpidemicProbability(left), DELTA);
+        assertEquals(1.0 / piles[1], risk.getEpidemicProbability(left + 1), DELTA);
+
+        model.undo();
+        assertEquals(1.0 / (left + 1), risk.getEpidemicProbability(1), DELTA);
+    }
+
+    private static int sum(int[] values) {
+        int sum = 0;
+        for (int value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ * <p>
+ * This file is part of PandemicSolo.
+ * <p>
+ * PandemicSolo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * PandemicSolo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic;
+
+import org.junit.Test;
+import pandemic.model.IntDeck;
+import pandemic.util.RandomUtil;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author manur
+ * @since v2.9
+ */
+public class TestIntDeck {
+
+    private static IntDeck deckOf(int capacity, int... cards) {
+        IntDeck deck = new IntDeck(capacity);
+        for (int card : cards) {
+            deck.addBottom(card);
+        }
+        return deck;
+    }
+
+    @Test
+    public void testDrawFromBothEnds() {
+        IntDeck deck = deckOf(4, 1, 2, 3, 4);
+
+        assertEquals(1, deck.drawTop());
+        assertEquals(4, deck.drawBottom());
+        deck.addTop(5);
+        deck.addBottom(6);
+
+        assertArrayEquals(new int[] {5, 2, 3, 6}, deck.toArray());
+    }
+
+    @Test
+    public void testGrowWhenWrapped() {
+        IntDeck deck = deckOf(4, 1, 2, 3, 4);
+        deck.drawTop();
+        deck.addBottom(5); // wraps around the end of the buffer
+
+        deck.addTop(0);
+        deck.addTop(-1);
+
+        assertArrayEquals(new int[] {-1, 0, 2, 3, 4, 5}, deck.toArray());
+    }
+
+    @Test
+    public void testRemoveAt() {
+        IntDeck deck = deckOf(8, 1, 2, 3, 4, 5, 6);
+
+        assertEquals(2, deck.removeAt(1));
+        assertEquals(5, deck.removeAt(3));
+
+        assertArrayEquals(new int[] {1, 3, 4, 6}, deck.toArray());
+        assertEquals(-1, deck.indexOf(5));
+    }
+
+    @Test
+    public void testMoveAllOnTop() {
+        IntDeck deck = deckOf(8, 4, 5);
+        IntDeck other = deckOf(8, 1, 2, 3);
+
+        deck.moveAllOnTop(other);
+
+        assertArrayEquals(new int[] {1, 2, 3, 4, 5}, deck.toArray());
+        assertTrue(other.isEmpty());
+    }
+
+    @Test
+    public void testPermuteTop() {
+        IntDeck deck = deckOf(8, 10, 11, 12, 13, 14);
+
+        deck.permuteTop(new int[] {2, 0, 1});
+
+        assertArrayEquals(new int[] {12, 10, 11, 13, 14}, deck.toArray());
+    }
+
+    @Test
+    public void testPermuteTopRejectsWhatIsNotAnOrder() {
+        IntDeck deck = deckOf(8, 10, 11, 12, 13, 14);
+
+        for (int[] newOrder : new int[][] {{0, 0, 1}, {1, 2, 3}, {0, -1}}) {
+            try {
+                deck.permuteTop(newOrder);
+                fail("Not an order : " + Arrays.toString(newOrder));
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+            assertArrayEquals(new int[] {10, 11, 12, 13, 14}, deck.toArray());
+        }
+    }
+
+    @Test
+    public void testShuffleIsTheSameAsForAList() {
+        IntDeck deck = deckOf(8, 1, 2, 3, 4, 5, 6, 7);
+        deck.drawTop();
+        deck.addBottom(1); // the deck wraps : it has to be realigned before shuffling
+
+        deck.shuffle(new RandomUtil(42L));
+        List<Integer> list = Arrays.asList(2, 3, 4, 5, 6, 7, 1);
+        new RandomUtil(42L).shuffleInPlace(list);
+
+        assertEquals(list, deck.asList());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testListViewIsReadOnly() {
+        deckOf(4, 1, 2).asList().add(3);
+    }
+}
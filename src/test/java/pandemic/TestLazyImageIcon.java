@@ -0,0 +1,84 @@
+/**
+ * Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ * <p>
+ * This file is part of PandemicSolo.
+ * <p>
+ * PandemicSolo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * PandemicSolo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic;
+
+import java.awt.image.BufferedImage;
+
+import javax.swing.ImageIcon;
+
+import org.junit.Test;
+
+import pandemic.model.DifficultyLevel;
+import pandemic.model.Expansion;
+import pandemic.model.PandemicModel;
+import pandemic.model.objects.Card;
+import pandemic.util.GameConfig;
+import pandemic.util.GenericResourceProvider;
+import pandemic.util.LazyImageIcon;
+import pandemic.util.ResourceProvider;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author manur
+ * @since v2.9
+ */
+public class TestLazyImageIcon {
+
+    @Test
+    public void testImageIsFetchedOnlyOnceWhenNeeded() {
+        ResourceProvider mockResourceProvider = mock(ResourceProvider.class);
+        when(mockResourceProvider.getIcon("card35.jpg")).thenReturn(new ImageIcon(new BufferedImage(100, 70, BufferedImage.TYPE_INT_RGB)));
+
+        LazyImageIcon icon = new LazyImageIcon(mockResourceProvider, "card35.jpg");
+
+        assertEquals("card35.jpg", icon.getDescription());
+        assertFalse(icon.isLoaded());
+        verify(mockResourceProvider, never()).getIcon(anyString());
+
+        assertEquals(100, icon.getIconWidth());
+        assertEquals(70, icon.getIconHeight());
+        assertNotNull(icon.getImage());
+        assertTrue(icon.isLoaded());
+        verify(mockResourceProvider, times(1)).getIcon("card35.jpg");
+    }
+
+    @Test
+    public void testMissingImage() {
+        LazyImageIcon icon = new LazyImageIcon(mock(ResourceProvider.class), "missing.jpg");
+
+        assertEquals(-1, icon.getIconWidth());
+    }
+
+    @Test
+    public void testCardsOfTheDeckAreNotLoadedBySetUp() {
+        GameConfig config = new GameConfig();
+        config.setDifficultyLevel(DifficultyLevel.NORMAL);
+        config.setNbOfRoles(4);
+        config.getRolesExpansions().add(Expansion.CORE);
+
+        PandemicModel model = new PandemicModel(config);
+        model.initialize(new GenericResourceProvider());
+
+        for (Card card : model.getPlayerDeck()) {
+            assertFalse(card.getName(), ((LazyImageIcon) card.getImage()).isLoaded());
+        }
+    }
+}
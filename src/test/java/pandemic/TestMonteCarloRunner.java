@@ -0,0 +1,66 @@
+/**
+ * Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ * <p>
+ * This file is part of PandemicSolo.
+ * <p>
+ * PandemicSolo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * PandemicSolo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic;
+
+import org.junit.Test;
+import pandemic.model.GameCatalog;
+import pandemic.simulation.HeadlessSimulation;
+import pandemic.simulation.MonteCarloRunner;
+import pandemic.simulation.SimulationResult;
+import pandemic.simulation.SimulationStatistics;
+import pandemic.util.GameConfig;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author manur
+ * @since v2.9
+ */
+public class TestMonteCarloRunner {
+
+    @Test
+    public void testAllConfigs() {
+        // 4 difficulty levels x 3 numbers of roles x 2 numbers of events x survival or not x 5 variants
+        assertEquals(240, MonteCarloRunner.allConfigs().size());
+    }
+
+    @Test
+    public void testResultsDoNotDependOnTheNumberOfThreads() throws Exception {
+        GameCatalog catalog = HeadlessSimulation.createCatalog();
+        List<GameConfig> configs = Arrays.asList(GameConfig.defaultConfigFactory());
+
+        SimulationResult singleThread = new MonteCarloRunner(catalog, 1, 42L).run(configs, 50).get(0);
+        SimulationResult threeThreads = new MonteCarloRunner(catalog, 3, 42L).run(configs, 50).get(0);
+
+        assertEquals(50, singleThread.getNbOfGames());
+        assertEquals(50, threeThreads.getNbOfGames());
+        for (int rank = 0; rank < 5; rank++) {
+            for (int position = 0; position < SimulationStatistics.MAX_DECK_POSITION; position++) {
+                assertEquals(singleThread.getEpidemicPositionCount(rank, position),
+                        threeThreads.getEpidemicPositionCount(rank, position));
+            }
+        }
+        for (int draws = 0; draws < SimulationStatistics.MAX_RECURRENCE; draws++) {
+            assertEquals(singleThread.getRecurrenceCount(draws), threeThreads.getRecurrenceCount(draws));
+        }
+    }
+}
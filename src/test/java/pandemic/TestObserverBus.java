@@ -0,0 +1,180 @@
+/**
+ * Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ * <p>
+ * This file is part of PandemicSolo.
+ * <p>
+ * PandemicSolo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * PandemicSolo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import pandemic.model.objects.Card;
+import pandemic.util.DecksObserver;
+import pandemic.util.ObserverBus;
+import pandemic.util.ObserverBus.Delivery;
+import pandemic.util.RolesObserver;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author manur
+ * @since v2.9
+ */
+public class TestObserverBus {
+
+    private ObserverBus bus;
+
+    @Before
+    public void setUp() {
+        bus = new ObserverBus();
+    }
+
+    @Test
+    public void testSyncDeliveredRightAway() {
+        DecksObserver observer = mock(DecksObserver.class);
+        bus.subscribe(observer, Delivery.SYNC);
+
+        bus.infectionCardDrawn(true);
+        bus.infectionCardDrawn(true);
+
+        verify(observer, times(2)).infectionCardDrawn(true);
+    }
+
+    @Test
+    public void testEdtCoalescesTheRefreshes() throws Exception {
+        final DecksObserver observer = mock(DecksObserver.class);
+        final Card card = mock(Card.class);
+        bus.subscribe(observer, Delivery.EDT);
+
+        // Notified from the EDT, so that nothing can be delivered before the checks
+        SwingUtilities.invokeAndWait(new Runnable() {
+            @Override
+            public void run() {
+                bus.infectionDeckCardRemoved();
+                bus.playerCardDrawn(card);
+                bus.infectionDeckCardRemoved();
+                bus.infectionCardDrawn(false);
+                bus.infectionDeckCardRemoved();
+                bus.playerCardReturned(card);
+                bus.playerCardDrawn(card);
+                verifyNoInteractions(observer);
+            }
+        });
+
+        flushEdt();
+
+        InOrder inOrder = inOrder(observer);
+        inOrder.verify(observer).infectionDeckCardRemoved();
+        inOrder.verify(observer).playerCardDrawn(card);
+        inOrder.verify(observer).infectionCardDrawn(false);
+        inOrder.verify(observer).playerCardReturned(card);
+        inOrder.verify(observer).playerCardDrawn(card);
+        verify(observer, times(1)).infectionDeckCardRemoved();
+        verify(observer, times(2)).playerCardDrawn(card);
+
+        // A new refresh once the waiting ones are delivered
+        bus.infectionDeckCardRemoved();
+        flushEdt();
+        verify(observer, times(2)).infectionDeckCardRemoved();
+    }
+
+    @Test
+    public void testEdtDeliveredOnTheEdt() throws Exception {
+        final boolean[] onEdt = new boolean[1];
+        bus.subscribe(new RolesObserver() {
+            @Override
+            public void roleWillChange(int roleIndex) {
+            }
+
+            @Override
+            public void roleHasChanged(int roleIndex) {
+                onEdt[0] = SwingUtilities.isEventDispatchThread();
+            }
+        }, Delivery.EDT);
+
+        bus.roleHasChanged(1);
+        flushEdt();
+
+        assertTrue(onEdt[0]);
+    }
+
+    @Test
+    public void testBackgroundDeliversEverythingInOrder() {
+        DecksObserver observer = mock(DecksObserver.class);
+        bus.subscribe(observer, Delivery.BACKGROUND);
+
+        bus.infectionDeckShuffled();
+        bus.infectionDeckCleared();
+        bus.infectionDeckShuffled();
+        bus.infectionDeckCleared();
+
+        verify(observer, timeout(2000).times(2)).infectionDeckCleared();
+        InOrder inOrder = inOrder(observer);
+        inOrder.verify(observer).infectionDeckShuffled();
+        inOrder.verify(observer).infectionDeckCleared();
+        inOrder.verify(observer).infectionDeckShuffled();
+        inOrder.verify(observer).infectionDeckCleared();
+    }
+
+    @Test
+    public void testFailingSubscriberDoesntStopTheOthers() throws Exception {
+        DecksObserver failing = mock(DecksObserver.class);
+        doThrow(new IllegalStateException("test")).when(failing).decksRestored();
+        DecksObserver observer = mock(DecksObserver.class);
+        bus.subscribe(failing, Delivery.EDT);
+        bus.subscribe(observer, Delivery.EDT);
+
+        bus.decksRestored();
+        bus.infectionDeckRearranged();
+        flushEdt();
+
+        verify(failing).infectionDeckRearranged();
+        verify(observer).decksRestored();
+    }
+
+    @Test
+    public void testSubscriptionsByKind() {
+        Observer observer = mock(Observer.class);
+        bus.subscribe((DecksObserver) observer, Delivery.SYNC);
+        bus.subscribe((DecksObserver) observer, Delivery.SYNC);
+
+        bus.roleHasChanged(0);
+        bus.decksRestored();
+
+        verify(observer, never()).roleHasChanged(0);
+        verify(observer, times(1)).decksRestored();
+
+        bus.subscribe((RolesObserver) observer, Delivery.SYNC);
+        bus.roleHasChanged(0);
+        verify(observer).roleHasChanged(0);
+    }
+
+    private interface Observer extends DecksObserver, RolesObserver {
+    }
+
+    private static void flushEdt() throws Exception {
+        SwingUtilities.invokeAndWait(new Runnable() {
+            @Override
+            public void run() {
+                // the notifications posted before are delivered
+            }
+        });
+    }
+}
@@ -29,16 +29,20 @@ import org.junit.Test;
 import pandemic.model.BoardZone;
 import pandemic.model.DifficultyLevel;
 import pandemic.model.Expansion;
+import pandemic.model.IntDeckView;
 import pandemic.model.PandemicModel;
+import pandemic.model.Variant;
 import pandemic.model.objects.Card;
 import pandemic.model.objects.Role;
 import pandemic.util.DecksObserver;
 import pandemic.util.GameConfig;
 import pandemic.util.GenericResourceProvider;
+import pandemic.util.RolesObserver;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 /**
  * @author manur
@@ -73,29 +77,29 @@ public class TestPandemicModel {
 
     @Test
     public void testDrawInfectionCard() {
-        Integer topCard = model.getInfectionDeck().get(0);
+        int topCard = model.getInfectionDeck().get(0);
 
         int drawnCard = model.drawInfectionCard();
 
-        assertFalse(model.getInfectionDeck().get(0).intValue() == topCard.intValue());
-        assertEquals(topCard.intValue(), drawnCard);
+        assertFalse(model.getInfectionDeck().get(0) == topCard);
+        assertEquals(topCard, drawnCard);
     }
 
     @Test
     public void testDrawBottomInfectionCard() {
-        List<Integer> infectionDeck = model.getInfectionDeck();
-        Integer bottomCard = infectionDeck.get(infectionDeck.size() - 1);
+        IntDeckView infectionDeck = model.getInfectionDeck();
+        int bottomCard = infectionDeck.get(infectionDeck.size() - 1);
 
         model.drawBottomInfectionCard();
 
-        assertFalse(infectionDeck.get(infectionDeck.size() - 1).intValue() == bottomCard.intValue());
+        assertFalse(infectionDeck.get(infectionDeck.size() - 1) == bottomCard);
         assertEquals(bottomCard, model.getDiscardPile().get(model.getDiscardPile().size() - 1));
     }
 
     @Test
     public void testReshuffleInfectionCards() {
         // Make a copy of the list before the reshuffling
-        List<Integer> discardPile = new ArrayList<Integer>(model.getDiscardPile());
+        List<Integer> discardPile = new ArrayList<Integer>(model.getDiscardPile().asList());
 
         model.reshuffleInfectionCards();
 
@@ -124,7 +128,7 @@ public class TestPandemicModel {
 
 		model.reshuffleInfectionCards();
 
-		final List<Integer> infectionDeckFirstTime = model.getInfectionDeck();
+		final IntDeckView infectionDeckFirstTime = model.getInfectionDeck();
 
 		// Reload copy of the model
 		ByteArrayInputStream inputStream = new ByteArrayInputStream(savedModel.toByteArray());
@@ -136,35 +140,41 @@ public class TestPandemicModel {
 		copyOfModel.registerDecksObserver(mock(DecksObserver.class)); // hack to initialize the observers which are transient
 
 		copyOfModel.reshuffleInfectionCards();
-		final List<Integer> infectionDeckSecondTime = copyOfModel.getInfectionDeck();
+		final IntDeckView infectionDeckSecondTime = copyOfModel.getInfectionDeck();
 
 		assertThat(infectionDeckFirstTime, is(infectionDeckSecondTime));
 	}
 
 	@Test
     public void testRemoveDiscardedCard() {
-        model.getDiscardPile().add(0, new Integer(100));
+        // The Mutation challenge puts the mutation cards on top of the discard pile
+        GameConfig config = new GameConfig();
+        config.setDifficultyLevel(DifficultyLevel.NORMAL);
+        config.setNbOfRoles(4);
+        config.getRolesExpansions().add(Expansion.CORE);
+        config.getVariants().add(Variant.MUTATION);
+        model = new PandemicModel(config);
+        model.initialize(new GenericResourceProvider());
+        assertEquals(100, model.getDiscardPile().get(0));
 
         assertFalse(model.removeDiscardedCard(0));
 
-        Integer card3 = model.getDiscardPile().get(3);
+        int card3 = model.getDiscardPile().get(3);
         assertTrue(model.removeDiscardedCard(3));
 
-        for (Integer card : model.getDiscardPile()) {
-            assertFalse(card.intValue() == card3.intValue());
-        }
+        assertFalse(model.getDiscardPile().contains(card3));
     }
 
     @Test
     public void testRearrangeInfectionDeck() {
         List<Integer> newCardOrder = Arrays.asList(new Integer[]{5, 4, 3, 2, 1, 0});
 
-        List<Integer> oldCards = new ArrayList<Integer>(model.getInfectionDeck().subList(0, 6));
+        List<Integer> oldCards = new ArrayList<Integer>(model.getInfectionDeck().asList().subList(0, 6));
 
         model.rearrangeInfectionDeck(newCardOrder);
 
         for (int index = 0; index < newCardOrder.size(); index++) {
-            assertEquals(oldCards.get(newCardOrder.get(index)), model.getInfectionDeck().get(index));
+            assertEquals(oldCards.get(newCardOrder.get(index)).intValue(), model.getInfectionDeck().get(index));
         }
     }
 
@@ -196,5 +206,40 @@ public class TestPandemicModel {
         }
     }
 
+    @Test
+    public void testChangeToARoleInUse() {
+        List<Role> affectedRolesBefore = new ArrayList<Role>(model.getAffectedRoles());
+        RolesObserver observer = mock(RolesObserver.class);
+        model.registerRolesObserver(observer);
+
+        try {
+            model.changeRole(2, affectedRolesBefore.get(0));
+            fail("The role is already in use");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
 
+        assertEquals(affectedRolesBefore, model.getAffectedRoles());
+        assertFalse(model.canUndo());
+        verifyNoInteractions(observer);
+    }
+
+    @Test
+    public void testSameSeedRegeneratesTheSameGame() {
+        Long seed = model.getConfig().getSeed();
+        assertNotNull(seed);
+
+        GameConfig config = new GameConfig();
+        config.setDifficultyLevel(DifficultyLevel.NORMAL);
+        config.setNbOfRoles(4);
+        config.getRolesExpansions().add(Expansion.CORE);
+        config.setSeed(seed);
+        PandemicModel regenerated = new PandemicModel(config);
+        regenerated.initialize(new GenericResourceProvider());
+
+        assertEquals(model.getInfectionDeck(), regenerated.getInfectionDeck());
+        assertEquals(model.getDiscardPile(), regenerated.getDiscardPile());
+        assertEquals(model.getEngine().getPlayerDeck(), regenerated.getEngine().getPlayerDeck());
+        assertEquals(model.getEngine().getAffectedRoles(), regenerated.getEngine().getAffectedRoles());
+    }
 }
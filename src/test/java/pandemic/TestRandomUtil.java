@@ -0,0 +1,100 @@
+/**
+ * Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ * <p>
+ * This file is part of PandemicSolo.
+ * <p>
+ * PandemicSolo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * PandemicSolo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic;
+
+import org.junit.Test;
+import pandemic.util.RandomUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author manur
+ * @since v2.9
+ */
+public class TestRandomUtil {
+
+    private static List<Integer> oneToFifty() {
+        List<Integer> list = new ArrayList<Integer>();
+        for (int i = 1; i <= 50; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+
+    @Test
+    public void testSameSeedSameShuffle() {
+        List<Integer> first = oneToFifty();
+        List<Integer> second = oneToFifty();
+
+        new RandomUtil(1234L).shuffleInPlace(first);
+        new RandomUtil(1234L).shuffleInPlace(second);
+
+        assertEquals(first, second);
+        assertFalse(first.equals(oneToFifty()));
+    }
+
+    @Test
+    public void testShuffleIsAPermutation() {
+        List<Integer> randomAccess = oneToFifty();
+        List<Integer> sequential = new LinkedList<Integer>(oneToFifty());
+
+        RandomUtil randomizer = new RandomUtil();
+        randomizer.shuffleInPlace(randomAccess);
+        randomizer.shuffleInPlace(sequential);
+
+        List<Integer> sorted = new ArrayList<Integer>(randomAccess);
+        java.util.Collections.sort(sorted);
+        assertEquals(oneToFifty(), sorted);
+        sorted = new ArrayList<Integer>(sequential);
+        java.util.Collections.sort(sorted);
+        assertEquals(oneToFifty(), sorted);
+    }
+
+    @Test
+    public void testShuffleArrayRange() {
+        int[] array = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+
+        new RandomUtil(99L).shuffleInPlace(array, 2, 8);
+
+        assertEquals(1, array[0]);
+        assertEquals(2, array[1]);
+        assertEquals(9, array[8]);
+        assertEquals(10, array[9]);
+        int[] middle = Arrays.copyOfRange(array, 2, 8);
+        Arrays.sort(middle);
+        assertArrayEquals(new int[] {3, 4, 5, 6, 7, 8}, middle);
+    }
+
+    @Test
+    public void testNextIntStaysInBounds() {
+        RandomUtil randomizer = new RandomUtil(7L);
+        int[] counts = new int[6];
+        for (int i = 0; i < 6000; i++) {
+            counts[randomizer.nextInt(6)]++;
+        }
+        for (int count : counts) {
+            assertTrue(count > 800 && count < 1200);
+        }
+    }
+}
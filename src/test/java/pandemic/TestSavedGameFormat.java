@@ -0,0 +1,222 @@
+/**
+ * Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ * <p>
+ * This file is part of PandemicSolo.
+ * <p>
+ * PandemicSolo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * PandemicSolo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import pandemic.model.BoardZone;
+import pandemic.model.DifficultyLevel;
+import pandemic.model.Disease;
+import pandemic.model.Expansion;
+import pandemic.model.PandemicModel;
+import pandemic.model.SavedGameFormat;
+import pandemic.model.Variant;
+import pandemic.model.objects.Cube;
+import pandemic.model.objects.PandemicObject;
+import pandemic.model.objects.Role;
+import pandemic.util.GameConfig;
+import pandemic.util.GenericResourceProvider;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author manur
+ * @since v2.9
+ */
+public class TestSavedGameFormat {
+
+    private final GenericResourceProvider resourceProvider = new GenericResourceProvider();
+
+    private PandemicModel model;
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        GameConfig config = new GameConfig();
+        config.setDifficultyLevel(DifficultyLevel.HEROIC);
+        config.setNbOfRoles(3);
+        config.getRolesExpansions().add(Expansion.CORE);
+        config.getRolesExpansions().add(Expansion.ON_THE_BRINK);
+        config.getVariants().add(Variant.MUTATION);
+
+        model = new PandemicModel(config);
+        model.initialize(resourceProvider);
+
+        file = File.createTempFile("pandemic", "." + GameManager.SAVEFILE_EXTENSION);
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        // Play a little
+        model.drawPlayerCard();
+        model.drawPlayerCard();
+        for (int i = 0; i < 5; i++) {
+            model.drawInfectionCard();
+        }
+        model.reshuffleInfectionCards();
+        model.drawInfectionCard();
+        model.drawBottomInfectionCard();
+        model.changeRole(1, model.getAllRoles().get(model.getNbOfRoles()));
+        Cube cube = model.getCubeReserve().take(Disease.BLUE);
+        cube.setX(421);
+        cube.setY(247);
+
+        save(model);
+        PandemicModel loaded = load();
+
+        assertEquals(model.getConfig().getSeed(), loaded.getConfig().getSeed());
+        assertEquals(model.getConfig().getDifficultyLevel(), loaded.getConfig().getDifficultyLevel());
+        assertEquals(model.getConfig().getRolesExpansions(), loaded.getConfig().getRolesExpansions());
+        assertEquals(model.getConfig().getVariants(), loaded.getConfig().getVariants());
+
+        assertEquals(model.getInfectionDeck(), loaded.getInfectionDeck());
+        assertEquals(model.getDiscardPile(), loaded.getDiscardPile());
+        assertEquals(model.getEngine().getPlayerDeck(), loaded.getEngine().getPlayerDeck());
+        assertEquals(model.getNbOfPlayerCards(), loaded.getNbOfPlayerCards());
+        for (int i = 0; i < model.getNbOfPlayerCards(); i++) {
+            assertEquals(model.getPlayerDeck().get(i).getName(), loaded.getPlayerDeck().get(i).getName());
+        }
+
+        assertEquals(model.getEngine().getAffectedRoles(), loaded.getEngine().getAffectedRoles());
+        assertEquals(model.getEngine().getJournal().getNbOfOperations(), loaded.getEngine().getJournal().getNbOfOperations());
+        List<Role> affectedRoles = loaded.getAffectedRoles();
+        for (int i = 0; i < affectedRoles.size(); i++) {
+            assertEquals(model.getAffectedRoles().get(i).getId(), affectedRoles.get(i).getId());
+        }
+
+        assertSameComponents(model.getCardsLibrary(), loaded.getCardsLibrary());
+        assertSameComponents(model.getCountersLibrary(), loaded.getCountersLibrary());
+        assertEquals(model.getCubeReserve().getNbOfCubes(Disease.BLUE), loaded.getCubeReserve().getNbOfCubes(Disease.BLUE));
+
+        // The random generator goes on from where it was
+        model.drawInfectionCard();
+        loaded.drawInfectionCard();
+        model.reshuffleInfectionCards();
+        loaded.reshuffleInfectionCards();
+        assertEquals(model.getInfectionDeck(), loaded.getInfectionDeck());
+    }
+
+    @Test
+    public void testSaveFileIsCompact() throws IOException {
+        save(model);
+
+        assertTrue("size: " + file.length(), file.length() < 4096);
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotASaveFile() throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        raf.write("Not a save file at all".getBytes("UTF-8"));
+        raf.close();
+
+        load();
+    }
+
+    @Test(expected = IOException.class)
+    public void testCorruptedSaveFile() throws IOException {
+        save(model);
+
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        raf.seek(file.length() / 2);
+        int value = raf.read();
+        raf.seek(file.length() / 2);
+        raf.write(value ^ 0xFF);
+        raf.close();
+
+        load();
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncatedSaveFile() throws IOException {
+        save(model);
+
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        raf.setLength(file.length() - 10);
+        raf.close();
+
+        load();
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnknownZoneName() throws IOException {
+        ByteBuffer buffer = SavedGameFormat.encode(model);
+        byte[] bytes = buffer.array();
+
+        // Rename a zone in the file, and keep its checksum right
+        byte[] zoneName = BoardZone.INFECTION_PILE.name().getBytes("UTF-8");
+        for (int i = 0; i + zoneName.length <= buffer.limit(); i++) {
+            if (Arrays.equals(zoneName, Arrays.copyOfRange(bytes, i, i + zoneName.length))) {
+                bytes[i + zoneName.length - 1] = 'X';
+            }
+        }
+        int payloadStart = 4 + 2 + 4;
+        CRC32 crc = new CRC32();
+        crc.update(bytes, payloadStart, buffer.limit() - 4 - payloadStart);
+        buffer.putInt(buffer.limit() - 4, (int) crc.getValue());
+        SavedGameFormat.writeAtomically(buffer, file);
+
+        load();
+    }
+
+    private void assertSameComponents(List<? extends PandemicObject> expected, List<? extends PandemicObject> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            PandemicObject expectedComponent = expected.get(i);
+            PandemicObject actualComponent = actual.get(i);
+            assertEquals(expectedComponent.getName(), actualComponent.getName());
+            assertEquals(expectedComponent.getType(), actualComponent.getType());
+            assertEquals(expectedComponent.getBoardZone(), actualComponent.getBoardZone());
+            assertEquals(expectedComponent.getX(), actualComponent.getX());
+            assertEquals(expectedComponent.getY(), actualComponent.getY());
+        }
+    }
+
+    private void save(PandemicModel model) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            SavedGameFormat.write(model, raf.getChannel());
+        } finally {
+            raf.close();
+        }
+    }
+
+    private PandemicModel load() throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            return SavedGameFormat.read(raf.getChannel(), resourceProvider);
+        } finally {
+            raf.close();
+        }
+    }
+}
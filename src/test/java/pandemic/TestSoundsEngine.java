@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ * <p>
+ * This file is part of PandemicSolo.
+ * <p>
+ * PandemicSolo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * PandemicSolo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pandemic.util.GenericResourceProvider;
+import pandemic.util.sounds.Sounds;
+import pandemic.util.sounds.SoundsEngine;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author manur
+ * @since v2.9
+ */
+public class TestSoundsEngine {
+
+    private final CountDownLatch playing = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private SoundsEngine engine;
+
+    @Before
+    public void setUp() {
+        // The first sound played blocks the sounds thread until released
+        engine = new SoundsEngine(new GenericResourceProvider()) {
+            @Override
+            protected void output(Sounds sound) {
+                playing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        engine.shutdown();
+    }
+
+    @Test
+    public void testIdenticalWaitingSoundsAreCoalesced() throws InterruptedException {
+        assertTrue(engine.play(Sounds.FLIP));
+        assertTrue(playing.await(5, TimeUnit.SECONDS));
+
+        assertTrue(engine.play(Sounds.COUGH1));
+        assertFalse(engine.play(Sounds.COUGH1));
+        assertFalse(engine.play(Sounds.COUGH1));
+        assertTrue(engine.play(Sounds.FLIP)); // not waiting anymore since it's playing
+
+        assertEquals(2, engine.getNbOfCoalesced());
+        assertEquals(0, engine.getNbOfDropped());
+    }
+
+    @Test
+    public void testSoundsAreDroppedWhenTheQueueIsFull() throws InterruptedException {
+        Sounds[] sounds = Sounds.values();
+        assertTrue(engine.play(sounds[0]));
+        assertTrue(playing.await(5, TimeUnit.SECONDS));
+
+        for (int i = 1; i <= SoundsEngine.QUEUE_CAPACITY; i++) {
+            assertTrue(engine.play(sounds[i]));
+        }
+        assertFalse(engine.play(sounds[SoundsEngine.QUEUE_CAPACITY + 1]));
+
+        assertEquals(1, engine.getNbOfDropped());
+        assertEquals(0, engine.getNbOfCoalesced());
+    }
+}
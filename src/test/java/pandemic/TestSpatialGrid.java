@@ -0,0 +1,75 @@
+/**
+ * Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ * <p>
+ * This file is part of PandemicSolo.
+ * <p>
+ * PandemicSolo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * PandemicSolo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic;
+
+import java.awt.Rectangle;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import pandemic.util.SpatialGrid;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author manur
+ * @since v2.9
+ */
+public class TestSpatialGrid {
+
+    private SpatialGrid<String> grid;
+
+    @Before
+    public void setUp() {
+        grid = new SpatialGrid<String>(1000, 920);
+        grid.put("cube", new Rectangle(100, 100, 13, 13));
+        grid.put("card", new Rectangle(60, 90, 100, 71)); // across several cells, under the cube
+        grid.put("deck", new Rectangle(3000, 3000, 100, 71)); // out of the area
+    }
+
+    @Test
+    public void testItemsAt() {
+        assertEquals(new HashSet<String>(Arrays.asList("cube", "card")), new HashSet<String>(grid.itemsAt(105, 105)));
+        assertEquals(Arrays.asList("card"), grid.itemsAt(150, 150));
+        assertTrue(grid.itemsAt(500, 500).isEmpty());
+        assertTrue(grid.itemsAt(3010, 3010).isEmpty());
+        assertEquals(2, grid.size());
+    }
+
+    @Test
+    public void testItemsIn() {
+        assertEquals(new HashSet<String>(Arrays.asList("cube", "card")), grid.itemsIn(new Rectangle(0, 0, 200, 200)));
+        assertEquals(new HashSet<String>(Arrays.asList("card")), grid.itemsIn(new Rectangle(150, 150, 100, 100)));
+    }
+
+    @Test
+    public void testMoveAndRemove() {
+        grid.put("cube", new Rectangle(990, 910, 13, 13)); // partly out of the area
+        assertEquals(Arrays.asList("cube"), grid.itemsAt(995, 915));
+        assertEquals(Arrays.asList("card"), grid.itemsAt(105, 105));
+        assertEquals(new Rectangle(990, 910, 13, 13), grid.getBounds("cube"));
+
+        grid.remove("card");
+        assertTrue(grid.itemsAt(105, 105).isEmpty());
+        assertNull(grid.getBounds("card"));
+        assertEquals(1, grid.size());
+    }
+}
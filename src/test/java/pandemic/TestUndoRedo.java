@@ -0,0 +1,195 @@
+/**
+ * Copyright (C) 2011 Emmanuel Bizieau <manur@manur.org>
+ * <p>
+ * This file is part of PandemicSolo.
+ * <p>
+ * PandemicSolo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * PandemicSolo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU General Public License
+ * along with PandemicSolo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package pandemic;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import pandemic.model.BoardZone;
+import pandemic.model.DifficultyLevel;
+import pandemic.model.Expansion;
+import pandemic.model.PandemicModel;
+import pandemic.model.objects.Card;
+import pandemic.model.objects.PandemicObject;
+import pandemic.model.objects.Role;
+import pandemic.util.DecksObserver;
+import pandemic.util.GameConfig;
+import pandemic.util.GenericResourceProvider;
+import pandemic.util.RolesObserver;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author manur
+ * @since v2.9
+ */
+public class TestUndoRedo {
+
+    private PandemicModel model;
+
+    @Before
+    public void setUp() {
+        GameConfig config = new GameConfig();
+        config.setDifficultyLevel(DifficultyLevel.NORMAL);
+        config.setNbOfRoles(3);
+        config.getRolesExpansions().add(Expansion.CORE);
+
+        model = new PandemicModel(config);
+        model.initialize(new GenericResourceProvider());
+    }
+
+    @Test
+    public void testUndoPlayerCard() {
+        DecksObserver observer = mock(DecksObserver.class);
+        model.registerDecksObserver(observer);
+        Card card = model.getPlayerDeck().get(0);
+        int x = card.getX();
+        int y = card.getY();
+        BoardZone zone = card.getBoardZone();
+        int nbOfPlayerCards = model.getNbOfPlayerCards();
+
+        model.drawPlayerCard();
+        // The model itself brings the card to the player card zone
+        assertEquals(648, card.getX());
+        assertEquals(418, card.getY());
+        model.undo();
+
+        assertSame(card, model.getPlayerDeck().get(0));
+        assertEquals(nbOfPlayerCards, model.getNbOfPlayerCards());
+        assertEquals(nbOfPlayerCards, model.getEngine().getPlayerDeck().size());
+        assertEquals(zone, card.getBoardZone());
+        assertEquals(x, card.getX());
+        assertEquals(y, card.getY());
+        verify(observer).playerCardReturned(card);
+
+        model.redo();
+        assertEquals(nbOfPlayerCards - 1, model.getNbOfPlayerCards());
+        assertEquals(648, card.getX());
+        assertEquals(418, card.getY());
+        verify(observer, times(2)).playerCardDrawn(card);
+    }
+
+    @Test
+    public void testUndoRedoReshuffle() {
+        for (int i = 0; i < 5; i++) {
+            model.drawInfectionCard();
+        }
+        int[] infectionDeck = model.getInfectionDeck().toArray();
+        int[] discardPile = model.getDiscardPile().toArray();
+
+        model.reshuffleInfectionCards();
+        int[] reshuffled = model.getInfectionDeck().toArray();
+        model.undo();
+
+        assertArrayEquals(infectionDeck, model.getInfectionDeck().toArray());
+        assertArrayEquals(discardPile, model.getDiscardPile().toArray());
+
+        // The random generator is back where it was : the same shuffle again
+        model.redo();
+        assertArrayEquals(reshuffled, model.getInfectionDeck().toArray());
+        assertFalse(model.canRedo());
+    }
+
+    @Test
+    public void testMultipleLevels() {
+        int[] infectionDeck = model.getInfectionDeck().toArray();
+        int[] discardPile = model.getDiscardPile().toArray();
+
+        model.drawInfectionCard();
+        model.drawBottomInfectionCard();
+        model.removeDiscardedCard(0);
+        model.rearrangeInfectionDeck(Arrays.asList(2, 1, 0, 5, 4, 3));
+        int[] finalDeck = model.getInfectionDeck().toArray();
+        int[] finalPile = model.getDiscardPile().toArray();
+
+        while (model.canUndo()) {
+            model.undo();
+        }
+        assertArrayEquals(infectionDeck, model.getInfectionDeck().toArray());
+        assertArrayEquals(discardPile, model.getDiscardPile().toArray());
+
+        while (model.canRedo()) {
+            model.redo();
+        }
+        assertArrayEquals(finalDeck, model.getInfectionDeck().toArray());
+        assertArrayEquals(finalPile, model.getDiscardPile().toArray());
+    }
+
+    @Test
+    public void testNewOperationForgetsRedo() {
+        model.drawInfectionCard();
+        model.undo();
+        assertTrue(model.canRedo());
+
+        model.drawBottomInfectionCard();
+        assertFalse(model.canRedo());
+    }
+
+    @Test
+    public void testUndoRoleChange() {
+        RolesObserver observer = mock(RolesObserver.class);
+        model.registerRolesObserver(observer);
+        Role oldRole = model.getAffectedRoles().get(1);
+        Role newRole = model.getAllRoles().get(model.getNbOfRoles());
+
+        model.changeRole(1, newRole);
+        model.undo();
+
+        assertSame(oldRole, model.getAffectedRoles().get(1));
+        assertEquals(Integer.valueOf(oldRole.getId()), model.getEngine().getAffectedRoles().get(1));
+        verify(observer, times(2)).roleWillChange(1);
+        verify(observer, times(2)).roleHasChanged(1);
+        verify(observer, never()).roleHasChanged(0);
+    }
+
+    @Test
+    public void testUndoMove() {
+        PandemicObject counter = model.getCountersLibrary().get(0);
+        int x = counter.getX();
+        int y = counter.getY();
+        counter.setX(x + 10);
+        counter.setY(y + 20);
+        model.componentMoved(counter, x, y, x + 10, y + 20);
+
+        model.undo();
+        assertEquals(x, counter.getX());
+        assertEquals(y, counter.getY());
+
+        model.redo();
+        assertEquals(x + 10, counter.getX());
+        assertEquals(y + 20, counter.getY());
+    }
+
+    @Test
+    public void testJournalReplaysUndo() {
+        model.drawInfectionCard();
+        model.reshuffleInfectionCards();
+        model.undo();
+        model.drawInfectionCard();
+        model.undo();
+        model.redo();
+
+        assertArrayEquals(model.getInfectionDeck().toArray(),
+                model.getEngine().getJournal().replay(model.getEngine().getCatalog()).getInfectionDeck().toArray());
+        assertEquals(6, model.getEngine().getJournal().getNbOfOperations());
+    }
+}